@@ -0,0 +1,78 @@
+package org.receiptrecipe.backend.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 자동완성: 접두사 트라이 조회와 전체 이름을 startsWith로 훑는 방식 비교 (이름 10만 개, 상위 10개)
+ * 실행: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PrefixTrieBenchmark {
+
+    private static final int NAMES = 100_000;
+    private static final int LIMIT = 10;
+    private static final String SYLLABLES = "김치찌개된장볶음밥전국수라면불고기갈비탕죽떡만두튀김조림무침샐러드";
+
+    private PrefixTrie trie;
+    private String[] names;
+    private long[] weights;
+    private String[] prefixes;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        trie = new PrefixTrie(LIMIT);
+        names = new String[NAMES];
+        weights = new long[NAMES];
+        for (int i = 0; i < NAMES; i++) {
+            StringBuilder name = new StringBuilder();
+            for (int k = 0; k < 2 + random.nextInt(6); k++) {
+                name.append(SYLLABLES.charAt(random.nextInt(SYLLABLES.length())));
+            }
+            names[i] = name.toString();
+            // 인기도는 소수 항목에 몰리도록
+            weights[i] = 1 + (long) (1000 * Math.pow(random.nextDouble(), 8));
+            trie.add(names[i], weights[i]);
+        }
+        prefixes = new String[1000];
+        for (int i = 0; i < prefixes.length; i++) {
+            String name = names[random.nextInt(NAMES)];
+            prefixes[i] = name.substring(0, 1 + random.nextInt(Math.min(3, name.length())));
+        }
+    }
+
+    @Benchmark
+    public List<PrefixTrie.Completion> trie() {
+        return trie.complete(prefixes[next++ % prefixes.length], LIMIT);
+    }
+
+    @Benchmark
+    public long scan() {
+        String prefix = prefixes[next++ % prefixes.length];
+        long[] top = new long[LIMIT];
+        for (int i = 0; i < NAMES; i++) {
+            if (names[i].startsWith(prefix) && weights[i] > top[LIMIT - 1]) {
+                int position = LIMIT - 1;
+                while (position > 0 && top[position - 1] < weights[i]) {
+                    top[position] = top[position - 1];
+                    position--;
+                }
+                top[position] = weights[i];
+            }
+        }
+        return top[0];
+    }
+}
@@ -0,0 +1,169 @@
+package org.receiptrecipe.backend.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 기존 정규식 기반 parseReceiptTextBasic 과 ReceiptTextParser 비교
+ * 실행: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ReceiptTextParserBenchmark {
+
+    private static final String[] STORES = {"이마트 성수점", "홈플러스 강서점", "GS25 역삼점", "CU 신촌점", "롯데마트 잠실점", "코스트코 양재점"};
+    private static final String[] PRODUCTS = {"양파", "대파", "우유 1L", "계란 30구", "돼지고기 삼겹살", "두부", "김치", "라면 5입", "사과", "콜라 1.5L", "바나나", "쌀 10kg"};
+
+    private List<String> corpus;
+    private ReceiptTextParser parser;
+
+    @Setup
+    public void setUp() {
+        parser = new ReceiptTextParser();
+        corpus = new ArrayList<>();
+        Random random = new Random(42);
+        for (int r = 0; r < 200; r++) {
+            StringBuilder receipt = new StringBuilder();
+            receipt.append(STORES[random.nextInt(STORES.length)]).append('\n');
+            receipt.append("주소: 서울시 어딘가 123\n");
+            receipt.append("전화: 02-123-4567\n");
+            receipt.append("2024-0").append(1 + random.nextInt(9)).append("-1").append(random.nextInt(10)).append(" 12:34\n");
+            int total = 0;
+            int itemCount = 3 + random.nextInt(20);
+            for (int i = 0; i < itemCount; i++) {
+                int price = (1 + random.nextInt(300)) * 100;
+                total += price;
+                receipt.append(PRODUCTS[random.nextInt(PRODUCTS.length)]).append("  1  ")
+                        .append(String.format("%,d", price)).append("원\n");
+            }
+            receipt.append("합계 ").append(String.format("%,d", total)).append("원\n");
+            receipt.append("카드결제 ").append(String.format("%,d", total)).append("원\n");
+            corpus.add(receipt.toString());
+        }
+    }
+
+    @Benchmark
+    public void legacyRegexParser(Blackhole blackhole) {
+        for (String text : corpus) {
+            blackhole.consume(LegacyParser.parse(text));
+        }
+    }
+
+    @Benchmark
+    public void singlePassParser(Blackhole blackhole) {
+        for (String text : corpus) {
+            blackhole.consume(parser.parse(text));
+        }
+    }
+
+    @Benchmark
+    public void singlePassParserToMap(Blackhole blackhole) {
+        for (String text : corpus) {
+            blackhole.consume(ReceiptTextParser.toMap(parser.parse(text)));
+        }
+    }
+
+    /**
+     * 교체 전 GeminiService.parseReceiptTextBasic 구현 (비교용 사본)
+     */
+    static class LegacyParser {
+
+        static Map<String, Object> parse(String ocrText) {
+            Map<String, Object> result = new HashMap<>();
+            List<Map<String, Object>> items = new ArrayList<>();
+
+            result.put("storeName", "Unknown Store");
+            result.put("purchaseDate", java.time.LocalDate.now().toString());
+            result.put("totalAmount", 0.0);
+
+            String[] lines = ocrText.split("\n");
+            boolean foundStoreName = false;
+
+            for (String line : lines) {
+                line = line.trim();
+                if (line.isEmpty()) continue;
+
+                if (!foundStoreName && line.length() > 3 && line.length() < 50 &&
+                    !line.matches(".*\\d{4}-\\d{2}-\\d{2}.*") &&
+                    !line.matches(".*\\d+[,.]?\\d*원.*") &&
+                    !line.contains("영수증") && !line.contains("매장")) {
+                    result.put("storeName", line);
+                    foundStoreName = true;
+                    continue;
+                }
+
+                if (line.contains("총") || line.contains("합계") || line.contains("total") ||
+                    line.contains("총액") || line.contains("결제")) {
+                    String amountStr = line.replaceAll("[^\\d,.]", "");
+                    if (!amountStr.isEmpty()) {
+                        try {
+                            double amount = Double.parseDouble(amountStr.replace(",", ""));
+                            result.put("totalAmount", amount);
+                        } catch (NumberFormatException e) {
+                            // 무시
+                        }
+                    }
+                    continue;
+                }
+
+                if (line.matches(".*\\d+[,.]?\\d*원.*") && line.length() > 3) {
+                    String[] parts = line.split("\\s+");
+                    StringBuilder itemName = new StringBuilder();
+                    double price = 0.0;
+
+                    for (String part : parts) {
+                        if (part.matches(".*\\d+[,.]?\\d*원.*")) {
+                            String priceStr = part.replaceAll("[^\\d,.]", "");
+                            if (!priceStr.isEmpty()) {
+                                try {
+                                    price = Double.parseDouble(priceStr.replace(",", ""));
+                                } catch (NumberFormatException e) {
+                                    // 무시
+                                }
+                            }
+                        } else if (!part.isEmpty()) {
+                            if (itemName.length() > 0) itemName.append(" ");
+                            itemName.append(part);
+                        }
+                    }
+
+                    if (itemName.length() > 0 && price > 0) {
+                        Map<String, Object> item = new HashMap<>();
+                        item.put("name", itemName.toString());
+                        item.put("quantity", 1);
+                        item.put("unitPrice", price);
+                        item.put("totalPrice", price);
+                        items.add(item);
+                    }
+                } else if (line.length() > 2 && line.length() < 50 &&
+                          !line.matches(".*\\d{4}-\\d{2}-\\d{2}.*") &&
+                          !line.contains("영수증") && !line.contains("매장") &&
+                          !line.contains("주소") && !line.contains("전화")) {
+                    Map<String, Object> item = new HashMap<>();
+                    item.put("name", line);
+                    item.put("quantity", 1);
+                    item.put("unitPrice", 0.0);
+                    item.put("totalPrice", 0.0);
+                    items.add(item);
+                }
+            }
+
+            result.put("items", items);
+            return result;
+        }
+    }
+}
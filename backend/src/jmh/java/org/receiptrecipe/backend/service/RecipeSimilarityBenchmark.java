@@ -0,0 +1,91 @@
+package org.receiptrecipe.backend.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 비슷한 레시피 조회: MinHash/LSH 색인과 전체 Jaccard 계산 비교 (레시피 10만 개)
+ * 끝날 때 전체 계산 대비 LSH 상위 10개의 재현율(recall@10, Jaccard 0.5 이상)을 출력한다.
+ * 실행: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RecipeSimilarityBenchmark {
+
+    private static final int BASE_RECIPES = 20_000;
+    private static final int VARIANTS = 4;
+    private static final int INGREDIENTS = 2_000;
+    private static final double MIN_SIMILARITY = 0.5;
+
+    private MinHashLsh lsh;
+    private long recipeCount;
+    private long[] queries;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        lsh = new MinHashLsh(32, 3, 2000, 42L);
+        long id = 0;
+        for (int base = 0; base < BASE_RECIPES; base++) {
+            int[] ingredients = new int[5 + random.nextInt(12)];
+            for (int k = 0; k < ingredients.length; k++) {
+                // 소금/간장처럼 흔한 재료가 많이 나오도록 앞쪽 번호에 치우치게
+                ingredients[k] = (int) (INGREDIENTS * Math.pow(random.nextDouble(), 2));
+            }
+            lsh.put(++id, ingredients);
+            for (int variant = 0; variant < VARIANTS; variant++) {
+                int[] changed = ingredients.clone();
+                for (int k = 0; k <= random.nextInt(3); k++) {
+                    changed[random.nextInt(changed.length)] = random.nextInt(INGREDIENTS);
+                }
+                lsh.put(++id, changed);
+            }
+        }
+        recipeCount = id;
+        queries = new long[1000];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = 1 + (long) random.nextInt((int) recipeCount);
+        }
+    }
+
+    @Benchmark
+    public List<MinHashLsh.Candidate> lshSimilar() {
+        return lsh.similar(queries[next++ % queries.length], 10, MIN_SIMILARITY);
+    }
+
+    @Benchmark
+    public List<MinHashLsh.Candidate> exactJaccardScan() {
+        return lsh.exactSimilar(queries[next++ % queries.length], 10, MIN_SIMILARITY);
+    }
+
+    @TearDown(Level.Trial)
+    public void reportRecall() {
+        int expected = 0;
+        int found = 0;
+        for (int i = 0; i < 200; i++) {
+            List<Long> approximate = lsh.similar(queries[i], 10, MIN_SIMILARITY).stream()
+                    .map(MinHashLsh.Candidate::getId).toList();
+            for (MinHashLsh.Candidate exact : lsh.exactSimilar(queries[i], 10, MIN_SIMILARITY)) {
+                expected++;
+                if (approximate.contains(exact.getId())) {
+                    found++;
+                }
+            }
+        }
+        System.out.printf("recall@10 (Jaccard >= %.1f, 레시피 %d개): %d/%d = %.3f%n",
+                MIN_SIMILARITY, recipeCount, found, expected, expected == 0 ? 1.0 : (double) found / expected);
+    }
+}
@@ -0,0 +1,12 @@
+package org.receiptrecipe.backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * @Scheduled 작업 활성화 (유통기한 알림, 레시피 추천 야간 재구축 등)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
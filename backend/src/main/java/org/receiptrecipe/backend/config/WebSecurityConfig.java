@@ -90,6 +90,7 @@ public class WebSecurityConfig {
                 .requestMatchers("/api/tags/**").permitAll()
                 .requestMatchers("/api/comments/**").permitAll()
                 .requestMatchers("/api/sql/**").permitAll()
+                .requestMatchers("/api/suggest/**").permitAll()
                 .requestMatchers("/api/community-new/**").permitAll()
                 .anyRequest().authenticated()
             );
@@ -1,6 +1,7 @@
 package org.receiptrecipe.backend.controller;
 
 import org.receiptrecipe.backend.dto.CommentRequest;
+import org.receiptrecipe.backend.dto.CursorPage;
 import org.receiptrecipe.backend.dto.PostRequest;
 import org.receiptrecipe.backend.dto.PostResponse;
 import org.receiptrecipe.backend.entity.Comment;
@@ -46,6 +47,22 @@ public class CommunityController {
         }
     }
     
+    // 커서 페이지네이션 (무한 스크롤용, 첫 요청은 cursor 없이)
+    @GetMapping("/posts/cursor")
+    public ResponseEntity<?> getPostsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        try {
+            int pageSize = Math.max(1, Math.min(size, 100));
+            CursorPage<PostResponse> posts = communityService.getPostsByCursor(cursor, pageSize).map(PostResponse::from);
+            return ResponseEntity.ok(posts);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "게시글을 불러오는데 실패했습니다: " + e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
     @GetMapping("/posts/search")
     public ResponseEntity<?> searchPosts(
             @RequestParam String keyword,
@@ -1,5 +1,7 @@
 package org.receiptrecipe.backend.controller;
 
+import org.receiptrecipe.backend.dto.CursorPage;
+import org.receiptrecipe.backend.dto.PageCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -8,6 +10,7 @@ import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -100,4 +103,68 @@ public class CommunityNewController {
             return ResponseEntity.badRequest().body(error);
         }
     }
+
+    // 커서 페이지네이션 (created_at, id 기준으로 이어서 조회, COUNT 쿼리 없음)
+    @GetMapping("/posts/cursor")
+    public ResponseEntity<?> getPostsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        try {
+            PageCursor position = PageCursor.decode(cursor);
+            int pageSize = Math.max(1, Math.min(size, 100));
+            List<Map<String, Object>> posts = new ArrayList<>();
+
+            String sql = "SELECT p.id, p.title, p.content, p.created_at, p.updated_at, " +
+                        "p.view_count, p.like_count, p.comment_count, p.status, " +
+                        "u.display_name as author_name, u.avatar_url as author_avatar " +
+                        "FROM posts p " +
+                        "JOIN users u ON p.author_id = u.id " +
+                        // created_at이 NULL인 행은 커서를 만들 수 없으므로 목록에서 제외 (엔티티로 저장하면 항상 채워짐)
+                        "WHERE p.status = 'PUBLISHED' AND p.created_at IS NOT NULL " +
+                        (position != null ? "AND (p.created_at < ? OR (p.created_at = ? AND p.id < ?)) " : "") +
+                        "ORDER BY p.created_at DESC, p.id DESC " +
+                        "LIMIT ?";
+
+            try (Connection conn = dataSource.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                int index = 1;
+                if (position != null) {
+                    Timestamp createdAt = Timestamp.valueOf(position.getCreatedAt());
+                    stmt.setTimestamp(index++, createdAt);
+                    stmt.setTimestamp(index++, createdAt);
+                    stmt.setLong(index++, position.getId());
+                }
+                // 다음 페이지 유무 확인용으로 한 개 더 조회
+                stmt.setInt(index, pageSize + 1);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        Map<String, Object> post = new HashMap<>();
+                        post.put("id", rs.getLong("id"));
+                        post.put("title", rs.getString("title"));
+                        post.put("content", rs.getString("content"));
+                        post.put("createdAt", rs.getTimestamp("created_at"));
+                        post.put("updatedAt", rs.getTimestamp("updated_at"));
+                        post.put("viewCount", rs.getInt("view_count"));
+                        post.put("likeCount", rs.getInt("like_count"));
+                        post.put("commentCount", rs.getInt("comment_count"));
+                        post.put("status", rs.getString("status"));
+                        post.put("authorName", rs.getString("author_name"));
+                        post.put("authorAvatarUrl", rs.getString("author_avatar"));
+
+                        posts.add(post);
+                    }
+                }
+            }
+
+            return ResponseEntity.ok(CursorPage.of(posts, pageSize, post -> new PageCursor(
+                    ((Timestamp) post.get("createdAt")).toLocalDateTime(), (Long) post.get("id"))));
+
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "게시글을 불러오는데 실패했습니다: " + e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
 }
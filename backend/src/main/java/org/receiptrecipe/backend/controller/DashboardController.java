@@ -3,6 +3,7 @@ package org.receiptrecipe.backend.controller;
 import org.receiptrecipe.backend.entity.Recipe;
 import org.receiptrecipe.backend.service.DashboardService;
 import org.receiptrecipe.backend.service.NotificationService;
+import org.receiptrecipe.backend.service.RecipeMatchIndex;
 import org.receiptrecipe.backend.entity.IngredientExpiry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -40,6 +41,14 @@ public class DashboardController {
         return ResponseEntity.ok(recommendations);
     }
     
+    @GetMapping("/cookable/{userId}")
+    public ResponseEntity<List<RecipeMatchIndex.Match>> getCookableRecipes(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "20") int limit) {
+        List<RecipeMatchIndex.Match> matches = dashboardService.getCookableRecipes(userId, Math.min(Math.max(limit, 1), 100));
+        return ResponseEntity.ok(matches);
+    }
+    
     @GetMapping("/notifications/expiring/{userId}")
     public ResponseEntity<List<IngredientExpiry>> getExpiringIngredients(
             @PathVariable Long userId, 
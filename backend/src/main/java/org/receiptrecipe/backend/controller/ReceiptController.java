@@ -1,27 +1,55 @@
 package org.receiptrecipe.backend.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.receiptrecipe.backend.dto.ReceiptIngestionJob;
+import org.receiptrecipe.backend.dto.ReceiptSummary;
 import org.receiptrecipe.backend.entity.Receipt;
 import org.receiptrecipe.backend.entity.User;
 import org.receiptrecipe.backend.service.ReceiptService;
 import org.receiptrecipe.backend.service.GeminiService;
+import org.receiptrecipe.backend.service.ReceiptIngestionPipeline;
+import org.receiptrecipe.backend.service.ReceiptBulkImporter;
+import org.receiptrecipe.backend.service.ReceiptImageStore;
+import org.receiptrecipe.backend.service.ReceiptItemReclassifier;
+import org.receiptrecipe.backend.service.ReceiptResultCache;
+import org.receiptrecipe.backend.service.ReceiptSearchIndex;
+import org.receiptrecipe.backend.service.ReceiptThumbnailService;
 import org.receiptrecipe.backend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.NoSuchFileException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -31,13 +59,39 @@ public class ReceiptController {
     @Autowired
     private ReceiptService receiptService;
 
+    // Spring Boot 기본 애플리케이션 실행기 (비동기 응답의 후속 처리용)
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor applicationTaskExecutor;
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
     private GeminiService geminiService;
 
-    // 영수증 업로드
+    @Autowired
+    private ReceiptIngestionPipeline ingestionPipeline;
+
+    @Autowired
+    private ReceiptBulkImporter bulkImporter;
+
+    @Autowired
+    private ReceiptImageStore receiptImageStore;
+
+    @Autowired
+    private ReceiptThumbnailService thumbnailService;
+
+    @Autowired
+    private ReceiptSearchIndex searchIndex;
+
+    @Autowired
+    private ReceiptItemReclassifier itemReclassifier;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // 영수증 업로드 (파일 저장 후 202 + 작업 ID 반환, OCR/파싱/저장은 비동기 처리)
     @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<?> uploadReceipt(@RequestParam("file") MultipartFile file) {
         try {
@@ -58,16 +112,22 @@ public class ReceiptController {
                     .orElseThrow(() -> new RuntimeException("기본 사용자를 찾을 수 없습니다."));
             }
 
-            // 파일 저장 및 영수증 생성
-            Receipt receipt = receiptService.uploadReceipt(file, currentUser);
+            // 파일 저장 및 처리 작업 등록
+            ReceiptIngestionJob job = ingestionPipeline.submit(file, currentUser);
 
             Map<String, Object> response = new HashMap<>();
-            response.put("receiptId", receipt.getId());
-            response.put("message", "영수증이 성공적으로 업로드되었습니다!");
+            response.put("jobId", job.getId());
+            response.put("status", job.getStatus());
+            response.put("statusUrl", "/api/receipts/jobs/" + job.getId());
+            response.put("message", "영수증이 업로드되었습니다. 분석이 진행 중입니다.");
             response.put("success", true);
 
-            return ResponseEntity.ok(response);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
 
+        } catch (RejectedExecutionException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "영수증 처리 요청이 많습니다. 잠시 후 다시 시도해주세요.");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
         } catch (Exception e) {
             e.printStackTrace();
             Map<String, String> errorResponse = new HashMap<>();
@@ -76,7 +136,65 @@ public class ReceiptController {
         }
     }
 
-    // 모든 영수증 조회 (페이지네이션)
+    // 영수증 처리 작업 상태 조회 (본인 작업만, 아니면 404)
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<?> getIngestionJob(@PathVariable String jobId) {
+        Optional<ReceiptIngestionJob> job = ingestionPipeline.getJob(jobId, currentUserOrDefault());
+        if (job.isPresent()) {
+            return ResponseEntity.ok(job.get());
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // 영수증 일괄 가져오기 (zip 스트림) - 항목별 진행 상황을 NDJSON으로 전송
+    @PostMapping(value = "/bulk", consumes = {"application/zip", "application/x-zip-compressed", MediaType.APPLICATION_OCTET_STREAM_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> bulkImportZip(HttpServletRequest request) {
+        User currentUser = currentUserOrDefault();
+        StreamingResponseBody body = out -> bulkImporter.importZip(request.getInputStream(), currentUser, ndjsonWriter(out));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    // 영수증 일괄 가져오기 (여러 파일 multipart)
+    // multipart는 서블릿 컨테이너가 요청 전체를 임시 파일로 받은 뒤 호출되므로 스트리밍되지 않는다.
+    // 파일이 많으면 zip 업로드(위)를 사용 (응답 진행 상황은 두 방식 모두 NDJSON으로 바로 전송)
+    @PostMapping(value = "/bulk", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> bulkImportFiles(@RequestParam("files") List<MultipartFile> files) {
+        User currentUser = currentUserOrDefault();
+        StreamingResponseBody body = out -> bulkImporter.importFiles(files, currentUser, ndjsonWriter(out));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    // 진행 상황 한 건을 JSON 한 줄로 바로 내보냄 (작업 스레드 여러 곳에서 호출됨)
+    private Consumer<Map<String, Object>> ndjsonWriter(OutputStream out) {
+        return event -> {
+            synchronized (out) {
+                try {
+                    out.write(objectMapper.writeValueAsBytes(event));
+                    out.write('\n');
+                    out.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    // 현재 로그인한 사용자 (인증이 없으면 기본 사용자)
+    private User currentUserOrDefault() {
+        try {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            String username = authentication.getName();
+            return userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("사용자를 찾을 수 없습니다."));
+        } catch (Exception e) {
+            return userRepository.findByUsername("testuser")
+                .orElseThrow(() -> new RuntimeException("기본 사용자를 찾을 수 없습니다."));
+        }
+    }
+
+    // 모든 영수증 조회 (페이지네이션, 목록용 요약만 반환 - 전체 내용은 GET /{id})
     @GetMapping
     public ResponseEntity<?> getReceipts(
             @RequestParam(defaultValue = "0") int page,
@@ -89,7 +207,7 @@ public class ReceiptController {
                 .orElseThrow(() -> new RuntimeException("기본 사용자를 찾을 수 없습니다."));
 
             Pageable pageable = PageRequest.of(page, size);
-            Page<Receipt> receipts = receiptService.getReceiptsByUser(currentUser, pageable, storeName, searchTerm);
+            Page<ReceiptSummary> receipts = receiptService.getReceiptSummariesByUser(currentUser, pageable, storeName, searchTerm);
 
             Map<String, Object> response = new HashMap<>();
             response.put("content", receipts.getContent());
@@ -108,6 +226,79 @@ public class ReceiptController {
         }
     }
 
+    // 영수증 목록 커서 페이지네이션 (무한 스크롤용, 첫 요청은 cursor 없이)
+    @GetMapping("/cursor")
+    public ResponseEntity<?> getReceiptsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            User currentUser = currentUserOrDefault();
+            int pageSize = Math.max(1, Math.min(size, 100));
+            return ResponseEntity.ok(receiptService.getReceiptSummariesByCursor(currentUser, cursor, pageSize));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        } catch (Exception e) {
+            e.printStackTrace();
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "영수증 조회 중 오류가 발생했습니다: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    // 영수증 전문 검색 (매장명/OCR 텍스트/상품명, 관련도 순 영수증 id)
+    @GetMapping("/search")
+    public ResponseEntity<?> searchReceipts(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "20") int limit) {
+        User currentUser = currentUserOrDefault();
+        long start = System.nanoTime();
+        List<ReceiptSearchIndex.Hit> hits = searchIndex.search(currentUser.getId(), query, Math.max(1, Math.min(limit, 100)));
+
+        List<Map<String, Object>> results = new ArrayList<>(hits.size());
+        for (ReceiptSearchIndex.Hit hit : hits) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("receiptId", hit.getReceiptId());
+            result.put("score", hit.getScore());
+            results.add(result);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("query", query);
+        response.put("results", results);
+        // 시작 직후 색인 생성이 끝나기 전에는 일부 결과만 나올 수 있음
+        response.put("indexReady", searchIndex.isReady());
+        response.put("tookMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return ResponseEntity.ok(response);
+    }
+
+    // 저장된 전체 상품을 현재 재료 사전으로 재분류 (사전 수정 후 실행, 끝날 때까지 요청 스레드는 잡지 않음)
+    @PostMapping("/items/reclassify")
+    public CompletableFuture<ResponseEntity<?>> reclassifyItems() {
+        if (itemReclassifier.isRunning()) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "재분류 작업이 이미 실행 중입니다.")));
+        }
+        return CompletableFuture.<ResponseEntity<?>>supplyAsync(() -> {
+            ReceiptItemReclassifier.Result result = itemReclassifier.reclassifyAll();
+            Map<String, Object> response = new HashMap<>();
+            response.put("scanned", result.getScanned());
+            response.put("updated", result.getUpdated());
+            response.put("tookMs", result.getTookMs());
+            return ResponseEntity.ok(response);
+        }, applicationTaskExecutor).exceptionally(e -> {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof IllegalStateException) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", cause.getMessage()));
+            }
+            cause.printStackTrace();
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "상품 재분류 중 오류가 발생했습니다: " + cause.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        });
+    }
+
     // 특정 영수증 조회
     @GetMapping("/{id}")
     public ResponseEntity<?> getReceipt(@PathVariable Long id) {
@@ -132,6 +323,66 @@ public class ReceiptController {
         }
     }
 
+    // 영수증 이미지 (ETag = 내용 해시, Range 요청 지원, 내용이 바뀌지 않으므로 장기 캐시)
+    // size=thumb|medium 이면 축소 이미지 (만들 수 없으면 원본을 캐시하지 않고 보냄)
+    // 축소 이미지 생성을 기다리는 동안 요청 스레드를 잡지 않도록 비동기로 응답
+    @GetMapping("/{id}/image")
+    public CompletableFuture<ResponseEntity<Resource>> getReceiptImage(@PathVariable Long id,
+                                                                       @RequestParam(required = false) String size,
+                                                                       WebRequest webRequest) {
+        User currentUser = currentUserOrDefault();
+        Optional<Receipt> receipt = receiptService.getReceiptById(id, currentUser);
+        if (receipt.isEmpty() || receipt.get().getImageUrl() == null) {
+            return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
+        }
+
+        String key = receipt.get().getImageUrl();
+        String contentHash = ReceiptResultCache.contentHashOf(key);
+        CacheControl cacheControl = CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable();
+
+        Optional<ReceiptThumbnailService.Size> variantSize = ReceiptThumbnailService.Size.fromParam(size);
+        if (variantSize.isPresent()) {
+            String variantEtag = "\"" + contentHash + "-" + variantSize.get().getName() + "\"";
+            if (webRequest.checkNotModified(variantEtag)) {
+                return CompletableFuture.completedFuture(
+                        ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(variantEtag).cacheControl(cacheControl).build());
+            }
+            // 원본으로 대신 응답할 때는 다음 요청에서 축소 이미지를 다시 시도하도록 캐시하지 않음
+            return thumbnailService.getVariant(receipt.get(), variantSize.get())
+                    .thenApplyAsync(variantKey -> variantKey.isPresent()
+                            ? imageResponse(variantKey.get(), variantEtag, cacheControl)
+                            : imageResponse(key, null, CacheControl.noCache()), applicationTaskExecutor);
+        }
+
+        String etag = "\"" + contentHash + "\"";
+        // If-None-Match가 일치하면 저장소를 열지 않고 304
+        if (webRequest.checkNotModified(etag)) {
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build());
+        }
+        return CompletableFuture.completedFuture(imageResponse(key, etag, cacheControl));
+    }
+
+    private ResponseEntity<Resource> imageResponse(String key, String etag, CacheControl cacheControl) {
+        try {
+            Resource image = receiptImageStore.asResource(key);
+            // Range 헤더가 있으면 Spring이 요청 구간만 206으로 전송
+            ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                    .cacheControl(cacheControl)
+                    .contentType(MediaTypeFactory.getMediaType(key).orElse(MediaType.APPLICATION_OCTET_STREAM));
+            if (etag != null) {
+                builder.eTag(etag);
+            }
+            return builder.body(image);
+        } catch (NoSuchFileException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IOException e) {
+            System.err.println("영수증 이미지 조회 실패: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+
     // 영수증 수정
     @PutMapping("/{id}")
     public ResponseEntity<?> updateReceipt(@PathVariable Long id, @RequestBody Receipt receiptDetails) {
@@ -220,9 +471,9 @@ public class ReceiptController {
         }
     }
 
-    // OCR 텍스트를 Gemini로 처리
+    // OCR 텍스트를 Gemini로 처리 (Gemini 응답을 기다리는 동안 요청 스레드를 점유하지 않음)
     @PostMapping("/process/{receiptId}")
-    public ResponseEntity<?> processReceiptWithGemini(@PathVariable Long receiptId) {
+    public CompletableFuture<ResponseEntity<?>> processReceiptWithGemini(@PathVariable Long receiptId) {
         try {
             // 현재 로그인한 사용자 정보 가져오기 (인증이 없으면 기본 사용자 사용)
             User currentUser;
@@ -239,42 +490,85 @@ public class ReceiptController {
 
             Optional<Receipt> receiptOptional = receiptService.getReceiptById(receiptId, currentUser);
             if (receiptOptional.isEmpty()) {
-                return ResponseEntity.notFound().build();
+                return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
             }
 
             Receipt receipt = receiptOptional.get();
             if (receipt.getRawOcrText() == null || receipt.getRawOcrText().trim().isEmpty()) {
                 Map<String, String> errorResponse = new HashMap<>();
                 errorResponse.put("error", "OCR 텍스트가 없습니다.");
-                return ResponseEntity.badRequest().body(errorResponse);
+                return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(errorResponse));
+            }
+
+            // Gemini로 텍스트 재처리 (응답은 gemini-http 스레드에서 오므로 DB 반영은 애플리케이션 실행기로 넘긴다)
+            User owner = currentUser;
+            return geminiService.processReceiptTextAsync(receipt.getRawOcrText())
+                    .<ResponseEntity<?>>thenApplyAsync(parsedData -> applyParsedData(receiptId, owner, parsedData), applicationTaskExecutor)
+                    .exceptionally(e -> {
+                        e.printStackTrace();
+                        Map<String, String> errorResponse = new HashMap<>();
+                        errorResponse.put("error", "영수증 처리 중 오류가 발생했습니다: " + e.getMessage());
+                        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+                    });
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "영수증 처리 중 오류가 발생했습니다: " + e.getMessage());
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse));
+        }
+    }
+
+    private ResponseEntity<?> applyParsedData(Long receiptId, User currentUser, Map<String, Object> parsedData) {
+        try {
+            Optional<Map<String, Object>> response = receiptService.applyParsedData(receiptId, currentUser, parsedData);
+            if (response.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            response.get().put("message", "영수증이 성공적으로 처리되었습니다!");
+            return ResponseEntity.ok(response.get());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // 여러 영수증을 Gemini로 일괄 재처리 (배치 프롬프트로 묶어서 호출)
+    @PostMapping("/process/bulk")
+    public ResponseEntity<?> processReceiptsWithGemini(@RequestBody Map<String, List<Long>> request) {
+        try {
+            List<Long> receiptIds = request.get("receiptIds");
+            if (receiptIds == null || receiptIds.isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "receiptIds가 비어있습니다."));
             }
 
-            // Gemini로 텍스트 재처리
-            Map<String, Object> parsedData = geminiService.processReceiptText(receipt.getRawOcrText());
-            
-            // 영수증 정보 업데이트
-            String storeName = (String) parsedData.getOrDefault("storeName", receipt.getStoreName());
-            Double totalAmount = ((Number) parsedData.getOrDefault("totalAmount", receipt.getTotalAmount())).doubleValue();
-            
-            receipt.setStoreName(storeName);
-            receipt.setTotalAmount(totalAmount);
-            receipt.setProcessedData(parsedData.toString());
-            receipt.setUpdatedAt(LocalDateTime.now());
+            // 현재 로그인한 사용자 정보 가져오기 (인증이 없으면 기본 사용자 사용)
+            User currentUser;
+            try {
+                Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+                String username = authentication.getName();
+                currentUser = userRepository.findByUsername(username)
+                    .orElseThrow(() -> new RuntimeException("사용자를 찾을 수 없습니다."));
+            } catch (Exception e) {
+                // 인증이 없으면 기본 사용자 사용
+                currentUser = userRepository.findByUsername("testuser")
+                    .orElseThrow(() -> new RuntimeException("기본 사용자를 찾을 수 없습니다."));
+            }
 
-            Receipt updatedReceipt = receiptService.updateReceipt(receiptId, receipt, currentUser).orElse(receipt);
+            List<Receipt> updatedReceipts = receiptService.reprocessReceipts(receiptIds, currentUser);
 
             Map<String, Object> response = new HashMap<>();
-            response.put("message", "영수증이 성공적으로 처리되었습니다!");
-            response.put("receipt", updatedReceipt);
-            response.put("parsedData", parsedData);
-            response.put("rawText", receipt.getRawOcrText());
+            response.put("message", updatedReceipts.size() + "개의 영수증이 처리되었습니다.");
+            response.put("requested", receiptIds.size());
+            response.put("processed", updatedReceipts.size());
+            response.put("receipts", receiptService.getReceiptSummaries(updatedReceipts));
 
             return ResponseEntity.ok(response);
 
         } catch (Exception e) {
             e.printStackTrace();
             Map<String, String> errorResponse = new HashMap<>();
-            errorResponse.put("error", "영수증 처리 중 오류가 발생했습니다: " + e.getMessage());
+            errorResponse.put("error", "영수증 일괄 처리 중 오류가 발생했습니다: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
         }
     }
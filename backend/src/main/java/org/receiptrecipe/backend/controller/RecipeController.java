@@ -2,6 +2,7 @@ package org.receiptrecipe.backend.controller;
 
 import org.receiptrecipe.backend.entity.Recipe;
 import org.receiptrecipe.backend.service.RecipeService;
+import org.receiptrecipe.backend.service.RecipeSimilarityIndex;
 import org.receiptrecipe.backend.service.SpoonacularService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -23,6 +24,9 @@ public class RecipeController {
     @Autowired
     private SpoonacularService spoonacularService;
     
+    @Autowired
+    private RecipeSimilarityIndex recipeSimilarityIndex;
+    
     @GetMapping
     public ResponseEntity<Page<Recipe>> getAllRecipes(
             @RequestParam(defaultValue = "0") int page,
@@ -52,6 +56,14 @@ public class RecipeController {
         }
     }
     
+    // 재료 구성이 비슷한 레시피 (메모리 MinHash/LSH 색인)
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<List<RecipeSimilarityIndex.Similar>> getSimilarRecipes(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(recipeSimilarityIndex.similar(id, Math.min(Math.max(limit, 1), 50)));
+    }
+    
     @PostMapping
     public ResponseEntity<Recipe> createRecipe(@RequestBody Recipe recipe) {
         try {
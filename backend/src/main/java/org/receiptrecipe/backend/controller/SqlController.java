@@ -1,6 +1,11 @@
 package org.receiptrecipe.backend.controller;
 
+import org.receiptrecipe.backend.dto.CursorPage;
+import org.receiptrecipe.backend.dto.PageCursor;
+import org.receiptrecipe.backend.service.IngredientClassifier;
+import org.receiptrecipe.backend.service.RecipeSearchIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -8,7 +13,10 @@ import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -21,6 +29,12 @@ public class SqlController {
     @Autowired
     private DataSource dataSource;
 
+    @Autowired
+    private IngredientClassifier ingredientClassifier;
+
+    @Autowired
+    private RecipeSearchIndex recipeSearchIndex;
+
     // 1. 모든 레시피 조회 (SQL)
     @GetMapping("/recipes")
     public ResponseEntity<?> getAllRecipes(
@@ -31,6 +45,7 @@ public class SqlController {
             
             String sql = "SELECT r.id, r.name, r.description, r.category, r.difficulty_level, " +
                         "r.cooking_time, r.servings, r.image_url, r.created_at, r.updated_at, " +
+                        "r.rating_count, r.rating_sum, r.rating_score, " +
                         "u.display_name as author_name " +
                         "FROM recipes r " +
                         "LEFT JOIN users u ON r.user_id = u.id " +
@@ -57,6 +72,7 @@ public class SqlController {
                         recipe.put("createdAt", rs.getTimestamp("created_at"));
                         recipe.put("updatedAt", rs.getTimestamp("updated_at"));
                         recipe.put("authorName", rs.getString("author_name"));
+                        putRatings(recipe, rs);
                         
                         recipes.add(recipe);
                     }
@@ -90,32 +106,40 @@ public class SqlController {
         }
     }
 
-    // 2. 레시피 검색 (SQL)
-    @GetMapping("/recipes/search")
-    public ResponseEntity<?> searchRecipes(
-            @RequestParam String keyword,
-            @RequestParam(defaultValue = "0") int page,
+    // 1-1. 레시피 커서 페이지네이션 (SQL, created_at, id 기준으로 이어서 조회, COUNT 쿼리 없음)
+    @GetMapping("/recipes/cursor")
+    public ResponseEntity<?> getRecipesByCursor(
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "10") int size) {
         try {
+            PageCursor position = PageCursor.decode(cursor);
+            int pageSize = Math.max(1, Math.min(size, 100));
             List<Map<String, Object>> recipes = new ArrayList<>();
             
             String sql = "SELECT r.id, r.name, r.description, r.category, r.difficulty_level, " +
-                        "r.cooking_time, r.servings, r.image_url, r.created_at, " +
+                        "r.cooking_time, r.servings, r.image_url, r.created_at, r.updated_at, " +
+                        "r.rating_count, r.rating_sum, r.rating_score, " +
                         "u.display_name as author_name " +
                         "FROM recipes r " +
                         "LEFT JOIN users u ON r.user_id = u.id " +
-                        "WHERE r.name LIKE ? OR r.description LIKE ? " +
-                        "ORDER BY r.created_at DESC " +
-                        "LIMIT ? OFFSET ?";
+                        // created_at이 NULL인 행은 커서를 만들 수 없으므로 목록에서 제외 (엔티티로 저장하면 항상 채워짐)
+                        "WHERE r.created_at IS NOT NULL " +
+                        (position != null ? "AND (r.created_at < ? OR (r.created_at = ? AND r.id < ?)) " : "") +
+                        "ORDER BY r.created_at DESC, r.id DESC " +
+                        "LIMIT ?";
             
             try (Connection conn = dataSource.getConnection();
                  PreparedStatement stmt = conn.prepareStatement(sql)) {
                 
-                String searchPattern = "%" + keyword + "%";
-                stmt.setString(1, searchPattern);
-                stmt.setString(2, searchPattern);
-                stmt.setInt(3, size);
-                stmt.setInt(4, page * size);
+                int index = 1;
+                if (position != null) {
+                    Timestamp createdAt = Timestamp.valueOf(position.getCreatedAt());
+                    stmt.setTimestamp(index++, createdAt);
+                    stmt.setTimestamp(index++, createdAt);
+                    stmt.setLong(index++, position.getId());
+                }
+                // 다음 페이지 유무 확인용으로 한 개 더 조회
+                stmt.setInt(index, pageSize + 1);
                 
                 try (ResultSet rs = stmt.executeQuery()) {
                     while (rs.next()) {
@@ -129,13 +153,88 @@ public class SqlController {
                         recipe.put("servings", rs.getInt("servings"));
                         recipe.put("imageUrl", rs.getString("image_url"));
                         recipe.put("createdAt", rs.getTimestamp("created_at"));
+                        recipe.put("updatedAt", rs.getTimestamp("updated_at"));
                         recipe.put("authorName", rs.getString("author_name"));
+                        putRatings(recipe, rs);
                         
                         recipes.add(recipe);
                     }
                 }
             }
             
+            return ResponseEntity.ok(CursorPage.of(recipes, pageSize, recipe -> new PageCursor(
+                    ((Timestamp) recipe.get("createdAt")).toLocalDateTime(), (Long) recipe.get("id"))));
+            
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "레시피를 불러오는데 실패했습니다: " + e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    // 2. 레시피 검색 (SQL)
+    // 색인이 준비되면 검색 색인으로 id(관련도 순)를 찾고 해당 행만 조회, 준비 전에는 LIKE 검색
+    @GetMapping("/recipes/search")
+    public ResponseEntity<?> searchRecipes(
+            @RequestParam String keyword,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        try {
+            List<Map<String, Object>> recipes = new ArrayList<>();
+            String select = "SELECT r.id, r.name, r.description, r.category, r.difficulty_level, " +
+                        "r.cooking_time, r.servings, r.image_url, r.created_at, " +
+                        "r.rating_count, r.rating_sum, r.rating_score, " +
+                        "u.display_name as author_name " +
+                        "FROM recipes r " +
+                        "LEFT JOIN users u ON r.user_id = u.id ";
+
+            if (recipeSearchIndex.isReady()) {
+                List<Long> ids = recipeSearchIndex.search(keyword, PageRequest.of(page, size)).getContent();
+                if (ids.isEmpty()) {
+                    return ResponseEntity.ok(recipes);
+                }
+                String sql = select + "WHERE r.id IN (" + String.join(",", Collections.nCopies(ids.size(), "?")) + ")";
+                Map<Long, Map<String, Object>> byId = new HashMap<>();
+                try (Connection conn = dataSource.getConnection();
+                     PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < ids.size(); i++) {
+                        stmt.setLong(i + 1, ids.get(i));
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            byId.put(rs.getLong("id"), recipeRow(rs));
+                        }
+                    }
+                }
+                for (Long id : ids) {
+                    if (byId.containsKey(id)) {
+                        recipes.add(byId.get(id));
+                    }
+                }
+                return ResponseEntity.ok(recipes);
+            }
+
+            String sql = select +
+                        "WHERE r.name LIKE ? OR r.description LIKE ? " +
+                        "ORDER BY r.created_at DESC " +
+                        "LIMIT ? OFFSET ?";
+            
+            try (Connection conn = dataSource.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                
+                String searchPattern = "%" + keyword + "%";
+                stmt.setString(1, searchPattern);
+                stmt.setString(2, searchPattern);
+                stmt.setInt(3, size);
+                stmt.setInt(4, page * size);
+                
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        recipes.add(recipeRow(rs));
+                    }
+                }
+            }
+            
             return ResponseEntity.ok(recipes);
             
         } catch (Exception e) {
@@ -145,6 +244,32 @@ public class SqlController {
         }
     }
 
+    private Map<String, Object> recipeRow(ResultSet rs) throws SQLException {
+        Map<String, Object> recipe = new HashMap<>();
+        recipe.put("id", rs.getLong("id"));
+        recipe.put("name", rs.getString("name"));
+        recipe.put("description", rs.getString("description"));
+        recipe.put("category", rs.getString("category"));
+        recipe.put("difficultyLevel", rs.getString("difficulty_level"));
+        recipe.put("cookingTime", rs.getInt("cooking_time"));
+        recipe.put("servings", rs.getInt("servings"));
+        recipe.put("imageUrl", rs.getString("image_url"));
+        recipe.put("createdAt", rs.getTimestamp("created_at"));
+        recipe.put("authorName", rs.getString("author_name"));
+        putRatings(recipe, rs);
+        return recipe;
+    }
+
+    // 레시피 행의 평점 집계 컬럼 (평점 테이블을 따로 조회하지 않음)
+    private void putRatings(Map<String, Object> recipe, ResultSet rs) throws SQLException {
+        int ratingCount = rs.getInt("rating_count");
+        recipe.put("ratingCount", ratingCount);
+        // 평점이 없으면 null (Recipe.getAverageRating, RecipeRatingService와 같게)
+        recipe.put("averageRating", ratingCount > 0 ? Math.round(rs.getLong("rating_sum") * 10.0 / ratingCount) / 10.0 : null);
+        double ratingScore = rs.getDouble("rating_score");
+        recipe.put("ratingScore", rs.wasNull() ? null : ratingScore);
+    }
+
     // 3. 영수증 조회 (SQL)
     @GetMapping("/receipts")
     public ResponseEntity<?> getAllReceipts(
@@ -257,21 +382,25 @@ public class SqlController {
             
             String sql = "SELECT DISTINCT r.id, r.name, r.description, r.category, " +
                         "r.difficulty_level, r.cooking_time, r.servings, r.image_url, " +
+                        "r.rating_count, r.rating_sum, r.rating_score, " +
                         "u.display_name as author_name " +
                         "FROM recipes r " +
                         "JOIN recipe_ingredients ri ON r.id = ri.recipe_id " +
                         "LEFT JOIN users u ON r.user_id = u.id " +
-                        "WHERE ri.ingredient_name LIKE ? " +
+                        "WHERE ri.ingredient_name LIKE ? OR ri.ingredient_name LIKE ? " +
                         "ORDER BY r.created_at DESC " +
                         "LIMIT ? OFFSET ?";
             
             try (Connection conn = dataSource.getConnection();
                  PreparedStatement stmt = conn.prepareStatement(sql)) {
                 
-                String searchPattern = "%" + ingredient + "%";
-                stmt.setString(1, searchPattern);
-                stmt.setInt(2, size);
-                stmt.setInt(3, page * size);
+                // 레시피 재료명은 자유 입력이므로 검색어 그대로와 대표 재료 이름 둘 다 찾는다
+                // ("계란" → 계란 또는 달걀, 오타/단위가 섞인 "앙파 1kg" → 양파)
+                String canonical = ingredientClassifier.canonicalIngredientName(ingredient);
+                stmt.setString(1, "%" + ingredient + "%");
+                stmt.setString(2, "%" + (canonical != null ? canonical : ingredient) + "%");
+                stmt.setInt(3, size);
+                stmt.setInt(4, page * size);
                 
                 try (ResultSet rs = stmt.executeQuery()) {
                     while (rs.next()) {
@@ -285,6 +414,7 @@ public class SqlController {
                         recipe.put("servings", rs.getInt("servings"));
                         recipe.put("imageUrl", rs.getString("image_url"));
                         recipe.put("authorName", rs.getString("author_name"));
+                        putRatings(recipe, rs);
                         
                         recipes.add(recipe);
                     }
@@ -0,0 +1,74 @@
+package org.receiptrecipe.backend.controller;
+
+import org.receiptrecipe.backend.entity.User;
+import org.receiptrecipe.backend.repository.UserRepository;
+import org.receiptrecipe.backend.service.PrefixTrie;
+import org.receiptrecipe.backend.service.SuggestService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/suggest")
+@CrossOrigin(origins = "*")
+public class SuggestController {
+
+    @Autowired
+    private SuggestService suggestService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // 검색창 자동완성 (type: recipe, ingredient, store - store는 현재 사용자의 매장명)
+    @GetMapping
+    public ResponseEntity<?> suggest(
+            @RequestParam String type,
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "10") int limit) {
+        SuggestService.Type suggestType;
+        try {
+            suggestType = SuggestService.Type.valueOf(type.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "지원하지 않는 자동완성 종류입니다: " + type);
+            return ResponseEntity.badRequest().body(error);
+        }
+
+        Long userId = suggestType == SuggestService.Type.STORE ? currentUserOrDefault().getId() : null;
+        List<Map<String, Object>> suggestions = new ArrayList<>();
+        for (PrefixTrie.Completion completion : suggestService.suggest(suggestType, userId, query, limit)) {
+            Map<String, Object> suggestion = new HashMap<>();
+            suggestion.put("text", completion.getText());
+            suggestion.put("weight", completion.getWeight());
+            suggestions.add(suggestion);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("type", suggestType.name().toLowerCase(Locale.ROOT));
+        response.put("query", query);
+        response.put("suggestions", suggestions);
+        // 시작 직후 생성이 끝나기 전에는 레시피/재료 자동완성이 비어 있을 수 있음
+        response.put("indexReady", suggestService.isReady());
+        return ResponseEntity.ok(response);
+    }
+
+    private User currentUserOrDefault() {
+        try {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            String username = authentication.getName();
+            return userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("사용자를 찾을 수 없습니다."));
+        } catch (Exception e) {
+            return userRepository.findByUsername("testuser")
+                .orElseThrow(() -> new RuntimeException("기본 사용자를 찾을 수 없습니다."));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package org.receiptrecipe.backend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 커서 페이지네이션 응답 (전체 개수는 조회하지 않음)
+ * 다음 페이지는 nextCursor를 cursor 파라미터로 넘겨서 요청한다.
+ */
+public class CursorPage<T> {
+    private List<T> content;
+    private String nextCursor;
+    private boolean hasNext;
+    private int size;
+
+    public CursorPage(List<T> content, String nextCursor, boolean hasNext, int size) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+        this.size = size;
+    }
+
+    /**
+     * size + 1개까지 조회한 결과로 페이지를 만든다 (남는 한 개로 다음 페이지 유무 판단)
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, PageCursor> cursorOf) {
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? new ArrayList<>(rows.subList(0, size)) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(content.get(content.size() - 1)).encode() : null;
+        return new CursorPage<>(content, nextCursor, hasNext, size);
+    }
+
+    public <R> CursorPage<R> map(Function<T, R> mapper) {
+        List<R> mapped = new ArrayList<>(content.size());
+        for (T item : content) {
+            mapped.add(mapper.apply(item));
+        }
+        return new CursorPage<>(mapped, nextCursor, hasNext, size);
+    }
+
+    // Getters and Setters
+    public List<T> getContent() { return content; }
+    public void setContent(List<T> content) { this.content = content; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+    public boolean isHasNext() { return hasNext; }
+    public void setHasNext(boolean hasNext) { this.hasNext = hasNext; }
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+}
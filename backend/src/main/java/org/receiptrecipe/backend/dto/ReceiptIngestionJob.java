@@ -0,0 +1,85 @@
+package org.receiptrecipe.backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * 비동기 영수증 처리 작업 상태 (OCR → 파싱 → 저장)
+ * 각 단계 스레드가 갱신하므로 필드는 volatile
+ */
+public class ReceiptIngestionJob {
+
+    public enum Status {
+        QUEUED, OCR, PARSING, PERSISTING, COMPLETED, FAILED
+    }
+
+    private final String id;
+    private final Long userId;
+    private final String fileName;
+    private final LocalDateTime createdAt;
+    private volatile Status status;
+    private volatile Long receiptId;
+    private volatile String error;
+    private volatile LocalDateTime updatedAt;
+
+    public ReceiptIngestionJob(Long userId, String fileName) {
+        this.id = UUID.randomUUID().toString();
+        this.userId = userId;
+        this.fileName = fileName;
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+        this.status = Status.QUEUED;
+    }
+
+    public void moveTo(Status status) {
+        this.status = status;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public void complete(Long receiptId) {
+        this.receiptId = receiptId;
+        moveTo(Status.COMPLETED);
+    }
+
+    public void fail(String error) {
+        this.error = error;
+        moveTo(Status.FAILED);
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    // Getters
+    public String getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Long getReceiptId() {
+        return receiptId;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
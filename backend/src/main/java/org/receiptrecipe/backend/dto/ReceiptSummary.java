@@ -0,0 +1,49 @@
+package org.receiptrecipe.backend.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 영수증 목록용 요약 (OCR 원문, 파싱 JSON 제외)
+ * ReceiptRepository의 생성자 쿼리로 필요한 컬럼만 조회한다.
+ */
+public class ReceiptSummary {
+    private Long id;
+    private String storeName;
+    private LocalDateTime purchaseDate;
+    private Double totalAmount;
+    // 이미지 저장소 키 (축소 이미지는 GET /api/receipts/{id}/image?size=thumb)
+    private String imageUrl;
+    private LocalDateTime createdAt;
+    private Long itemCount;
+    private Long ingredientCount;
+
+    public ReceiptSummary(Long id, String storeName, LocalDateTime purchaseDate, Double totalAmount,
+                          String imageUrl, LocalDateTime createdAt, Long itemCount, Long ingredientCount) {
+        this.id = id;
+        this.storeName = storeName;
+        this.purchaseDate = purchaseDate;
+        this.totalAmount = totalAmount;
+        this.imageUrl = imageUrl;
+        this.createdAt = createdAt;
+        this.itemCount = itemCount != null ? itemCount : 0L;
+        this.ingredientCount = ingredientCount != null ? ingredientCount : 0L;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getStoreName() { return storeName; }
+    public void setStoreName(String storeName) { this.storeName = storeName; }
+    public LocalDateTime getPurchaseDate() { return purchaseDate; }
+    public void setPurchaseDate(LocalDateTime purchaseDate) { this.purchaseDate = purchaseDate; }
+    public Double getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(Double totalAmount) { this.totalAmount = totalAmount; }
+    public String getImageUrl() { return imageUrl; }
+    public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public Long getItemCount() { return itemCount; }
+    public void setItemCount(Long itemCount) { this.itemCount = itemCount; }
+    public Long getIngredientCount() { return ingredientCount; }
+    public void setIngredientCount(Long ingredientCount) { this.ingredientCount = ingredientCount; }
+}
@@ -6,7 +6,12 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "ingredient_expiry")
+@Table(name = "ingredient_expiry", indexes = {
+    // 사용자별 유통기한 임박 재료 조회 (expiry_date 범위)
+    @Index(name = "idx_ingredient_expiry_user_date", columnList = "user_id, expiry_date"),
+    // 영수증을 지울 때 그 영수증으로 넣은 재료 삭제
+    @Index(name = "idx_ingredient_expiry_receipt", columnList = "receipt_id")
+})
 public class IngredientExpiry {
     
     @Id
@@ -34,6 +39,10 @@ public class IngredientExpiry {
     @Column(name = "purchase_date")
     private LocalDate purchaseDate;
     
+    // 재료를 넣은 영수증 (직접 추가한 재료는 null, 영수증 삭제가 커밋된 뒤에 지우므로 외래 키 없이 id만)
+    @Column(name = "receipt_id")
+    private Long receiptId;
+    
     @Column(name = "is_notified")
     private Boolean isNotified = false;
     
@@ -113,6 +122,14 @@ public class IngredientExpiry {
         this.purchaseDate = purchaseDate;
     }
     
+    public Long getReceiptId() {
+        return receiptId;
+    }
+    
+    public void setReceiptId(Long receiptId) {
+        this.receiptId = receiptId;
+    }
+    
     public Boolean getIsNotified() {
         return isNotified;
     }
@@ -10,7 +10,10 @@ import java.util.List;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+    // 게시글 목록 커서 페이지네이션 (created_at, id 내림차순)
+    @Index(name = "idx_posts_status_created", columnList = "status, created_at, id")
+})
 public class Post {
     
     @Id
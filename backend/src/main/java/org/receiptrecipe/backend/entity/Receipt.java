@@ -1,6 +1,7 @@
 package org.receiptrecipe.backend.entity;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import java.time.LocalDateTime;
@@ -8,7 +9,14 @@ import java.util.List;
 import java.util.Set;
 
 @Entity
-@Table(name = "receipts")
+@Table(name = "receipts", indexes = {
+    // 사용자별 목록 커서 페이지네이션 (created_at, id 내림차순)
+    @Index(name = "idx_receipts_user_created", columnList = "user_id, created_at, id"),
+    // 사용자가 같은 사진으로 만든 최근 영수증 조회 (중복 업로드 시 OCR/파싱 결과 재사용)
+    @Index(name = "idx_receipts_user_content_hash", columnList = "user_id, content_hash, id"),
+    // 영수증을 지울 때 같은 이미지를 참조하는 행 잠금 (FOR UPDATE가 테이블 전체를 훑지 않도록)
+    @Index(name = "idx_receipts_image_url", columnList = "image_url")
+})
 public class Receipt {
     
     @Id
@@ -28,6 +36,11 @@ public class Receipt {
     @Column(name = "image_url")
     private String imageUrl;
     
+    // 이미지 내용의 SHA-256 (image_url 의 확장자 앞부분, 해시 이름 도입 전 파일은 null)
+    @Column(name = "content_hash", length = 64)
+    @JsonIgnore
+    private String contentHash;
+    
     @Column(name = "raw_ocr_text", columnDefinition = "TEXT")
     private String rawOcrText;
     
@@ -110,6 +123,14 @@ public class Receipt {
         this.imageUrl = imageUrl;
     }
     
+    public String getContentHash() {
+        return contentHash;
+    }
+    
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+    
     public String getRawOcrText() {
         return rawOcrText;
     }
@@ -0,0 +1,63 @@
+package org.receiptrecipe.backend.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+/**
+ * 처리 중인 업로드가 쓰는 이미지 키 (아직 영수증 행이 없는 동안 다른 인스턴스가 이미지를 지우지 않도록)
+ * 업로드 처리가 끝나면 지우고, 인스턴스가 중간에 죽어 남은 행은 정해진 시간이 지나면 정리한다.
+ */
+@Entity
+@Table(name = "receipt_image_pins", indexes = {
+    // 삭제할 때 키로 잠금 (행이 없어도 같은 키의 새 고정을 막음)
+    @Index(name = "idx_receipt_image_pins_key", columnList = "image_key")
+})
+public class ReceiptImagePin {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @NotNull
+    @Column(name = "image_key", nullable = false)
+    private String imageKey;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public ReceiptImagePin() {
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    public ReceiptImagePin(String imageKey) {
+        this();
+        this.imageKey = imageKey;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getImageKey() {
+        return imageKey;
+    }
+    
+    public void setImageKey(String imageKey) {
+        this.imageKey = imageKey;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -1,5 +1,6 @@
 package org.receiptrecipe.backend.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import java.math.BigDecimal;
@@ -34,6 +35,11 @@ public class ReceiptItem {
     @Column(name = "expiry_date")
     private java.time.LocalDate expiryDate;
     
+    // 분류할 때 찾은 대표 재료 이름 (저장하지 않음, 냉장고 추가에서 다시 분류하지 않도록)
+    @Transient
+    @JsonIgnore
+    private String canonicalIngredientName;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "receipt_id")
     private Receipt receipt;
@@ -105,6 +111,14 @@ public class ReceiptItem {
         this.isIngredient = isIngredient;
     }
     
+    public String getCanonicalIngredientName() {
+        return canonicalIngredientName;
+    }
+    
+    public void setCanonicalIngredientName(String canonicalIngredientName) {
+        this.canonicalIngredientName = canonicalIngredientName;
+    }
+    
     public java.time.LocalDate getExpiryDate() {
         return expiryDate;
     }
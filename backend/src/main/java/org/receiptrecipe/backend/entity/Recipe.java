@@ -2,13 +2,17 @@ package org.receiptrecipe.backend.entity;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Set;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 
 @Entity
-@Table(name = "recipes")
+@Table(name = "recipes", indexes = {
+    // 레시피 목록 커서 페이지네이션 (created_at, id 내림차순)
+    @Index(name = "idx_recipes_created", columnList = "created_at, id")
+})
 public class Recipe {
     
     @Id
@@ -62,6 +66,39 @@ public class Recipe {
     @OneToMany(mappedBy = "recipe", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<RecipeRating> ratings;
     
+    // 평점 집계 (RecipeRatingAggregator가 UPDATE 문으로만 갱신하고 엔티티 저장 시에는 쓰지 않음)
+    @ColumnDefault("0")
+    @Column(name = "rating_count", nullable = false, insertable = false, updatable = false)
+    private int ratingCount;
+    
+    @ColumnDefault("0")
+    @Column(name = "rating_sum", nullable = false, insertable = false, updatable = false)
+    private long ratingSum;
+    
+    @ColumnDefault("0")
+    @Column(name = "rating_1_count", nullable = false, insertable = false, updatable = false)
+    private int rating1Count;
+    
+    @ColumnDefault("0")
+    @Column(name = "rating_2_count", nullable = false, insertable = false, updatable = false)
+    private int rating2Count;
+    
+    @ColumnDefault("0")
+    @Column(name = "rating_3_count", nullable = false, insertable = false, updatable = false)
+    private int rating3Count;
+    
+    @ColumnDefault("0")
+    @Column(name = "rating_4_count", nullable = false, insertable = false, updatable = false)
+    private int rating4Count;
+    
+    @ColumnDefault("0")
+    @Column(name = "rating_5_count", nullable = false, insertable = false, updatable = false)
+    private int rating5Count;
+    
+    // 베이지안 평균 점수 (평점이 없으면 null)
+    @Column(name = "rating_score", insertable = false, updatable = false)
+    private Double ratingScore;
+    
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
@@ -210,6 +247,27 @@ public class Recipe {
         this.ratings = ratings;
     }
     
+    public int getRatingCount() {
+        return ratingCount;
+    }
+    
+    public long getRatingSum() {
+        return ratingSum;
+    }
+    
+    // 1~5점 각각의 개수
+    public int[] getRatingHistogram() {
+        return new int[] { rating1Count, rating2Count, rating3Count, rating4Count, rating5Count };
+    }
+    
+    public Double getAverageRating() {
+        return ratingCount > 0 ? Math.round(ratingSum * 10.0 / ratingCount) / 10.0 : null;
+    }
+    
+    public Double getRatingScore() {
+        return ratingScore;
+    }
+    
     @PreUpdate
     public void preUpdate() {
         this.updatedAt = LocalDateTime.now();
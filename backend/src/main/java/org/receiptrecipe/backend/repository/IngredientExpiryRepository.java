@@ -2,6 +2,7 @@ package org.receiptrecipe.backend.repository;
 
 import org.receiptrecipe.backend.entity.IngredientExpiry;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -38,4 +39,24 @@ public interface IngredientExpiryRepository extends JpaRepository<IngredientExpi
     
     @Query("SELECT DISTINCT ie.ingredientName FROM IngredientExpiry ie WHERE ie.user.id = :userId ORDER BY ie.ingredientName")
     List<String> findDistinctIngredientNamesByUserId(@Param("userId") Long userId);
+
+    // 유통기한 임박 재료 목록 (id, 재료명, 수량, 단위, 유통기한) - idx_ingredient_expiry_user_date 사용
+    @Query("SELECT ie.id, ie.ingredientName, ie.quantity, ie.unit, ie.expiryDate FROM IngredientExpiry ie " +
+           "WHERE ie.user.id = :userId AND ie.expiryDate BETWEEN :startDate AND :endDate ORDER BY ie.expiryDate, ie.id")
+    List<Object[]> findExpiringRows(@Param("userId") Long userId,
+                                    @Param("startDate") LocalDate startDate,
+                                    @Param("endDate") LocalDate endDate);
+
+    // 냉장고에 남은 재료 (재료명, 유통기한) - idx_ingredient_expiry_user_date 사용
+    @Query("SELECT ie.ingredientName, ie.expiryDate FROM IngredientExpiry ie WHERE ie.user.id = :userId AND ie.expiryDate >= :date")
+    List<Object[]> findPantryRows(@Param("userId") Long userId, @Param("date") LocalDate date);
+
+    // 영수증들로 넣은 재료 삭제 (idx_ingredient_expiry_receipt, 호출하는 쪽 트랜잭션 안에서 실행)
+    @Modifying
+    @Query("DELETE FROM IngredientExpiry ie WHERE ie.receiptId IN :receiptIds")
+    int deleteByReceiptIds(@Param("receiptIds") List<Long> receiptIds);
+
+    // (재료 이름, 냉장고에 담긴 횟수) - 자동완성 인기도
+    @Query("SELECT ie.ingredientName, COUNT(ie) FROM IngredientExpiry ie GROUP BY ie.ingredientName")
+    List<Object[]> findIngredientNameCounts();
 }
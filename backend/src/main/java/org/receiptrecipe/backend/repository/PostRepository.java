@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -51,6 +52,19 @@ public interface PostRepository extends JpaRepository<Post, Long> {
     @Query("SELECT p FROM Post p JOIN FETCH p.author WHERE p.status = :status ORDER BY p.viewCount DESC")
     List<Post> findTop10ByStatusOrderByViewCountDescWithAuthor(@Param("status") Post.PostStatus status, Pageable pageable);
     
+    // 커서 페이지네이션 (created_at, id 내림차순, COUNT 쿼리 없음, created_at이 없는 행은 커서를 만들 수 없어 제외)
+    @Query("SELECT p FROM Post p JOIN FETCH p.author WHERE p.status = :status AND p.createdAt IS NOT NULL " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findSliceByStatus(@Param("status") Post.PostStatus status, Pageable pageable);
+    
+    @Query("SELECT p FROM Post p JOIN FETCH p.author WHERE p.status = :status AND " +
+           "(p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findSliceByStatusBefore(@Param("status") Post.PostStatus status,
+                                       @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("id") Long id,
+                                       Pageable pageable);
+    
     long countByAuthorAndStatus(User author, Post.PostStatus status);
 }
 
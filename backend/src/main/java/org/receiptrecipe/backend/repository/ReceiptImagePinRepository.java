@@ -0,0 +1,30 @@
+package org.receiptrecipe.backend.repository;
+
+import jakarta.persistence.LockModeType;
+import org.receiptrecipe.backend.entity.ReceiptImagePin;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ReceiptImagePinRepository extends JpaRepository<ReceiptImagePin, Long> {
+
+    // 키의 고정 행을 잠금 (FOR UPDATE, 호출하는 쪽 트랜잭션 안에서 실행)
+    // InnoDB(REPEATABLE READ)는 행이 없어도 idx_receipt_image_pins_key 구간을 잠가서 같은 키의 새 고정이 커밋까지 기다린다
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p.id FROM ReceiptImagePin p WHERE p.imageKey = :imageKey")
+    List<Long> lockIdsByImageKey(@Param("imageKey") String imageKey);
+
+    // 죽은 인스턴스가 남긴 고정 정리
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ReceiptImagePin p WHERE p.createdAt < :threshold")
+    int deleteCreatedBefore(@Param("threshold") LocalDateTime threshold);
+}
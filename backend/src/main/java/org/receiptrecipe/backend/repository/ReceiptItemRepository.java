@@ -1,12 +1,15 @@
 package org.receiptrecipe.backend.repository;
 
 import org.receiptrecipe.backend.entity.ReceiptItem;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -29,4 +32,19 @@ public interface ReceiptItemRepository extends JpaRepository<ReceiptItem, Long>
     
     @Query("SELECT DISTINCT ri.category FROM ReceiptItem ri WHERE ri.category IS NOT NULL ORDER BY ri.category")
     List<String> findDistinctCategories();
+    
+    // 영수증별 상품명 (영수증 id, 상품명)
+    @Query("SELECT ri.receipt.id, ri.itemName FROM ReceiptItem ri WHERE ri.receipt.id IN :receiptIds")
+    List<Object[]> findItemNamesByReceiptIds(@Param("receiptIds") Collection<Long> receiptIds);
+
+    // 재분류 작업용: id 순서로 (id, 상품명, 분류, 재료 여부)만 읽음 (엔티티를 만들지 않음)
+    @Query("SELECT ri.id, ri.itemName, ri.category, ri.isIngredient FROM ReceiptItem ri WHERE ri.id > :afterId ORDER BY ri.id")
+    List<Object[]> findClassificationRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // 같은 분류로 바뀌는 상품들을 한 번에 갱신 (호출하는 쪽 트랜잭션 안에서 실행)
+    @Modifying
+    @Query("UPDATE ReceiptItem ri SET ri.category = :category, ri.isIngredient = :isIngredient WHERE ri.id IN :ids")
+    int updateClassification(@Param("ids") Collection<Long> ids,
+                             @Param("category") String category,
+                             @Param("isIngredient") Boolean isIngredient);
 }
@@ -1,10 +1,13 @@
 package org.receiptrecipe.backend.repository;
 
+import jakarta.persistence.LockModeType;
+import org.receiptrecipe.backend.dto.ReceiptSummary;
 import org.receiptrecipe.backend.entity.Receipt;
 import org.receiptrecipe.backend.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -39,10 +42,85 @@ public interface ReceiptRepository extends JpaRepository<Receipt, Long> {
     // 사용자별 영수증 조회 (매장명 검색)
     Page<Receipt> findByUserAndStoreNameContainingIgnoreCase(User user, String storeName, Pageable pageable);
     
+    // 목록 화면용 요약 조회 (OCR 원문/파싱 JSON 컬럼은 읽지 않음, 상품 수는 하위 쿼리로 계산)
+    @Query(value = "SELECT new org.receiptrecipe.backend.dto.ReceiptSummary(" +
+            "r.id, r.storeName, r.purchaseDate, r.totalAmount, r.imageUrl, r.createdAt, " +
+            "(SELECT COUNT(i) FROM ReceiptItem i WHERE i.receipt = r), " +
+            "(SELECT COUNT(i) FROM ReceiptItem i WHERE i.receipt = r AND i.isIngredient = true)) " +
+            "FROM Receipt r WHERE r.user = :user ORDER BY r.createdAt DESC, r.id DESC",
+            countQuery = "SELECT COUNT(r) FROM Receipt r WHERE r.user = :user")
+    Page<ReceiptSummary> findSummariesByUser(@Param("user") User user, Pageable pageable);
+    
+    @Query(value = "SELECT new org.receiptrecipe.backend.dto.ReceiptSummary(" +
+            "r.id, r.storeName, r.purchaseDate, r.totalAmount, r.imageUrl, r.createdAt, " +
+            "(SELECT COUNT(i) FROM ReceiptItem i WHERE i.receipt = r), " +
+            "(SELECT COUNT(i) FROM ReceiptItem i WHERE i.receipt = r AND i.isIngredient = true)) " +
+            "FROM Receipt r WHERE r.user = :user AND LOWER(r.storeName) LIKE LOWER(CONCAT('%', :storeName, '%')) " +
+            "ORDER BY r.createdAt DESC, r.id DESC",
+            countQuery = "SELECT COUNT(r) FROM Receipt r WHERE r.user = :user " +
+                    "AND LOWER(r.storeName) LIKE LOWER(CONCAT('%', :storeName, '%'))")
+    Page<ReceiptSummary> findSummariesByUserAndStoreName(@Param("user") User user,
+                                                         @Param("storeName") String storeName,
+                                                         Pageable pageable);
+    
+    // 지정한 영수증들의 요약 (id 순서, 일괄 재처리 응답용)
+    @Query("SELECT new org.receiptrecipe.backend.dto.ReceiptSummary(" +
+            "r.id, r.storeName, r.purchaseDate, r.totalAmount, r.imageUrl, r.createdAt, " +
+            "(SELECT COUNT(i) FROM ReceiptItem i WHERE i.receipt = r), " +
+            "(SELECT COUNT(i) FROM ReceiptItem i WHERE i.receipt = r AND i.isIngredient = true)) " +
+            "FROM Receipt r WHERE r.id IN :ids ORDER BY r.id")
+    List<ReceiptSummary> findSummariesByIds(@Param("ids") List<Long> ids);
+    
+    // 커서 페이지네이션 (created_at, id 내림차순, COUNT 쿼리 없음, created_at이 없는 행은 커서를 만들 수 없어 제외)
+    @Query("SELECT new org.receiptrecipe.backend.dto.ReceiptSummary(" +
+            "r.id, r.storeName, r.purchaseDate, r.totalAmount, r.imageUrl, r.createdAt, " +
+            "(SELECT COUNT(i) FROM ReceiptItem i WHERE i.receipt = r), " +
+            "(SELECT COUNT(i) FROM ReceiptItem i WHERE i.receipt = r AND i.isIngredient = true)) " +
+            "FROM Receipt r WHERE r.user = :user AND r.createdAt IS NOT NULL ORDER BY r.createdAt DESC, r.id DESC")
+    List<ReceiptSummary> findSummarySliceByUser(@Param("user") User user, Pageable pageable);
+    
+    @Query("SELECT new org.receiptrecipe.backend.dto.ReceiptSummary(" +
+            "r.id, r.storeName, r.purchaseDate, r.totalAmount, r.imageUrl, r.createdAt, " +
+            "(SELECT COUNT(i) FROM ReceiptItem i WHERE i.receipt = r), " +
+            "(SELECT COUNT(i) FROM ReceiptItem i WHERE i.receipt = r AND i.isIngredient = true)) " +
+            "FROM Receipt r WHERE r.user = :user AND " +
+            "(r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)) " +
+            "ORDER BY r.createdAt DESC, r.id DESC")
+    List<ReceiptSummary> findSummarySliceByUserBefore(@Param("user") User user,
+                                                      @Param("createdAt") LocalDateTime createdAt,
+                                                      @Param("id") Long id,
+                                                      Pageable pageable);
+    
+    // 검색 색인 생성용 (id, 사용자 id, 매장명, OCR 텍스트만 id 순서로)
+    @Query("SELECT r.id, u.id, r.storeName, r.rawOcrText FROM Receipt r LEFT JOIN r.user u " +
+            "WHERE r.id > :afterId ORDER BY r.id")
+    List<Object[]> findSearchRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT r.id, u.id, r.storeName, r.rawOcrText FROM Receipt r LEFT JOIN r.user u WHERE r.id IN :ids")
+    List<Object[]> findSearchRowsByIds(@Param("ids") List<Long> ids);
+    
     // 특정 사용자의 특정 영수증 조회
     Optional<Receipt> findByIdAndUser(Long id, User user);
     
+    // 사용자가 같은 내용의 이미지로 만든 가장 최근 영수증 (idx_receipts_user_content_hash)
+    Optional<Receipt> findFirstByUserAndContentHashOrderByIdDesc(User user, String contentHash);
+    
+    // 같은 사용자가 같은 사진으로 먼저 만든 영수증이 남아 있는 영수증 id (idx_receipts_user_content_hash)
+    @Query("SELECT r.id FROM Receipt r WHERE r.id IN :ids AND r.contentHash IS NOT NULL AND EXISTS (" +
+            "SELECT o.id FROM Receipt o WHERE o.user = r.user AND o.contentHash = r.contentHash AND o.id < r.id)")
+    List<Long> findIdsWithEarlierSameImage(@Param("ids") List<Long> ids);
+    
+    // 이미지 파일을 참조하는 영수증 행을 잠금 (중복 업로드는 파일을 공유, 호출하는 쪽 트랜잭션 안에서 실행)
+    // 같은 이미지의 영수증을 동시에 지워도 차례로 세므로 둘 다 "다른 참조가 있다"고 보고 파일을 남기는 일이 없다
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r.id FROM Receipt r WHERE r.imageUrl = :imageUrl")
+    List<Long> lockIdsByImageUrl(@Param("imageUrl") String imageUrl);
+    
     // 사용자별 고유 매장명 조회
     @Query("SELECT DISTINCT r.storeName FROM Receipt r WHERE r.user = :user ORDER BY r.storeName")
     List<String> findDistinctStoreNamesByUser(@Param("user") User user);
+    
+    // 사용자별 (매장명, 영수증 수) - 자동완성 인기도
+    @Query("SELECT r.storeName, COUNT(r) FROM Receipt r WHERE r.user.id = :userId AND r.storeName IS NOT NULL GROUP BY r.storeName")
+    List<Object[]> findStoreNameCountsByUserId(@Param("userId") Long userId);
 }
@@ -10,6 +10,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -30,6 +31,12 @@ public interface RecipeFavoriteRepository extends JpaRepository<RecipeFavorite,
     // 레시피의 즐겨찾기 개수
     long countByRecipe(Recipe recipe);
     
+    long countByRecipeId(Long recipeId);
+    
+    // (레시피 id, 즐겨찾기 수)
+    @Query("SELECT rf.recipe.id, COUNT(rf) FROM RecipeFavorite rf GROUP BY rf.recipe.id")
+    List<Object[]> findFavoriteCountsByRecipe();
+    
     // 사용자 ID와 레시피 ID로 즐겨찾기 찾기
     @Query("SELECT rf FROM RecipeFavorite rf WHERE rf.user.id = :userId AND rf.recipe.id = :recipeId")
     Optional<RecipeFavorite> findByUserIdAndRecipeId(@Param("userId") Long userId, @Param("recipeId") Long recipeId);
@@ -37,11 +44,8 @@ public interface RecipeFavoriteRepository extends JpaRepository<RecipeFavorite,
     // 사용자 ID와 레시피 ID로 즐겨찾기 존재 여부 확인
     @Query("SELECT COUNT(rf) > 0 FROM RecipeFavorite rf WHERE rf.user.id = :userId AND rf.recipe.id = :recipeId")
     boolean existsByUserIdAndRecipeId(@Param("userId") Long userId, @Param("recipeId") Long recipeId);
-}
-
-
-
-
-
-
 
+    // 추천 모델 생성용 (id, 사용자 id, 레시피 id) - id 순서 keyset 페이지
+    @Query("SELECT rf.id, rf.user.id, rf.recipe.id FROM RecipeFavorite rf WHERE rf.id > :lastId ORDER BY rf.id")
+    List<Object[]> findInteractionRowsAfter(@Param("lastId") Long lastId, Pageable pageable);
+}
@@ -32,6 +32,15 @@ public interface RecipeRatingRepository extends JpaRepository<RecipeRating, Long
     @Query("SELECT COUNT(r) FROM RecipeRating r WHERE r.recipe.id = :recipeId")
     Long countRatingsByRecipeId(@Param("recipeId") Long recipeId);
     
+    // (레시피 id, 평점 수)
+    @Query("SELECT r.recipe.id, COUNT(r) FROM RecipeRating r GROUP BY r.recipe.id")
+    List<Object[]> findRatingCountsByRecipe();
+    
+    // 평점 집계 정합성 검사용 (레시피 id, 평점, 개수)
+    @Query("SELECT r.recipe.id, r.rating, COUNT(r) FROM RecipeRating r " +
+           "WHERE r.recipe.id IN :recipeIds AND r.rating IS NOT NULL GROUP BY r.recipe.id, r.rating")
+    List<Object[]> findRatingHistogramByRecipeIds(@Param("recipeIds") List<Long> recipeIds);
+    
     @Query("SELECT r FROM RecipeRating r WHERE r.rating >= :minRating ORDER BY r.createdAt DESC")
     List<RecipeRating> findHighRatedRecipes(@Param("minRating") Integer minRating);
     
@@ -46,4 +55,8 @@ public interface RecipeRatingRepository extends JpaRepository<RecipeRating, Long
     // 높은 평점의 레시피들 조회 (제한된 개수)
     @Query("SELECT r FROM RecipeRating r WHERE r.rating >= :minRating ORDER BY r.createdAt DESC")
     List<RecipeRating> findHighRatedRecipes(@Param("minRating") Integer minRating, Pageable pageable);
+
+    // 추천 모델 생성용 (id, 사용자 id, 레시피 id, 평점, 즐겨찾기) - id 순서 keyset 페이지
+    @Query("SELECT r.id, r.user.id, r.recipe.id, r.rating, r.isFavorite FROM RecipeRating r WHERE r.id > :lastId ORDER BY r.id")
+    List<Object[]> findInteractionRowsAfter(@Param("lastId") Long lastId, Pageable pageable);
 }
@@ -1,9 +1,12 @@
 package org.receiptrecipe.backend.repository;
 
+import jakarta.persistence.LockModeType;
 import org.receiptrecipe.backend.entity.Recipe;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -24,17 +27,9 @@ public interface RecipeRepository extends JpaRepository<Recipe, Long> {
     
     List<Recipe> findByCookingTimeLessThanEqual(Integer maxCookingTime);
     
-    @Query("SELECT r FROM Recipe r WHERE r.name LIKE %:keyword% OR r.description LIKE %:keyword%")
-    List<Recipe> findByKeyword(@Param("keyword") String keyword);
-    
     @Query("SELECT r FROM Recipe r JOIN r.ingredients ri WHERE ri.ingredientName LIKE %:ingredientName%")
     List<Recipe> findByIngredientName(@Param("ingredientName") String ingredientName);
     
-    @Query("SELECT r FROM Recipe r WHERE r.id IN (" +
-           "SELECT DISTINCT r2.id FROM Recipe r2 JOIN r2.ingredients ri " +
-           "WHERE ri.ingredientName IN :ingredientNames)")
-    List<Recipe> findByIngredientNames(@Param("ingredientNames") List<String> ingredientNames);
-    
     @Query("SELECT DISTINCT r.category FROM Recipe r WHERE r.category IS NOT NULL ORDER BY r.category")
     List<String> findDistinctCategories();
     
@@ -44,4 +39,76 @@ public interface RecipeRepository extends JpaRepository<Recipe, Long> {
     List<Recipe> findByUserId(Long userId);
     
     boolean existsByExternalId(String externalId);
+
+    // 재료 매칭 색인 생성용 (id, 이름) - id 순서 keyset 페이지
+    @Query("SELECT r.id, r.name FROM Recipe r WHERE r.id > :lastId ORDER BY r.id")
+    List<Object[]> findMatchRowsAfter(@Param("lastId") Long lastId, Pageable pageable);
+
+    @Query("SELECT r.id, r.name FROM Recipe r WHERE r.id IN :ids")
+    List<Object[]> findMatchRowsByIds(@Param("ids") List<Long> ids);
+
+    // (레시피 id, 재료 이름)
+    @Query("SELECT ri.recipe.id, ri.ingredientName FROM RecipeIngredient ri WHERE ri.recipe.id IN :recipeIds")
+    List<Object[]> findIngredientNamesByRecipeIds(@Param("recipeIds") List<Long> recipeIds);
+
+    // 검색 색인용 (id, 이름, 설명)
+    @Query("SELECT r.id, r.name, r.description FROM Recipe r WHERE r.id > :lastId ORDER BY r.id")
+    List<Object[]> findSearchRowsAfter(@Param("lastId") Long lastId, Pageable pageable);
+
+    @Query("SELECT r.id, r.name, r.description FROM Recipe r WHERE r.id IN :ids")
+    List<Object[]> findSearchRowsByIds(@Param("ids") List<Long> ids);
+
+    // 평점 추가/수정/삭제에 맞춰 집계 컬럼을 증분 갱신 (한 문장이라 동시에 평점이 들어와도 유실되지 않음)
+    // 점수는 갱신 전 값 + 변화량으로 계산해야 하므로 맨 앞에 둔다 (MySQL은 SET 절을 왼쪽부터 적용)
+    @Modifying
+    @Query("UPDATE Recipe r SET " +
+           "r.ratingScore = CASE WHEN r.ratingCount + :countDelta > 0 " +
+           "THEN (:priorWeight * :priorMean + r.ratingSum + :sumDelta) / (:priorWeight + r.ratingCount + :countDelta) " +
+           "ELSE NULL END, " +
+           "r.ratingCount = r.ratingCount + :countDelta, r.ratingSum = r.ratingSum + :sumDelta, " +
+           "r.rating1Count = r.rating1Count + :delta1, r.rating2Count = r.rating2Count + :delta2, " +
+           "r.rating3Count = r.rating3Count + :delta3, r.rating4Count = r.rating4Count + :delta4, " +
+           "r.rating5Count = r.rating5Count + :delta5 " +
+           "WHERE r.id = :recipeId")
+    int applyRatingDelta(@Param("recipeId") Long recipeId,
+                         @Param("countDelta") int countDelta,
+                         @Param("sumDelta") long sumDelta,
+                         @Param("delta1") int delta1,
+                         @Param("delta2") int delta2,
+                         @Param("delta3") int delta3,
+                         @Param("delta4") int delta4,
+                         @Param("delta5") int delta5,
+                         @Param("priorWeight") double priorWeight,
+                         @Param("priorMean") double priorMean);
+
+    // 정합성 검사에서 어긋난 레시피의 집계를 다시 계산한 값으로 덮어씀
+    @Modifying
+    @Query("UPDATE Recipe r SET r.ratingCount = :count, r.ratingSum = :sum, " +
+           "r.rating1Count = :count1, r.rating2Count = :count2, r.rating3Count = :count3, " +
+           "r.rating4Count = :count4, r.rating5Count = :count5, r.ratingScore = :score " +
+           "WHERE r.id = :recipeId")
+    int updateRatingAggregates(@Param("recipeId") Long recipeId,
+                               @Param("count") int count,
+                               @Param("sum") long sum,
+                               @Param("count1") int count1,
+                               @Param("count2") int count2,
+                               @Param("count3") int count3,
+                               @Param("count4") int count4,
+                               @Param("count5") int count5,
+                               @Param("score") Double score);
+
+    // 정합성 검사용 (id, 평점 수, 합계, 1~5점 개수, 점수)
+    @Query("SELECT r.id, r.ratingCount, r.ratingSum, r.rating1Count, r.rating2Count, r.rating3Count, " +
+           "r.rating4Count, r.rating5Count, r.ratingScore FROM Recipe r WHERE r.id > :lastId ORDER BY r.id")
+    List<Object[]> findRatingAggregateRowsAfter(@Param("lastId") Long lastId, Pageable pageable);
+
+    // 정합성 검사용, 같은 트랜잭션에서 평점 변화량 UPDATE가 끼어들지 못하도록 행을 잠근다 (SELECT ... FOR UPDATE)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r.id, r.ratingCount, r.ratingSum, r.rating1Count, r.rating2Count, r.rating3Count, " +
+           "r.rating4Count, r.rating5Count, r.ratingScore FROM Recipe r WHERE r.id IN :recipeIds ORDER BY r.id")
+    List<Object[]> lockRatingAggregateRows(@Param("recipeIds") List<Long> recipeIds);
+
+    // (레시피 id, 태그 이름)
+    @Query("SELECT r.id, t.name FROM Recipe r JOIN r.tags t WHERE r.id IN :recipeIds")
+    List<Object[]> findTagNamesByRecipeIds(@Param("recipeIds") List<Long> recipeIds);
 }
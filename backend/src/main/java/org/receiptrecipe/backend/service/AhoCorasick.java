@@ -0,0 +1,167 @@
+package org.receiptrecipe.backend.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 여러 문자열을 한 번에 찾는 Aho-Corasick 오토마톤 (만든 뒤에는 읽기 전용, 여러 스레드에서 공유 가능)
+ * 텍스트를 한 번 훑는 동안 패턴 수와 관계없이 모든 일치 위치를 찾는다.
+ * 한글은 글자 종류가 많으므로 노드마다 자식 글자를 정렬된 배열로 두고 이진 탐색한다.
+ */
+public final class AhoCorasick {
+
+    // 노드 i의 자식: childChars[i] (정렬됨) / childNodes[i]
+    private final char[][] childChars;
+    private final int[][] childNodes;
+    private final int[] failure;
+    // 이 노드에서 끝나는 패턴 번호 (없으면 -1)
+    private final int[] pattern;
+    // 실패 링크를 따라가며 처음 만나는 패턴이 끝나는 노드 (없으면 -1)
+    private final int[] outputLink;
+    private final int[] patternLengths;
+
+    private AhoCorasick(char[][] childChars, int[][] childNodes, int[] failure, int[] pattern, int[] outputLink, int[] patternLengths) {
+        this.childChars = childChars;
+        this.childNodes = childNodes;
+        this.failure = failure;
+        this.pattern = pattern;
+        this.outputLink = outputLink;
+        this.patternLengths = patternLengths;
+    }
+
+    /**
+     * patterns의 순서가 패턴 번호가 된다. 빈 문자열은 무시하고, 같은 문자열이 여러 번 있으면 앞의 번호를 쓴다.
+     */
+    public static AhoCorasick compile(List<String> patterns) {
+        List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        List<Integer> terminal = new ArrayList<>();
+        children.add(new TreeMap<>());
+        terminal.add(-1);
+
+        int[] patternLengths = new int[patterns.size()];
+        for (int p = 0; p < patterns.size(); p++) {
+            String text = patterns.get(p);
+            patternLengths[p] = text == null ? 0 : text.length();
+            if (text == null || text.isEmpty()) {
+                continue;
+            }
+            int node = 0;
+            for (int i = 0; i < text.length(); i++) {
+                Integer next = children.get(node).get(text.charAt(i));
+                if (next == null) {
+                    next = children.size();
+                    children.add(new TreeMap<>());
+                    terminal.add(-1);
+                    children.get(node).put(text.charAt(i), next);
+                }
+                node = next;
+            }
+            if (terminal.get(node) < 0) {
+                terminal.set(node, p);
+            }
+        }
+
+        int size = children.size();
+        char[][] childChars = new char[size][];
+        int[][] childNodes = new int[size][];
+        int[] pattern = new int[size];
+        for (int node = 0; node < size; node++) {
+            TreeMap<Character, Integer> map = children.get(node);
+            childChars[node] = new char[map.size()];
+            childNodes[node] = new int[map.size()];
+            int k = 0;
+            for (Map.Entry<Character, Integer> entry : map.entrySet()) {
+                childChars[node][k] = entry.getKey();
+                childNodes[node][k] = entry.getValue();
+                k++;
+            }
+            pattern[node] = terminal.get(node);
+        }
+
+        // 너비 우선으로 실패 링크와 출력 링크 계산
+        int[] failure = new int[size];
+        int[] outputLink = new int[size];
+        Arrays.fill(outputLink, -1);
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int child : childNodes[0]) {
+            failure[child] = 0;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int k = 0; k < childChars[node].length; k++) {
+                char c = childChars[node][k];
+                int child = childNodes[node][k];
+                int fallback = failure[node];
+                int target;
+                while ((target = step(childChars, childNodes, fallback, c)) < 0 && fallback != 0) {
+                    fallback = failure[fallback];
+                }
+                failure[child] = target < 0 ? 0 : target;
+                int suffix = failure[child];
+                outputLink[child] = pattern[suffix] >= 0 ? suffix : outputLink[suffix];
+                queue.add(child);
+            }
+        }
+        return new AhoCorasick(childChars, childNodes, failure, pattern, outputLink, patternLengths);
+    }
+
+    /**
+     * text 안의 모든 일치 (끝 위치 순, 같은 끝 위치에서는 긴 패턴부터)
+     */
+    public List<Match> findAll(CharSequence text) {
+        List<Match> matches = new ArrayList<>();
+        if (text == null) {
+            return matches;
+        }
+        int node = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int next;
+            while ((next = step(childChars, childNodes, node, c)) < 0 && node != 0) {
+                node = failure[node];
+            }
+            node = next < 0 ? 0 : next;
+            int out = pattern[node] >= 0 ? node : outputLink[node];
+            while (out >= 0) {
+                int p = pattern[out];
+                matches.add(new Match(p, i + 1 - patternLengths[p], i + 1));
+                out = outputLink[out];
+            }
+        }
+        return matches;
+    }
+
+    public int nodeCount() {
+        return pattern.length;
+    }
+
+    private static int step(char[][] childChars, int[][] childNodes, int node, char c) {
+        int k = Arrays.binarySearch(childChars[node], c);
+        return k < 0 ? -1 : childNodes[node][k];
+    }
+
+    /**
+     * 패턴 번호와 text에서의 위치 [start, end)
+     */
+    public static final class Match {
+        private final int pattern;
+        private final int start;
+        private final int end;
+
+        public Match(int pattern, int start, int end) {
+            this.pattern = pattern;
+            this.start = start;
+            this.end = end;
+        }
+
+        public int getPattern() { return pattern; }
+        public int getStart() { return start; }
+        public int getEnd() { return end; }
+        public int length() { return end - start; }
+    }
+}
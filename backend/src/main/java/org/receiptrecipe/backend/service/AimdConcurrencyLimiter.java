@@ -0,0 +1,93 @@
+package org.receiptrecipe.backend.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AIMD 방식 동시 호출 수 제한기
+ * 응답이 빠르게 성공하면 한도를 조금씩 올리고(+1/limit),
+ * 실패하거나 지연이 기준을 넘으면 한도를 비율만큼 줄인다.
+ * 한도가 찬 상태의 요청은 스레드를 막지 않고 대기 목록에 넣었다가 자리가 나면 이어서 실행한다.
+ */
+public class AimdConcurrencyLimiter {
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final int maxWaiting;
+
+    private final Deque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+    private double limit;
+    private int inFlight;
+
+    public AimdConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                  long latencyThresholdMillis, double backoffRatio, int maxWaiting) {
+        this.name = name;
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+        this.backoffRatio = backoffRatio;
+        this.maxWaiting = maxWaiting;
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+    }
+
+    /**
+     * 자리가 있으면 바로 완료되는 future, 없으면 자리가 났을 때 완료되는 future를 반환한다.
+     * 대기 목록도 가득 찼으면 RejectedExecutionException으로 실패한다.
+     */
+    public synchronized CompletableFuture<Void> acquire() {
+        if (inFlight < (int) limit) {
+            inFlight++;
+            return CompletableFuture.completedFuture(null);
+        }
+        if (waiters.size() >= maxWaiting) {
+            return CompletableFuture.failedFuture(
+                    new RejectedExecutionException(name + " 동시 호출 한도를 초과했습니다."));
+        }
+        CompletableFuture<Void> waiter = new CompletableFuture<>();
+        waiters.add(waiter);
+        return waiter;
+    }
+
+    /**
+     * 호출이 끝나면 반드시 호출한다. 결과에 따라 한도를 조정하고 대기 중인 요청을 깨운다.
+     */
+    public void release(long latencyNanos, boolean success) {
+        List<CompletableFuture<Void>> ready = new ArrayList<>();
+        synchronized (this) {
+            inFlight--;
+            if (!success || latencyNanos > latencyThresholdNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            while (!waiters.isEmpty() && inFlight < (int) limit) {
+                inFlight++;
+                ready.add(waiters.poll());
+            }
+        }
+        // 락 밖에서 깨워야 이어지는 작업이 락을 잡은 채 실행되지 않음
+        for (CompletableFuture<Void> waiter : ready) {
+            waiter.complete(null);
+        }
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized int getWaiting() {
+        return waiters.size();
+    }
+}
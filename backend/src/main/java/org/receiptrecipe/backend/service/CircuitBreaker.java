@@ -0,0 +1,72 @@
+package org.receiptrecipe.backend.service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 외부 API 호출용 서킷 브레이커
+ * 연속 실패가 기준 횟수에 도달하면 OPEN(호출 차단), 일정 시간 후 HALF_OPEN에서 한 건만 시험 호출하고
+ * 성공하면 CLOSED, 실패하면 다시 OPEN으로 돌아간다.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openDurationNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    public CircuitBreaker(int failureThreshold, long openDurationMillis) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(openDurationMillis);
+    }
+
+    /**
+     * 호출해도 되는지 확인한다. true를 받았으면 onSuccess/onFailure/onCancelled 중 하나를 호출해야 한다.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openDurationNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                return false;
+            }
+            trialInFlight = true;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        state = State.CLOSED;
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        trialInFlight = false;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+        }
+    }
+
+    // 외부 호출까지 가지 못한 경우 (예: 동시 호출 한도 초과) - 성공/실패로 세지 않음
+    public synchronized void onCancelled() {
+        trialInFlight = false;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
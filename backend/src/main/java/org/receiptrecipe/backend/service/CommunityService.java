@@ -1,6 +1,8 @@
 package org.receiptrecipe.backend.service;
 
 import org.receiptrecipe.backend.dto.CommentRequest;
+import org.receiptrecipe.backend.dto.CursorPage;
+import org.receiptrecipe.backend.dto.PageCursor;
 import org.receiptrecipe.backend.dto.PostRequest;
 import org.receiptrecipe.backend.entity.*;
 import org.receiptrecipe.backend.repository.*;
@@ -43,6 +45,16 @@ public class CommunityService {
         return posts;
     }
     
+    // 무한 스크롤용 (cursor가 없으면 첫 페이지, 전체 개수는 세지 않음)
+    public CursorPage<Post> getPostsByCursor(String cursor, int size) {
+        PageCursor position = PageCursor.decode(cursor);
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Post> rows = position == null
+                ? postRepository.findSliceByStatus(Post.PostStatus.PUBLISHED, limit)
+                : postRepository.findSliceByStatusBefore(Post.PostStatus.PUBLISHED, position.getCreatedAt(), position.getId(), limit);
+        return CursorPage.of(rows, size, post -> new PageCursor(post.getCreatedAt(), post.getId()));
+    }
+    
     public Page<Post> searchPosts(String keyword, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
         Page<Post> posts = postRepository.findByKeywordAndStatusWithAuthor(keyword, Post.PostStatus.PUBLISHED, pageable);
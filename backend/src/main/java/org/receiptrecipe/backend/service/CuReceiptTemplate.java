@@ -0,0 +1,19 @@
+package org.receiptrecipe.backend.service;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * CU 편의점 영수증 (상품명 수량 금액)
+ * 예) 바나나맛우유 1 1,700
+ */
+@Component
+public class CuReceiptTemplate extends LineItemReceiptTemplate {
+
+    public CuReceiptTemplate() {
+        super("cu", "CU",
+                "^CU(?:\\s|$)|\\(CU\\)|BGF\\s*리테일|씨유",
+                "^(?<name>\\S.*?)\\s+(?<qty>\\d{1,3})\\s+(?<total>\\d{1,3}(?:,\\d{3})*)\\s*원?$",
+                "^(?:합\\s*계|총\\s*합계|결제\\s*금액)\\s*:?\\s*(?<amount>\\d{1,3}(?:,\\d{3})*)\\s*원?$",
+                "상품명", "과세", "면세", "부가세", "영수증", "사업자", "TEL", "전화", "POS");
+    }
+}
@@ -7,9 +7,12 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Service
 public class DashboardService {
@@ -26,6 +29,14 @@ public class DashboardService {
     @Autowired
     private IngredientExpiryRepository ingredientExpiryRepository;
     
+    @Autowired
+    private RecipeMatchIndex recipeMatchIndex;
+    
+    @Autowired
+    private RecipeRecommender recipeRecommender;
+    
+    private static final int RECOMMENDATION_LIMIT = 20;
+    
     public Map<String, Object> getDashboardStats(Long userId) {
         Map<String, Object> stats = new HashMap<>();
         
@@ -98,9 +109,42 @@ public class DashboardService {
     }
     
     public List<Recipe> getRecommendedRecipes(Long userId) {
-        // 사용자의 최근 구매 재료를 기반으로 레시피 추천
-        // 간단한 추천 로직 (실제로는 더 복잡한 알고리즘 사용 가능)
-        return recipeRepository.findByUserId(userId);
+        // 취향(평점/즐겨찾기 기반 아이템-아이템 추천)과 냉장고 재료(유통기한 임박 우선)로 고른 레시피를 번갈아 섞음
+        List<Long> liked = recipeRecommender.recommend(userId, RECOMMENDATION_LIMIT).stream()
+                .map(RecipeRecommender.Scored::getRecipeId).toList();
+        List<Long> cookable = recipeMatchIndex.recommend(userId, RECOMMENDATION_LIMIT).stream()
+                .map(RecipeMatchIndex.Match::getRecipeId).toList();
+        Set<Long> merged = new LinkedHashSet<>();
+        for (int i = 0; i < Math.max(liked.size(), cookable.size()) && merged.size() < RECOMMENDATION_LIMIT; i++) {
+            if (i < liked.size()) {
+                merged.add(liked.get(i));
+            }
+            if (i < cookable.size() && merged.size() < RECOMMENDATION_LIMIT) {
+                merged.add(cookable.get(i));
+            }
+        }
+        if (merged.isEmpty()) {
+            // 평가한 레시피도 냉장고 재료도 없으면 사용자의 레시피
+            return recipeRepository.findByUserId(userId);
+        }
+        List<Long> ids = new ArrayList<>(merged);
+        Map<Long, Recipe> byId = new HashMap<>();
+        for (Recipe recipe : recipeRepository.findAllById(ids)) {
+            byId.put(recipe.getId(), recipe);
+        }
+        List<Recipe> recipes = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Recipe recipe = byId.get(id);
+            if (recipe != null) {
+                recipes.add(recipe);
+            }
+        }
+        return recipes;
+    }
+    
+    // 추천 레시피와 점수/없는 재료 (레시피 엔티티를 읽지 않음)
+    public List<RecipeMatchIndex.Match> getCookableRecipes(Long userId, int limit) {
+        return recipeMatchIndex.recommend(userId, limit);
     }
     
     private Map<String, Double> calculateMonthlySpending(List<Receipt> receipts) {
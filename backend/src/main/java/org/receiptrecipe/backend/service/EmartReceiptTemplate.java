@@ -0,0 +1,19 @@
+package org.receiptrecipe.backend.service;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * 이마트 영수증 (상품명 단가 수량 금액, 앞에 순번이 붙기도 함)
+ * 예) 001 양파(망) 3,980 1 3,980
+ */
+@Component
+public class EmartReceiptTemplate extends LineItemReceiptTemplate {
+
+    public EmartReceiptTemplate() {
+        super("emart", "이마트",
+                "이마트|E-?MART",
+                "^(?:\\d{2,3}\\s+)?(?<name>\\S.*?)\\s+(?<unit>\\d{1,3}(?:,\\d{3})*)\\s+(?<qty>\\d{1,3})\\s+(?<total>\\d{1,3}(?:,\\d{3})*)$",
+                "^(?:합\\s*계|결제\\s*대상\\s*금액|총\\s*구매액)\\s*:?\\s*(?<amount>\\d{1,3}(?:,\\d{3})*)\\s*원?$",
+                "상품명", "과세", "면세", "부가세", "영수증", "사업자", "TEL", "전화");
+    }
+}
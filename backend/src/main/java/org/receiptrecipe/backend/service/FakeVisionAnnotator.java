@@ -0,0 +1,63 @@
+package org.receiptrecipe.backend.service;
+
+import com.google.cloud.vision.v1.AnnotateImageRequest;
+import com.google.cloud.vision.v1.AnnotateImageResponse;
+import com.google.cloud.vision.v1.EntityAnnotation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Google Cloud 인증 없이 OCR 흐름을 확인하기 위한 로컬 Vision 호출기 (app.ocr.annotator=fake)
+ * 이미지 내용이 UTF-8 텍스트면 그 텍스트를, 아니면 고정된 샘플 영수증 텍스트를 돌려준다.
+ */
+@Component
+@ConditionalOnProperty(name = "app.ocr.annotator", havingValue = "fake")
+public class FakeVisionAnnotator implements VisionAnnotator {
+
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong imageCount = new AtomicLong();
+
+    @Override
+    public List<AnnotateImageResponse> batchAnnotate(List<AnnotateImageRequest> requests) {
+        batchCount.incrementAndGet();
+        imageCount.addAndGet(requests.size());
+
+        List<AnnotateImageResponse> responses = new ArrayList<>(requests.size());
+        for (AnnotateImageRequest request : requests) {
+            String text = decodeText(request.getImage().getContent().asReadOnlyByteBuffer());
+            responses.add(AnnotateImageResponse.newBuilder()
+                    .addTextAnnotations(EntityAnnotation.newBuilder().setDescription(text).build())
+                    .build());
+        }
+        return responses;
+    }
+
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    public long getImageCount() {
+        return imageCount.get();
+    }
+
+    private String decodeText(ByteBuffer content) {
+        try {
+            return StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT)
+                    .decode(content)
+                    .toString();
+        } catch (CharacterCodingException e) {
+            return "이마트 테스트점\n" + LocalDate.now() + "\n양파 1,500원\n우유 2,800원\n계란 5,900원\n합계 10,200원";
+        }
+    }
+}
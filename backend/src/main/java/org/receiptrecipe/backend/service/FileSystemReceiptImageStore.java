@@ -0,0 +1,133 @@
+package org.receiptrecipe.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * 로컬 디스크 이미지 저장소 (app.upload.dir 아래 "ab/cd/<해시>.jpg")
+ * 같은 디렉토리의 임시 파일에 쓴 뒤 이동하므로 읽는 쪽이 쓰다 만 파일을 보지 않는다.
+ * 샤딩 이전에 저장된 파일은 루트 디렉토리에서 찾는다.
+ */
+@Service
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "filesystem", matchIfMissing = true)
+public class FileSystemReceiptImageStore implements ReceiptImageStore {
+
+    @Value("${app.upload.dir:uploads/receipts/}")
+    private String uploadDir;
+
+    private Path root;
+    private Path tempDir;
+
+    @PostConstruct
+    public void init() throws IOException {
+        root = Paths.get(uploadDir);
+        // 임시 파일은 같은 파일시스템에 있어야 원자적으로 이동 가능
+        tempDir = root.resolve(".tmp");
+        Files.createDirectories(tempDir);
+    }
+
+    @Override
+    public String store(InputStream content, String originalFilename) throws IOException {
+        Path tempFile = Files.createTempFile(tempDir, "upload-", ".tmp");
+        try {
+            String key = ReceiptImageStore.spoolToTempFile(content, originalFilename, tempFile);
+            Path target = root.resolve(ReceiptImageStore.shardedPath(key));
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                moveIntoPlace(tempFile, target);
+            }
+            return key;
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    @Override
+    public void put(String key, byte[] content) throws IOException {
+        Path target = root.resolve(ReceiptImageStore.shardedPath(key));
+        Files.createDirectories(target.getParent());
+        Path tempFile = Files.createTempFile(tempDir, "put-", ".tmp");
+        try {
+            Files.write(tempFile, content);
+            try {
+                Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(pathOf(key));
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.exists(pathOf(key));
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(root.resolve(ReceiptImageStore.shardedPath(key)));
+        Files.deleteIfExists(legacyPathOf(key));
+    }
+
+    @Override
+    public Resource asResource(String key) throws IOException {
+        Path path = pathOf(key);
+        if (!Files.isRegularFile(path)) {
+            throw new NoSuchFileException(key);
+        }
+        // 파일 채널로 필요한 구간만 읽어서 전송 (힙에 파일 전체를 올리지 않음)
+        return new FileSystemResource(path);
+    }
+
+    /**
+     * 키에 해당하는 실제 파일 경로 (파일을 직접 전송할 때 사용)
+     */
+    public Path pathOf(String key) {
+        Path sharded = root.resolve(ReceiptImageStore.shardedPath(key));
+        if (Files.exists(sharded)) {
+            return sharded;
+        }
+        Path legacy = legacyPathOf(key);
+        return Files.exists(legacy) ? legacy : sharded;
+    }
+
+    private Path legacyPathOf(String key) {
+        // shardedPath가 키 형식을 검증함
+        ReceiptImageStore.shardedPath(key);
+        return root.resolve(key);
+    }
+
+    private static void moveIntoPlace(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            try {
+                Files.move(source, target);
+            } catch (FileAlreadyExistsException ignored) {
+                // 같은 내용을 다른 요청이 먼저 저장함
+            }
+        } catch (FileAlreadyExistsException ignored) {
+            // 같은 내용을 다른 요청이 먼저 저장함
+        }
+    }
+}
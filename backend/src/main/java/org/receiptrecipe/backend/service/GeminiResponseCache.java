@@ -0,0 +1,271 @@
+package org.receiptrecipe.backend.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Gemini 파싱 결과 캐시
+ * 키는 정규화한 OCR 텍스트와 프롬프트 버전의 SHA-256 해시이다.
+ * 메모리(LRU + TTL)를 먼저 보고, app.gemini.cache.dir 이 설정되어 있으면 디스크도 확인한다.
+ * 저장할 때와 꺼낼 때 모두 복사하므로 호출한 쪽이 결과를 고쳐도 캐시에는 영향이 없다.
+ */
+@Service
+public class GeminiResponseCache {
+
+    // 정규화 방식이 바뀌면 올림 (예전 방식으로 만든 키와 겹치지 않도록)
+    private static final String KEY_FORMAT = "2";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.gemini.cache.max-entries:5000}")
+    private int maxEntries;
+
+    @Value("${app.gemini.cache.ttl-hours:168}")
+    private long ttlHours;
+
+    // 비어 있으면 디스크 캐시 사용 안 함
+    @Value("${app.gemini.cache.dir:}")
+    private String cacheDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Map<String, Entry> memory;
+    private Path diskRoot;
+
+    private Counter memoryHitCounter;
+    private Counter diskHitCounter;
+    private Counter missCounter;
+
+    @PostConstruct
+    public void init() {
+        memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        if (cacheDir != null && !cacheDir.isBlank()) {
+            diskRoot = Paths.get(cacheDir);
+        }
+
+        memoryHitCounter = meterRegistry.counter("gemini.cache.lookups", "result", "memory_hit");
+        diskHitCounter = meterRegistry.counter("gemini.cache.lookups", "result", "disk_hit");
+        missCounter = meterRegistry.counter("gemini.cache.lookups", "result", "miss");
+        Gauge.builder("gemini.cache.size", this, GeminiResponseCache::size).register(meterRegistry);
+    }
+
+    public Optional<Map<String, Object>> get(String ocrText, String promptVersion) {
+        String key = keyOf(ocrText, promptVersion);
+        long now = System.currentTimeMillis();
+
+        Entry entry;
+        synchronized (memory) {
+            entry = memory.get(key);
+            if (entry != null && isExpired(entry, now)) {
+                memory.remove(key);
+                entry = null;
+            }
+        }
+        if (entry != null) {
+            memoryHitCounter.increment();
+            return Optional.of(copyOf(entry.result));
+        }
+
+        entry = readFromDisk(key, now);
+        if (entry != null) {
+            synchronized (memory) {
+                memory.put(key, entry);
+            }
+            diskHitCounter.increment();
+            return Optional.of(copyOf(entry.result));
+        }
+
+        missCounter.increment();
+        return Optional.empty();
+    }
+
+    public void put(String ocrText, String promptVersion, Map<String, Object> result) {
+        String key = keyOf(ocrText, promptVersion);
+        Entry entry = new Entry(System.currentTimeMillis(), copyOf(result));
+        synchronized (memory) {
+            memory.put(key, entry);
+        }
+        writeToDisk(key, entry);
+    }
+
+    public int size() {
+        synchronized (memory) {
+            return memory.size();
+        }
+    }
+
+    /**
+     * 공백과 OCR 잡음(구분선, 장식 문자)을 제거해 같은 영수증은 같은 키가 되도록 한다.
+     * 빼기 기호는 금액의 부호일 수 있으므로 남기고("할인 -1,000"), 3개 이상 이어진 경우만 구분선으로 본다.
+     */
+    static String normalize(String ocrText) {
+        if (ocrText == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(ocrText.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < ocrText.length(); i++) {
+            char c = ocrText.charAt(i);
+            if (isMinus(c)) {
+                int end = i;
+                while (end < ocrText.length() && isMinus(ocrText.charAt(end))) end++;
+                if (end - i >= 3) {
+                    pendingSpace = normalized.length() > 0;
+                    i = end - 1;
+                    continue;
+                }
+                // 전각/수학 빼기 기호는 '-'로 통일
+                c = '-';
+            } else if (Character.isWhitespace(c) || isNoise(c)) {
+                pendingSpace = normalized.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                normalized.append(' ');
+                pendingSpace = false;
+            }
+            normalized.append(Character.toLowerCase(c));
+        }
+        return normalized.toString();
+    }
+
+    private static boolean isNoise(char c) {
+        return c == '*' || c == '=' || c == '_' || c == '|' || c == '#' || c == '~'
+                || (c >= '─' && c <= '╿'); // 박스 그리기 문자
+    }
+
+    private static boolean isMinus(char c) {
+        return c == '-' || c == '−' || c == '－';
+    }
+
+    // Map/List는 새로 만들어 복사 (문자열, 숫자 등은 불변이라 그대로)
+    @SuppressWarnings("unchecked")
+    static <T> T copyOf(T value) {
+        if (value instanceof Map) {
+            Map<Object, Object> copy = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                copy.put(entry.getKey(), copyOf(entry.getValue()));
+            }
+            return (T) copy;
+        }
+        if (value instanceof List) {
+            List<Object> copy = new ArrayList<>(((List<?>) value).size());
+            for (Object element : (List<?>) value) {
+                copy.add(copyOf(element));
+            }
+            return (T) copy;
+        }
+        return value;
+    }
+
+    private static String keyOf(String ocrText, String promptVersion) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(KEY_FORMAT.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(promptVersion.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(normalize(ocrText).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return now - entry.createdAt > ttlHours * 3_600_000L;
+    }
+
+    private Path diskPath(String key) {
+        return diskRoot.resolve(key.substring(0, 2)).resolve(key + ".json");
+    }
+
+    private Entry readFromDisk(String key, long now) {
+        if (diskRoot == null) {
+            return null;
+        }
+        Path path = diskPath(key);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try {
+            Map<String, Object> stored = objectMapper.readValue(path.toFile(), new TypeReference<Map<String, Object>>() {});
+            long createdAt = ((Number) stored.get("createdAt")).longValue();
+            @SuppressWarnings("unchecked")
+            Map<String, Object> result = (Map<String, Object>) stored.get("result");
+            Entry entry = new Entry(createdAt, result);
+            if (result == null || isExpired(entry, now)) {
+                Files.deleteIfExists(path);
+                return null;
+            }
+            return entry;
+        } catch (Exception e) {
+            System.err.println("Gemini 캐시 파일 읽기 실패: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, Entry entry) {
+        if (diskRoot == null) {
+            return;
+        }
+        try {
+            Path path = diskPath(key);
+            Files.createDirectories(path.getParent());
+            Map<String, Object> stored = new HashMap<>();
+            stored.put("createdAt", entry.createdAt);
+            stored.put("result", entry.result);
+
+            // 임시 파일에 쓴 뒤 이동 (읽는 쪽이 반쯤 쓰인 파일을 보지 않도록)
+            Path tempFile = Files.createTempFile(path.getParent(), key, ".tmp");
+            objectMapper.writeValue(tempFile.toFile(), stored);
+            try {
+                Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            System.err.println("Gemini 캐시 파일 쓰기 실패: " + e.getMessage());
+        }
+    }
+
+    private static class Entry {
+        private final long createdAt;
+        private final Map<String, Object> result;
+
+        private Entry(long createdAt, Map<String, Object> result) {
+            this.createdAt = createdAt;
+            this.result = result;
+        }
+    }
+}
@@ -2,6 +2,15 @@ package org.receiptrecipe.backend.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -15,39 +24,296 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 public class GeminiService {
 
+    // 프롬프트나 응답 형식을 바꾸면 올려서 이전 캐시 결과를 무효화
+    static final String PROMPT_VERSION = "receipt-v1";
+
     @Value("${gemini.api.key:}")
     private String geminiApiKey;
 
+    @Autowired
+    private ReceiptTextParser receiptTextParser;
+
+    @Autowired
+    private ReceiptTemplateRegistry receiptTemplateRegistry;
+
+    @Autowired
+    private GeminiResponseCache geminiResponseCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // 여러 영수증을 한 프롬프트로 묶어 호출 (API 호출 횟수 절감)
+    @Value("${app.gemini.batch.enabled:false}")
+    private boolean batchEnabled;
+
+    @Value("${app.gemini.batch.max-size:8}")
+    private int batchMaxSize;
+
+    @Value("${app.gemini.batch.max-wait-ms:300}")
+    private long batchMaxWaitMillis;
+
+    @Value("${app.gemini.batch.max-concurrent:2}")
+    private int batchMaxConcurrent;
+
+    @Value("${app.gemini.batch.timeout-seconds:120}")
+    private long batchTimeoutSeconds;
+
+    @Value("${app.gemini.timeout-seconds:60}")
+    private long requestTimeoutSeconds;
+
+    // 동시 호출 수 한도 (응답 지연/실패에 따라 min~max 사이에서 자동 조정)
+    @Value("${app.gemini.limiter.initial:4}")
+    private int limiterInitial;
+
+    @Value("${app.gemini.limiter.min:1}")
+    private int limiterMin;
+
+    @Value("${app.gemini.limiter.max:32}")
+    private int limiterMax;
+
+    @Value("${app.gemini.limiter.latency-threshold-ms:15000}")
+    private long limiterLatencyThresholdMillis;
+
+    @Value("${app.gemini.limiter.max-waiting:200}")
+    private int limiterMaxWaiting;
+
+    @Value("${app.gemini.circuit.failure-threshold:5}")
+    private int circuitFailureThreshold;
+
+    @Value("${app.gemini.circuit.open-seconds:30}")
+    private long circuitOpenSeconds;
+
+    private MicroBatcher<String, Map<String, Object>> receiptBatcher;
+    private DistributionSummary batchSizeSummary;
+    private Counter batchOmittedCounter;
+
+    private AimdConcurrencyLimiter concurrencyLimiter;
+    private CircuitBreaker circuitBreaker;
+    private Timer successTimer;
+    private Timer failureTimer;
+    private Counter shortCircuitCounter;
+    private Counter limiterRejectedCounter;
+
+    private final ThreadPoolExecutor httpExecutor;
     private final HttpClient httpClient;
     private final ObjectMapper objectMapper;
 
     public GeminiService() {
+        // 응답 처리용 스레드 (요청 대기 중에는 스레드를 점유하지 않음)
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.httpExecutor = new ThreadPoolExecutor(2, 2, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "gemini-http-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
         this.httpClient = HttpClient.newBuilder()
                 .connectTimeout(Duration.ofSeconds(30))
+                .executor(httpExecutor)
                 .build();
         this.objectMapper = new ObjectMapper();
     }
 
+    @PostConstruct
+    public void init() {
+        batchSizeSummary = DistributionSummary.builder("gemini.batch.size")
+                .description("Gemini 한 번 호출에 묶인 영수증 수")
+                .register(meterRegistry);
+        batchOmittedCounter = meterRegistry.counter("gemini.batch.omitted");
+
+        concurrencyLimiter = new AimdConcurrencyLimiter("gemini", limiterInitial, limiterMin, limiterMax,
+                limiterLatencyThresholdMillis, 0.5, limiterMaxWaiting);
+        circuitBreaker = new CircuitBreaker(circuitFailureThreshold, TimeUnit.SECONDS.toMillis(circuitOpenSeconds));
+
+        successTimer = apiTimer("success");
+        failureTimer = apiTimer("failure");
+        shortCircuitCounter = meterRegistry.counter("gemini.api.short.circuited");
+        limiterRejectedCounter = meterRegistry.counter("gemini.limiter.rejected");
+        Gauge.builder("gemini.limiter.limit", concurrencyLimiter, AimdConcurrencyLimiter::getLimit).register(meterRegistry);
+        Gauge.builder("gemini.limiter.inflight", concurrencyLimiter, AimdConcurrencyLimiter::getInFlight).register(meterRegistry);
+        Gauge.builder("gemini.limiter.waiting", concurrencyLimiter, AimdConcurrencyLimiter::getWaiting).register(meterRegistry);
+        // 0: CLOSED, 1: HALF_OPEN, 2: OPEN
+        Gauge.builder("gemini.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal()).register(meterRegistry);
+        Gauge.builder("gemini.http.threads.active", httpExecutor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+
+        if (batchEnabled) {
+            receiptBatcher = new MicroBatcher<>("gemini", batchMaxSize, batchMaxWaitMillis, batchMaxConcurrent,
+                    this::parseReceiptBatch, batchSizeSummary::record);
+            Gauge.builder("gemini.batch.queue.depth", receiptBatcher, MicroBatcher::getQueueSize).register(meterRegistry);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (receiptBatcher != null) {
+            receiptBatcher.close();
+        }
+        httpExecutor.shutdown();
+    }
+
     public Map<String, Object> processReceiptText(String ocrText) throws IOException {
+        if (receiptBatcher == null) {
+            // 비동기 호출 결과를 기다림 (실패 시 기본 파싱 결과로 완료됨)
+            return processReceiptTextAsync(ocrText).join();
+        }
+
+        Optional<Map<String, Object>> templated = parseWithTemplate(ocrText);
+        if (templated.isPresent()) {
+            return templated.get();
+        }
         if (geminiApiKey == null || geminiApiKey.isEmpty()) {
             // API 키가 없는 경우 기본 파싱
             return parseReceiptTextBasic(ocrText);
         }
 
+        Optional<Map<String, Object>> cached = geminiResponseCache.get(ocrText, PROMPT_VERSION);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
         try {
-            String prompt = createReceiptParsingPrompt(ocrText);
-            String geminiResponse = callGeminiApi(prompt);
-            return parseGeminiResponse(geminiResponse);
+            // 비슷한 시점에 들어온 다른 영수증과 묶여서 호출됨
+            Map<String, Object> result = receiptBatcher.submit(ocrText).get(batchTimeoutSeconds, TimeUnit.SECONDS);
+            if (result == null) {
+                // 배치 응답에서 이 영수증이 빠진 경우
+                return parseReceiptTextBasic(ocrText);
+            }
+            // 기본 파싱으로 대체된 결과는 캐시하지 않음
+            geminiResponseCache.put(ocrText, PROMPT_VERSION, result);
+            return result;
         } catch (Exception e) {
             System.err.println("Gemini API 호출 실패, 기본 파싱으로 대체: " + e.getMessage());
             return parseReceiptTextBasic(ocrText);
         }
     }
 
+    /**
+     * 비동기 파싱. 호출 스레드를 막지 않으며, Gemini 호출이 실패하거나
+     * 서킷 브레이커가 열려 있으면 기본 파싱 결과로 완료된다 (예외로 완료되지 않음).
+     */
+    public CompletableFuture<Map<String, Object>> processReceiptTextAsync(String ocrText) {
+        Optional<Map<String, Object>> templated = parseWithTemplate(ocrText);
+        if (templated.isPresent()) {
+            return CompletableFuture.completedFuture(templated.get());
+        }
+        if (geminiApiKey == null || geminiApiKey.isEmpty()) {
+            return CompletableFuture.completedFuture(parseReceiptTextBasic(ocrText));
+        }
+
+        Optional<Map<String, Object>> cached = geminiResponseCache.get(ocrText, PROMPT_VERSION);
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(cached.get());
+        }
+
+        return callGeminiApiAsync(createReceiptParsingPrompt(ocrText))
+                .thenApply(geminiResponse -> {
+                    try {
+                        Map<String, Object> result = parseGeminiResponse(geminiResponse);
+                        geminiResponseCache.put(ocrText, PROMPT_VERSION, result);
+                        return result;
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                })
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    System.err.println("Gemini API 호출 실패, 기본 파싱으로 대체: " + cause.getMessage());
+                    return parseReceiptTextBasic(ocrText);
+                });
+    }
+
+    /**
+     * 여러 영수증을 한 번에 파싱 (일괄 재처리용)
+     * 캐시에 없는 것만 batch.max-size 단위로 묶어 호출하며, 결과는 입력과 같은 순서이다.
+     */
+    public List<Map<String, Object>> processReceiptTexts(List<String> ocrTexts) {
+        List<Map<String, Object>> results = new ArrayList<>(ocrTexts.size());
+        if (geminiApiKey == null || geminiApiKey.isEmpty()) {
+            for (String ocrText : ocrTexts) {
+                results.add(parseWithTemplate(ocrText).orElseGet(() -> parseReceiptTextBasic(ocrText)));
+            }
+            return results;
+        }
+
+        List<Integer> pending = new ArrayList<>();
+        for (int i = 0; i < ocrTexts.size(); i++) {
+            Optional<Map<String, Object>> known = parseWithTemplate(ocrTexts.get(i));
+            if (known.isEmpty()) {
+                known = geminiResponseCache.get(ocrTexts.get(i), PROMPT_VERSION);
+            }
+            results.add(known.orElse(null));
+            if (known.isEmpty()) {
+                pending.add(i);
+            }
+        }
+
+        int chunkSize = Math.max(1, batchMaxSize);
+        for (int from = 0; from < pending.size(); from += chunkSize) {
+            List<Integer> chunk = pending.subList(from, Math.min(from + chunkSize, pending.size()));
+            List<String> chunkTexts = new ArrayList<>(chunk.size());
+            for (Integer index : chunk) {
+                chunkTexts.add(ocrTexts.get(index));
+            }
+
+            List<Map<String, Object>> parsed;
+            try {
+                batchSizeSummary.record(chunk.size());
+                parsed = parseReceiptBatch(chunkTexts);
+            } catch (Exception e) {
+                System.err.println("Gemini 일괄 호출 실패, 기본 파싱으로 대체: " + e.getMessage());
+                parsed = new ArrayList<>(chunk.size());
+                for (int i = 0; i < chunk.size(); i++) {
+                    parsed.add(null);
+                }
+            }
+
+            for (int i = 0; i < chunk.size(); i++) {
+                String ocrText = chunkTexts.get(i);
+                Map<String, Object> result = parsed.get(i);
+                if (result == null) {
+                    result = parseReceiptTextBasic(ocrText);
+                } else {
+                    geminiResponseCache.put(ocrText, PROMPT_VERSION, result);
+                }
+                results.set(chunk.get(i), result);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * 영수증 여러 장을 한 번의 Gemini 호출로 파싱한다.
+     * 응답에서 빠진 영수증 자리는 null (호출한 쪽에서 기본 파싱으로 대체)
+     */
+    private List<Map<String, Object>> parseReceiptBatch(List<String> ocrTexts) {
+        try {
+            if (ocrTexts.size() == 1) {
+                String geminiResponse = callGeminiApi(createReceiptParsingPrompt(ocrTexts.get(0)));
+                List<Map<String, Object>> single = new ArrayList<>(1);
+                single.add(parseGeminiResponse(geminiResponse));
+                return single;
+            }
+            String geminiResponse = callGeminiApi(createBatchReceiptParsingPrompt(ocrTexts));
+            return parseGeminiBatchResponse(geminiResponse, ocrTexts.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Gemini 일괄 호출이 중단되었습니다.", e);
+        } catch (IOException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
     private String createReceiptParsingPrompt(String ocrText) {
         return String.format("""
             다음은 영수증 OCR 텍스트입니다. 이 텍스트를 분석하여 JSON 형태로 파싱해주세요.
@@ -80,7 +346,72 @@ public class GeminiService {
             """, ocrText);
     }
 
+    private String createBatchReceiptParsingPrompt(List<String> ocrTexts) {
+        StringBuilder receipts = new StringBuilder();
+        for (int i = 0; i < ocrTexts.size(); i++) {
+            receipts.append("[영수증 id=r").append(i).append("]\n")
+                    .append(ocrTexts.get(i)).append("\n")
+                    .append("[/영수증]\n\n");
+        }
+
+        return String.format("""
+            다음은 영수증 %d장의 OCR 텍스트입니다. 각 영수증은 [영수증 id=...] 와 [/영수증] 사이에 있습니다.
+            영수증마다 따로 분석하여 JSON 배열로 파싱해주세요.
+            
+            %s
+            각 영수증에서 다음 정보를 추출해주세요:
+            1. 영수증 id (id) - 위에 표시된 id 그대로
+            2. 매장명 (storeName)
+            3. 구매일 (purchaseDate) - YYYY-MM-DD 형식
+            4. 총 금액 (totalAmount) - 숫자만
+            5. 상품 목록 (items) - 각 상품의 이름, 수량, 단가, 총가격
+            
+            응답은 반드시 영수증마다 하나의 객체를 가진 다음 JSON 배열 형식으로 해주세요:
+            [
+                {
+                    "id": "r0",
+                    "storeName": "매장명",
+                    "purchaseDate": "2024-01-01",
+                    "totalAmount": 10000.0,
+                    "items": [
+                        {
+                            "name": "상품명",
+                            "quantity": 1,
+                            "unitPrice": 1000.0,
+                            "totalPrice": 1000.0
+                        }
+                    ]
+                }
+            ]
+            
+            정보를 찾을 수 없는 경우 null 또는 빈 배열로 표시해주세요.
+            """, ocrTexts.size(), receipts);
+    }
+
+    // 동기 호출이 필요한 곳(배치 처리)용
     private String callGeminiApi(String prompt) throws IOException, InterruptedException {
+        try {
+            return callGeminiApiAsync(prompt).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+                    ? e.getCause().getCause() : e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * 서킷 브레이커 → 동시 호출 한도 → sendAsync 순서로 거쳐 Gemini를 호출한다.
+     * 브레이커가 열려 있으면 네트워크 호출 없이 즉시 실패한다.
+     */
+    private CompletableFuture<String> callGeminiApiAsync(String prompt) {
+        if (!circuitBreaker.tryAcquire()) {
+            shortCircuitCounter.increment();
+            return CompletableFuture.failedFuture(new IOException("Gemini API 일시 차단 중 (서킷 브레이커 열림)"));
+        }
+
         String apiUrl = "https://generativelanguage.googleapis.com/v1beta/models/gemini-pro:generateContent";
         
         Map<String, Object> requestBody = new HashMap<>();
@@ -90,25 +421,114 @@ public class GeminiService {
         content.put("parts", new Object[]{part});
         requestBody.put("contents", new Object[]{content});
 
-        String jsonBody = objectMapper.writeValueAsString(requestBody);
+        String jsonBody;
+        try {
+            jsonBody = objectMapper.writeValueAsString(requestBody);
+        } catch (IOException e) {
+            circuitBreaker.onCancelled();
+            return CompletableFuture.failedFuture(e);
+        }
 
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create(apiUrl + "?key=" + geminiApiKey))
                 .header("Content-Type", "application/json")
                 .POST(HttpRequest.BodyPublishers.ofString(jsonBody))
-                .timeout(Duration.ofSeconds(60))
+                .timeout(Duration.ofSeconds(requestTimeoutSeconds))
                 .build();
 
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        return concurrencyLimiter.acquire()
+                .whenComplete((ignored, rejected) -> {
+                    if (rejected != null) {
+                        circuitBreaker.onCancelled();
+                        limiterRejectedCounter.increment();
+                    }
+                })
+                .thenCompose(ignored -> {
+                    long startedAt = System.nanoTime();
+                    return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                            .thenApply(response -> {
+                                if (response.statusCode() != 200) {
+                                    throw new CompletionException(new IOException(
+                                            "Gemini API 호출 실패: " + response.statusCode() + " - " + response.body()));
+                                }
+                                return response.body();
+                            })
+                            .whenComplete((body, error) -> {
+                                long elapsed = System.nanoTime() - startedAt;
+                                boolean success = error == null;
+                                concurrencyLimiter.release(elapsed, success);
+                                if (success) {
+                                    circuitBreaker.onSuccess();
+                                    successTimer.record(elapsed, TimeUnit.NANOSECONDS);
+                                } else {
+                                    circuitBreaker.onFailure();
+                                    failureTimer.record(elapsed, TimeUnit.NANOSECONDS);
+                                }
+                            });
+                });
+    }
+
+    private Timer apiTimer(String outcome) {
+        return Timer.builder("gemini.api.latency")
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
 
-        if (response.statusCode() != 200) {
-            throw new IOException("Gemini API 호출 실패: " + response.statusCode() + " - " + response.body());
+    private Map<String, Object> parseGeminiResponse(String geminiResponse) throws IOException {
+        String text = extractResponseText(geminiResponse);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> result = (Map<String, Object>) objectMapper.readValue(text, Map.class);
+        return result;
+    }
+
+    // 배열 응답을 id(r0, r1, ...) 기준으로 원래 순서에 맞춰 분배
+    private List<Map<String, Object>> parseGeminiBatchResponse(String geminiResponse, int expectedSize) throws IOException {
+        JsonNode parsed = objectMapper.readTree(extractResponseText(geminiResponse));
+        if (parsed.isObject() && parsed.has("receipts")) {
+            parsed = parsed.get("receipts");
+        }
+        if (!parsed.isArray()) {
+            throw new IOException("Gemini 일괄 응답이 배열이 아닙니다.");
         }
 
-        return response.body();
+        List<Map<String, Object>> results = new ArrayList<>(expectedSize);
+        for (int i = 0; i < expectedSize; i++) {
+            results.add(null);
+        }
+        for (JsonNode node : parsed) {
+            if (!node.isObject() || !node.hasNonNull("id")) {
+                continue;
+            }
+            String id = node.get("id").asText().trim();
+            if (id.startsWith("r")) {
+                id = id.substring(1);
+            }
+            int index;
+            try {
+                index = Integer.parseInt(id);
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            if (index < 0 || index >= expectedSize || results.get(index) != null) {
+                continue;
+            }
+            ((ObjectNode) node).remove("id");
+            @SuppressWarnings("unchecked")
+            Map<String, Object> result = objectMapper.convertValue(node, Map.class);
+            results.set(index, result);
+        }
+
+        for (Map<String, Object> result : results) {
+            if (result == null) {
+                batchOmittedCounter.increment();
+            }
+        }
+        return results;
     }
 
-    private Map<String, Object> parseGeminiResponse(String geminiResponse) throws IOException {
+    // 응답에서 모델이 생성한 텍스트를 꺼내고 코드 블록 표시를 제거
+    private String extractResponseText(String geminiResponse) throws IOException {
         JsonNode rootNode = objectMapper.readTree(geminiResponse);
         JsonNode candidates = rootNode.get("candidates");
         
@@ -134,9 +554,7 @@ public class GeminiService {
                         }
                     }
                     
-                    @SuppressWarnings("unchecked")
-                    Map<String, Object> result = (Map<String, Object>) objectMapper.readValue(text, Map.class);
-                    return result;
+                    return text;
                 }
             }
         }
@@ -144,97 +562,13 @@ public class GeminiService {
         throw new IOException("Gemini 응답 파싱 실패");
     }
 
+    // 양식이 알려진 매장 영수증은 Gemini 없이 처리
+    private Optional<Map<String, Object>> parseWithTemplate(String ocrText) {
+        return receiptTemplateRegistry.parse(ocrText).map(ReceiptTextParser::toMap);
+    }
+
     private Map<String, Object> parseReceiptTextBasic(String ocrText) {
-        Map<String, Object> result = new HashMap<>();
-        List<Map<String, Object>> items = new ArrayList<>();
-        
-        // 기본값 설정
-        result.put("storeName", "Unknown Store");
-        result.put("purchaseDate", java.time.LocalDate.now().toString());
-        result.put("totalAmount", 0.0);
-        
-        // 간단한 패턴 매칭으로 정보 추출
-        String[] lines = ocrText.split("\n");
-        boolean foundStoreName = false;
-        
-        for (String line : lines) {
-            line = line.trim();
-            if (line.isEmpty()) continue;
-            
-            // 매장명 추출 (첫 번째로 긴 줄을 매장명으로 추정)
-            if (!foundStoreName && line.length() > 3 && line.length() < 50 && 
-                !line.matches(".*\\d{4}-\\d{2}-\\d{2}.*") && 
-                !line.matches(".*\\d+[,.]?\\d*원.*") &&
-                !line.contains("영수증") && !line.contains("매장")) {
-                result.put("storeName", line);
-                foundStoreName = true;
-                continue;
-            }
-            
-            // 총 금액 추출
-            if (line.contains("총") || line.contains("합계") || line.contains("total") || 
-                line.contains("총액") || line.contains("결제")) {
-                String amountStr = line.replaceAll("[^\\d,.]", "");
-                if (!amountStr.isEmpty()) {
-                    try {
-                        double amount = Double.parseDouble(amountStr.replace(",", ""));
-                        result.put("totalAmount", amount);
-                    } catch (NumberFormatException e) {
-                        // 무시
-                    }
-                }
-                continue;
-            }
-            
-            // 상품명과 가격 추출 (간단한 패턴)
-            if (line.matches(".*\\d+[,.]?\\d*원.*") && line.length() > 3) {
-                // 가격이 포함된 줄에서 상품명과 가격 분리
-                String[] parts = line.split("\\s+");
-                StringBuilder itemName = new StringBuilder();
-                double price = 0.0;
-                
-                for (String part : parts) {
-                    if (part.matches(".*\\d+[,.]?\\d*원.*")) {
-                        // 가격 부분
-                        String priceStr = part.replaceAll("[^\\d,.]", "");
-                        if (!priceStr.isEmpty()) {
-                            try {
-                                price = Double.parseDouble(priceStr.replace(",", ""));
-                            } catch (NumberFormatException e) {
-                                // 무시
-                            }
-                        }
-                    } else if (!part.isEmpty()) {
-                        // 상품명 부분
-                        if (itemName.length() > 0) itemName.append(" ");
-                        itemName.append(part);
-                    }
-                }
-                
-                // 상품명이 있고 가격이 0이 아닌 경우만 추가
-                if (itemName.length() > 0 && price > 0) {
-                    Map<String, Object> item = new HashMap<>();
-                    item.put("name", itemName.toString());
-                    item.put("quantity", 1);
-                    item.put("unitPrice", price);
-                    item.put("totalPrice", price);
-                    items.add(item);
-                }
-            } else if (line.length() > 2 && line.length() < 50 && 
-                      !line.matches(".*\\d{4}-\\d{2}-\\d{2}.*") &&
-                      !line.contains("영수증") && !line.contains("매장") &&
-                      !line.contains("주소") && !line.contains("전화")) {
-                // 가격이 없는 상품명만 있는 경우
-                Map<String, Object> item = new HashMap<>();
-                item.put("name", line);
-                item.put("quantity", 1);
-                item.put("unitPrice", 0.0);
-                item.put("totalPrice", 0.0);
-                items.add(item);
-            }
-        }
-        
-        result.put("items", items);
-        return result;
+        // 규칙 기반 단일 패스 파서로 처리
+        return ReceiptTextParser.toMap(receiptTextParser.parse(ocrText));
     }
 }
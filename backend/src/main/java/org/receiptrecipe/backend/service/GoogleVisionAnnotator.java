@@ -0,0 +1,51 @@
+package org.receiptrecipe.backend.service;
+
+import com.google.cloud.vision.v1.AnnotateImageRequest;
+import com.google.cloud.vision.v1.AnnotateImageResponse;
+import com.google.cloud.vision.v1.BatchAnnotateImagesResponse;
+import com.google.cloud.vision.v1.ImageAnnotatorClient;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 애플리케이션 수명 동안 하나의 ImageAnnotatorClient(gRPC 채널)를 재사용하는 Vision 호출기
+ * 클라이언트는 첫 호출 시 생성하고, 생성에 실패하면 다음 호출에서 다시 시도한다.
+ */
+@Component
+@ConditionalOnProperty(name = "app.ocr.annotator", havingValue = "google", matchIfMissing = true)
+public class GoogleVisionAnnotator implements VisionAnnotator {
+
+    private volatile ImageAnnotatorClient client;
+
+    @Override
+    public List<AnnotateImageResponse> batchAnnotate(List<AnnotateImageRequest> requests) throws IOException {
+        BatchAnnotateImagesResponse response = getClient().batchAnnotateImages(requests);
+        return response.getResponsesList();
+    }
+
+    private ImageAnnotatorClient getClient() throws IOException {
+        ImageAnnotatorClient current = client;
+        if (current == null) {
+            synchronized (this) {
+                current = client;
+                if (current == null) {
+                    current = ImageAnnotatorClient.create();
+                    client = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    @PreDestroy
+    public void close() {
+        ImageAnnotatorClient current = client;
+        if (current != null) {
+            current.close();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.receiptrecipe.backend.service;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * GS25 편의점 영수증 (상품명 수량 금액)
+ * 예) 삼각김밥참치마요 2 2,400
+ */
+@Component
+public class Gs25ReceiptTemplate extends LineItemReceiptTemplate {
+
+    public Gs25ReceiptTemplate() {
+        super("gs25", "GS25",
+                "GS\\s*25|GS리테일",
+                "^(?<name>\\S.*?)\\s+(?<qty>\\d{1,3})\\s+(?<total>\\d{1,3}(?:,\\d{3})*)\\s*원?$",
+                "^(?:합\\s*계|판매\\s*합계|결제\\s*금액)\\s*:?\\s*(?<amount>\\d{1,3}(?:,\\d{3})*)\\s*원?$",
+                "상품명", "과세", "면세", "부가세", "영수증", "사업자", "TEL", "전화", "POS");
+    }
+}
@@ -0,0 +1,19 @@
+package org.receiptrecipe.backend.service;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * 홈플러스 영수증 (상품명 수량 단가 금액)
+ * 예) 국산콩두부 2 1,500 3,000
+ */
+@Component
+public class HomeplusReceiptTemplate extends LineItemReceiptTemplate {
+
+    public HomeplusReceiptTemplate() {
+        super("homeplus", "홈플러스",
+                "홈플러스|HOMEPLUS",
+                "^(?<name>\\S.*?)\\s+(?<qty>\\d{1,3})\\s+(?<unit>\\d{1,3}(?:,\\d{3})*)\\s+(?<total>\\d{1,3}(?:,\\d{3})*)$",
+                "^(?:합\\s*계|받을\\s*금액|총\\s*금액)\\s*:?\\s*(?<amount>\\d{1,3}(?:,\\d{3})*)\\s*원?$",
+                "상품명", "과세", "면세", "부가세", "영수증", "사업자", "TEL", "전화");
+    }
+}
@@ -0,0 +1,198 @@
+package org.receiptrecipe.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * OCR 전 이미지 전처리
+ * 휴대폰 사진(4~10MB)을 디코딩해 긴 변 기준 max-edge 이하로 줄이고 흑백 JPEG로 다시 인코딩한다.
+ * 이미지가 아니거나(디코딩 불가) 결과가 원본보다 크면 원본을 그대로 사용한다.
+ * 작업은 코어 수 크기의 전용 CPU 풀에서 실행된다.
+ */
+@Service
+public class ImagePreprocessor {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.ocr.preprocess.enabled:true}")
+    private boolean enabled;
+
+    // Vision TEXT_DETECTION은 영수증 글자 기준 긴 변 2000px 정도면 충분
+    @Value("${app.ocr.preprocess.max-edge:2048}")
+    private int maxEdge;
+
+    @Value("${app.ocr.preprocess.jpeg-quality:0.85}")
+    private float jpegQuality;
+
+    // 이보다 작은 파일은 그대로 전송
+    @Value("${app.ocr.preprocess.min-bytes:300000}")
+    private int minBytes;
+
+    @Value("${app.ocr.preprocess.timeout-seconds:30}")
+    private long timeoutSeconds;
+
+    private ThreadPoolExecutor cpuExecutor;
+    private DistributionSummary originalBytes;
+    private DistributionSummary reducedBytes;
+    private Timer preprocessTimer;
+    private Counter skippedCounter;
+
+    @PostConstruct
+    public void init() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCounter = new AtomicInteger();
+        // 큐가 가득 차면 호출한 스레드(OCR 단계)에서 직접 처리
+        cpuExecutor = new ThreadPoolExecutor(cores, cores, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(cores * 4), runnable -> {
+                    Thread thread = new Thread(runnable, "image-preprocess-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+
+        originalBytes = DistributionSummary.builder("ocr.preprocess.bytes")
+                .tag("stage", "original")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        reducedBytes = DistributionSummary.builder("ocr.preprocess.bytes")
+                .tag("stage", "reduced")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        preprocessTimer = Timer.builder("ocr.preprocess.duration")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        skippedCounter = meterRegistry.counter("ocr.preprocess.skipped");
+        Gauge.builder("ocr.preprocess.queue.depth", cpuExecutor, e -> e.getQueue().size()).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cpuExecutor.shutdown();
+    }
+
+    /**
+     * OCR에 보낼 이미지 바이트를 반환한다. 실패하면 원본을 그대로 반환한다.
+     */
+    public byte[] preprocess(byte[] imageBytes) {
+        originalBytes.record(imageBytes.length);
+        if (!enabled || imageBytes.length < minBytes) {
+            skippedCounter.increment();
+            reducedBytes.record(imageBytes.length);
+            return imageBytes;
+        }
+
+        byte[] result;
+        try {
+            long start = System.nanoTime();
+            result = cpuExecutor.submit(() -> shrink(imageBytes, maxEdge, jpegQuality))
+                    .get(timeoutSeconds, TimeUnit.SECONDS);
+            preprocessTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result = imageBytes;
+        } catch (ExecutionException | TimeoutException e) {
+            System.err.println("이미지 전처리 실패, 원본 사용: " + e.getMessage());
+            result = imageBytes;
+        }
+
+        reducedBytes.record(result.length);
+        return result;
+    }
+
+    /**
+     * 긴 변을 maxEdge 이하로 줄이고 흑백 JPEG로 인코딩한다.
+     * 디코딩할 수 없는 데이터이거나 결과가 더 크면 원본을 반환한다.
+     */
+    public static byte[] shrink(byte[] imageBytes, int maxEdge, float jpegQuality) throws IOException {
+        BufferedImage source = ImageIO.read(new ByteArrayInputStream(imageBytes));
+        if (source == null) {
+            return imageBytes;
+        }
+
+        BufferedImage gray = scaleToFit(source, maxEdge, BufferedImage.TYPE_BYTE_GRAY);
+        byte[] encoded = encodeJpeg(gray, jpegQuality);
+        return encoded.length < imageBytes.length ? encoded : imageBytes;
+    }
+
+    /**
+     * 긴 변이 maxEdge 이하가 되도록 줄인 imageType 형식의 이미지 (이미 작으면 형식만 변환)
+     */
+    public static BufferedImage scaleToFit(BufferedImage source, int maxEdge, int imageType) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double scale = Math.min(1.0, (double) maxEdge / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        // 한 번에 크게 줄이면 글자가 뭉개지므로 절반씩 줄인 뒤 마지막에 목표 크기로 맞춘다
+        BufferedImage current = source;
+        int currentWidth = width;
+        int currentHeight = height;
+        while (currentWidth / 2 >= targetWidth && currentHeight / 2 >= targetHeight) {
+            currentWidth /= 2;
+            currentHeight /= 2;
+            current = resize(current, currentWidth, currentHeight, current.getType() == BufferedImage.TYPE_BYTE_GRAY
+                    ? BufferedImage.TYPE_BYTE_GRAY : BufferedImage.TYPE_INT_RGB);
+        }
+        return resize(current, targetWidth, targetHeight, imageType);
+    }
+
+    private static BufferedImage resize(BufferedImage source, int width, int height, int type) {
+        BufferedImage target = new BufferedImage(width, height, type);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    public static byte[] encodeJpeg(BufferedImage image, float quality) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+        if (!writers.hasNext()) {
+            throw new IOException("JPEG 인코더를 찾을 수 없습니다.");
+        }
+        ImageWriter writer = writers.next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOut = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(imageOut);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,362 @@
+package org.receiptrecipe.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.receiptrecipe.backend.entity.ReceiptItem;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 영수증 상품명을 재료 사전으로 분류한다 (분류명, 재료 여부, 대표 재료 이름).
+ * 사전의 모든 이름/별칭을 Aho-Corasick 오토마톤 하나로 만들어 두고 상품명을 한 번 훑어서 찾는다.
+ * 여러 개가 맞으면 가장 뒤에서 끝나는 것, 끝이 같으면 가장 긴 것을 고른다 (한국어 상품명은 보통 뒤가 품목: "딸기우유", "토마토케첩").
+ * 한 글자 이름("배", "무", "김")은 상품명 전체나 띄어쓴 낱말과 같거나 앞뒤가 한글이 아닐 때만 맞은 것으로 본다 ("배송비", "고무장갑"은 아님).
+ * 그대로 맞는 이름이 없으면 IngredientNameMatcher로 오타/OCR 오류를 허용해 가장 가까운 이름을 찾는다 ("앙파" → 양파).
+ * app.ingredient.dictionary.path 로 파일을 지정하면 reload-check-seconds 마다 수정 시각을 보고 다시 읽는다.
+ * 사전은 통째로 교체하므로 분류 중인 스레드는 잠금 없이 이전 사전이나 새 사전 중 하나를 본다.
+ * 다시 읽으면 IngredientDictionaryReloadedEvent를 발행한다 (대표 이름으로 색인해 둔 곳이 다시 만들도록).
+ */
+@Service
+public class IngredientClassifier {
+
+    static final String DEFAULT_DICTIONARY = "ingredients/dictionary.csv";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // 비어 있으면 클래스패스의 기본 사전 사용 (다시 읽기 없음)
+    @Value("${app.ingredient.dictionary.path:}")
+    private String dictionaryPath;
+
+    @Value("${app.ingredient.dictionary.reload-check-seconds:30}")
+    private long reloadCheckSeconds;
+
+    private volatile Dictionary dictionary = Dictionary.EMPTY;
+    private volatile long nextReloadCheck;
+    private Counter matchedCounter;
+    private Counter fuzzyCounter;
+    private Counter unmatchedCounter;
+
+    @PostConstruct
+    public void init() {
+        matchedCounter = meterRegistry.counter("ingredient.classify", "result", "matched");
+        fuzzyCounter = meterRegistry.counter("ingredient.classify", "result", "fuzzy");
+        unmatchedCounter = meterRegistry.counter("ingredient.classify", "result", "unmatched");
+        Gauge.builder("ingredient.dictionary.terms", this, c -> c.dictionary.termCount()).register(meterRegistry);
+        try {
+            dictionary = load();
+        } catch (IOException e) {
+            // 사전이 없으면 모든 상품이 미분류로 저장됨 (파일을 고치면 다음 확인 때 다시 읽음)
+            System.err.println("재료 사전 로드 실패: " + e.getMessage());
+        }
+        scheduleNextCheck();
+    }
+
+    /**
+     * 사전만 조회한다 (ingredient.classify 카운터에 세지 않음: 레시피 색인, 재분류처럼 같은 이름을 여러 번 보는 내부 조회용)
+     */
+    public Classification classify(String itemName) {
+        return current().classify(itemName);
+    }
+
+    /**
+     * 재료 이름(레시피 재료, 검색어 등)을 사전의 대표 재료 이름으로 바꾼다. 재료가 아니거나 모르면 null.
+     */
+    public String canonicalIngredientName(String name) {
+        Classification result = classify(name);
+        return result.isIngredient() ? result.getCanonicalName() : null;
+    }
+
+    /**
+     * 재료를 비교할 때 쓰는 키: 대표 재료 이름, 사전에 없으면 공백을 없앤 소문자 이름 (레시피 재료 색인용)
+     */
+    public String ingredientKey(String name) {
+        String canonicalName = canonicalIngredientName(name);
+        return canonicalName != null ? canonicalName : normalize(name);
+    }
+
+    /**
+     * 상품의 분류와 재료 여부, 대표 재료 이름(저장하지 않는 값)을 채운다 (사전에 없으면 분류 없음, 재료 아님)
+     * 영수증 저장 때 상품마다 한 번 부르므로 ingredient.classify 카운터는 여기서만 센다.
+     */
+    public void apply(ReceiptItem item) {
+        Classification result = classify(item.getItemName());
+        (result.isFuzzy() ? fuzzyCounter : result.isMatched() ? matchedCounter : unmatchedCounter).increment();
+        item.setCategory(result.getCategory());
+        item.setIsIngredient(result.isIngredient());
+        item.setCanonicalIngredientName(result.isIngredient() ? result.getCanonicalName() : null);
+    }
+
+    public void applyAll(Collection<ReceiptItem> items) {
+        for (ReceiptItem item : items) {
+            apply(item);
+        }
+    }
+
+    /**
+     * 사전 파일이 바뀌었으면 지금 다시 읽는다. 다시 읽었으면 true.
+     * 읽기에 실패하면 기존 사전을 그대로 쓴다.
+     */
+    public synchronized boolean reloadIfChanged() {
+        scheduleNextCheck();
+        Path path = externalPath();
+        if (path == null) {
+            return false;
+        }
+        try {
+            long modified = Files.getLastModifiedTime(path).toMillis();
+            if (modified == dictionary.lastModified) {
+                return false;
+            }
+            dictionary = load();
+            System.out.println("재료 사전 다시 읽음: " + dictionary.termCount() + "개 이름, " + path);
+            if (eventPublisher != null) {
+                eventPublisher.publishEvent(new IngredientDictionaryReloadedEvent(dictionary.termCount()));
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("재료 사전 다시 읽기 실패 (기존 사전 유지): " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 사전에 있는 대표 재료 이름 (재료로 분류되는 것만, 사전 순서)
+     */
+    public List<String> canonicalIngredientNames() {
+        return current().ingredientNames;
+    }
+
+    /**
+     * 사전에 등록된 분류명 (사전 순서)
+     */
+    public List<String> categories() {
+        return current().categories;
+    }
+
+    /**
+     * 공백을 없애고 소문자로 바꾼다 (사전 이름과 상품명에 똑같이 적용)
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                builder.append(Character.toLowerCase(c));
+            }
+        }
+        return builder.toString();
+    }
+
+    private Dictionary current() {
+        if (externalPath() != null && System.currentTimeMillis() >= nextReloadCheck) {
+            reloadIfChanged();
+        }
+        return dictionary;
+    }
+
+    private void scheduleNextCheck() {
+        nextReloadCheck = System.currentTimeMillis() + Math.max(1, reloadCheckSeconds) * 1000L;
+    }
+
+    private Path externalPath() {
+        return dictionaryPath == null || dictionaryPath.isBlank() ? null : Paths.get(dictionaryPath);
+    }
+
+    private Dictionary load() throws IOException {
+        Path path = externalPath();
+        if (path != null) {
+            long modified = Files.getLastModifiedTime(path).toMillis();
+            try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                return Dictionary.parse(reader, modified);
+            }
+        }
+        try (Reader reader = new InputStreamReader(new ClassPathResource(DEFAULT_DICTIONARY).getInputStream(), StandardCharsets.UTF_8)) {
+            return Dictionary.parse(reader, 0L);
+        }
+    }
+
+    /**
+     * 한 번 만든 뒤 바뀌지 않는 사전 (오토마톤 + 패턴별 분류 결과)
+     */
+    static final class Dictionary {
+
+        static final Dictionary EMPTY = new Dictionary(AhoCorasick.compile(List.of()), IngredientNameMatcher.build(List.of()),
+                new Classification[0], List.of(), List.of(), 0L);
+
+        private final AhoCorasick automaton;
+        private final IngredientNameMatcher fuzzyMatcher;
+        private final Classification[] classifications;
+        private final List<String> ingredientNames;
+        private final List<String> categories;
+        private final long lastModified;
+
+        private Dictionary(AhoCorasick automaton, IngredientNameMatcher fuzzyMatcher, Classification[] classifications,
+                           List<String> ingredientNames, List<String> categories, long lastModified) {
+            this.automaton = automaton;
+            this.fuzzyMatcher = fuzzyMatcher;
+            this.classifications = classifications;
+            this.ingredientNames = ingredientNames;
+            this.categories = categories;
+            this.lastModified = lastModified;
+        }
+
+        /**
+         * 한 줄에 "분류,재료 여부(Y/N),대표 이름,별칭|별칭". #으로 시작하는 줄과 빈 줄은 건너뛴다.
+         * 같은 이름이 여러 줄에 있으면 먼저 나온 줄을 따른다.
+         */
+        static Dictionary parse(Reader source, long lastModified) throws IOException {
+            Map<String, Classification> byTerm = new LinkedHashMap<>();
+            Set<String> ingredientNames = new LinkedHashSet<>();
+            Set<String> categories = new LinkedHashSet<>();
+            BufferedReader reader = new BufferedReader(source);
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split(",", -1);
+                if (fields.length < 3 || fields[0].isBlank() || fields[2].isBlank()) {
+                    throw new IOException("재료 사전 " + lineNumber + "번째 줄 형식 오류: " + line);
+                }
+                String category = fields[0].trim();
+                boolean ingredient = fields[1].trim().equalsIgnoreCase("Y");
+                String canonicalName = fields[2].trim();
+                Classification classification = new Classification(canonicalName, category, ingredient, false);
+                categories.add(category);
+                if (ingredient) {
+                    ingredientNames.add(canonicalName);
+                }
+
+                byTerm.putIfAbsent(normalize(canonicalName), classification);
+                if (fields.length > 3) {
+                    for (String alias : fields[3].split("\\|")) {
+                        String term = normalize(alias);
+                        if (!term.isEmpty()) {
+                            byTerm.putIfAbsent(term, classification);
+                        }
+                    }
+                }
+            }
+
+            List<String> terms = new ArrayList<>(byTerm.keySet());
+            Classification[] classifications = byTerm.values().toArray(new Classification[0]);
+            return new Dictionary(AhoCorasick.compile(terms), IngredientNameMatcher.build(terms), classifications,
+                    List.copyOf(ingredientNames), List.copyOf(categories), lastModified);
+        }
+
+        Classification classify(String itemName) {
+            String text = normalize(itemName);
+            boolean[] boundaries = tokenBoundaries(itemName, text.length());
+            AhoCorasick.Match best = null;
+            for (AhoCorasick.Match match : automaton.findAll(text)) {
+                if (match.length() == 1 && !standsAlone(text, boundaries, match)) {
+                    continue;
+                }
+                // 끝 위치 순으로 나오므로 끝이 같을 때만 길이를 비교
+                if (best == null || match.getEnd() > best.getEnd() || match.length() >= best.length()) {
+                    best = match;
+                }
+            }
+            if (best != null) {
+                return classifications[best.getPattern()];
+            }
+            IngredientNameMatcher.Match closest = fuzzyMatcher.closest(itemName);
+            return closest == null ? Classification.UNKNOWN : classifications[closest.getIndex()].asFuzzy();
+        }
+
+        // 한 글자 이름: 앞뒤가 각각 낱말 경계이거나 한글이 아닌 글자 ("배 3입", "무(국산)")
+        private static boolean standsAlone(String text, boolean[] boundaries, AhoCorasick.Match match) {
+            int start = match.getStart();
+            int end = match.getEnd();
+            boolean before = boundaries[start] || !isHangul(text.charAt(start - 1));
+            boolean after = boundaries[end] || !isHangul(text.charAt(end));
+            return before && after;
+        }
+
+        // normalize 결과의 각 위치가 낱말 경계(처음, 끝, 지운 공백 자리)인지
+        private static boolean[] tokenBoundaries(String itemName, int length) {
+            boolean[] boundaries = new boolean[length + 1];
+            boundaries[0] = true;
+            boundaries[length] = true;
+            if (itemName == null) {
+                return boundaries;
+            }
+            int position = 0;
+            for (int i = 0; i < itemName.length(); i++) {
+                if (Character.isWhitespace(itemName.charAt(i))) {
+                    boundaries[position] = true;
+                } else {
+                    position++;
+                }
+            }
+            return boundaries;
+        }
+
+        private static boolean isHangul(char c) {
+            return Character.UnicodeScript.of(c) == Character.UnicodeScript.HANGUL;
+        }
+
+        int termCount() {
+            return classifications.length;
+        }
+    }
+
+    public static final class Classification {
+
+        static final Classification UNKNOWN = new Classification(null, null, false, false);
+
+        private final String canonicalName;
+        private final String category;
+        private final boolean ingredient;
+        private final boolean fuzzy;
+
+        Classification(String canonicalName, String category, boolean ingredient, boolean fuzzy) {
+            this.canonicalName = canonicalName;
+            this.category = category;
+            this.ingredient = ingredient;
+            this.fuzzy = fuzzy;
+        }
+
+        Classification asFuzzy() {
+            return new Classification(canonicalName, category, ingredient, true);
+        }
+
+        public boolean isMatched() { return canonicalName != null; }
+        // 사전 이름과 정확히 맞지 않고 비슷한 이름으로 찾은 경우
+        public boolean isFuzzy() { return fuzzy; }
+        public String getCanonicalName() { return canonicalName; }
+        public String getCategory() { return category; }
+        public boolean isIngredient() { return ingredient; }
+    }
+}
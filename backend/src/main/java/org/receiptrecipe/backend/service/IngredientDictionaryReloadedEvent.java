@@ -0,0 +1,19 @@
+package org.receiptrecipe.backend.service;
+
+/**
+ * 재료 사전 파일을 다시 읽었음을 알리는 이벤트
+ * 재료 이름을 대표 이름으로 바꿔 담아 둔 색인(RecipeMatchIndex 등)은 이 이벤트를 받아 새 사전으로 다시 만든다.
+ */
+public class IngredientDictionaryReloadedEvent {
+
+    private final int termCount;
+
+    public IngredientDictionaryReloadedEvent(int termCount) {
+        this.termCount = termCount;
+    }
+
+    // 새 사전의 이름/별칭 수
+    public int getTermCount() {
+        return termCount;
+    }
+}
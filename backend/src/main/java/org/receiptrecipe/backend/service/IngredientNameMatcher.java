@@ -0,0 +1,303 @@
+package org.receiptrecipe.backend.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 오타/띄어쓰기/단위가 섞인 상품명을 재료 이름 목록에서 가장 가까운 것으로 찾는다 (만든 뒤에는 읽기 전용)
+ * 한글은 자모(초성/중성/종성)로 풀어서 편집 거리를 재므로 "앙파" → "양파"처럼 한 자모만 틀린 경우를 잡는다.
+ * 비슷한 자모(ㅏ/ㅑ, ㅂ/ㅍ, ㅁ/ㅇ 등 OCR·입력에서 자주 헷갈리는 쌍)끼리 바꾸는 비용은 1, 나머지 편집은 2이다.
+ * 이름들은 BK-tree에 넣어 두고 삼각 부등식으로 거리 범위 밖의 가지를 건너뛴다.
+ */
+public final class IngredientNameMatcher {
+
+    static final int EDIT_COST = 2;
+    static final int SIMILAR_COST = 1;
+    private static final int MIN_SUFFIX_LENGTH = 2;
+    private static final int MAX_PREFIX_SKIP = 4;
+
+    private static final String CHOSEONG = "ㄱㄲㄴㄷㄸㄹㅁㅂㅃㅅㅆㅇㅈㅉㅊㅋㅌㅍㅎ";
+    private static final String JUNGSEONG = "ㅏㅐㅑㅒㅓㅔㅕㅖㅗㅘㅙㅚㅛㅜㅝㅞㅟㅠㅡㅢㅣ";
+    private static final String JONGSEONG = " ㄱㄲㄳㄴㄵㄶㄷㄹㄺㄻㄼㄽㄾㄿㅀㅁㅂㅄㅅㅆㅇㅈㅊㅋㅌㅍㅎ";
+    // 종성은 같은 글자의 초성과 다른 기호로 (정렬이 글자 경계를 넘지 않도록)
+    private static final int JONG_FLAG = 0x10000;
+    private static final String[] SIMILAR_PAIRS = {
+            "ㅏㅑ", "ㅓㅕ", "ㅗㅛ", "ㅜㅠ", "ㅐㅔ", "ㅒㅖ", "ㅐㅒ", "ㅔㅖ",
+            "ㄱㅋ", "ㄱㄲ", "ㄷㅌ", "ㄷㄸ", "ㅂㅍ", "ㅂㅃ", "ㅈㅊ", "ㅈㅉ", "ㅅㅆ", "ㅁㅂ", "ㅁㅇ", "ㄴㅇ"
+    };
+    // 호환 자모 ㄱ(U+3131) ~ ㅣ(U+3163) 사이의 비슷한 쌍 표
+    private static final int JAMO_BASE = 'ㄱ';
+    private static final int JAMO_COUNT = 'ㅣ' - 'ㄱ' + 1;
+    private static final boolean[][] SIMILAR = new boolean[JAMO_COUNT][JAMO_COUNT];
+    static {
+        for (String pair : SIMILAR_PAIRS) {
+            int x = pair.charAt(0) - JAMO_BASE;
+            int y = pair.charAt(1) - JAMO_BASE;
+            SIMILAR[x][y] = true;
+            SIMILAR[y][x] = true;
+        }
+    }
+    // 상품명에서 이름이 아닌 단위 토큰
+    private static final Set<String> UNIT_TOKENS = Set.of(
+            "kg", "g", "mg", "ml", "l", "ea", "pk", "p", "x",
+            "개", "입", "봉", "팩", "단", "구", "망", "통", "병", "캔", "매", "장", "포", "묶음", "세트", "개입");
+
+    private final String[] terms;
+    private final int[][] termJamo;
+    private final Node root;
+
+    private IngredientNameMatcher(String[] terms, int[][] termJamo, Node root) {
+        this.terms = terms;
+        this.termJamo = termJamo;
+        this.root = root;
+    }
+
+    /**
+     * terms의 순서가 이름 번호가 된다 (거리가 같으면 앞 번호가 이김)
+     */
+    public static IngredientNameMatcher build(List<String> terms) {
+        String[] copy = terms.toArray(new String[0]);
+        int[][] jamo = new int[copy.length][];
+        Node root = null;
+        for (int i = 0; i < copy.length; i++) {
+            jamo[i] = jamo(copy[i]);
+            if (jamo[i].length == 0) {
+                continue;
+            }
+            if (root == null) {
+                root = new Node(i);
+                continue;
+            }
+            Node node = root;
+            while (true) {
+                int d = distance(jamo[i], jamo[node.term]);
+                if (d == 0) {
+                    break;
+                }
+                Node child = node.child(d);
+                if (child == null) {
+                    node.addChild(d, new Node(i));
+                    break;
+                }
+                node = child;
+            }
+        }
+        return new IngredientNameMatcher(copy, jamo, root);
+    }
+
+    /**
+     * 상품명에서 가장 가까운 이름. 상품명 전체(공백/숫자/단위 제거), 각 단어, 단어의 뒷부분("흙당군" → "당군")을
+     * 따로 비교해 길이에 따른 허용 거리(maxCost) 안에서 가장 가까운 것을 고른다. 없으면 null.
+     */
+    public Match closest(String text) {
+        Match best = null;
+        List<String> tokens = tokens(text);
+        List<String> candidates = new ArrayList<>();
+        for (String token : tokens) {
+            candidates.add(token);
+            // 한국어 상품명은 앞에 산지/수식어가 붙고 뒤가 품목이므로 뒷부분도 후보로
+            for (int start = 1; start + MIN_SUFFIX_LENGTH <= token.length() && start <= MAX_PREFIX_SKIP; start++) {
+                candidates.add(token.substring(start));
+            }
+        }
+        if (tokens.size() > 1) {
+            candidates.add(String.join("", tokens));
+        }
+        for (String candidate : candidates) {
+            Match match = closestTerm(candidate);
+            // 같은 거리면 더 긴 후보(더 많은 글자가 맞은 것)를 택함
+            if (match != null && (best == null || match.cost < best.cost
+                    || (match.cost == best.cost && match.query.length() > best.query.length()))) {
+                best = match;
+            }
+        }
+        return best;
+    }
+
+    private Match closestTerm(String query) {
+        int[] target = jamo(query);
+        int limit = maxCost(target.length);
+        if (root == null || limit == 0) {
+            return null;
+        }
+        int bestTerm = -1;
+        int bestCost = limit + 1;
+        ArrayList<Node> stack = new ArrayList<>();
+        stack.add(root);
+        while (!stack.isEmpty()) {
+            Node node = stack.remove(stack.size() - 1);
+            int d = distance(target, termJamo[node.term]);
+            if (d < bestCost || (d == bestCost && node.term < bestTerm)) {
+                bestCost = d;
+                bestTerm = node.term;
+            }
+            // 지금까지 찾은 최선보다 나아질 수 있는 가지만
+            int radius = Math.min(limit, bestCost);
+            for (int k = 0; k < node.childCount; k++) {
+                int childDistance = node.distances[k];
+                if (childDistance >= d - radius && childDistance <= d + radius) {
+                    stack.add(node.children[k]);
+                }
+            }
+        }
+        return bestTerm < 0 ? null : new Match(bestTerm, terms[bestTerm], query, bestCost);
+    }
+
+    /**
+     * 자모 개수에 따른 허용 비용: 짧은 이름은 비슷한 자모 하나, 긴 이름일수록 조금 더 허용
+     */
+    static int maxCost(int jamoLength) {
+        if (jamoLength <= 3) {
+            return 0;
+        }
+        if (jamoLength <= 5) {
+            return SIMILAR_COST;
+        }
+        if (jamoLength <= 9) {
+            return EDIT_COST;
+        }
+        return EDIT_COST + SIMILAR_COST;
+    }
+
+    /**
+     * 숫자/기호/공백으로 자르고 단위 토큰을 뺀 단어들 (소문자)
+     */
+    static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int i = 0;
+        while (i < lower.length()) {
+            if (!Character.isLetter(lower.charAt(i))) {
+                i++;
+                continue;
+            }
+            int end = i;
+            while (end < lower.length() && Character.isLetter(lower.charAt(end))) end++;
+            String token = lower.substring(i, end);
+            if (!UNIT_TOKENS.contains(token)) {
+                tokens.add(token);
+            }
+            i = end;
+        }
+        return tokens;
+    }
+
+    /**
+     * 한글 음절은 초성/중성/종성 기호로, 나머지 글자는 그대로 (공백 제외)
+     */
+    static int[] jamo(String text) {
+        int[] out = new int[text.length() * 3];
+        int n = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '가' && c <= '힣') {
+                int index = c - '가';
+                out[n++] = CHOSEONG.charAt(index / (21 * 28));
+                out[n++] = JUNGSEONG.charAt((index / 28) % 21);
+                int jong = index % 28;
+                if (jong > 0) {
+                    out[n++] = JONGSEONG.charAt(jong) | JONG_FLAG;
+                }
+            } else if (!Character.isWhitespace(c)) {
+                out[n++] = Character.toLowerCase(c);
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    /**
+     * 가중 편집 거리 (삽입/삭제/치환 2, 비슷한 자모끼리 치환 1)
+     */
+    static int distance(int[] a, int[] b) {
+        int[] previous = new int[b.length + 1];
+        int[] current = new int[b.length + 1];
+        for (int j = 0; j <= b.length; j++) {
+            previous[j] = j * EDIT_COST;
+        }
+        for (int i = 1; i <= a.length; i++) {
+            current[0] = i * EDIT_COST;
+            for (int j = 1; j <= b.length; j++) {
+                int substitute = previous[j - 1] + substitutionCost(a[i - 1], b[j - 1]);
+                int delete = previous[j] + EDIT_COST;
+                int insert = current[j - 1] + EDIT_COST;
+                current[j] = Math.min(substitute, Math.min(delete, insert));
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length];
+    }
+
+    private static int substitutionCost(int a, int b) {
+        if (a == b) {
+            return 0;
+        }
+        if ((a & JONG_FLAG) != (b & JONG_FLAG)) {
+            return EDIT_COST;
+        }
+        int x = (a & 0xFFFF) - JAMO_BASE;
+        int y = (b & 0xFFFF) - JAMO_BASE;
+        if (x < 0 || y < 0 || x >= JAMO_COUNT || y >= JAMO_COUNT) {
+            return EDIT_COST;
+        }
+        return SIMILAR[x][y] ? SIMILAR_COST : EDIT_COST;
+    }
+
+    private static final class Node {
+        private final int term;
+        private int[] distances = new int[2];
+        private Node[] children = new Node[2];
+        private int childCount;
+
+        private Node(int term) {
+            this.term = term;
+        }
+
+        private Node child(int distance) {
+            for (int k = 0; k < childCount; k++) {
+                if (distances[k] == distance) {
+                    return children[k];
+                }
+            }
+            return null;
+        }
+
+        private void addChild(int distance, Node child) {
+            if (childCount == distances.length) {
+                distances = Arrays.copyOf(distances, childCount * 2);
+                children = Arrays.copyOf(children, childCount * 2);
+            }
+            distances[childCount] = distance;
+            children[childCount] = child;
+            childCount++;
+        }
+    }
+
+    public static final class Match {
+        private final int index;
+        private final String term;
+        private final String query;
+        private final int cost;
+
+        Match(int index, String term, String query, int cost) {
+            this.index = index;
+            this.term = term;
+            this.query = query;
+            this.cost = cost;
+        }
+
+        // 찾은 이름의 번호 (build에 넘긴 순서)
+        public int getIndex() { return index; }
+        public String getTerm() { return term; }
+        // 이름과 비교한 상품명 부분
+        public String getQuery() { return query; }
+        public int getCost() { return cost; }
+    }
+}
@@ -0,0 +1,161 @@
+package org.receiptrecipe.backend.service;
+
+import org.receiptrecipe.backend.dto.OcrResult;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 한 줄에 상품 하나가 찍히는 영수증 양식의 공통 구현
+ * 하위 클래스는 매장 헤더, 상품 줄, 합계 줄 패턴만 지정한다 (패턴은 생성 시 한 번만 컴파일).
+ * 상품 줄 패턴은 name, total 그룹이 필수이고 qty, unit 그룹은 선택이다.
+ */
+public abstract class LineItemReceiptTemplate implements ReceiptTemplate {
+
+    private static final Pattern DATE_PATTERN =
+            Pattern.compile("(20\\d{2})\\s*[-./년]\\s*(\\d{1,2})\\s*[-./월]\\s*(\\d{1,2})");
+
+    private final String name;
+    private final String storeName;
+    private final Pattern headerPattern;
+    private final Pattern itemPattern;
+    private final Pattern totalPattern;
+    private final String[] skipKeywords;
+
+    protected LineItemReceiptTemplate(String name, String storeName, String headerRegex, String itemRegex,
+                                      String totalRegex, String... skipKeywords) {
+        this.name = name;
+        this.storeName = storeName;
+        this.headerPattern = Pattern.compile(headerRegex, Pattern.CASE_INSENSITIVE);
+        this.itemPattern = Pattern.compile(itemRegex);
+        this.totalPattern = Pattern.compile(totalRegex);
+        this.skipKeywords = skipKeywords;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean matchesHeader(List<String> headerLines) {
+        for (String line : headerLines) {
+            if (headerPattern.matcher(line).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Optional<OcrResult.ProcessedData> parse(String ocrText) {
+        List<OcrResult.Item> items = new ArrayList<>();
+        String header = null;
+        String purchaseDate = null;
+        BigDecimal totalAmount = null;
+
+        for (String rawLine : ocrText.split("\n")) {
+            String line = rawLine.trim();
+            if (line.isEmpty()) continue;
+
+            if (header == null && headerPattern.matcher(line).find()) {
+                header = line;
+                continue;
+            }
+
+            if (purchaseDate == null) {
+                Matcher dateMatcher = DATE_PATTERN.matcher(line);
+                if (dateMatcher.find()) {
+                    purchaseDate = String.format("%s-%02d-%02d", dateMatcher.group(1),
+                            Integer.parseInt(dateMatcher.group(2)), Integer.parseInt(dateMatcher.group(3)));
+                    continue;
+                }
+            }
+
+            Matcher totalMatcher = totalPattern.matcher(line);
+            if (totalMatcher.matches()) {
+                // 합계는 처음 나온 줄 기준 (아래쪽 결제수단 금액 줄은 무시)
+                if (totalAmount == null) {
+                    totalAmount = amountOf(totalMatcher.group("amount"));
+                }
+                continue;
+            }
+            if (totalAmount != null || containsAny(line, skipKeywords)) {
+                // 합계 아래는 결제/포인트 정보
+                continue;
+            }
+
+            Matcher itemMatcher = itemPattern.matcher(line);
+            if (itemMatcher.matches()) {
+                OcrResult.Item item = toItem(itemMatcher);
+                if (item != null) {
+                    items.add(item);
+                }
+            }
+        }
+
+        if (items.isEmpty() || totalAmount == null) {
+            return Optional.empty();
+        }
+
+        OcrResult.ProcessedData data = new OcrResult.ProcessedData();
+        data.setStoreName(header != null ? header : storeName);
+        data.setPurchaseDate(purchaseDate != null ? purchaseDate : LocalDate.now().toString());
+        data.setTotalAmount(totalAmount);
+        data.setItems(items);
+        return Optional.of(data);
+    }
+
+    private OcrResult.Item toItem(Matcher matcher) {
+        BigDecimal total = amountOf(matcher.group("total"));
+        if (total == null || total.signum() <= 0) {
+            return null;
+        }
+        int quantity = 1;
+        String qty = optionalGroup(matcher, "qty");
+        if (qty != null) {
+            quantity = Math.max(1, Integer.parseInt(qty));
+        }
+        BigDecimal unitPrice = amountOf(optionalGroup(matcher, "unit"));
+        if (unitPrice == null) {
+            unitPrice = total.divide(BigDecimal.valueOf(quantity), 0, RoundingMode.HALF_UP);
+        }
+
+        OcrResult.Item item = new OcrResult.Item();
+        item.setItemName(matcher.group("name").trim());
+        item.setQuantity(quantity);
+        item.setUnitPrice(unitPrice);
+        item.setTotalPrice(total);
+        item.setIsIngredient(false);
+        return item;
+    }
+
+    private static String optionalGroup(Matcher matcher, String group) {
+        try {
+            return matcher.group(group);
+        } catch (IllegalArgumentException e) {
+            // 패턴에 해당 그룹이 없음
+            return null;
+        }
+    }
+
+    private static BigDecimal amountOf(String text) {
+        if (text == null) {
+            return null;
+        }
+        return ReceiptTextParser.parseAmount(text, 0, text.length());
+    }
+
+    private static boolean containsAny(String line, String[] keywords) {
+        for (String keyword : keywords) {
+            if (line.contains(keyword)) return true;
+        }
+        return false;
+    }
+}
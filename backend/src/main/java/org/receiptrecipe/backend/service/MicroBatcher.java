@@ -0,0 +1,150 @@
+package org.receiptrecipe.backend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 동시에 들어온 요청을 모아 한 번의 배치 호출로 처리하는 범용 마이크로 배처
+ * 최대 maxBatchSize개 또는 첫 요청 이후 maxWaitMillis가 지나면 배치를 보낸다.
+ * 배치 처리 함수는 입력과 같은 순서·같은 개수의 결과를 반환해야 한다.
+ */
+public class MicroBatcher<I, O> implements AutoCloseable {
+
+    private final String name;
+    private final int maxBatchSize;
+    private final long maxWaitMillis;
+    private final Function<List<I>, List<O>> batchHandler;
+    private final Consumer<Integer> batchSizeRecorder;
+
+    private final BlockingQueue<Pending<I, O>> queue = new LinkedBlockingQueue<>();
+    private final Semaphore inFlightBatches;
+    private final ExecutorService handlerExecutor;
+    private final Thread dispatcher;
+    private volatile boolean running = true;
+
+    public MicroBatcher(String name, int maxBatchSize, long maxWaitMillis, int maxConcurrentBatches,
+                        Function<List<I>, List<O>> batchHandler, Consumer<Integer> batchSizeRecorder) {
+        this.name = name;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitMillis = maxWaitMillis;
+        this.batchHandler = batchHandler;
+        this.batchSizeRecorder = batchSizeRecorder;
+        this.inFlightBatches = new Semaphore(maxConcurrentBatches);
+
+        AtomicInteger counter = new AtomicInteger();
+        this.handlerExecutor = Executors.newFixedThreadPool(maxConcurrentBatches, runnable -> {
+            Thread thread = new Thread(runnable, name + "-batch-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dispatcher = new Thread(this::dispatchLoop, name + "-dispatcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    public CompletableFuture<O> submit(I input) {
+        CompletableFuture<O> future = new CompletableFuture<>();
+        if (!running) {
+            future.completeExceptionally(new IllegalStateException(name + " 배처가 종료되었습니다."));
+            return future;
+        }
+        queue.add(new Pending<>(input, future));
+        return future;
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                Pending<I, O> first = queue.take();
+                List<Pending<I, O>> batch = new ArrayList<>(maxBatchSize);
+                batch.add(first);
+
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        queue.drainTo(batch, maxBatchSize - batch.size());
+                        break;
+                    }
+                    Pending<I, O> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                // 동시에 보내는 배치 수 제한
+                inFlightBatches.acquire();
+                handlerExecutor.execute(() -> {
+                    try {
+                        runBatch(batch);
+                    } finally {
+                        inFlightBatches.release();
+                    }
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
+
+    private void runBatch(List<Pending<I, O>> batch) {
+        List<I> inputs = new ArrayList<>(batch.size());
+        for (Pending<I, O> pending : batch) {
+            inputs.add(pending.input);
+        }
+        if (batchSizeRecorder != null) {
+            batchSizeRecorder.accept(batch.size());
+        }
+
+        try {
+            List<O> outputs = batchHandler.apply(inputs);
+            if (outputs == null || outputs.size() != batch.size()) {
+                throw new IllegalStateException(name + " 배치 결과 개수가 요청과 다릅니다.");
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).future.complete(outputs.get(i));
+            }
+        } catch (Exception e) {
+            for (Pending<I, O> pending : batch) {
+                pending.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        dispatcher.interrupt();
+        handlerExecutor.shutdown();
+        Pending<I, O> pending;
+        while ((pending = queue.poll()) != null) {
+            pending.future.completeExceptionally(new IllegalStateException(name + " 배처가 종료되었습니다."));
+        }
+    }
+
+    private static class Pending<I, O> {
+        private final I input;
+        private final CompletableFuture<O> future;
+
+        private Pending(I input, CompletableFuture<O> future) {
+            this.input = input;
+            this.future = future;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package org.receiptrecipe.backend.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * 정수 집합(재료 id)의 MinHash 서명과 LSH 밴드 색인 (동기화하지 않음, 호출하는 쪽에서 잠금)
+ * 서명 bands × rows개를 rows개씩 묶은 밴드가 하나라도 같은 집합만 후보로 모으고, 후보는 실제 Jaccard로 다시 정렬한다.
+ * 후보가 될 확률은 1 - (1 - J^rows)^bands 이므로 bands=32, rows=3이면 J=0.5에서 약 98.6%, J=0.2에서 약 23%.
+ */
+public final class MinHashLsh {
+
+    private final int bands;
+    private final int rows;
+    private final long[] multipliers;
+    private final long[] offsets;
+    // 한 질의에서 Jaccard를 계산할 최대 후보 수 (흔한 재료 조합 버킷이 커져도 응답 시간이 일정하도록)
+    private final int maxCandidates;
+    private final Map<Long, Entry> entries = new HashMap<>();
+    // 밴드별 (밴드 키 -> 그 밴드가 같은 id들)
+    private final List<Map<Long, Bucket>> buckets = new ArrayList<>();
+
+    public MinHashLsh(int bands, int rows, int maxCandidates, long seed) {
+        this.bands = bands;
+        this.rows = rows;
+        this.maxCandidates = maxCandidates;
+        SplittableRandom random = new SplittableRandom(seed);
+        multipliers = new long[bands * rows];
+        offsets = new long[bands * rows];
+        for (int i = 0; i < multipliers.length; i++) {
+            multipliers[i] = random.nextLong() | 1L;
+            offsets[i] = random.nextLong();
+        }
+        for (int b = 0; b < bands; b++) {
+            buckets.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * id의 집합을 넣는다 (이미 있으면 교체, 빈 집합이면 삭제)
+     */
+    public void put(long id, int[] set) {
+        remove(id);
+        if (set.length == 0) {
+            return;
+        }
+        int[] sorted = Arrays.stream(set).distinct().sorted().toArray();
+        Entry entry = new Entry(sorted, signature(sorted));
+        entries.put(id, entry);
+        for (int b = 0; b < bands; b++) {
+            buckets.get(b).computeIfAbsent(bandKey(entry.signature, b), key -> new Bucket()).add(id);
+        }
+    }
+
+    public void remove(long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        for (int b = 0; b < bands; b++) {
+            Map<Long, Bucket> band = buckets.get(b);
+            long key = bandKey(entry.signature, b);
+            Bucket bucket = band.get(key);
+            bucket.remove(id);
+            if (bucket.size == 0) {
+                band.remove(key);
+            }
+        }
+    }
+
+    public boolean contains(long id) {
+        return entries.containsKey(id);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * id와 Jaccard 유사도가 minSimilarity 이상인 것 중 높은 순서로 최대 limit개 (자기 자신 제외)
+     */
+    public List<Candidate> similar(long id, int limit, double minSimilarity) {
+        Entry entry = entries.get(id);
+        if (entry == null || limit <= 0) {
+            return List.of();
+        }
+        Set<Long> candidates = new LinkedHashSet<>();
+        collect:
+        for (int b = 0; b < bands; b++) {
+            Bucket bucket = buckets.get(b).get(bandKey(entry.signature, b));
+            for (int k = 0; k < bucket.size; k++) {
+                if (bucket.ids[k] != id) {
+                    candidates.add(bucket.ids[k]);
+                    if (candidates.size() >= maxCandidates) {
+                        break collect;
+                    }
+                }
+            }
+        }
+
+        List<Candidate> result = new ArrayList<>();
+        for (Long candidate : candidates) {
+            double similarity = jaccard(entry.set, entries.get(candidate).set);
+            if (similarity >= minSimilarity) {
+                result.add(new Candidate(candidate, similarity));
+            }
+        }
+        result.sort(Comparator.comparingDouble(Candidate::getSimilarity).reversed().thenComparing(Candidate::getId));
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    /**
+     * 비교용: 모든 항목과 실제 Jaccard를 계산한 결과 (similar와 같은 순서 규칙)
+     */
+    public List<Candidate> exactSimilar(long id, int limit, double minSimilarity) {
+        Entry entry = entries.get(id);
+        if (entry == null || limit <= 0) {
+            return List.of();
+        }
+        List<Candidate> result = new ArrayList<>();
+        for (Map.Entry<Long, Entry> other : entries.entrySet()) {
+            if (other.getKey() == id) {
+                continue;
+            }
+            double similarity = jaccard(entry.set, other.getValue().set);
+            if (similarity >= minSimilarity) {
+                result.add(new Candidate(other.getKey(), similarity));
+            }
+        }
+        result.sort(Comparator.comparingDouble(Candidate::getSimilarity).reversed().thenComparing(Candidate::getId));
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    /**
+     * 정렬된 두 정수 집합의 Jaccard 유사도
+     */
+    static double jaccard(int[] a, int[] b) {
+        int i = 0;
+        int j = 0;
+        int common = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                common++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        int union = a.length + b.length - common;
+        return union == 0 ? 0 : (double) common / union;
+    }
+
+    private int[] signature(int[] set) {
+        int[] signature = new int[multipliers.length];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (int value : set) {
+            for (int h = 0; h < signature.length; h++) {
+                int hash = (int) (mix(multipliers[h] * (value + 1L) + offsets[h]) >>> 33);
+                if (hash < signature[h]) {
+                    signature[h] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    private long bandKey(int[] signature, int band) {
+        long key = band;
+        for (int r = band * rows; r < (band + 1) * rows; r++) {
+            key = key * 0x9E3779B97F4A7C15L + signature[r];
+        }
+        return key;
+    }
+
+    // SplitMix64 마무리 단계
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static final class Entry {
+        private final int[] set;
+        private final int[] signature;
+
+        private Entry(int[] set, int[] signature) {
+            this.set = set;
+            this.signature = signature;
+        }
+    }
+
+    private static final class Bucket {
+        private long[] ids = new long[2];
+        private int size;
+
+        private void add(long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        // 순서는 유지하지 않음 (마지막 것을 빈자리로)
+        private void remove(long id) {
+            for (int k = 0; k < size; k++) {
+                if (ids[k] == id) {
+                    ids[k] = ids[--size];
+                    return;
+                }
+            }
+        }
+    }
+
+    public static final class Candidate {
+        private final long id;
+        private final double similarity;
+
+        Candidate(long id, double similarity) {
+            this.id = id;
+            this.similarity = similarity;
+        }
+
+        public long getId() { return id; }
+        public double getSimilarity() { return similarity; }
+    }
+}
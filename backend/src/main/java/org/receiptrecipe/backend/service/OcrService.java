@@ -2,112 +2,132 @@ package org.receiptrecipe.backend.service;
 
 import com.google.cloud.vision.v1.*;
 import com.google.protobuf.ByteString;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class OcrService {
 
+    @Autowired
+    private VisionAnnotator visionAnnotator;
+
+    @Autowired
+    private ImagePreprocessor imagePreprocessor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Vision API는 한 번의 batchAnnotateImages 호출에 최대 16개 이미지를 허용
+    @Value("${app.ocr.batch.max-size:16}")
+    private int maxBatchSize;
+
+    @Value("${app.ocr.batch.max-wait-ms:50}")
+    private long maxBatchWaitMillis;
+
+    @Value("${app.ocr.batch.max-concurrent:4}")
+    private int maxConcurrentBatches;
+
+    @Value("${app.ocr.timeout-seconds:60}")
+    private long timeoutSeconds;
+
+    // 동시에 들어온 OCR 요청을 한 번의 Vision 호출로 묶는 배처
+    private MicroBatcher<AnnotateImageRequest, AnnotateImageResponse> batcher;
+
+    private Counter rpcCounter;
+
+    @PostConstruct
+    public void init() {
+        rpcCounter = meterRegistry.counter("ocr.vision.rpc");
+        DistributionSummary batchSize = DistributionSummary.builder("ocr.vision.batch.size")
+                .register(meterRegistry);
+
+        batcher = new MicroBatcher<>("ocr", maxBatchSize, maxBatchWaitMillis, maxConcurrentBatches,
+                this::annotateBatch, batchSize::record);
+        Gauge.builder("ocr.vision.queue.depth", batcher, MicroBatcher::getQueueSize).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        batcher.close();
+    }
+
     public String extractTextFromImage(String imagePath) throws IOException {
         try {
-            // Vision API 클라이언트 생성
-            ImageAnnotatorClient vision = ImageAnnotatorClient.create();
-            
             // 이미지 파일 읽기
             byte[] imageBytes = Files.readAllBytes(Paths.get(imagePath));
-            ByteString imgBytes = ByteString.copyFrom(imageBytes);
-            
-            // 이미지 빌드
-            Image img = Image.newBuilder().setContent(imgBytes).build();
-            
-            // 텍스트 감지 요청
-            Feature feat = Feature.newBuilder().setType(Feature.Type.TEXT_DETECTION).build();
-            AnnotateImageRequest request = AnnotateImageRequest.newBuilder()
-                    .addFeatures(feat)
-                    .setImage(img)
-                    .build();
-            
-            // 요청 실행
-            List<AnnotateImageRequest> requests = new ArrayList<>();
-            requests.add(request);
-            BatchAnnotateImagesResponse response = vision.batchAnnotateImages(requests);
-            
-            List<AnnotateImageResponse> responses = response.getResponsesList();
-            
-            // 결과 처리
-            StringBuilder extractedText = new StringBuilder();
-            for (AnnotateImageResponse res : responses) {
-                if (res.hasError()) {
-                    System.err.println("Error: " + res.getError().getMessage());
-                    continue;
-                }
-                
-                // 텍스트 추출
-                for (EntityAnnotation annotation : res.getTextAnnotationsList()) {
-                    extractedText.append(annotation.getDescription()).append("\n");
-                }
-            }
-            
-            vision.close();
-            return extractedText.toString().trim();
-            
-        } catch (Exception e) {
+            return extractTextFromImageBytes(imageBytes);
+        } catch (IOException e) {
             System.err.println("OCR 처리 중 오류 발생: " + e.getMessage());
-            // Google Cloud 인증이 없을 때 기본 텍스트 반환
-            return "영수증 이미지가 업로드되었습니다.\n매장: Unknown Store\n총액: 0원\n구매일: " + java.time.LocalDate.now() + "\n상품: 영수증 이미지 파일";
+            return fallbackText();
         }
     }
-    
+
     public String extractTextFromImageBytes(byte[] imageBytes) throws IOException {
         try {
-            // Vision API 클라이언트 생성
-            ImageAnnotatorClient vision = ImageAnnotatorClient.create();
-            
-            ByteString imgBytes = ByteString.copyFrom(imageBytes);
-            
+            // 축소/흑백 변환으로 Vision 전송량 감소
+            ByteString imgBytes = ByteString.copyFrom(imagePreprocessor.preprocess(imageBytes));
+
             // 이미지 빌드
             Image img = Image.newBuilder().setContent(imgBytes).build();
-            
+
             // 텍스트 감지 요청
             Feature feat = Feature.newBuilder().setType(Feature.Type.TEXT_DETECTION).build();
             AnnotateImageRequest request = AnnotateImageRequest.newBuilder()
                     .addFeatures(feat)
                     .setImage(img)
                     .build();
-            
-            // 요청 실행
-            List<AnnotateImageRequest> requests = new ArrayList<>();
-            requests.add(request);
-            BatchAnnotateImagesResponse response = vision.batchAnnotateImages(requests);
-            
-            List<AnnotateImageResponse> responses = response.getResponsesList();
-            
+
+            // 배처에 요청을 넣고 결과 대기 (다른 요청과 함께 한 번의 호출로 전송됨)
+            AnnotateImageResponse res = batcher.submit(request).get(timeoutSeconds, TimeUnit.SECONDS);
+
             // 결과 처리
+            if (res.hasError()) {
+                System.err.println("Error: " + res.getError().getMessage());
+                return "";
+            }
+
+            // 텍스트 추출
             StringBuilder extractedText = new StringBuilder();
-            for (AnnotateImageResponse res : responses) {
-                if (res.hasError()) {
-                    System.err.println("Error: " + res.getError().getMessage());
-                    continue;
-                }
-                
-                // 텍스트 추출
-                for (EntityAnnotation annotation : res.getTextAnnotationsList()) {
-                    extractedText.append(annotation.getDescription()).append("\n");
-                }
+            for (EntityAnnotation annotation : res.getTextAnnotationsList()) {
+                extractedText.append(annotation.getDescription()).append("\n");
             }
-            
-            vision.close();
             return extractedText.toString().trim();
-            
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("OCR 처리 중 인터럽트 발생");
+            return fallbackText();
         } catch (Exception e) {
             System.err.println("OCR 처리 중 오류 발생: " + e.getMessage());
             // Google Cloud 인증이 없을 때 기본 텍스트 반환
-            return "영수증 이미지가 업로드되었습니다.\n매장: Unknown Store\n총액: 0원\n구매일: " + java.time.LocalDate.now() + "\n상품: 영수증 이미지 파일";
+            return fallbackText();
+        }
+    }
+
+    private List<AnnotateImageResponse> annotateBatch(List<AnnotateImageRequest> requests) {
+        try {
+            rpcCounter.increment();
+            return visionAnnotator.batchAnnotate(requests);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
+
+    private String fallbackText() {
+        return "영수증 이미지가 업로드되었습니다.\n매장: Unknown Store\n총액: 0원\n구매일: " + java.time.LocalDate.now() + "\n상품: 영수증 이미지 파일";
+    }
 }
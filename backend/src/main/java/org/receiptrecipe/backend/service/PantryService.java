@@ -0,0 +1,220 @@
+package org.receiptrecipe.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.hibernate.Hibernate;
+import org.receiptrecipe.backend.entity.IngredientExpiry;
+import org.receiptrecipe.backend.entity.Receipt;
+import org.receiptrecipe.backend.entity.ReceiptItem;
+import org.receiptrecipe.backend.repository.IngredientExpiryRepository;
+import org.receiptrecipe.backend.repository.ReceiptRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 영수증의 재료 상품으로 냉장고(ingredient_expiry)를 채운다.
+ * 새 영수증이 커밋되면 재료로 분류된 상품마다 대표 재료 이름과 예상 유통기한(구매일 + 보관 일수)을 만들어
+ * 한 번의 JDBC 배치 INSERT로 넣는다. (IDENTITY 키라서 JPA saveAll은 행마다 INSERT를 따로 보냄)
+ * 구매일 기준으로 이미 지난 재료(오래된 영수증 가져오기)는 넣지 않는다.
+ * 같은 사진을 다시 올려 만든 영수증(먼저 만든 영수증이 남아 있음)은 재료를 또 넣지 않고,
+ * 영수증이 지워지면 그 영수증으로 넣은 재료(receipt_id)를 함께 지운다.
+ */
+@Service
+public class PantryService {
+
+    private static final String INSERT_SQL = "INSERT INTO ingredient_expiry " +
+            "(user_id, receipt_id, ingredient_name, quantity, unit, expiry_date, purchase_date, is_notified, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private IngredientExpiryRepository ingredientExpiryRepository;
+
+    @Autowired
+    private ReceiptRepository receiptRepository;
+
+    @Autowired
+    private ShelfLifeTable shelfLifeTable;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TransactionTemplate transactionTemplate;
+    private Counter addedCounter;
+    private Counter removedCounter;
+
+    @PostConstruct
+    public void init() {
+        // 영수증 트랜잭션이 이미 커밋된 뒤에 실행되므로 새 트랜잭션에서 저장
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        addedCounter = meterRegistry.counter("pantry.ingredients.added");
+        removedCounter = meterRegistry.counter("pantry.ingredients.removed");
+    }
+
+    // 영수증이 커밋된 뒤 재료 추가/삭제 (트랜잭션 밖에서 저장된 경우는 바로)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReceiptsChanged(ReceiptsChangedEvent event) {
+        try {
+            if (event.getType() == ReceiptsChangedEvent.Type.CREATED) {
+                addFromReceipts(withoutRepeatedImages(event.getReceipts()));
+            } else if (event.getType() == ReceiptsChangedEvent.Type.DELETED) {
+                removeForReceipts(receiptIds(event.getReceipts()));
+            }
+        } catch (RuntimeException e) {
+            // 영수증 저장 결과에는 영향 없음
+            System.err.println("냉장고 재료 반영 실패: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 영수증들로 넣은 재료를 지우고 지운 행 수를 돌려준다
+     */
+    public int removeForReceipts(List<Long> receiptIds) {
+        if (receiptIds.isEmpty()) {
+            return 0;
+        }
+        Integer removed = transactionTemplate.execute(status -> ingredientExpiryRepository.deleteByReceiptIds(receiptIds));
+        removedCounter.increment(removed);
+        return removed;
+    }
+
+    // 같은 사진으로 먼저 만든 영수증이 남아 있으면 그 재료가 이미 냉장고에 있으므로 뺀다 (중복 업로드는 결과를 재사용해 새로 저장됨)
+    // 먼저 만든 영수증을 지웠다면 그 재료도 지워졌으므로 다시 넣는다
+    private List<Receipt> withoutRepeatedImages(List<Receipt> receipts) {
+        List<Long> ids = receiptIds(receipts);
+        if (ids.isEmpty()) {
+            return receipts;
+        }
+        Set<Long> repeated = new HashSet<>(receiptRepository.findIdsWithEarlierSameImage(ids));
+        if (repeated.isEmpty()) {
+            return receipts;
+        }
+        List<Receipt> firstUploads = new ArrayList<>(receipts.size());
+        for (Receipt receipt : receipts) {
+            if (!repeated.contains(receipt.getId())) {
+                firstUploads.add(receipt);
+            }
+        }
+        return firstUploads;
+    }
+
+    private static List<Long> receiptIds(List<Receipt> receipts) {
+        List<Long> ids = new ArrayList<>(receipts.size());
+        for (Receipt receipt : receipts) {
+            if (receipt.getId() != null) {
+                ids.add(receipt.getId());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * 영수증들의 재료를 한 번의 배치 INSERT로 추가하고 추가한 행 수를 돌려준다
+     */
+    public int addFromReceipts(List<Receipt> receipts) {
+        LocalDate today = LocalDate.now();
+        List<IngredientExpiry> entries = new ArrayList<>();
+        for (Receipt receipt : receipts) {
+            entries.addAll(entriesFor(receipt, today));
+        }
+        if (entries.isEmpty()) {
+            return 0;
+        }
+
+        List<Object[]> rows = new ArrayList<>(entries.size());
+        for (IngredientExpiry entry : entries) {
+            rows.add(new Object[] {
+                    entry.getUser().getId(), entry.getReceiptId(), entry.getIngredientName(), entry.getQuantity(), entry.getUnit(),
+                    entry.getExpiryDate(), entry.getPurchaseDate(), entry.getIsNotified(),
+                    entry.getCreatedAt(), entry.getUpdatedAt()
+            });
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, rows));
+        addedCounter.increment(rows.size());
+        return rows.size();
+    }
+
+    /**
+     * 영수증 하나에서 냉장고에 넣을 재료 (저장은 하지 않음)
+     * 같은 대표 재료가 여러 줄이면 수량을 합쳐 한 행으로 만든다.
+     */
+    public List<IngredientExpiry> entriesFor(Receipt receipt, LocalDate today) {
+        if (receipt.getUser() == null || receipt.getItems() == null || !Hibernate.isInitialized(receipt.getItems())) {
+            return List.of();
+        }
+        LocalDate purchaseDate = receipt.getPurchaseDate() != null ? receipt.getPurchaseDate().toLocalDate() : today;
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<String, IngredientExpiry> byName = new LinkedHashMap<>();
+        for (ReceiptItem item : receipt.getItems()) {
+            if (!Boolean.TRUE.equals(item.getIsIngredient())) {
+                continue;
+            }
+            // 영수증 저장 때 분류한 결과를 그대로 쓴다 (DB에서 읽은 상품은 대표 이름이 없어 상품명 그대로)
+            String name = item.getCanonicalIngredientName() != null ? item.getCanonicalIngredientName() : item.getItemName();
+            LocalDate expiryDate = purchaseDate.plusDays(shelfLifeTable.daysFor(name, item.getCategory()));
+            if (expiryDate.isBefore(today)) {
+                continue;
+            }
+            double quantity = item.getQuantity() == null || item.getQuantity() <= 0 ? 1 : item.getQuantity();
+
+            IngredientExpiry entry = byName.get(name);
+            if (entry != null) {
+                entry.setQuantity(entry.getQuantity() + quantity);
+                continue;
+            }
+            entry = new IngredientExpiry(receipt.getUser(), name, expiryDate);
+            entry.setReceiptId(receipt.getId());
+            entry.setQuantity(quantity);
+            entry.setPurchaseDate(purchaseDate);
+            entry.setIsNotified(false);
+            entry.setCreatedAt(now);
+            entry.setUpdatedAt(now);
+            byName.put(name, entry);
+        }
+        return new ArrayList<>(byName.values());
+    }
+
+    /**
+     * 오늘부터 days일 안에 유통기한이 끝나는 재료 (유통기한 순)
+     */
+    public List<Map<String, Object>> getExpiringIngredients(Long userId, int days) {
+        LocalDate today = LocalDate.now();
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Object[] row : ingredientExpiryRepository.findExpiringRows(userId, today, today.plusDays(Math.max(0, days)))) {
+            LocalDate expiryDate = (LocalDate) row[4];
+            Map<String, Object> ingredient = new HashMap<>();
+            ingredient.put("id", row[0]);
+            ingredient.put("name", row[1]);
+            ingredient.put("quantity", row[2]);
+            ingredient.put("unit", row[3]);
+            ingredient.put("expiryDate", expiryDate);
+            ingredient.put("daysLeft", ChronoUnit.DAYS.between(today, expiryDate));
+            result.add(ingredient);
+        }
+        return result;
+    }
+}
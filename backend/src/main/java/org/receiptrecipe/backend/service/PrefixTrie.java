@@ -0,0 +1,263 @@
+package org.receiptrecipe.backend.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 자동완성용 접두사 트라이 (동기화하지 않음, 호출하는 쪽에서 잠금)
+ * 노드는 객체 대신 배열(글자, 첫 자식, 다음 형제)로 저장하고, 노드마다 그 아래 단어 중 가중치 상위 topK개를 미리 들고 있어
+ * 조회는 접두사 길이만큼 내려간 뒤 그 목록을 돌려주기만 한다 (후보 수와 무관).
+ * 키는 소문자 + 공백 하나로 정규화하고, 결과에는 처음 넣은 표기를 그대로 쓴다.
+ */
+public final class PrefixTrie {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final int topK;
+
+    // 노드 (0번은 루트)
+    private char[] labels = new char[64];
+    private int[] firstChild = new int[64];
+    private int[] nextSibling = new int[64];
+    private int[] parents = new int[64];
+    private int[] nodeTerms = new int[64];
+    private int[][] tops = new int[64][];
+    private int nodeCount = 1;
+
+    // 단어
+    private String[] texts = new String[16];
+    private long[] weights = new long[16];
+    private int termCount;
+    private int liveTerms;
+
+    public PrefixTrie(int topK) {
+        this.topK = topK;
+        firstChild[0] = -1;
+        nextSibling[0] = -1;
+        parents[0] = -1;
+        nodeTerms[0] = -1;
+        tops[0] = EMPTY;
+    }
+
+    /**
+     * 단어의 가중치를 delta만큼 바꾼다 (처음이면 추가, 0 이하가 되면 자동완성에서 빠짐)
+     */
+    public void add(String text, long delta) {
+        String key = normalize(text);
+        if (key.isEmpty() || delta == 0) {
+            return;
+        }
+        int node = 0;
+        for (int i = 0; i < key.length(); i++) {
+            int child = child(node, key.charAt(i));
+            if (child < 0) {
+                if (delta < 0) {
+                    return;
+                }
+                child = newNode(node, key.charAt(i));
+            }
+            node = child;
+        }
+
+        int term = nodeTerms[node];
+        if (term < 0) {
+            if (delta < 0) {
+                return;
+            }
+            term = newTerm(text);
+            nodeTerms[node] = term;
+        }
+        long before = weights[term];
+        long after = Math.max(0, before + delta);
+        if (after == before) {
+            return;
+        }
+        weights[term] = after;
+        if (before == 0) {
+            liveTerms++;
+        } else if (after == 0) {
+            liveTerms--;
+        }
+
+        // 단어 노드에서 루트까지 상위 목록 갱신
+        for (int n = node; n >= 0; n = parents[n]) {
+            if (after > before) {
+                promote(n, term);
+            } else {
+                recompute(n);
+            }
+        }
+    }
+
+    /**
+     * prefix로 시작하는 단어 중 가중치가 높은 순서로 최대 limit개 (limit은 topK까지)
+     */
+    public List<Completion> complete(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        int node = 0;
+        for (int i = 0; i < key.length() && node >= 0; i++) {
+            node = child(node, key.charAt(i));
+        }
+        if (node < 0) {
+            return List.of();
+        }
+        int[] top = tops[node];
+        List<Completion> completions = new ArrayList<>(Math.min(limit, top.length));
+        for (int i = 0; i < top.length && i < limit; i++) {
+            completions.add(new Completion(texts[top[i]], weights[top[i]]));
+        }
+        return completions;
+    }
+
+    public long weight(String text) {
+        String key = normalize(text);
+        int node = 0;
+        for (int i = 0; i < key.length() && node >= 0; i++) {
+            node = child(node, key.charAt(i));
+        }
+        return node < 0 || nodeTerms[node] < 0 ? 0 : weights[nodeTerms[node]];
+    }
+
+    // 가중치가 0보다 큰 단어 수
+    public int size() {
+        return liveTerms;
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private int child(int node, char label) {
+        for (int c = firstChild[node]; c >= 0; c = nextSibling[c]) {
+            if (labels[c] == label) {
+                return c;
+            }
+        }
+        return -1;
+    }
+
+    private int newNode(int parent, char label) {
+        if (nodeCount == labels.length) {
+            int capacity = nodeCount * 2;
+            labels = Arrays.copyOf(labels, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+            parents = Arrays.copyOf(parents, capacity);
+            nodeTerms = Arrays.copyOf(nodeTerms, capacity);
+            tops = Arrays.copyOf(tops, capacity);
+        }
+        int node = nodeCount++;
+        labels[node] = label;
+        firstChild[node] = -1;
+        nextSibling[node] = firstChild[parent];
+        firstChild[parent] = node;
+        parents[node] = parent;
+        nodeTerms[node] = -1;
+        tops[node] = EMPTY;
+        return node;
+    }
+
+    private int newTerm(String text) {
+        if (termCount == texts.length) {
+            texts = Arrays.copyOf(texts, termCount * 2);
+            weights = Arrays.copyOf(weights, termCount * 2);
+        }
+        texts[termCount] = text.trim();
+        return termCount++;
+    }
+
+    // 가중치가 오른 경우: 이 단어만 자리를 옮기면 된다
+    private void promote(int node, int term) {
+        int[] top = tops[node];
+        int at = indexOf(top, term);
+        int[] without;
+        if (at >= 0) {
+            without = new int[top.length - 1];
+            System.arraycopy(top, 0, without, 0, at);
+            System.arraycopy(top, at + 1, without, at, top.length - at - 1);
+        } else {
+            without = top;
+        }
+        int position = 0;
+        while (position < without.length && ranksBefore(without[position], term)) {
+            position++;
+        }
+        if (position >= topK) {
+            return;
+        }
+        int[] updated = new int[Math.min(topK, without.length + 1)];
+        System.arraycopy(without, 0, updated, 0, position);
+        updated[position] = term;
+        System.arraycopy(without, position, updated, position + 1, updated.length - position - 1);
+        tops[node] = updated;
+    }
+
+    // 가중치가 내려간 경우: 목록 밖에 있던 단어가 들어올 수 있으므로 자식 목록과 자기 단어로 다시 만든다
+    private void recompute(int node) {
+        int[] merged = new int[topK];
+        int size = 0;
+        int own = nodeTerms[node];
+        if (own >= 0 && weights[own] > 0) {
+            merged[size++] = own;
+        }
+        for (int c = firstChild[node]; c >= 0; c = nextSibling[c]) {
+            for (int term : tops[c]) {
+                int position = size;
+                while (position > 0 && ranksBefore(term, merged[position - 1])) {
+                    position--;
+                }
+                if (position >= topK) {
+                    // 자식 목록은 정렬되어 있으므로 나머지도 들어오지 못함
+                    break;
+                }
+                int moved = Math.min(size, topK - 1) - position;
+                System.arraycopy(merged, position, merged, position + 1, moved);
+                merged[position] = term;
+                size = Math.min(size + 1, topK);
+            }
+        }
+        tops[node] = size == 0 ? EMPTY : Arrays.copyOf(merged, size);
+    }
+
+    // 가중치가 높은 것 먼저, 같으면 사전순으로 앞선 표기 먼저
+    private boolean ranksBefore(int a, int b) {
+        if (weights[a] != weights[b]) {
+            return weights[a] > weights[b];
+        }
+        return texts[a].compareTo(texts[b]) < 0;
+    }
+
+    private static int indexOf(int[] values, int value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public static final class Completion {
+        private final String text;
+        private final long weight;
+
+        Completion(String text, long weight) {
+            this.text = text;
+            this.weight = weight;
+        }
+
+        public String getText() { return text; }
+        public long getWeight() { return weight; }
+    }
+}
@@ -0,0 +1,198 @@
+package org.receiptrecipe.backend.service;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * DB 행으로 만드는 메모리 색인의 공통 부분 (생성, 교체, 변경 반영)
+ * 앱 시작 후, 그리고 rebuild/rebuildInBackground를 부를 때 전체를 새로 만든다 (주기적 재구축은 서브클래스의 @Scheduled).
+ * 새 색인(S)은 잠금 밖에서 채운 뒤 쓰기 잠금 안에서 통째로 바꾸고, 만드는 동안 바뀐 행은 교체 직후 DB에서 다시 읽어 반영한다.
+ * 문서(D)는 잠금 밖에서 만든다 (재료 사전 조회처럼 파일을 다시 읽을 수도 있는 작업을 쓰기 잠금 안에서 하지 않도록).
+ * 생성이 실패해도 다음 재구축 때 다시 만들고, 이벤트 반영이 실패하거나 빠진 행도 그때 맞춰진다.
+ *
+ * @param <S> 색인 상태 (lock으로 보호)
+ * @param <D> 행 하나의 색인용 문서
+ */
+public abstract class RebuildableIndex<S, D> {
+
+    protected static final int BUILD_BATCH_SIZE = 500;
+
+    protected final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    protected S state;
+    // 재구축 중에 바뀐 행 (재구축 중이 아니면 null)
+    private Set<Long> changedDuringRebuild;
+    private final SingleFlightRunner rebuilder = new SingleFlightRunner(this::rebuildOnce);
+    private volatile boolean ready;
+
+    // 로그에 쓰는 색인 이름
+    protected abstract String indexName();
+
+    protected abstract S newState();
+
+    // id가 lastId보다 큰 행 최대 limit개 (id 순서)
+    protected abstract List<D> loadAfter(long lastId, int limit);
+
+    // 지금 DB에 있는 행만 (없는 id는 빠짐)
+    protected abstract List<D> load(List<Long> ids);
+
+    protected abstract Long documentId(D document);
+
+    // 쓰기 잠금을 잡은 상태(또는 아직 공개되지 않은 새 상태)에서 호출
+    protected abstract void addTo(S state, D document);
+
+    protected abstract void removeFrom(S state, Long id);
+
+    // 서브클래스의 @PostConstruct에서 빈 색인으로 시작
+    protected void initState() {
+        state = newState();
+    }
+
+    // 시작 직후 요청을 막지 않도록 별도 스레드에서 색인 생성
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuildInBackground();
+    }
+
+    public void rebuildInBackground() {
+        Thread builder = new Thread(this::rebuild, getClass().getSimpleName() + "-build");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    /**
+     * DB의 전체 행으로 색인을 새로 만들어 교체한다 (만드는 동안에는 기존 색인으로 응답)
+     * 이미 만드는 중이면 그 작업이 끝난 뒤 한 번 더 만든다.
+     */
+    public void rebuild() {
+        rebuilder.run();
+    }
+
+    private void rebuildOnce() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            S fresh = newState();
+            long lastId = 0L;
+            int count = 0;
+            while (true) {
+                List<D> documents = loadAfter(lastId, BUILD_BATCH_SIZE);
+                if (documents.isEmpty()) {
+                    break;
+                }
+                for (D document : documents) {
+                    addTo(fresh, document);
+                }
+                count += documents.size();
+                lastId = documentId(documents.get(documents.size() - 1));
+            }
+
+            Set<Long> changed;
+            lock.writeLock().lock();
+            try {
+                state = fresh;
+                changed = changedDuringRebuild;
+                changedDuringRebuild = null;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            refresh(new ArrayList<>(changed));
+            System.err.println(indexName() + " 생성 완료: " + count + "건, " + (System.currentTimeMillis() - start) + "ms");
+        } catch (Exception e) {
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            System.err.println(indexName() + " 생성 실패: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 행들을 DB에서 다시 읽어 반영한다 (DB에 없으면 색인에서 뺀다)
+     */
+    public void refresh(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        // 읽는 도중 재구축이 끝나도 교체 후 다시 반영되도록 먼저 표시
+        markChanged(ids);
+        List<D> documents = load(ids);
+        lock.writeLock().lock();
+        try {
+            for (Long id : ids) {
+                removeFrom(state, id);
+            }
+            for (D document : documents) {
+                addTo(state, document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 문서 하나를 색인에 반영한다 (기존 내용은 교체)
+     */
+    protected void put(D document) {
+        lock.writeLock().lock();
+        try {
+            markChangedLocked(List.of(documentId(document)));
+            removeFrom(state, documentId(document));
+            addTo(state, document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            markChangedLocked(List.of(id));
+            removeFrom(state, id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // (id, ...) 행들의 id
+    protected static List<Long> ids(List<Object[]> rows) {
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            ids.add((Long) row[0]);
+        }
+        return ids;
+    }
+
+    private void markChanged(Collection<Long> ids) {
+        lock.writeLock().lock();
+        try {
+            markChangedLocked(ids);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void markChangedLocked(Collection<Long> ids) {
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.addAll(ids);
+        }
+    }
+}
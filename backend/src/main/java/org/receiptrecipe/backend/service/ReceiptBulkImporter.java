@@ -0,0 +1,361 @@
+package org.receiptrecipe.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.receiptrecipe.backend.entity.Receipt;
+import org.receiptrecipe.backend.entity.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * 영수증 일괄 가져오기 (zip 또는 여러 파일)
+ * zip은 요청 스트림에서 항목을 하나씩 풀면서 바로 저장하므로 전체 압축 파일을 메모리에 올리지 않는다.
+ * 여러 파일(multipart)은 컨테이너가 이미 임시 파일로 모두 받아 둔 뒤 처리한다.
+ * 저장된 항목은 OCR/파싱 작업 풀에서 제한된 개수만 동시에 처리하고,
+ * 결과는 insert-batch-size 단위로 모아서 한 번에 저장한다.
+ * 진행 상황은 항목마다 progress 콜백으로 전달된다 (여러 스레드에서 호출됨).
+ */
+@Service
+public class ReceiptBulkImporter {
+
+    private static final Set<String> IMAGE_EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif", "bmp", "webp", "tif", "tiff", "txt");
+
+    @Autowired
+    private ReceiptService receiptService;
+
+    @Autowired
+    private ReceiptResultCache receiptResultCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.ingest.bulk.parallelism:4}")
+    private int parallelism;
+
+    @Value("${app.ingest.bulk.insert-batch-size:50}")
+    private int insertBatchSize;
+
+    @Value("${app.ingest.bulk.max-entries:1000}")
+    private int maxEntries;
+
+    @Value("${app.ingest.bulk.max-entry-bytes:10485760}")
+    private long maxEntryBytes;
+
+    private ThreadPoolExecutor workerExecutor;
+    private Counter importedCounter;
+    private Counter failedCounter;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCounter = new AtomicInteger();
+        workerExecutor = new ThreadPoolExecutor(parallelism, parallelism, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "receipt-bulk-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        importedCounter = meterRegistry.counter("receipt.bulk.items", "result", "completed");
+        failedCounter = meterRegistry.counter("receipt.bulk.items", "result", "failed");
+        Gauge.builder("receipt.bulk.queue.depth", workerExecutor, e -> e.getQueue().size()).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workerExecutor.shutdown();
+    }
+
+    public void importZip(InputStream zipStream, User user, Consumer<Map<String, Object>> progress) throws IOException {
+        ImportRun run = new ImportRun(user, progress);
+        try (ZipInputStream zip = new ZipInputStream(zipStream)) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (entry.isDirectory() || !isReceiptFile(entry.getName())) {
+                    continue;
+                }
+                if (!run.accept(entry.getName(), new LimitedInputStream(zip, maxEntryBytes))) {
+                    break;
+                }
+            }
+        } finally {
+            run.finish();
+        }
+    }
+
+    public void importFiles(List<MultipartFile> files, User user, Consumer<Map<String, Object>> progress) throws IOException {
+        ImportRun run = new ImportRun(user, progress);
+        try {
+            for (MultipartFile file : files) {
+                if (file.isEmpty()) {
+                    continue;
+                }
+                try (InputStream in = file.getInputStream()) {
+                    if (!run.accept(file.getOriginalFilename(), in)) {
+                        break;
+                    }
+                }
+            }
+        } finally {
+            run.finish();
+        }
+    }
+
+    private static boolean isReceiptFile(String name) {
+        String baseName = name.substring(name.lastIndexOf('/') + 1);
+        // macOS 압축 시 생기는 메타데이터 파일 제외
+        if (baseName.startsWith(".") || name.startsWith("__MACOSX/")) {
+            return false;
+        }
+        int dot = baseName.lastIndexOf('.');
+        return dot >= 0 && IMAGE_EXTENSIONS.contains(baseName.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * 한 번의 가져오기 요청 상태
+     */
+    private class ImportRun {
+        private final User user;
+        private final Consumer<Map<String, Object>> progress;
+        // 한 요청이 동시에 처리하는 항목 수 제한 (읽는 쪽이 너무 앞서 나가지 않도록)
+        private final Semaphore inFlight = new Semaphore(parallelism * 2);
+        private final List<PendingReceipt> buffer = new ArrayList<>();
+        private final AtomicInteger completed = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private int index;
+
+        private ImportRun(User user, Consumer<Map<String, Object>> progress) {
+            this.user = user;
+            this.progress = progress;
+        }
+
+        // 항목 하나를 저장하고 처리 작업에 넣는다. 최대 항목 수를 넘으면 false
+        private boolean accept(String originalName, InputStream content) {
+            if (index >= maxEntries) {
+                emit(event(index, originalName, "skipped", "최대 " + maxEntries + "개까지 가져올 수 있습니다."));
+                return false;
+            }
+            int itemIndex = index++;
+
+            String fileName;
+            try {
+                fileName = receiptService.storeReceiptFile(content, originalName);
+            } catch (IOException e) {
+                markFailed(itemIndex, originalName, e);
+                return true;
+            }
+            emit(event(itemIndex, originalName, "stored", null));
+
+            try {
+                inFlight.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                receiptService.releaseReceiptFile(fileName);
+                markFailed(itemIndex, originalName, e);
+                return false;
+            }
+            workerExecutor.execute(() -> {
+                try {
+                    process(itemIndex, originalName, fileName);
+                } catch (Exception e) {
+                    receiptService.releaseReceiptFile(fileName);
+                    markFailed(itemIndex, originalName, e);
+                } finally {
+                    inFlight.release();
+                }
+            });
+            return true;
+        }
+
+        private void process(int itemIndex, String originalName, String fileName) throws IOException {
+            String ocrText;
+            Map<String, Object> parsedData;
+            Optional<ReceiptResultCache.CachedResult> cached = receiptResultCache.lookup(user, fileName);
+            if (cached.isPresent()) {
+                ocrText = cached.get().getRawOcrText();
+                parsedData = cached.get().getProcessedData();
+            } else {
+                ocrText = receiptService.extractReceiptText(fileName);
+                parsedData = receiptService.parseReceiptText(ocrText);
+            }
+
+            Receipt receipt = receiptService.buildReceipt(user, fileName, ocrText, parsedData);
+            List<PendingReceipt> toSave = null;
+            synchronized (buffer) {
+                buffer.add(new PendingReceipt(itemIndex, originalName, receipt, parsedData));
+                if (buffer.size() >= insertBatchSize) {
+                    toSave = new ArrayList<>(buffer);
+                    buffer.clear();
+                }
+            }
+            if (toSave != null) {
+                save(toSave);
+            }
+        }
+
+        private void save(List<PendingReceipt> pending) {
+            List<Receipt> receipts = new ArrayList<>(pending.size());
+            for (PendingReceipt item : pending) {
+                receipts.add(item.receipt);
+            }
+            try {
+                List<Receipt> saved = receiptService.saveReceipts(receipts);
+                for (int i = 0; i < pending.size(); i++) {
+                    PendingReceipt item = pending.get(i);
+                    Receipt receipt = saved.get(i);
+                    receiptResultCache.put(user, receipt.getImageUrl(), receipt.getRawOcrText(), item.parsedData);
+
+                    Map<String, Object> event = event(item.index, item.originalName, "completed", null);
+                    event.put("receiptId", receipt.getId());
+                    event.put("storeName", receipt.getStoreName());
+                    event.put("totalAmount", receipt.getTotalAmount());
+                    emit(event);
+                    completed.incrementAndGet();
+                    importedCounter.increment();
+                }
+            } catch (Exception e) {
+                for (PendingReceipt item : pending) {
+                    markFailed(item.index, item.originalName, e);
+                }
+            } finally {
+                // 저장된 영수증이 파일을 참조하거나 실패한 경우 모두 고정 해제
+                for (PendingReceipt item : pending) {
+                    receiptService.releaseReceiptFile(item.receipt.getImageUrl());
+                }
+            }
+        }
+
+        // 진행 중인 작업을 모두 기다린 뒤 남은 결과를 저장하고 요약을 보냄
+        private void finish() {
+            int permits = parallelism * 2;
+            try {
+                inFlight.acquire(permits);
+                inFlight.release(permits);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            List<PendingReceipt> rest;
+            synchronized (buffer) {
+                rest = new ArrayList<>(buffer);
+                buffer.clear();
+            }
+            if (!rest.isEmpty()) {
+                save(rest);
+            }
+
+            Map<String, Object> summary = new HashMap<>();
+            summary.put("status", "done");
+            summary.put("total", index);
+            summary.put("completed", completed.get());
+            summary.put("failed", failed.get());
+            emit(summary);
+        }
+
+        private void markFailed(int itemIndex, String originalName, Exception error) {
+            System.err.println("영수증 일괄 가져오기 실패 (" + originalName + "): " + error.getMessage());
+            failed.incrementAndGet();
+            failedCounter.increment();
+            emit(event(itemIndex, originalName, "failed", error.getMessage()));
+        }
+
+        private void emit(Map<String, Object> event) {
+            try {
+                progress.accept(event);
+            } catch (Exception e) {
+                // 클라이언트 연결이 끊겨도 가져오기는 계속 진행
+                System.err.println("일괄 가져오기 진행 상황 전송 실패: " + e.getMessage());
+            }
+        }
+
+        private Map<String, Object> event(int itemIndex, String originalName, String status, String error) {
+            Map<String, Object> event = new HashMap<>();
+            event.put("index", itemIndex);
+            event.put("file", originalName);
+            event.put("status", status);
+            if (error != null) {
+                event.put("error", error);
+            }
+            return event;
+        }
+    }
+
+    private static class PendingReceipt {
+        private final int index;
+        private final String originalName;
+        private final Receipt receipt;
+        private final Map<String, Object> parsedData;
+
+        private PendingReceipt(int index, String originalName, Receipt receipt, Map<String, Object> parsedData) {
+            this.index = index;
+            this.originalName = originalName;
+            this.receipt = receipt;
+            this.parsedData = parsedData;
+        }
+    }
+
+    /**
+     * zip 항목 하나의 크기를 제한 (압축 폭탄 방지)
+     */
+    private static class LimitedInputStream extends FilterInputStream {
+        private final long limit;
+        private long count;
+
+        private LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                checkLimit(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                checkLimit(read);
+            }
+            return read;
+        }
+
+        @Override
+        public void close() {
+            // 항목 스트림을 닫아도 zip 스트림은 유지
+        }
+
+        private void checkLimit(int read) throws IOException {
+            count += read;
+            if (count > limit) {
+                throw new IOException("파일 크기가 너무 큽니다. (최대 " + limit / (1024 * 1024) + "MB)");
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.receiptrecipe.backend.service;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * 영수증 이미지 저장소
+ * 키는 내용의 SHA-256 해시 + 확장자("<sha256>.jpg")이며 receipts.image_url 에 그대로 저장된다.
+ * 같은 내용은 같은 키가 되므로 이미 있는 키는 다시 쓰지 않는다.
+ * 원본에서 만든 파일(축소 이미지 등)은 "<sha256>-<이름>.jpg" 키로 원본 옆에 둔다.
+ * 구현은 app.storage.type 으로 선택한다 (filesystem | s3).
+ */
+public interface ReceiptImageStore {
+
+    Pattern CONTENT_KEY = Pattern.compile("[0-9a-f]{64}(-[a-z0-9]{1,10})?(\\.[a-z0-9]{1,10})?");
+    // 해시 이름 도입 전 업로드 파일 ("<millis>_<uuid>" + 원본 확장자 그대로, 예: ".jpeg", ".사진", ".tar.gz")
+    // 루트 바로 아래 파일 이름이기만 하면 됨: 경로 구분자, 제어 문자, '.'으로 시작하는 이름("..")만 거부
+    Pattern LEGACY_KEY = Pattern.compile("[^./\\\\\\p{Cntrl}][^/\\\\\\p{Cntrl}]{0,254}");
+    Pattern EXTENSION = Pattern.compile("[a-z0-9]{1,10}");
+
+    // 내용을 저장하고 키를 반환
+    String store(InputStream content, String originalFilename) throws IOException;
+
+    // 파생 파일을 정해진 키로 저장 (이미 있으면 덮어씀)
+    void put(String key, byte[] content) throws IOException;
+
+    InputStream open(String key) throws IOException;
+
+    boolean exists(String key) throws IOException;
+
+    void delete(String key) throws IOException;
+
+    // HTTP 응답용 리소스 (길이를 알 수 있어 Range 요청을 처리할 수 있음). 없으면 NoSuchFileException
+    Resource asResource(String key) throws IOException;
+
+    default byte[] read(String key) throws IOException {
+        try (InputStream in = open(key)) {
+            return in.readAllBytes();
+        }
+    }
+
+    /**
+     * 해시 앞 4자리로 두 단계 디렉토리를 나눈 상대 경로 ("ab/cd/abcd...jpg")
+     * 한 디렉토리에 파일이 수백만 개 쌓이지 않도록 한다.
+     * 해시 키가 아니면 샤딩 이전의 평평한 경로(키 그대로)를 쓴다 - 이미 저장된 예전 영수증도 조회/삭제할 수 있도록.
+     */
+    static String shardedPath(String key) {
+        if (CONTENT_KEY.matcher(key).matches()) {
+            return key.substring(0, 2) + "/" + key.substring(2, 4) + "/" + key;
+        }
+        if (LEGACY_KEY.matcher(key).matches()) {
+            return key;
+        }
+        // 경로 조작 방지
+        throw new IllegalArgumentException("잘못된 이미지 키입니다: " + key);
+    }
+
+    /**
+     * 스트림을 임시 파일로 복사하면서 SHA-256을 계산해 키를 만든다. 원본 스트림은 닫지 않는다.
+     */
+    static String spoolToTempFile(InputStream content, String originalFilename, Path tempFile) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (OutputStream out = Files.newOutputStream(tempFile)) {
+            new DigestInputStream(content, digest).transferTo(out);
+        }
+        return HexFormat.of().formatHex(digest.digest()) + fileExtensionOf(originalFilename);
+    }
+
+    static String fileExtensionOf(String originalFilename) {
+        if (originalFilename == null || !originalFilename.contains(".")) {
+            return "";
+        }
+        String extension = originalFilename.substring(originalFilename.lastIndexOf(".") + 1).toLowerCase(Locale.ROOT);
+        // 경로 조작 방지: ASCII 영숫자 확장자만 허용 ("영수증.사진"처럼 그 외 문자는 확장자 없이 저장)
+        if (!EXTENSION.matcher(extension).matches()) {
+            return "";
+        }
+        return "." + extension;
+    }
+}
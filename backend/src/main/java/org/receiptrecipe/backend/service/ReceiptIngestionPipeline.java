@@ -0,0 +1,290 @@
+package org.receiptrecipe.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.receiptrecipe.backend.dto.ReceiptIngestionJob;
+import org.receiptrecipe.backend.entity.Receipt;
+import org.receiptrecipe.backend.entity.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 영수증 업로드 비동기 처리 파이프라인
+ * 업로드 요청은 파일만 저장하고 바로 작업 ID를 반환하며,
+ * OCR → 파싱 → 저장 단계는 각각 전용 스레드 풀(크기 제한 큐)에서 실행된다.
+ */
+@Service
+public class ReceiptIngestionPipeline {
+
+    @Autowired
+    private ReceiptService receiptService;
+
+    @Autowired
+    private ReceiptResultCache receiptResultCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired(required = false)
+    private List<ReceiptJobListener> listeners = new ArrayList<>();
+
+    @Value("${app.ingest.ocr.threads:4}")
+    private int ocrThreads;
+
+    @Value("${app.ingest.ocr.queue-capacity:100}")
+    private int ocrQueueCapacity;
+
+    @Value("${app.ingest.parse.threads:4}")
+    private int parseThreads;
+
+    @Value("${app.ingest.parse.queue-capacity:100}")
+    private int parseQueueCapacity;
+
+    @Value("${app.ingest.persist.threads:2}")
+    private int persistThreads;
+
+    @Value("${app.ingest.persist.queue-capacity:200}")
+    private int persistQueueCapacity;
+
+    @Value("${app.ingest.job-retention-minutes:60}")
+    private long jobRetentionMinutes;
+
+    private final Map<String, ReceiptIngestionJob> jobs = new ConcurrentHashMap<>();
+    // 내용 해시 -> 그 사진의 마지막 작업 종료 (같은 사진은 앞 작업이 끝난 뒤 처리해 캐시 결과를 재사용)
+    private final Map<String, CompletableFuture<Void>> lastJobByHash = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Void>> doneByJob = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor ocrExecutor;
+    private ThreadPoolExecutor parseExecutor;
+    private ThreadPoolExecutor persistExecutor;
+
+    private Timer ocrTimer;
+    private Timer parseTimer;
+    private Timer persistTimer;
+    private Counter completedCounter;
+    private Counter failedCounter;
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    public void init() {
+        // 첫 단계는 큐가 가득 차면 바로 거절 (요청 스레드를 붙잡지 않고 503 응답)
+        ocrExecutor = newStageExecutor("ocr", ocrThreads, ocrQueueCapacity, new ThreadPoolExecutor.AbortPolicy());
+        // 이후 단계는 큐가 가득 차면 앞 단계 스레드가 대기 (역압)
+        parseExecutor = newStageExecutor("parse", parseThreads, parseQueueCapacity, blockingPolicy());
+        persistExecutor = newStageExecutor("persist", persistThreads, persistQueueCapacity, blockingPolicy());
+
+        ocrTimer = stageTimer("ocr");
+        parseTimer = stageTimer("parse");
+        persistTimer = stageTimer("persist");
+        completedCounter = meterRegistry.counter("receipt.ingest.jobs", "result", "completed");
+        failedCounter = meterRegistry.counter("receipt.ingest.jobs", "result", "failed");
+        rejectedCounter = meterRegistry.counter("receipt.ingest.jobs", "result", "rejected");
+        Gauge.builder("receipt.ingest.jobs.tracked", jobs, Map::size).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ocrExecutor.shutdown();
+        parseExecutor.shutdown();
+        persistExecutor.shutdown();
+    }
+
+    /**
+     * 업로드 파일을 저장하고 처리 작업을 등록한다.
+     * OCR 단계 큐가 가득 찬 경우 RejectedExecutionException을 던진다.
+     */
+    public ReceiptIngestionJob submit(MultipartFile file, User user) throws IOException {
+        purgeFinishedJobs();
+
+        String fileName = receiptService.storeReceiptFile(file);
+        ReceiptIngestionJob job = new ReceiptIngestionJob(user.getId(), fileName);
+        jobs.put(job.getId(), job);
+
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        doneByJob.put(job.getId(), done);
+        CompletableFuture<Void> previous = lastJobByHash.put(ReceiptResultCache.contentHashOf(fileName), done);
+        if (previous != null && !previous.isDone()) {
+            // 같은 사진을 처리 중 - 끝나면 시작 (그때 큐가 가득 차 있으면 작업 실패로 처리)
+            previous.whenComplete((result, error) -> {
+                try {
+                    ocrExecutor.execute(() -> runOcrStage(job, user));
+                } catch (RejectedExecutionException e) {
+                    handleFailure(job, e);
+                }
+            });
+            return job;
+        }
+
+        try {
+            ocrExecutor.execute(() -> runOcrStage(job, user));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            finish(job);
+            receiptService.deleteReceiptFile(fileName);
+            rejectedCounter.increment();
+            throw e;
+        }
+        return job;
+    }
+
+    // 다른 사용자의 작업은 없는 것으로 취급 (작업 id를 알아도 상태/결과를 볼 수 없음)
+    public Optional<ReceiptIngestionJob> getJob(String jobId, User user) {
+        purgeFinishedJobs();
+        ReceiptIngestionJob job = jobs.get(jobId);
+        if (job == null || user == null || !Objects.equals(job.getUserId(), user.getId())) {
+            return Optional.empty();
+        }
+        return Optional.of(job);
+    }
+
+    private void runOcrStage(ReceiptIngestionJob job, User user) {
+        try {
+            // 같은 사진을 이미 처리했다면 OCR/파싱 단계를 건너뜀
+            Optional<ReceiptResultCache.CachedResult> cached = receiptResultCache.lookup(user, job.getFileName());
+            if (cached.isPresent()) {
+                String cachedText = cached.get().getRawOcrText();
+                Map<String, Object> cachedData = cached.get().getProcessedData();
+                persistExecutor.execute(() -> runPersistStage(job, user, cachedText, cachedData));
+                return;
+            }
+
+            job.moveTo(ReceiptIngestionJob.Status.OCR);
+            String ocrText = ocrTimer.record(() -> receiptService.extractReceiptText(job.getFileName()));
+            parseExecutor.execute(() -> runParseStage(job, user, ocrText));
+        } catch (Exception e) {
+            handleFailure(job, e);
+        }
+    }
+
+    private void runParseStage(ReceiptIngestionJob job, User user, String ocrText) {
+        try {
+            job.moveTo(ReceiptIngestionJob.Status.PARSING);
+            Map<String, Object> parsedData = parseTimer.record(() -> receiptService.parseReceiptText(ocrText));
+            persistExecutor.execute(() -> runPersistStage(job, user, ocrText, parsedData));
+        } catch (Exception e) {
+            handleFailure(job, e);
+        }
+    }
+
+    private void runPersistStage(ReceiptIngestionJob job, User user, String ocrText, Map<String, Object> parsedData) {
+        try {
+            job.moveTo(ReceiptIngestionJob.Status.PERSISTING);
+            Receipt receipt = persistTimer.recordCallable(
+                () -> receiptService.saveParsedReceipt(user, job.getFileName(), ocrText, parsedData));
+            job.complete(receipt.getId());
+            completedCounter.increment();
+            finish(job);
+            for (ReceiptJobListener listener : listeners) {
+                try {
+                    listener.onJobCompleted(job, receipt);
+                } catch (Exception e) {
+                    System.err.println("영수증 작업 완료 콜백 실패: " + e.getMessage());
+                }
+            }
+        } catch (Exception e) {
+            handleFailure(job, e);
+        }
+    }
+
+    private void handleFailure(ReceiptIngestionJob job, Throwable error) {
+        System.err.println("영수증 처리 작업 실패 (" + job.getId() + "): " + error.getMessage());
+        job.fail(error.getMessage());
+        failedCounter.increment();
+        finish(job);
+        for (ReceiptJobListener listener : listeners) {
+            try {
+                listener.onJobFailed(job, error);
+            } catch (Exception e) {
+                System.err.println("영수증 작업 실패 콜백 실패: " + e.getMessage());
+            }
+        }
+    }
+
+    // 업로드 파일 고정을 풀고, 같은 사진을 기다리는 다음 작업을 시작시킴
+    private void finish(ReceiptIngestionJob job) {
+        receiptService.releaseReceiptFile(job.getFileName());
+        CompletableFuture<Void> done = doneByJob.remove(job.getId());
+        if (done != null) {
+            lastJobByHash.remove(ReceiptResultCache.contentHashOf(job.getFileName()), done);
+            done.complete(null);
+        }
+    }
+
+    // 보존 기간이 지난 완료/실패 작업 정리 (업로드/조회가 없어도 주기적으로)
+    @Scheduled(fixedDelayString = "${app.ingest.job-purge-interval-ms:300000}")
+    public void purgeFinishedJobs() {
+        LocalDateTime threshold = LocalDateTime.now().minusMinutes(jobRetentionMinutes);
+        jobs.values().removeIf(job -> job.isFinished() && job.getUpdatedAt().isBefore(threshold));
+    }
+
+    private ThreadPoolExecutor newStageExecutor(String stage, int threads, int queueCapacity,
+                                                RejectedExecutionHandler rejectionHandler) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                namedThreadFactory("receipt-" + stage + "-"),
+                rejectionHandler);
+
+        Gauge.builder("receipt.ingest.queue.depth", executor, e -> e.getQueue().size())
+                .tag("stage", stage)
+                .register(meterRegistry);
+        Gauge.builder("receipt.ingest.active", executor, ThreadPoolExecutor::getActiveCount)
+                .tag("stage", stage)
+                .register(meterRegistry);
+        return executor;
+    }
+
+    private Timer stageTimer(String stage) {
+        return Timer.builder("receipt.ingest.stage")
+                .tag("stage", stage)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    private static RejectedExecutionHandler blockingPolicy() {
+        return (task, executor) -> {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("파이프라인이 종료되었습니다.");
+            }
+            try {
+                executor.getQueue().put(task);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException(e);
+            }
+        };
+    }
+
+    private static ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
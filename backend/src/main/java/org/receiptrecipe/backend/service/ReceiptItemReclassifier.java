@@ -0,0 +1,150 @@
+package org.receiptrecipe.backend.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.receiptrecipe.backend.repository.ReceiptItemRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 저장된 receipt_items 전체를 현재 재료 사전으로 다시 분류한다 (사전을 고친 뒤 실행)
+ * id 순서로 chunk-size 행씩 (id, 상품명, 분류, 재료 여부)만 읽고, 결과가 달라진 행만
+ * 같은 분류끼리 묶어 UPDATE ... WHERE id IN (...) 으로 갱신한다. 묶음마다 별도 트랜잭션이다.
+ * 한 번에 하나만 실행된다.
+ */
+@Service
+public class ReceiptItemReclassifier {
+
+    @Autowired
+    private ReceiptItemRepository receiptItemRepository;
+
+    @Autowired
+    private IngredientClassifier ingredientClassifier;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.ingredient.reclassify.chunk-size:1000}")
+    private int chunkSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private TransactionTemplate transactionTemplate;
+    private Timer runTimer;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        runTimer = meterRegistry.timer("ingredient.reclassify.duration");
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * 전체 상품 재분류. 이미 실행 중이면 IllegalStateException.
+     */
+    public Result reclassifyAll() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("재분류 작업이 이미 실행 중입니다.");
+        }
+        long start = System.nanoTime();
+        try {
+            ingredientClassifier.reloadIfChanged();
+            long lastId = 0L;
+            int scanned = 0;
+            int updated = 0;
+            while (true) {
+                List<Object[]> rows = receiptItemRepository.findClassificationRowsAfter(lastId, PageRequest.of(0, chunkSize));
+                if (rows.isEmpty()) {
+                    break;
+                }
+                Map<Change, List<Long>> changes = new HashMap<>();
+                for (Object[] row : rows) {
+                    IngredientClassifier.Classification result = ingredientClassifier.classify((String) row[1]);
+                    String category = (String) row[2];
+                    boolean ingredient = Boolean.TRUE.equals(row[3]);
+                    if (!Objects.equals(category, result.getCategory()) || ingredient != result.isIngredient()) {
+                        changes.computeIfAbsent(new Change(result.getCategory(), result.isIngredient()), c -> new ArrayList<>())
+                                .add((Long) row[0]);
+                    }
+                }
+                if (!changes.isEmpty()) {
+                    Integer count = transactionTemplate.execute(status -> {
+                        int sum = 0;
+                        for (Map.Entry<Change, List<Long>> entry : changes.entrySet()) {
+                            sum += receiptItemRepository.updateClassification(entry.getValue(),
+                                    entry.getKey().category, entry.getKey().ingredient);
+                        }
+                        return sum;
+                    });
+                    updated += count == null ? 0 : count;
+                }
+                scanned += rows.size();
+                lastId = (Long) rows.get(rows.size() - 1)[0];
+            }
+            long tookMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            System.out.println("상품 재분류 완료: " + scanned + "건 중 " + updated + "건 변경, " + tookMs + "ms");
+            return new Result(scanned, updated, tookMs);
+        } finally {
+            runTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            running.set(false);
+        }
+    }
+
+    private static final class Change {
+        private final String category;
+        private final boolean ingredient;
+
+        private Change(String category, boolean ingredient) {
+            this.category = category;
+            this.ingredient = ingredient;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Change)) {
+                return false;
+            }
+            Change other = (Change) o;
+            return ingredient == other.ingredient && Objects.equals(category, other.category);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(category, ingredient);
+        }
+    }
+
+    public static class Result {
+        private final int scanned;
+        private final int updated;
+        private final long tookMs;
+
+        public Result(int scanned, int updated, long tookMs) {
+            this.scanned = scanned;
+            this.updated = updated;
+            this.tookMs = tookMs;
+        }
+
+        public int getScanned() { return scanned; }
+        public int getUpdated() { return updated; }
+        public long getTookMs() { return tookMs; }
+    }
+}
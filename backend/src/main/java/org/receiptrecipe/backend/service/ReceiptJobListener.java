@@ -0,0 +1,17 @@
+package org.receiptrecipe.backend.service;
+
+import org.receiptrecipe.backend.dto.ReceiptIngestionJob;
+import org.receiptrecipe.backend.entity.Receipt;
+
+/**
+ * 영수증 처리 작업 완료 콜백
+ * 이 인터페이스를 구현한 빈은 ReceiptIngestionPipeline이 작업 종료 시 호출한다.
+ * 저장 단계 스레드에서 호출되므로 오래 걸리는 작업은 별도 스레드로 넘겨야 한다.
+ */
+public interface ReceiptJobListener {
+
+    void onJobCompleted(ReceiptIngestionJob job, Receipt receipt);
+
+    default void onJobFailed(ReceiptIngestionJob job, Throwable error) {
+    }
+}
@@ -0,0 +1,160 @@
+package org.receiptrecipe.backend.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.receiptrecipe.backend.entity.Receipt;
+import org.receiptrecipe.backend.entity.User;
+import org.receiptrecipe.backend.repository.ReceiptRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * (사용자, 이미지 내용 해시) → (OCR 텍스트, 파싱 결과) 캐시
+ * 업로드 파일은 SHA-256 해시로 이름이 정해지므로 같은 사진을 다시 올리면 같은 파일명이 된다.
+ * 영구 저장소는 receipts 테이블 자체(user_id, content_hash)이고, 메모리에는 최근 항목만 LRU로 보관한다.
+ * 저장된 영수증은 사용자가 고칠 수 있으므로 결과는 같은 사용자의 업로드에만 재사용한다.
+ */
+@Service
+public class ReceiptResultCache {
+
+    @Autowired
+    private ReceiptRepository receiptRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.receipt.dedup.memory-entries:1000}")
+    private int maxMemoryEntries;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Map<String, CachedResult> memory;
+
+    private Counter hitCounter;
+    private Counter missCounter;
+
+    @PostConstruct
+    public void init() {
+        memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+                return size() > maxMemoryEntries;
+            }
+        };
+        hitCounter = meterRegistry.counter("receipt.dedup.lookups", "result", "hit");
+        missCounter = meterRegistry.counter("receipt.dedup.lookups", "result", "miss");
+        Gauge.builder("receipt.dedup.hit.ratio", this, ReceiptResultCache::getHitRatio).register(meterRegistry);
+    }
+
+    /**
+     * 같은 사용자가 같은 내용의 이미지를 이미 처리한 적이 있으면 그 결과를 반환한다.
+     */
+    public Optional<CachedResult> lookup(User user, String fileName) {
+        if (user == null || user.getId() == null) {
+            missCounter.increment();
+            return Optional.empty();
+        }
+        String contentHash = contentHashOf(fileName);
+        String key = memoryKey(user, contentHash);
+        CachedResult cached;
+        synchronized (memory) {
+            cached = memory.get(key);
+        }
+
+        if (cached == null) {
+            cached = receiptRepository.findFirstByUserAndContentHashOrderByIdDesc(user, contentHash)
+                    .flatMap(this::toCachedResult)
+                    .orElse(null);
+            if (cached != null) {
+                remember(key, cached);
+            }
+        }
+
+        if (cached != null) {
+            hitCounter.increment();
+        } else {
+            missCounter.increment();
+        }
+        return Optional.ofNullable(cached);
+    }
+
+    public void put(User user, String fileName, String rawOcrText, Map<String, Object> processedData) {
+        if (user == null || user.getId() == null
+                || !isReusable(rawOcrText) || processedData == null || processedData.isEmpty()) {
+            return;
+        }
+        remember(memoryKey(user, contentHashOf(fileName)), new CachedResult(rawOcrText, processedData));
+    }
+
+    public double getHitRatio() {
+        double hits = hitCounter.count();
+        double total = hits + missCounter.count();
+        return total == 0 ? 0.0 : hits / total;
+    }
+
+    // 파일명은 "<sha256><확장자>" 형식
+    public static String contentHashOf(String fileName) {
+        int dot = fileName.indexOf('.');
+        return dot < 0 ? fileName : fileName.substring(0, dot);
+    }
+
+    private static String memoryKey(User user, String contentHash) {
+        return user.getId() + ":" + contentHash;
+    }
+
+    private void remember(String key, CachedResult result) {
+        synchronized (memory) {
+            memory.put(key, result);
+        }
+    }
+
+    private Optional<CachedResult> toCachedResult(Receipt receipt) {
+        if (!isReusable(receipt.getRawOcrText()) || receipt.getProcessedData() == null) {
+            return Optional.empty();
+        }
+        try {
+            Map<String, Object> processedData = objectMapper.readValue(
+                    receipt.getProcessedData(), new TypeReference<Map<String, Object>>() {});
+            if (processedData.isEmpty()) {
+                return Optional.empty();
+            }
+            return Optional.of(new CachedResult(receipt.getRawOcrText(), processedData));
+        } catch (Exception e) {
+            // 예전 형식(Map.toString)으로 저장된 데이터는 재사용하지 않음
+            return Optional.empty();
+        }
+    }
+
+    // OCR 실패 시 들어가는 기본 텍스트는 캐시하지 않음
+    private boolean isReusable(String rawOcrText) {
+        return rawOcrText != null && !rawOcrText.trim().isEmpty()
+                && !rawOcrText.contains("영수증 이미지가 업로드되었습니다");
+    }
+
+    public static class CachedResult {
+        private final String rawOcrText;
+        private final Map<String, Object> processedData;
+
+        public CachedResult(String rawOcrText, Map<String, Object> processedData) {
+            this.rawOcrText = rawOcrText;
+            this.processedData = processedData;
+        }
+
+        public String getRawOcrText() {
+            return rawOcrText;
+        }
+
+        public Map<String, Object> getProcessedData() {
+            return processedData;
+        }
+    }
+}
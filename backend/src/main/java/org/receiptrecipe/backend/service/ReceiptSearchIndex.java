@@ -0,0 +1,386 @@
+package org.receiptrecipe.backend.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.hibernate.Hibernate;
+import org.receiptrecipe.backend.entity.Receipt;
+import org.receiptrecipe.backend.entity.ReceiptItem;
+import org.receiptrecipe.backend.repository.ReceiptItemRepository;
+import org.receiptrecipe.backend.repository.ReceiptRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 영수증 전문 검색용 메모리 역색인 (매장명 + OCR 텍스트 + 상품명)
+ * 한글은 글자 2-gram과 1글자, 영문/숫자는 단어 단위로 색인하고 BM25로 점수를 매긴다.
+ * 사용자별로 색인을 나눠 두어 검색 비용은 그 사용자의 영수증 수에만 비례한다.
+ * 앱 시작 후와 매일 밤(app.receipt.search.rebuild-cron) 전체를 새로 만들어 교체하고 (RebuildableIndex),
+ * 그 사이에는 영수증 트랜잭션이 커밋될 때마다 ReceiptsChangedEvent로 갱신한다.
+ */
+@Service
+public class ReceiptSearchIndex extends RebuildableIndex<ReceiptSearchIndex.State, ReceiptSearchIndex.Document> {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    // 매장명은 본문보다 가중치를 높게
+    private static final int STORE_NAME_WEIGHT = 2;
+
+    @Autowired
+    private ReceiptRepository receiptRepository;
+
+    @Autowired
+    private ReceiptItemRepository receiptItemRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer searchTimer;
+
+    @PostConstruct
+    public void init() {
+        initState();
+        searchTimer = Timer.builder("receipt.search.duration")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("receipt.search.index.documents", this, ReceiptSearchIndex::documentCount).register(meterRegistry);
+    }
+
+    @Override
+    @Scheduled(cron = "${app.receipt.search.rebuild-cron:0 10 5 * * *}")
+    public void rebuild() {
+        super.rebuild();
+    }
+
+    /**
+     * 저장/수정된 영수증을 색인에 반영한다 (기존 내용은 교체)
+     */
+    public void index(Receipt receipt) {
+        if (receipt.getId() == null || receipt.getUser() == null) {
+            return;
+        }
+        List<String> itemNames = new ArrayList<>();
+        if (receipt.getItems() != null && Hibernate.isInitialized(receipt.getItems())) {
+            for (ReceiptItem item : receipt.getItems()) {
+                itemNames.add(item.getItemName());
+            }
+        } else {
+            for (Object[] item : receiptItemRepository.findItemNamesByReceiptIds(List.of(receipt.getId()))) {
+                itemNames.add((String) item[1]);
+            }
+        }
+        put(document(receipt.getId(), receipt.getUser().getId(), receipt.getStoreName(), receipt.getRawOcrText(), itemNames));
+    }
+
+    public void indexAll(Collection<Receipt> receipts) {
+        for (Receipt receipt : receipts) {
+            index(receipt);
+        }
+    }
+
+    // 영수증 트랜잭션이 커밋된 뒤에 반영 (트랜잭션 밖에서 저장된 경우는 바로)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReceiptsChanged(ReceiptsChangedEvent event) {
+        try {
+            if (event.getType() == ReceiptsChangedEvent.Type.DELETED) {
+                for (Receipt receipt : event.getReceipts()) {
+                    remove(receipt.getId());
+                }
+            } else {
+                indexAll(event.getReceipts());
+            }
+        } catch (RuntimeException e) {
+            // 이미 커밋된 뒤이므로 저장 결과에는 영향 없음 (다음 재구축 때 복구)
+            System.err.println("영수증 검색 색인 반영 실패: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 사용자의 영수증 중 query와 가장 관련 있는 순서로 최대 limit개
+     */
+    public List<Hit> search(Long userId, String query, int limit) {
+        long start = System.nanoTime();
+        List<String> queryTerms = tokenize(query);
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Shard shard = state.shardsByUser.get(userId);
+            if (shard == null || shard.docLengths.isEmpty()) {
+                return List.of();
+            }
+
+            Map<Long, Double> scores = new HashMap<>();
+            double docCount = shard.docLengths.size();
+            double averageLength = (double) shard.totalLength / docCount;
+            for (String term : new LinkedHashSet<>(queryTerms)) {
+                Map<Long, Integer> postings = shard.postings.get(term);
+                if (postings == null) {
+                    continue;
+                }
+                double idf = Math.log(1.0 + (docCount - postings.size() + 0.5) / (postings.size() + 0.5));
+                for (Map.Entry<Long, Integer> posting : postings.entrySet()) {
+                    int tf = posting.getValue();
+                    int length = shard.docLengths.get(posting.getKey());
+                    double norm = tf + K1 * (1 - B + B * length / averageLength);
+                    scores.merge(posting.getKey(), idf * tf * (K1 + 1) / norm, Double::sum);
+                }
+            }
+
+            // 상위 limit개만 유지 (점수가 가장 낮은 것이 머리에 오는 힙)
+            PriorityQueue<Hit> top = new PriorityQueue<>(Comparator.comparingDouble(Hit::getScore));
+            for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                if (top.size() < limit) {
+                    top.add(new Hit(entry.getKey(), entry.getValue()));
+                } else if (entry.getValue() > top.peek().getScore()) {
+                    top.poll();
+                    top.add(new Hit(entry.getKey(), entry.getValue()));
+                }
+            }
+            List<Hit> hits = new ArrayList<>(top);
+            hits.sort(Comparator.comparingDouble(Hit::getScore).reversed().thenComparing(Hit::getReceiptId, Comparator.reverseOrder()));
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+            searchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public int documentCount() {
+        lock.readLock().lock();
+        try {
+            return state.ownerByReceipt.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 한글 연속 구간은 2글자씩(한 글자뿐이면 그대로), 영문/숫자는 2글자 이상 단어 단위로 자른다.
+     * 검색어는 이 방식으로 자른다.
+     */
+    public static List<String> tokenize(String text) {
+        return tokenize(text, false);
+    }
+
+    /**
+     * 색인할 단어: tokenize 결과에 한글 1글자를 모두 더한다.
+     * 한 글자 검색어("밥")가 "김밥", "볶음밥"처럼 긴 단어 안에 있어도 찾을 수 있도록.
+     */
+    public static List<String> indexTerms(String text) {
+        return tokenize(text, true);
+    }
+
+    private static List<String> tokenize(String text, boolean withUnigrams) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int length = lower.length();
+        int i = 0;
+        while (i < length) {
+            char c = lower.charAt(i);
+            if (isHangul(c)) {
+                int end = i;
+                while (end < length && isHangul(lower.charAt(end))) end++;
+                if (end - i == 1) {
+                    tokens.add(String.valueOf(c));
+                } else {
+                    for (int j = i; j + 1 < end; j++) {
+                        tokens.add(lower.substring(j, j + 2));
+                    }
+                    if (withUnigrams) {
+                        for (int j = i; j < end; j++) {
+                            tokens.add(String.valueOf(lower.charAt(j)));
+                        }
+                    }
+                }
+                i = end;
+            } else if (Character.isLetterOrDigit(c)) {
+                int end = i;
+                while (end < length && Character.isLetterOrDigit(lower.charAt(end)) && !isHangul(lower.charAt(end))) end++;
+                if (end - i >= 2) {
+                    tokens.add(lower.substring(i, end));
+                }
+                i = end;
+            } else {
+                i++;
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isHangul(char c) {
+        return c >= '가' && c <= '힣';
+    }
+
+    @Override
+    protected String indexName() {
+        return "영수증 검색 색인";
+    }
+
+    @Override
+    protected State newState() {
+        return new State();
+    }
+
+    @Override
+    protected List<Document> loadAfter(long lastId, int limit) {
+        return documents(receiptRepository.findSearchRowsAfter(lastId, PageRequest.of(0, limit)));
+    }
+
+    @Override
+    protected List<Document> load(List<Long> receiptIds) {
+        return documents(receiptRepository.findSearchRowsByIds(receiptIds));
+    }
+
+    @Override
+    protected Long documentId(Document document) {
+        return document.receiptId;
+    }
+
+    @Override
+    protected void addTo(State index, Document document) {
+        index.add(document);
+    }
+
+    @Override
+    protected void removeFrom(State index, Long receiptId) {
+        index.remove(receiptId);
+    }
+
+    // 검색 행 (id, 사용자 id, 매장명, OCR 텍스트)에 상품명을 붙인다 (사용자 없는 영수증은 색인하지 않음)
+    private List<Document> documents(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<String>> itemNames = new HashMap<>();
+        for (Object[] item : receiptItemRepository.findItemNamesByReceiptIds(ids(rows))) {
+            itemNames.computeIfAbsent((Long) item[0], id -> new ArrayList<>()).add((String) item[1]);
+        }
+        List<Document> documents = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Long receiptId = (Long) row[0];
+            Long userId = (Long) row[1];
+            if (userId == null) {
+                continue;
+            }
+            documents.add(document(receiptId, userId, (String) row[2], (String) row[3],
+                    itemNames.getOrDefault(receiptId, List.of())));
+        }
+        return documents;
+    }
+
+    // 필드별 가중치를 곱한 단어 빈도 (잠금 밖에서 계산)
+    private static Document document(Long receiptId, Long userId, String storeName, String ocrText, Collection<String> itemNames) {
+        Map<String, Integer> termFrequencies = new HashMap<>();
+        for (String term : indexTerms(storeName)) {
+            termFrequencies.merge(term, STORE_NAME_WEIGHT, Integer::sum);
+        }
+        for (String term : indexTerms(ocrText)) {
+            termFrequencies.merge(term, 1, Integer::sum);
+        }
+        for (String itemName : itemNames) {
+            for (String term : indexTerms(itemName)) {
+                termFrequencies.merge(term, 1, Integer::sum);
+            }
+        }
+        return new Document(receiptId, userId, termFrequencies);
+    }
+
+    // 색인할 영수증 하나
+    static final class Document {
+        private final Long receiptId;
+        private final Long userId;
+        private final Map<String, Integer> termFrequencies;
+
+        private Document(Long receiptId, Long userId, Map<String, Integer> termFrequencies) {
+            this.receiptId = receiptId;
+            this.userId = userId;
+            this.termFrequencies = termFrequencies;
+        }
+    }
+
+    // 사용자별 역색인 (재구축 때는 새로 만들어 통째로 교체)
+    static final class State {
+        private final Map<Long, Shard> shardsByUser = new HashMap<>();
+        // 영수증 id -> 사용자 id (수정/삭제 시 해당 색인을 찾기 위함)
+        private final Map<Long, Long> ownerByReceipt = new HashMap<>();
+
+        private void add(Document document) {
+            Shard shard = shardsByUser.computeIfAbsent(document.userId, id -> new Shard());
+            int docLength = 0;
+            for (Map.Entry<String, Integer> entry : document.termFrequencies.entrySet()) {
+                shard.postings.computeIfAbsent(entry.getKey(), term -> new HashMap<>()).put(document.receiptId, entry.getValue());
+                docLength += entry.getValue();
+            }
+            shard.docLengths.put(document.receiptId, docLength);
+            shard.docTerms.put(document.receiptId, document.termFrequencies.keySet().toArray(new String[0]));
+            shard.totalLength += docLength;
+            ownerByReceipt.put(document.receiptId, document.userId);
+        }
+
+        private void remove(Long receiptId) {
+            Long userId = ownerByReceipt.remove(receiptId);
+            if (userId == null) {
+                return;
+            }
+            Shard shard = shardsByUser.get(userId);
+            String[] terms = shard.docTerms.remove(receiptId);
+            for (String term : terms) {
+                Map<Long, Integer> postings = shard.postings.get(term);
+                postings.remove(receiptId);
+                if (postings.isEmpty()) {
+                    shard.postings.remove(term);
+                }
+            }
+            shard.totalLength -= shard.docLengths.remove(receiptId);
+            if (shard.docLengths.isEmpty()) {
+                shardsByUser.remove(userId);
+            }
+        }
+    }
+
+    /**
+     * 사용자 한 명의 색인
+     */
+    private static class Shard {
+        // 단어 -> (영수증 id -> 단어 빈도)
+        private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+        private final Map<Long, Integer> docLengths = new HashMap<>();
+        // 삭제 시 postings를 정리하기 위한 영수증별 단어 목록
+        private final Map<Long, String[]> docTerms = new HashMap<>();
+        private long totalLength;
+    }
+
+    public static class Hit {
+        private final Long receiptId;
+        private final double score;
+
+        public Hit(Long receiptId, double score) {
+            this.receiptId = receiptId;
+            this.score = score;
+        }
+
+        public Long getReceiptId() { return receiptId; }
+        public double getScore() { return score; }
+    }
+}
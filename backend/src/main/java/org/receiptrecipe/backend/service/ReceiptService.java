@@ -1,25 +1,34 @@
 package org.receiptrecipe.backend.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.receiptrecipe.backend.dto.CursorPage;
+import org.receiptrecipe.backend.dto.PageCursor;
+import org.receiptrecipe.backend.dto.ReceiptSummary;
 import org.receiptrecipe.backend.entity.Receipt;
+import org.receiptrecipe.backend.entity.ReceiptImagePin;
 import org.receiptrecipe.backend.entity.ReceiptItem;
 import org.receiptrecipe.backend.entity.User;
+import org.receiptrecipe.backend.repository.ReceiptImagePinRepository;
 import org.receiptrecipe.backend.repository.ReceiptRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class ReceiptService {
@@ -27,65 +36,177 @@ public class ReceiptService {
     @Autowired
     private ReceiptRepository receiptRepository;
 
+    @Autowired
+    private ReceiptImagePinRepository imagePinRepository;
+
     @Autowired
     private OcrService ocrService;
 
     @Autowired
     private GeminiService geminiService;
 
+    @Autowired
+    private ReceiptResultCache receiptResultCache;
+
+    @Autowired
+    private ReceiptImageStore receiptImageStore;
+
+    @Autowired
+    private ReceiptThumbnailService thumbnailService;
+
+    @Autowired
+    private IngredientClassifier ingredientClassifier;
+
+    @Autowired
+    private PantryService pantryService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // 업로드 처리가 이보다 오래 걸리지는 않으므로, 더 오래된 고정 행은 죽은 인스턴스가 남긴 것으로 보고 지운다
+    @Value("${app.receipt.image-pin.ttl-hours:24}")
+    private int imagePinTtlHours;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
-    // 파일 저장 경로
-    private static final String UPLOAD_DIR = "uploads/receipts/";
+    // 이 인스턴스가 만든 고정 행 (키 -> 행 id). 해제할 때 자기가 만든 행만 지운다.
+    private final Map<String, Deque<Long>> pinIds = new ConcurrentHashMap<>();
 
     public Receipt uploadReceipt(MultipartFile file, User user) throws IOException {
-        // 업로드 디렉토리 생성
-        Path uploadPath = Paths.get(UPLOAD_DIR);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
+        String fileName = storeReceiptFile(file);
+        try {
+            // 같은 사진을 이미 처리했다면 OCR/Gemini 호출 생략
+            Optional<ReceiptResultCache.CachedResult> cached = receiptResultCache.lookup(user, fileName);
+            if (cached.isPresent()) {
+                return saveParsedReceipt(user, fileName, cached.get().getRawOcrText(), cached.get().getProcessedData());
+            }
+
+            String ocrText = extractReceiptText(fileName);
+            Map<String, Object> parsedData = parseReceiptText(ocrText);
+            return saveParsedReceipt(user, fileName, ocrText, parsedData);
+        } finally {
+            releaseReceiptFile(fileName);
+        }
+    }
+
+    // 1단계: 업로드 파일 저장 (요청 스레드에서 실행 - MultipartFile은 요청이 끝나면 사라짐)
+    // 저장하면서 SHA-256을 계산하고 "<해시><확장자>" 이름으로 저장 → 같은 사진은 같은 파일을 공유
+    public String storeReceiptFile(MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return storeReceiptFile(in, file.getOriginalFilename());
+        }
+    }
+
+    // 스트림 내용을 저장 (일괄 가져오기에서 zip 항목을 풀면서 바로 저장할 때 사용)
+    // 저장한 파일은 releaseReceiptFile을 호출할 때까지 어느 인스턴스에서도 삭제되지 않는다 (receipt_image_pins).
+    public String storeReceiptFile(InputStream content, String originalFilename) throws IOException {
+        String fileName = receiptImageStore.store(content, originalFilename);
+        // 다른 인스턴스가 이 키를 지우는 중이면 그 트랜잭션이 끝날 때까지 기다린다 (deleteFileIfUnused)
+        ReceiptImagePin pin = imagePinRepository.save(new ReceiptImagePin(fileName));
+        pinIds.compute(fileName, (key, ids) -> {
+            Deque<Long> pinned = ids == null ? new ArrayDeque<>() : ids;
+            pinned.push(pin.getId());
+            return pinned;
+        });
+        // 저장(또는 이미 있던 파일 재사용)과 고정 사이에 지워졌으면 이 업로드는 실패 (다시 올리면 새로 저장됨)
+        if (!receiptImageStore.exists(fileName)) {
+            releaseReceiptFile(fileName);
+            throw new IOException("업로드 중 같은 이미지가 삭제되었습니다. 다시 시도해 주세요.");
+        }
+        return fileName;
+    }
+
+    // 업로드 파일 처리가 끝남 (영수증 저장 또는 실패)
+    public void releaseReceiptFile(String fileName) {
+        Long[] released = new Long[1];
+        pinIds.computeIfPresent(fileName, (key, ids) -> {
+            released[0] = ids.poll();
+            return ids.isEmpty() ? null : ids;
+        });
+        Long pinId = released[0];
+        if (pinId == null) {
+            return;
         }
+        try {
+            imagePinRepository.deleteById(pinId);
+        } catch (Exception e) {
+            // 남은 행은 purgeStaleImagePins가 정리 (그동안 파일은 지워지지 않을 뿐)
+            System.err.println("업로드 고정 해제 실패: " + fileName + " (" + e.getMessage() + ")");
+        }
+    }
 
-        // 파일명 생성 (중복 방지)
-        String originalFilename = file.getOriginalFilename();
-        String fileExtension = "";
-        if (originalFilename != null && originalFilename.contains(".")) {
-            fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
+    // 인스턴스가 업로드 처리 중에 죽어 남은 고정 행 정리
+    @Scheduled(cron = "${app.receipt.image-pin.purge-cron:0 50 4 * * *}")
+    public void purgeStaleImagePins() {
+        int purged = imagePinRepository.deleteCreatedBefore(LocalDateTime.now().minusHours(imagePinTtlHours));
+        if (purged > 0) {
+            System.err.println("오래된 업로드 고정 " + purged + "건 정리");
         }
-        String fileName = System.currentTimeMillis() + "_" + UUID.randomUUID().toString() + fileExtension;
+    }
 
-        // 파일 저장
-        Path filePath = uploadPath.resolve(fileName);
-        Files.copy(file.getInputStream(), filePath);
+    // 2단계: OCR 텍스트 추출
+    public String extractReceiptText(String fileName) {
+        String ocrText;
+        try {
+            // OCR로 텍스트 추출
+            ocrText = ocrService.extractTextFromImageBytes(receiptImageStore.read(fileName));
+        } catch (Exception e) {
+            System.err.println("OCR 처리 중 오류 발생: " + e.getMessage());
+            ocrText = null;
+        }
 
-        // OCR 텍스트 추출
-        String ocrText = "";
+        // OCR 텍스트가 비어있거나 기본 텍스트인 경우, 파일 내용을 직접 읽어서 사용
+        if (ocrText == null || ocrText.trim().isEmpty() ||
+            ocrText.contains("영수증 이미지가 업로드되었습니다")) {
+            try {
+                // 파일 내용을 직접 읽어서 OCR 텍스트로 사용
+                byte[] fileBytes = receiptImageStore.read(fileName);
+                ocrText = new String(fileBytes, "UTF-8");
+                System.out.println("파일 내용을 OCR 텍스트로 사용: " + ocrText.substring(0, Math.min(100, ocrText.length())));
+            } catch (Exception e) {
+                System.err.println("파일 읽기 실패, 기본 텍스트 사용: " + e.getMessage());
+                ocrText = defaultOcrText();
+            }
+        }
+        return ocrText;
+    }
+
+    // 3단계: Gemini로 텍스트 파싱 (실패 시 빈 결과 → 저장 단계에서 기본값 사용)
+    public Map<String, Object> parseReceiptText(String ocrText) {
+        try {
+            return geminiService.processReceiptText(ocrText);
+        } catch (Exception e) {
+            System.err.println("Gemini 처리 중 오류 발생: " + e.getMessage());
+            return new HashMap<>();
+        }
+    }
+
+    // 4단계: 파싱 결과로 영수증 엔티티 생성 및 저장
+    public Receipt saveParsedReceipt(User user, String fileName, String ocrText, Map<String, Object> parsedData) throws IOException {
+        Receipt receipt = buildReceipt(user, fileName, ocrText, parsedData);
+        Receipt savedReceipt = receiptRepository.save(receipt);
+        receiptResultCache.put(user, fileName, receipt.getRawOcrText(), parsedData);
+        eventPublisher.publishEvent(ReceiptsChangedEvent.created(List.of(savedReceipt)));
+        return savedReceipt;
+    }
+
+    // 여러 영수증을 한 트랜잭션으로 저장 (일괄 가져오기용)
+    // 검색 색인 등 파생 데이터는 커밋된 뒤 ReceiptsChangedEvent로 반영
+    @Transactional
+    public List<Receipt> saveReceipts(List<Receipt> receipts) {
+        List<Receipt> saved = receiptRepository.saveAll(receipts);
+        eventPublisher.publishEvent(ReceiptsChangedEvent.created(saved));
+        return saved;
+    }
+
+    // 파싱 결과로 영수증 엔티티 생성 (저장은 하지 않음)
+    public Receipt buildReceipt(User user, String fileName, String ocrText, Map<String, Object> parsedData) throws IOException {
         String storeName = "Unknown Store";
         LocalDateTime purchaseDate = LocalDateTime.now();
         Double totalAmount = 0.0;
         List<ReceiptItem> items = new ArrayList<>();
-        Map<String, Object> parsedData = new HashMap<>();
 
         try {
-            // OCR로 텍스트 추출
-            ocrText = ocrService.extractTextFromImage(filePath.toString());
-            
-            // OCR 텍스트가 비어있거나 기본 텍스트인 경우, 파일 내용을 직접 읽어서 사용
-            if (ocrText == null || ocrText.trim().isEmpty() || 
-                ocrText.contains("영수증 이미지가 업로드되었습니다")) {
-                try {
-                    // 파일 내용을 직접 읽어서 OCR 텍스트로 사용
-                    byte[] fileBytes = Files.readAllBytes(filePath);
-                    ocrText = new String(fileBytes, "UTF-8");
-                    System.out.println("파일 내용을 OCR 텍스트로 사용: " + ocrText.substring(0, Math.min(100, ocrText.length())));
-                } catch (Exception e) {
-                    System.err.println("파일 읽기 실패, 기본 텍스트 사용: " + e.getMessage());
-                    ocrText = "영수증 이미지가 업로드되었습니다.\n매장: Unknown Store\n총액: 0원\n구매일: " + LocalDate.now() + "\n상품: 영수증 이미지 파일";
-                }
-            }
-            
-            // Gemini로 텍스트 파싱
-            parsedData = geminiService.processReceiptText(ocrText);
-            
             // 파싱된 데이터 추출
             storeName = (String) parsedData.getOrDefault("storeName", "Unknown Store");
             totalAmount = ((Number) parsedData.getOrDefault("totalAmount", 0.0)).doubleValue();
@@ -124,22 +245,24 @@ public class ReceiptService {
                     item.setQuantity(((Number) itemData.getOrDefault("quantity", 1)).intValue());
                     item.setUnitPrice(BigDecimal.valueOf(((Number) itemData.getOrDefault("unitPrice", 0.0)).doubleValue()));
                     item.setTotalPrice(BigDecimal.valueOf(((Number) itemData.getOrDefault("totalPrice", 0.0)).doubleValue()));
-                    item.setIsIngredient(false); // 기본값
+                    ingredientClassifier.apply(item); // 재료 사전으로 분류 (없으면 재료 아님)
                     items.add(item);
                 }
             
         } catch (Exception e) {
-            System.err.println("OCR/Gemini 처리 중 오류 발생: " + e.getMessage());
-            // 오류 발생 시 기본값 설정
-            if (ocrText == null || ocrText.trim().isEmpty()) {
-                ocrText = "영수증 이미지가 업로드되었습니다.\n매장: Unknown Store\n총액: 0원\n구매일: " + LocalDate.now() + "\n상품: 영수증 이미지 파일";
-            }
+            System.err.println("파싱 결과 처리 중 오류 발생: " + e.getMessage());
+        }
+        if (ocrText == null || ocrText.trim().isEmpty()) {
+            ocrText = defaultOcrText();
         }
 
         // 영수증 엔티티 생성
         Receipt receipt = new Receipt();
         receipt.setUser(user);
         receipt.setImageUrl(fileName);
+        if (fileName != null && ReceiptImageStore.CONTENT_KEY.matcher(fileName).matches()) {
+            receipt.setContentHash(ReceiptResultCache.contentHashOf(fileName));
+        }
         receipt.setStoreName(storeName);
         receipt.setPurchaseDate(purchaseDate);
         receipt.setTotalAmount(totalAmount);
@@ -154,18 +277,67 @@ public class ReceiptService {
             item.setReceipt(receipt);
         }
 
-        // 데이터베이스에 저장
-        return receiptRepository.save(receipt);
+        return receipt;
     }
 
-    public Page<Receipt> getReceiptsByUser(User user, Pageable pageable, String storeName, String searchTerm) {
-        if (storeName != null && !storeName.trim().isEmpty()) {
-            return receiptRepository.findByUserAndStoreNameContainingIgnoreCase(user, storeName, pageable);
-        } else if (searchTerm != null && !searchTerm.trim().isEmpty()) {
-            return receiptRepository.findByUserAndStoreNameContainingIgnoreCase(user, searchTerm, pageable);
-        } else {
-            return receiptRepository.findByUserOrderByCreatedAtDesc(user, pageable);
+    // 저장된 업로드 파일 삭제 (파이프라인 접수 실패 시 정리용, 먼저 releaseReceiptFile 호출)
+    // 같은 내용의 파일을 다른 영수증이 참조하거나 다른 업로드가 처리 중이면 삭제하지 않음
+    @Transactional
+    public void deleteReceiptFile(String fileName) {
+        deleteFileIfUnused(fileName, 0);
+    }
+
+    // 참조하는 영수증이 allowedReferences 개 이하이고 처리 중인 업로드가 없을 때만 삭제 (호출하는 쪽 트랜잭션 안에서)
+    // 판단은 DB로 한다: 고정 행과 영수증 행을 잠근 채 세고 파일을 지우므로, 저장소를 공유하는 다른 인스턴스의
+    // 업로드 고정은 이 트랜잭션이 끝난 뒤에 들어가고 (storeReceiptFile이 그때 파일이 없어졌는지 확인),
+    // 같은 이미지의 영수증을 동시에 지우는 트랜잭션은 차례로 센다.
+    private boolean deleteFileIfUnused(String fileName, long allowedReferences) {
+        if (!imagePinRepository.lockIdsByImageKey(fileName).isEmpty()
+                || receiptRepository.lockIdsByImageUrl(fileName).size() > allowedReferences) {
+            return false;
         }
+        try {
+            receiptImageStore.delete(fileName);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Failed to delete file: " + fileName);
+            return false;
+        }
+    }
+
+    private String defaultOcrText() {
+        return "영수증 이미지가 업로드되었습니다.\n매장: Unknown Store\n총액: 0원\n구매일: " + LocalDate.now() + "\n상품: 영수증 이미지 파일";
+    }
+
+    // 목록 화면용 (원문 OCR 텍스트는 상세 조회에서만 내려줌)
+    public Page<ReceiptSummary> getReceiptSummariesByUser(User user, Pageable pageable, String storeName, String searchTerm) {
+        String keyword = storeName != null && !storeName.trim().isEmpty() ? storeName : searchTerm;
+        if (keyword != null && !keyword.trim().isEmpty()) {
+            return receiptRepository.findSummariesByUserAndStoreName(user, keyword.trim(), pageable);
+        }
+        return receiptRepository.findSummariesByUser(user, pageable);
+    }
+
+    // 저장한 영수증들의 요약 (응답에 OCR 원문, 파싱 JSON, 상품 목록을 싣지 않도록)
+    public List<ReceiptSummary> getReceiptSummaries(List<Receipt> receipts) {
+        if (receipts.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>(receipts.size());
+        for (Receipt receipt : receipts) {
+            ids.add(receipt.getId());
+        }
+        return receiptRepository.findSummariesByIds(ids);
+    }
+
+    // 목록 화면 무한 스크롤용 (cursor가 없으면 첫 페이지)
+    public CursorPage<ReceiptSummary> getReceiptSummariesByCursor(User user, String cursor, int size) {
+        PageCursor position = PageCursor.decode(cursor);
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<ReceiptSummary> rows = position == null
+                ? receiptRepository.findSummarySliceByUser(user, limit)
+                : receiptRepository.findSummarySliceByUserBefore(user, position.getCreatedAt(), position.getId(), limit);
+        return CursorPage.of(rows, size, row -> new PageCursor(row.getCreatedAt(), row.getId()));
     }
 
     public Optional<Receipt> getReceiptById(Long id, User user) {
@@ -194,28 +366,108 @@ public class ReceiptService {
             }
             
             receipt.setUpdatedAt(LocalDateTime.now());
-            return Optional.of(receiptRepository.save(receipt));
+            Receipt saved = receiptRepository.save(receipt);
+            eventPublisher.publishEvent(ReceiptsChangedEvent.updated(List.of(saved)));
+            return Optional.of(saved);
         }
         return Optional.empty();
     }
 
+    /**
+     * Gemini 재처리 결과를 영수증에 반영하고 응답용 값을 만든다.
+     * LAZY 연관(사용자, 품목)을 트랜잭션 밖에서 직렬화하지 않도록 엔티티 대신 필요한 값만 Map으로 돌려준다.
+     */
+    @Transactional
+    public Optional<Map<String, Object>> applyParsedData(Long id, User user, Map<String, Object> parsedData) throws IOException {
+        Optional<Receipt> receiptOptional = receiptRepository.findByIdAndUser(id, user);
+        if (receiptOptional.isEmpty()) {
+            return Optional.empty();
+        }
+        Receipt receipt = receiptOptional.get();
+        Object storeName = parsedData.get("storeName");
+        if (storeName instanceof String) {
+            receipt.setStoreName((String) storeName);
+        }
+        Object totalAmount = parsedData.get("totalAmount");
+        if (totalAmount instanceof Number) {
+            receipt.setTotalAmount(((Number) totalAmount).doubleValue());
+        }
+        receipt.setProcessedData(objectMapper.writeValueAsString(parsedData));
+        receipt.setUpdatedAt(LocalDateTime.now());
+        Receipt saved = receiptRepository.save(receipt);
+        eventPublisher.publishEvent(ReceiptsChangedEvent.updated(List.of(saved)));
+
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("id", saved.getId());
+        summary.put("storeName", saved.getStoreName());
+        summary.put("purchaseDate", saved.getPurchaseDate());
+        summary.put("totalAmount", saved.getTotalAmount());
+        summary.put("imageUrl", saved.getImageUrl());
+        summary.put("processedData", saved.getProcessedData());
+        summary.put("itemCount", saved.getItems() == null ? 0 : saved.getItems().size());
+        summary.put("createdAt", saved.getCreatedAt());
+        summary.put("updatedAt", saved.getUpdatedAt());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("receipt", summary);
+        response.put("parsedData", parsedData);
+        response.put("rawText", saved.getRawOcrText());
+        return Optional.of(response);
+    }
+
+    // 여러 영수증을 Gemini로 일괄 재처리 (OCR 텍스트가 없는 영수증은 건너뜀)
+    public List<Receipt> reprocessReceipts(List<Long> ids, User user) throws IOException {
+        List<Receipt> targets = new ArrayList<>();
+        List<String> ocrTexts = new ArrayList<>();
+        for (Long id : ids) {
+            Optional<Receipt> receiptOptional = receiptRepository.findByIdAndUser(id, user);
+            if (receiptOptional.isEmpty()) {
+                continue;
+            }
+            Receipt receipt = receiptOptional.get();
+            if (receipt.getRawOcrText() == null || receipt.getRawOcrText().trim().isEmpty()) {
+                continue;
+            }
+            targets.add(receipt);
+            ocrTexts.add(receipt.getRawOcrText());
+        }
+        if (targets.isEmpty()) {
+            return targets;
+        }
+
+        List<Map<String, Object>> parsedList = geminiService.processReceiptTexts(ocrTexts);
+        for (int i = 0; i < targets.size(); i++) {
+            Receipt receipt = targets.get(i);
+            Map<String, Object> parsedData = parsedList.get(i);
+            Object storeName = parsedData.get("storeName");
+            if (storeName instanceof String) {
+                receipt.setStoreName((String) storeName);
+            }
+            Object totalAmount = parsedData.get("totalAmount");
+            if (totalAmount instanceof Number) {
+                receipt.setTotalAmount(((Number) totalAmount).doubleValue());
+            }
+            receipt.setProcessedData(objectMapper.writeValueAsString(parsedData));
+            receipt.setUpdatedAt(LocalDateTime.now());
+        }
+        List<Receipt> saved = receiptRepository.saveAll(targets);
+        eventPublisher.publishEvent(ReceiptsChangedEvent.updated(saved));
+        return saved;
+    }
+
+    @Transactional
     public boolean deleteReceipt(Long id, User user) {
         Optional<Receipt> receiptOptional = receiptRepository.findByIdAndUser(id, user);
         if (receiptOptional.isPresent()) {
             Receipt receipt = receiptOptional.get();
             
-            // 파일 삭제
-            if (receipt.getImageUrl() != null) {
-                try {
-                    Path filePath = Paths.get(UPLOAD_DIR + receipt.getImageUrl());
-                    Files.deleteIfExists(filePath);
-                } catch (IOException e) {
-                    // 파일 삭제 실패는 로그만 남기고 계속 진행
-                    System.err.println("Failed to delete file: " + receipt.getImageUrl());
-                }
+            // 파일 삭제 (같은 사진으로 만든 다른 영수증이나 처리 중인 업로드가 없을 때만, 실패는 로그만 남김)
+            if (receipt.getImageUrl() != null && deleteFileIfUnused(receipt.getImageUrl(), 1)) {
+                thumbnailService.deleteVariants(receipt.getImageUrl());
             }
             
             receiptRepository.delete(receipt);
+            eventPublisher.publishEvent(ReceiptsChangedEvent.deleted(List.of(receipt)));
             return true;
         }
         return false;
@@ -225,23 +477,8 @@ public class ReceiptService {
         return receiptRepository.findDistinctStoreNamesByUser(user);
     }
 
+    // 냉장고(ingredient_expiry)에서 days일 안에 유통기한이 끝나는 재료
     public List<Map<String, Object>> getExpiringIngredients(User user, int days) {
-        // 임시 구현 - 실제로는 IngredientExpiry 엔티티와 연동해야 함
-        List<Map<String, Object>> result = new ArrayList<>();
-        
-        // 예시 데이터
-        Map<String, Object> ingredient1 = new HashMap<>();
-        ingredient1.put("name", "우유");
-        ingredient1.put("expiryDate", LocalDateTime.now().plusDays(2));
-        ingredient1.put("daysLeft", 2);
-        result.add(ingredient1);
-
-        Map<String, Object> ingredient2 = new HashMap<>();
-        ingredient2.put("name", "계란");
-        ingredient2.put("expiryDate", LocalDateTime.now().plusDays(5));
-        ingredient2.put("daysLeft", 5);
-        result.add(ingredient2);
-
-        return result;
+        return pantryService.getExpiringIngredients(user.getId(), days);
     }
 }
@@ -0,0 +1,23 @@
+package org.receiptrecipe.backend.service;
+
+import org.receiptrecipe.backend.dto.OcrResult;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 매장별 영수증 양식 파서
+ * 양식이 고정된 체인점 영수증은 Gemini 없이 규칙으로 파싱한다.
+ * 구현체를 @Component로 등록하면 ReceiptTemplateRegistry가 자동으로 사용한다.
+ */
+public interface ReceiptTemplate {
+
+    // 메트릭 태그로 쓰이는 양식 이름 (예: emart)
+    String getName();
+
+    // 영수증 상단 몇 줄을 보고 이 양식의 매장인지 판단
+    boolean matchesHeader(List<String> headerLines);
+
+    // 파싱할 수 없으면 Optional.empty()
+    Optional<OcrResult.ProcessedData> parse(String ocrText);
+}
@@ -0,0 +1,127 @@
+package org.receiptrecipe.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.receiptrecipe.backend.dto.OcrResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 등록된 ReceiptTemplate 중 영수증 상단과 맞는 양식으로 파싱을 시도한다.
+ * 상품 금액 합과 합계 금액이 거의 일치할 때만(min-confidence 이상) 결과를 채택하고,
+ * 그렇지 않으면 Gemini 파싱으로 넘긴다.
+ */
+@Service
+public class ReceiptTemplateRegistry {
+
+    private static final int HEADER_LINES = 5;
+
+    @Autowired(required = false)
+    private List<ReceiptTemplate> templates = new ArrayList<>();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.receipt.template.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.receipt.template.min-confidence:0.98}")
+    private double minConfidence;
+
+    private final Map<String, Counter> acceptedCounters = new HashMap<>();
+    private final Map<String, Counter> rejectedCounters = new HashMap<>();
+    private Counter unmatchedCounter;
+
+    @PostConstruct
+    public void init() {
+        for (ReceiptTemplate template : templates) {
+            String name = template.getName();
+            Counter accepted = meterRegistry.counter("receipt.template.parses", "template", name, "result", "accepted");
+            Counter rejected = meterRegistry.counter("receipt.template.parses", "template", name, "result", "rejected");
+            acceptedCounters.put(name, accepted);
+            rejectedCounters.put(name, rejected);
+            // 양식이 맞은 영수증 중 채택된 비율 (정답 여부가 아니라 합계 검증 통과율)
+            Gauge.builder("receipt.parse.accepted.ratio", () -> {
+                double total = accepted.count() + rejected.count();
+                return total == 0 ? 0.0 : accepted.count() / total;
+            }).tag("template", name).register(meterRegistry);
+        }
+        unmatchedCounter = meterRegistry.counter("receipt.template.parses", "template", "none", "result", "unmatched");
+    }
+
+    public Optional<OcrResult.ProcessedData> parse(String ocrText) {
+        if (!enabled || templates.isEmpty() || ocrText == null || ocrText.isBlank()) {
+            return Optional.empty();
+        }
+
+        List<String> headerLines = headerLinesOf(ocrText);
+        for (ReceiptTemplate template : templates) {
+            if (!template.matchesHeader(headerLines)) {
+                continue;
+            }
+
+            Optional<OcrResult.ProcessedData> parsed;
+            try {
+                parsed = template.parse(ocrText);
+            } catch (Exception e) {
+                System.err.println("영수증 양식 파싱 실패 (" + template.getName() + "): " + e.getMessage());
+                parsed = Optional.empty();
+            }
+
+            if (parsed.isPresent() && confidenceOf(parsed.get()) >= minConfidence) {
+                acceptedCounters.get(template.getName()).increment();
+                return parsed;
+            }
+            rejectedCounters.get(template.getName()).increment();
+            return Optional.empty();
+        }
+
+        unmatchedCounter.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * 상품 금액 합계와 영수증 합계가 얼마나 일치하는지 (1.0 = 정확히 일치)
+     */
+    static double confidenceOf(OcrResult.ProcessedData data) {
+        BigDecimal total = data.getTotalAmount();
+        if (total == null || total.signum() <= 0 || data.getItems() == null || data.getItems().isEmpty()) {
+            return 0.0;
+        }
+        BigDecimal itemSum = BigDecimal.ZERO;
+        for (OcrResult.Item item : data.getItems()) {
+            if (item.getTotalPrice() != null) {
+                itemSum = itemSum.add(item.getTotalPrice());
+            }
+        }
+        double difference = itemSum.subtract(total).abs().doubleValue();
+        return Math.max(0.0, 1.0 - difference / total.doubleValue());
+    }
+
+    private static List<String> headerLinesOf(String ocrText) {
+        List<String> lines = new ArrayList<>(HEADER_LINES);
+        int start = 0;
+        while (lines.size() < HEADER_LINES && start < ocrText.length()) {
+            int end = ocrText.indexOf('\n', start);
+            if (end < 0) {
+                end = ocrText.length();
+            }
+            String line = ocrText.substring(start, end).trim();
+            if (!line.isEmpty()) {
+                lines.add(line);
+            }
+            start = end + 1;
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,234 @@
+package org.receiptrecipe.backend.service;
+
+import org.receiptrecipe.backend.dto.OcrResult;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gemini를 쓸 수 없을 때 사용하는 규칙 기반 영수증 파서
+ * OCR 텍스트를 한 번만 훑으면서 줄 단위로 금액(1,500원), 날짜(2024-01-01) 등을 직접 읽는다.
+ * 정규식이나 split을 쓰지 않으므로 줄마다 패턴을 다시 컴파일하거나 배열을 만들지 않는다.
+ */
+@Component
+public class ReceiptTextParser {
+
+    private static final String[] TOTAL_KEYWORDS = {"총", "합계", "total", "총액", "결제"};
+    private static final String[] HEADER_KEYWORDS = {"영수증", "매장"};
+    private static final String[] NON_ITEM_KEYWORDS = {"영수증", "매장", "주소", "전화"};
+
+    public OcrResult.ProcessedData parse(String ocrText) {
+        OcrResult.ProcessedData result = new OcrResult.ProcessedData();
+        List<OcrResult.Item> items = new ArrayList<>();
+        result.setStoreName("Unknown Store");
+        result.setPurchaseDate(null);
+        result.setTotalAmount(BigDecimal.ZERO);
+        result.setItems(items);
+
+        String text = ocrText == null ? "" : ocrText;
+        int length = text.length();
+        boolean foundStoreName = false;
+        StringBuilder nameBuffer = new StringBuilder(32);
+
+        int lineStart = 0;
+        while (lineStart <= length) {
+            int lineEnd = text.indexOf('\n', lineStart);
+            if (lineEnd < 0) {
+                lineEnd = length;
+            }
+            int nextLine = lineEnd + 1;
+
+            // 앞뒤 공백 제거 (인덱스만 이동)
+            int start = lineStart;
+            int end = lineEnd;
+            while (start < end && text.charAt(start) <= ' ') start++;
+            while (end > start && text.charAt(end - 1) <= ' ') end--;
+            int lineLength = end - start;
+            lineStart = nextLine;
+            if (lineLength == 0) {
+                continue;
+            }
+
+            int datePos = findIsoDate(text, start, end);
+            if (datePos >= 0 && result.getPurchaseDate() == null) {
+                result.setPurchaseDate(text.substring(datePos, datePos + 10));
+            }
+            boolean hasDate = datePos >= 0;
+            boolean hasPrice = containsWonPrice(text, start, end);
+
+            // 매장명 (첫 번째 일반 텍스트 줄)
+            if (!foundStoreName && lineLength > 3 && lineLength < 50 && !hasDate && !hasPrice
+                    && !containsAny(text, start, end, HEADER_KEYWORDS)) {
+                result.setStoreName(text.substring(start, end));
+                foundStoreName = true;
+                continue;
+            }
+
+            // 총 금액
+            if (containsAny(text, start, end, TOTAL_KEYWORDS)) {
+                BigDecimal amount = parseAmount(text, start, end);
+                if (amount != null) {
+                    result.setTotalAmount(amount);
+                }
+                continue;
+            }
+
+            // 상품명 + 가격
+            if (hasPrice && lineLength > 3) {
+                nameBuffer.setLength(0);
+                BigDecimal price = BigDecimal.ZERO;
+
+                int tokenStart = start;
+                while (tokenStart < end) {
+                    while (tokenStart < end && Character.isWhitespace(text.charAt(tokenStart))) tokenStart++;
+                    if (tokenStart >= end) break;
+                    int tokenEnd = tokenStart;
+                    while (tokenEnd < end && !Character.isWhitespace(text.charAt(tokenEnd))) tokenEnd++;
+
+                    if (containsWonPrice(text, tokenStart, tokenEnd)) {
+                        BigDecimal tokenPrice = parseAmount(text, tokenStart, tokenEnd);
+                        if (tokenPrice != null) {
+                            price = tokenPrice;
+                        }
+                    } else {
+                        if (nameBuffer.length() > 0) nameBuffer.append(' ');
+                        nameBuffer.append(text, tokenStart, tokenEnd);
+                    }
+                    tokenStart = tokenEnd;
+                }
+
+                if (nameBuffer.length() > 0 && price.signum() > 0) {
+                    items.add(newItem(nameBuffer.toString(), price));
+                }
+            } else if (lineLength > 2 && lineLength < 50 && !hasDate
+                    && !containsAny(text, start, end, NON_ITEM_KEYWORDS)) {
+                // 가격이 없는 상품명만 있는 경우
+                items.add(newItem(text.substring(start, end), BigDecimal.ZERO));
+            }
+        }
+
+        if (result.getPurchaseDate() == null) {
+            result.setPurchaseDate(LocalDate.now().toString());
+        }
+        return result;
+    }
+
+    /**
+     * GeminiService 응답과 같은 Map 형식으로 변환
+     */
+    public static Map<String, Object> toMap(OcrResult.ProcessedData data) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("storeName", data.getStoreName());
+        result.put("purchaseDate", data.getPurchaseDate());
+        result.put("totalAmount", data.getTotalAmount().doubleValue());
+
+        List<Map<String, Object>> items = new ArrayList<>(data.getItems().size());
+        for (OcrResult.Item item : data.getItems()) {
+            Map<String, Object> itemMap = new HashMap<>();
+            itemMap.put("name", item.getItemName());
+            itemMap.put("quantity", item.getQuantity());
+            itemMap.put("unitPrice", item.getUnitPrice().doubleValue());
+            itemMap.put("totalPrice", item.getTotalPrice().doubleValue());
+            items.add(itemMap);
+        }
+        result.put("items", items);
+        return result;
+    }
+
+    /**
+     * 숫자 뒤에 '원'이 붙은 가격 표기가 있는지 (예: 1500원, 1,500원, 1.5원)
+     */
+    public static boolean containsWonPrice(CharSequence text, int start, int end) {
+        for (int i = start + 1; i < end; i++) {
+            if (text.charAt(i) != '원') continue;
+            char prev = text.charAt(i - 1);
+            if (isDigit(prev)) return true;
+            if ((prev == ',' || prev == '.') && i - 2 >= start && isDigit(text.charAt(i - 2))) return true;
+        }
+        return false;
+    }
+
+    /**
+     * 구간 안의 숫자, 쉼표, 점만 모아 금액으로 읽는다 (쉼표는 천 단위 구분자, 첫 번째 점은 소수점).
+     * 숫자가 없거나 점이 두 개 이상이면 null
+     */
+    public static BigDecimal parseAmount(CharSequence text, int start, int end) {
+        long integerPart = 0;
+        long fractionPart = 0;
+        int fractionDigits = 0;
+        boolean seenDigit = false;
+        boolean seenDot = false;
+
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (isDigit(c)) {
+                seenDigit = true;
+                if (seenDot) {
+                    if (fractionDigits < 9) {
+                        fractionPart = fractionPart * 10 + (c - '0');
+                        fractionDigits++;
+                    }
+                } else {
+                    if (integerPart > (Long.MAX_VALUE - 9) / 10) return null;
+                    integerPart = integerPart * 10 + (c - '0');
+                }
+            } else if (c == '.') {
+                if (seenDot) return null;
+                seenDot = true;
+            }
+        }
+
+        if (!seenDigit) return null;
+        if (fractionDigits == 0) return BigDecimal.valueOf(integerPart);
+        return BigDecimal.valueOf(integerPart).add(BigDecimal.valueOf(fractionPart, fractionDigits));
+    }
+
+    /**
+     * yyyy-MM-dd 형식 날짜의 시작 위치, 없으면 -1
+     */
+    public static int findIsoDate(CharSequence text, int start, int end) {
+        for (int i = start; i + 10 <= end; i++) {
+            if (isDigit(text.charAt(i)) && isDigit(text.charAt(i + 1)) && isDigit(text.charAt(i + 2))
+                    && isDigit(text.charAt(i + 3)) && text.charAt(i + 4) == '-'
+                    && isDigit(text.charAt(i + 5)) && isDigit(text.charAt(i + 6)) && text.charAt(i + 7) == '-'
+                    && isDigit(text.charAt(i + 8)) && isDigit(text.charAt(i + 9))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public static boolean containsAny(String text, int start, int end, String[] keywords) {
+        for (String keyword : keywords) {
+            if (indexOf(text, start, end, keyword) >= 0) return true;
+        }
+        return false;
+    }
+
+    public static int indexOf(String text, int start, int end, String keyword) {
+        int last = end - keyword.length();
+        for (int i = start; i <= last; i++) {
+            if (text.startsWith(keyword, i)) return i;
+        }
+        return -1;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static OcrResult.Item newItem(String name, BigDecimal price) {
+        OcrResult.Item item = new OcrResult.Item();
+        item.setItemName(name);
+        item.setQuantity(1);
+        item.setUnitPrice(price);
+        item.setTotalPrice(price);
+        item.setIsIngredient(false);
+        return item;
+    }
+}
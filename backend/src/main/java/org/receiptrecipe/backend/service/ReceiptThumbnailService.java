@@ -0,0 +1,231 @@
+package org.receiptrecipe.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.receiptrecipe.backend.dto.ReceiptIngestionJob;
+import org.receiptrecipe.backend.entity.Receipt;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 영수증 목록/상세 화면용 축소 이미지 (thumb, medium)
+ * 처리 작업이 끝나면 미리 만들어 두고, 없으면 첫 요청 때 만든다.
+ * 결과는 원본과 같은 이미지 저장소(파일시스템 또는 S3)에 "<원본 해시>-<size>.jpg" 키로 저장되므로
+ * 같은 사진으로 만든 영수증끼리 공유하고, 여러 인스턴스가 같은 버킷을 쓸 때도 한 번만 만든다.
+ * 생성은 크기가 제한된 전용 풀에서 실행되며, 풀이 가득 차거나 이미지가 아니면 원본을 대신 보여준다.
+ */
+@Service
+public class ReceiptThumbnailService implements ReceiptJobListener {
+
+    public enum Size {
+        THUMB(320, 0.75f),
+        MEDIUM(1024, 0.8f);
+
+        private final int maxEdge;
+        private final float jpegQuality;
+
+        Size(int maxEdge, float jpegQuality) {
+            this.maxEdge = maxEdge;
+            this.jpegQuality = jpegQuality;
+        }
+
+        public String getName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        // 요청 파라미터 (thumb | medium), 그 외 값은 원본
+        public static Optional<Size> fromParam(String value) {
+            if (value == null) {
+                return Optional.empty();
+            }
+            for (Size size : values()) {
+                if (size.getName().equalsIgnoreCase(value.trim())) {
+                    return Optional.of(size);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    @Autowired
+    private ReceiptImageStore receiptImageStore;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // 처리 완료 시 미리 생성할지 (false면 첫 요청 때만 생성)
+    @Value("${app.thumbnail.generate-on-ingest:true}")
+    private boolean generateOnIngest;
+
+    @Value("${app.thumbnail.threads:2}")
+    private int threads;
+
+    @Value("${app.thumbnail.queue-capacity:200}")
+    private int queueCapacity;
+
+    // 요청 시 생성을 기다리는 최대 시간 (넘으면 원본 응답, 요청 스레드는 기다리지 않음)
+    @Value("${app.thumbnail.timeout-seconds:10}")
+    private long timeoutSeconds;
+
+    private ThreadPoolExecutor executor;
+    // 같은 원본을 동시에 두 번 만들지 않도록 진행 중인 작업 공유 (원본 해시 -> 작업)
+    private final Map<String, CompletableFuture<Boolean>> inProgress = new ConcurrentHashMap<>();
+    private Counter hitCounter;
+    private Counter generatedCounter;
+    private Counter fallbackCounter;
+    private Timer generateTimer;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCounter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "receipt-thumbnail-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+
+        hitCounter = meterRegistry.counter("receipt.thumbnail.requests", "result", "hit");
+        generatedCounter = meterRegistry.counter("receipt.thumbnail.requests", "result", "generated");
+        fallbackCounter = meterRegistry.counter("receipt.thumbnail.requests", "result", "fallback");
+        generateTimer = Timer.builder("receipt.thumbnail.duration")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("receipt.thumbnail.queue.depth", executor, e -> e.getQueue().size()).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public void onJobCompleted(ReceiptIngestionJob job, Receipt receipt) {
+        if (!generateOnIngest || receipt.getId() == null || receipt.getImageUrl() == null) {
+            return;
+        }
+        try {
+            generateAsync(receipt.getImageUrl());
+        } catch (RejectedExecutionException e) {
+            // 바쁘면 건너뛰고 첫 요청 때 생성
+        }
+    }
+
+    /**
+     * 축소 이미지 키. 이미 있으면 바로, 없으면 만들어지는 대로 완료된다.
+     * 만들 수 없거나 제한 시간 안에 끝나지 않으면 Optional.empty() (원본 사용)
+     */
+    public CompletableFuture<Optional<String>> getVariant(Receipt receipt, Size size) {
+        String key = variantKey(receipt.getImageUrl(), size);
+        try {
+            if (receiptImageStore.exists(key)) {
+                hitCounter.increment();
+                return CompletableFuture.completedFuture(Optional.of(key));
+            }
+        } catch (IOException e) {
+            System.err.println("축소 이미지 조회 실패 (영수증 " + receipt.getId() + "): " + e.getMessage());
+        }
+
+        CompletableFuture<Boolean> generation;
+        try {
+            // 공유 중인 작업에 시간 제한을 걸면 다른 요청까지 실패하므로 복사본에 건다
+            generation = generateAsync(receipt.getImageUrl()).copy().orTimeout(timeoutSeconds, TimeUnit.SECONDS);
+        } catch (RejectedExecutionException e) {
+            generation = CompletableFuture.failedFuture(e);
+        }
+        return generation.handle((written, e) -> {
+            if (e == null && written) {
+                generatedCounter.increment();
+                return Optional.of(key);
+            }
+            if (e != null) {
+                System.err.println("축소 이미지 생성 실패 (영수증 " + receipt.getId() + "): " + e.getMessage());
+            }
+            fallbackCounter.increment();
+            return Optional.<String>empty();
+        });
+    }
+
+    // 원본 이미지를 지울 때 함께 호출
+    public void deleteVariants(String imageKey) {
+        for (Size size : Size.values()) {
+            try {
+                receiptImageStore.delete(variantKey(imageKey, size));
+            } catch (IOException e) {
+                System.err.println("축소 이미지 삭제 실패 (" + imageKey + "): " + e.getMessage());
+            }
+        }
+    }
+
+    public static String variantKey(String imageKey, Size size) {
+        return ReceiptResultCache.contentHashOf(imageKey) + "-" + size.getName() + ".jpg";
+    }
+
+    // 결과가 false면 이미지가 아니라서 만들지 않음
+    private CompletableFuture<Boolean> generateAsync(String imageKey) {
+        String contentHash = ReceiptResultCache.contentHashOf(imageKey);
+        CompletableFuture<Boolean> created = new CompletableFuture<>();
+        CompletableFuture<Boolean> existing = inProgress.putIfAbsent(contentHash, created);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    created.complete(generate(imageKey));
+                } catch (Throwable e) {
+                    created.completeExceptionally(e);
+                } finally {
+                    inProgress.remove(contentHash, created);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inProgress.remove(contentHash, created);
+            throw e;
+        }
+        return created;
+    }
+
+    // 원본은 한 번만 디코딩하고 큰 크기부터 만들어 작은 크기는 그 결과에서 줄인다
+    private boolean generate(String imageKey) throws IOException {
+        long start = System.nanoTime();
+        BufferedImage source = ImageIO.read(new ByteArrayInputStream(receiptImageStore.read(imageKey)));
+        if (source == null) {
+            // 텍스트 영수증 등 이미지가 아닌 파일
+            return false;
+        }
+
+        Size[] sizes = Size.values();
+        BufferedImage current = source;
+        for (int i = sizes.length - 1; i >= 0; i--) {
+            Size size = sizes[i];
+            current = ImagePreprocessor.scaleToFit(current, size.maxEdge, BufferedImage.TYPE_INT_RGB);
+            String target = variantKey(imageKey, size);
+            if (!receiptImageStore.exists(target)) {
+                receiptImageStore.put(target, ImagePreprocessor.encodeJpeg(current, size.jpegQuality));
+            }
+        }
+        generateTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return true;
+    }
+}
@@ -0,0 +1,49 @@
+package org.receiptrecipe.backend.service;
+
+import org.receiptrecipe.backend.entity.Receipt;
+
+import java.util.List;
+
+/**
+ * 영수증이 저장/수정/삭제되었음을 알리는 이벤트
+ * 검색 색인 같은 파생 데이터는 @TransactionalEventListener로 받아 저장 트랜잭션이 커밋된 뒤에 반영한다.
+ * (롤백된 영수증이 색인에 남거나, 색인 작업이 트랜잭션을 붙잡지 않도록)
+ */
+public class ReceiptsChangedEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final Type type;
+    private final List<Receipt> receipts;
+
+    private ReceiptsChangedEvent(Type type, List<Receipt> receipts) {
+        this.type = type;
+        this.receipts = List.copyOf(receipts);
+    }
+
+    public static ReceiptsChangedEvent created(List<Receipt> receipts) {
+        return new ReceiptsChangedEvent(Type.CREATED, receipts);
+    }
+
+    public static ReceiptsChangedEvent updated(List<Receipt> receipts) {
+        return new ReceiptsChangedEvent(Type.UPDATED, receipts);
+    }
+
+    public static ReceiptsChangedEvent deleted(List<Receipt> receipts) {
+        return new ReceiptsChangedEvent(Type.DELETED, receipts);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public boolean isCreated() {
+        return type == Type.CREATED;
+    }
+
+    public List<Receipt> getReceipts() {
+        return receipts;
+    }
+}
@@ -7,6 +7,7 @@ import org.receiptrecipe.backend.repository.RecipeFavoriteRepository;
 import org.receiptrecipe.backend.repository.UserRepository;
 import org.receiptrecipe.backend.repository.RecipeRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -26,6 +27,9 @@ public class RecipeFavoriteService {
     @Autowired
     private RecipeRepository recipeRepository;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     // 즐겨찾기 추가
     public RecipeFavorite addFavorite(Long userId, Long recipeId) {
         User user = userRepository.findById(userId)
@@ -39,7 +43,9 @@ public class RecipeFavoriteService {
         }
         
         RecipeFavorite favorite = new RecipeFavorite(user, recipe);
-        return favoriteRepository.save(favorite);
+        RecipeFavorite saved = favoriteRepository.save(favorite);
+        eventPublisher.publishEvent(new RecipeInteractionEvent(userId, recipeId));
+        return saved;
     }
     
     // 즐겨찾기 제거
@@ -53,6 +59,7 @@ public class RecipeFavoriteService {
                 .orElseThrow(() -> new RuntimeException("Favorite not found"));
         
         favoriteRepository.delete(favorite);
+        eventPublisher.publishEvent(new RecipeInteractionEvent(userId, recipeId));
     }
     
     // 즐겨찾기 토글 (있으면 제거, 없으면 추가)
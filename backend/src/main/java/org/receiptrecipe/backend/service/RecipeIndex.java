@@ -0,0 +1,42 @@
+package org.receiptrecipe.backend.service;
+
+import org.receiptrecipe.backend.repository.RecipeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 레시피로 만드는 메모리 색인 (생성/교체는 RebuildableIndex)
+ * 앱 시작 후와 매일 밤(app.recipe.index.rebuild-cron) 전체를 새로 만들고, 그 사이에는 RecipesChangedEvent로 갱신한다.
+ *
+ * @param <S> 색인 상태 (lock으로 보호)
+ * @param <D> 레시피 하나의 색인용 문서
+ */
+public abstract class RecipeIndex<S, D> extends RebuildableIndex<S, D> {
+
+    @Autowired
+    protected RecipeRepository recipeRepository;
+
+    @Override
+    @Scheduled(cron = "${app.recipe.index.rebuild-cron:0 0 5 * * *}")
+    public void rebuild() {
+        super.rebuild();
+    }
+
+    // 레시피 트랜잭션이 커밋된 뒤에 반영 (트랜잭션 밖에서 저장된 경우는 바로)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipesChanged(RecipesChangedEvent event) {
+        try {
+            if (event.getType() == RecipesChangedEvent.Type.DELETED) {
+                for (Long recipeId : event.getRecipeIds()) {
+                    remove(recipeId);
+                }
+                return;
+            }
+            refresh(event.getRecipeIds());
+        } catch (RuntimeException e) {
+            // 이미 커밋된 뒤이므로 저장 결과에는 영향 없음 (다음 재구축 때 복구)
+            System.err.println(indexName() + " 반영 실패: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package org.receiptrecipe.backend.service;
+
+/**
+ * 사용자가 레시피에 평점/즐겨찾기를 남기거나 지웠음을 알리는 이벤트
+ * 추천 모델은 커밋된 뒤 이 사용자-레시피의 현재 평점/즐겨찾기를 DB에서 다시 읽어 반영한다 (같은 이벤트를 여러 번 받아도 결과가 같음).
+ */
+public class RecipeInteractionEvent {
+
+    private final Long userId;
+    private final Long recipeId;
+
+    public RecipeInteractionEvent(Long userId, Long recipeId) {
+        this.userId = userId;
+        this.recipeId = recipeId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getRecipeId() {
+        return recipeId;
+    }
+}
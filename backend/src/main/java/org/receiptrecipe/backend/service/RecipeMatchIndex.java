@@ -0,0 +1,349 @@
+package org.receiptrecipe.backend.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.receiptrecipe.backend.repository.IngredientExpiryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "지금 냉장고 재료로 만들 수 있는 요리" 추천용 메모리 색인
+ * 레시피 재료 이름을 사전의 대표 재료 이름으로 바꿔 정수 id를 붙이고, 재료 id마다 그 재료가 들어가는 레시피 칸을 BitSet으로 둔다.
+ * 추천 시에는 냉장고 재료의 BitSet만 훑어 레시피별로 가진 재료 수와 유통기한 임박 정도를 더한 뒤
+ * (가진 재료 비율) - (없는 재료 수 × 감점) + (임박 가중치 × Σ 1/(1+남은 일수)) 상위 limit개를 고른다.
+ * 생성/교체/레시피 변경 반영은 RecipeIndex가 맡는다.
+ * 재료 이름은 색인할 때의 재료 사전으로 바꾸므로, 사전을 다시 읽으면(IngredientDictionaryReloadedEvent) 새 사전으로 다시 만든다.
+ */
+@Service
+public class RecipeMatchIndex extends RecipeIndex<RecipeMatchIndex.State, RecipeMatchIndex.Entry> {
+
+    @Autowired
+    private IngredientExpiryRepository ingredientExpiryRepository;
+
+    @Autowired
+    private IngredientClassifier ingredientClassifier;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.recipe.match.missing-penalty:0.05}")
+    private double missingPenalty;
+
+    @Value("${app.recipe.match.urgency-weight:0.3}")
+    private double urgencyWeight;
+
+    private Timer matchTimer;
+
+    @PostConstruct
+    public void init() {
+        initState();
+        matchTimer = Timer.builder("recipe.match.duration")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("recipe.match.index.recipes", this, RecipeMatchIndex::recipeCount).register(meterRegistry);
+    }
+
+    // 냉장고 재료와 같은 키로 비교하도록 새 사전으로 다시 색인
+    @EventListener
+    public void onDictionaryReloaded(IngredientDictionaryReloadedEvent event) {
+        rebuildInBackground();
+    }
+
+    /**
+     * 레시피 하나를 색인에 반영한다 (기존 내용은 교체)
+     */
+    public void index(Long recipeId, String name, Collection<String> ingredientNames) {
+        put(entry(recipeId, name, ingredientNames));
+    }
+
+    /**
+     * 사용자 냉장고(오늘 이후 유통기한인 재료)로 만들기 좋은 레시피 상위 limit개
+     */
+    public List<Match> recommend(Long userId, int limit) {
+        LocalDate today = LocalDate.now();
+        Map<String, Long> daysLeft = new HashMap<>();
+        for (Object[] row : ingredientExpiryRepository.findPantryRows(userId, today)) {
+            daysLeft.merge((String) row[0], ChronoUnit.DAYS.between(today, (LocalDate) row[1]), Math::min);
+        }
+        return match(daysLeft, limit);
+    }
+
+    /**
+     * 재료 이름별 남은 일수로 레시피 점수를 매겨 상위 limit개 (재료를 하나도 가지지 않은 레시피는 제외)
+     */
+    public List<Match> match(Map<String, Long> pantry, int limit) {
+        long start = System.nanoTime();
+        if (pantry.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        // 대표 재료 이름으로 맞춤 (같은 재료가 여러 번 있으면 가장 빨리 끝나는 것 기준)
+        Map<String, Long> daysLeft = new HashMap<>();
+        for (Map.Entry<String, Long> entry : pantry.entrySet()) {
+            daysLeft.merge(ingredientClassifier.ingredientKey(entry.getKey()), entry.getValue(), Math::min);
+        }
+        lock.readLock().lock();
+        try {
+            State index = state;
+            int[] matched = new int[index.slotCount];
+            double[] urgency = new double[index.slotCount];
+            int[] touched = new int[16];
+            int touchedCount = 0;
+            BitSet owned = new BitSet(index.ingredientNames.size());
+            for (Map.Entry<String, Long> entry : daysLeft.entrySet()) {
+                Integer ingredientId = index.ingredientIds.get(entry.getKey());
+                if (ingredientId == null || owned.get(ingredientId)) {
+                    continue;
+                }
+                owned.set(ingredientId);
+                double weight = 1.0 / (1 + Math.max(0L, entry.getValue()));
+                BitSet slots = index.postings.get(ingredientId);
+                for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+                    if (matched[slot]++ == 0) {
+                        if (touchedCount == touched.length) {
+                            touched = Arrays.copyOf(touched, touchedCount * 2);
+                        }
+                        touched[touchedCount++] = slot;
+                    }
+                    urgency[slot] += weight;
+                }
+            }
+
+            // 상위 limit개만 유지 (점수가 가장 낮은 것이 머리에 오는 힙)
+            PriorityQueue<int[]> top = new PriorityQueue<>(limit + 1,
+                    Comparator.comparingDouble((int[] candidate) -> score(index, candidate[0], matched, urgency))
+                            .thenComparingLong(candidate -> index.recipeIds[candidate[0]]));
+            for (int i = 0; i < touchedCount; i++) {
+                top.add(new int[] { touched[i] });
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+
+            List<Match> matches = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                int slot = top.poll()[0];
+                List<String> missing = new ArrayList<>();
+                for (int ingredientId : index.recipeIngredients[slot]) {
+                    if (!owned.get(ingredientId)) {
+                        missing.add(index.ingredientNames.get(ingredientId));
+                    }
+                }
+                matches.add(new Match(index.recipeIds[slot], index.recipeNames[slot], matched[slot],
+                        index.recipeIngredients[slot].length, missing, score(index, slot, matched, urgency)));
+            }
+            // 힙에서는 낮은 점수부터 나오므로 뒤집음
+            Collections.reverse(matches);
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+            matchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public int recipeCount() {
+        lock.readLock().lock();
+        try {
+            return state.slotByRecipe.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private double score(State index, int slot, int[] matched, double[] urgency) {
+        int total = index.recipeIngredients[slot].length;
+        return (double) matched[slot] / total - missingPenalty * (total - matched[slot]) + urgencyWeight * urgency[slot];
+    }
+
+    @Override
+    protected String indexName() {
+        return "레시피 재료 색인";
+    }
+
+    @Override
+    protected State newState() {
+        return new State();
+    }
+
+    @Override
+    protected List<Entry> loadAfter(long lastId, int limit) {
+        return entries(recipeRepository.findMatchRowsAfter(lastId, PageRequest.of(0, limit)));
+    }
+
+    @Override
+    protected List<Entry> load(List<Long> recipeIds) {
+        return entries(recipeRepository.findMatchRowsByIds(recipeIds));
+    }
+
+    @Override
+    protected Long documentId(Entry entry) {
+        return entry.recipeId;
+    }
+
+    @Override
+    protected void addTo(State index, Entry entry) {
+        index.add(entry);
+    }
+
+    @Override
+    protected void removeFrom(State index, Long recipeId) {
+        index.remove(recipeId);
+    }
+
+    // 매칭 행 (id, 이름)에 재료를 붙이고 대표 재료 이름으로 바꾼다 (잠금 밖에서)
+    private List<Entry> entries(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<String>> ingredients = new HashMap<>();
+        for (Object[] row : recipeRepository.findIngredientNamesByRecipeIds(ids(rows))) {
+            ingredients.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+        List<Entry> entries = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Long recipeId = (Long) row[0];
+            entries.add(entry(recipeId, (String) row[1], ingredients.getOrDefault(recipeId, List.of())));
+        }
+        return entries;
+    }
+
+    private Entry entry(Long recipeId, String name, Collection<String> ingredientNames) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String ingredientName : ingredientNames) {
+            String key = ingredientClassifier.ingredientKey(ingredientName);
+            if (!key.isEmpty()) {
+                keys.add(key);
+            }
+        }
+        return new Entry(recipeId, name, keys.toArray(new String[0]));
+    }
+
+    // 색인할 레시피 하나 (재료는 대표 재료 이름으로 바꾼 키)
+    static final class Entry {
+        private final Long recipeId;
+        private final String name;
+        private final String[] ingredientKeys;
+
+        private Entry(Long recipeId, String name, String[] ingredientKeys) {
+            this.recipeId = recipeId;
+            this.name = name;
+            this.ingredientKeys = ingredientKeys;
+        }
+    }
+
+    // 재료 id와 레시피 칸 (재구축 때는 새로 만들어 통째로 교체)
+    static final class State {
+        // 재료 이름 <-> 재료 id
+        private final Map<String, Integer> ingredientIds = new HashMap<>();
+        private final List<String> ingredientNames = new ArrayList<>();
+        // 재료 id -> 그 재료가 들어가는 레시피 칸
+        private final List<BitSet> postings = new ArrayList<>();
+        // 레시피 id -> 칸 (삭제된 칸은 freeSlots로 재사용)
+        private final Map<Long, Integer> slotByRecipe = new HashMap<>();
+        private long[] recipeIds = new long[64];
+        private String[] recipeNames = new String[64];
+        private int[][] recipeIngredients = new int[64][];
+        private int slotCount;
+        private int[] freeSlots = new int[16];
+        private int freeCount;
+
+        // 재료가 없는 레시피는 추천할 수 없으므로 넣지 않는다
+        private void add(Entry entry) {
+            if (entry.ingredientKeys.length == 0) {
+                return;
+            }
+            int slot;
+            if (freeCount > 0) {
+                slot = freeSlots[--freeCount];
+            } else {
+                if (slotCount == recipeIds.length) {
+                    recipeIds = Arrays.copyOf(recipeIds, slotCount * 2);
+                    recipeNames = Arrays.copyOf(recipeNames, slotCount * 2);
+                    recipeIngredients = Arrays.copyOf(recipeIngredients, slotCount * 2);
+                }
+                slot = slotCount++;
+            }
+            int[] ingredients = new int[entry.ingredientKeys.length];
+            for (int i = 0; i < ingredients.length; i++) {
+                String key = entry.ingredientKeys[i];
+                Integer ingredientId = ingredientIds.get(key);
+                if (ingredientId == null) {
+                    ingredientId = ingredientNames.size();
+                    ingredientIds.put(key, ingredientId);
+                    ingredientNames.add(key);
+                    postings.add(new BitSet());
+                }
+                ingredients[i] = ingredientId;
+                postings.get(ingredientId).set(slot);
+            }
+            recipeIds[slot] = entry.recipeId;
+            recipeNames[slot] = entry.name;
+            recipeIngredients[slot] = ingredients;
+            slotByRecipe.put(entry.recipeId, slot);
+        }
+
+        private void remove(Long recipeId) {
+            Integer slot = slotByRecipe.remove(recipeId);
+            if (slot == null) {
+                return;
+            }
+            for (int ingredientId : recipeIngredients[slot]) {
+                postings.get(ingredientId).clear(slot);
+            }
+            recipeIngredients[slot] = new int[0];
+            recipeNames[slot] = null;
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+            }
+            freeSlots[freeCount++] = slot;
+        }
+    }
+
+    public static class Match {
+        private final Long recipeId;
+        private final String recipeName;
+        private final int matchedCount;
+        private final int ingredientCount;
+        private final List<String> missingIngredients;
+        private final double score;
+
+        public Match(Long recipeId, String recipeName, int matchedCount, int ingredientCount,
+                     List<String> missingIngredients, double score) {
+            this.recipeId = recipeId;
+            this.recipeName = recipeName;
+            this.matchedCount = matchedCount;
+            this.ingredientCount = ingredientCount;
+            this.missingIngredients = missingIngredients;
+            this.score = score;
+        }
+
+        public Long getRecipeId() { return recipeId; }
+        public String getRecipeName() { return recipeName; }
+        public int getMatchedCount() { return matchedCount; }
+        public int getIngredientCount() { return ingredientCount; }
+        // 냉장고에 없는 재료 (대표 재료 이름)
+        public List<String> getMissingIngredients() { return missingIngredients; }
+        public double getCoverage() { return (double) matchedCount / ingredientCount; }
+        public double getScore() { return score; }
+    }
+}
@@ -0,0 +1,179 @@
+package org.receiptrecipe.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.receiptrecipe.backend.repository.RecipeRatingRepository;
+import org.receiptrecipe.backend.repository.RecipeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 레시피 행의 평점 집계 컬럼 (평점 수, 합계, 1~5점 개수, 베이지안 점수) 관리
+ * 평점 저장/삭제 트랜잭션 안에서 변화량만큼 UPDATE 한 문장으로 갱신하므로, 목록 화면은 AVG/COUNT 쿼리 없이 레시피 행만 읽으면 된다.
+ * 베이지안 점수 = (prior-weight × prior-mean + 합계) / (prior-weight + 평점 수): 평점이 몇 개뿐인 레시피가 5점 하나로 맨 위에 오지 않도록.
+ * 매일 밤(reconcile-cron) recipe_ratings로 다시 계산해 어긋난 레시피만 고친다 (직접 SQL로 평점을 고친 경우, 설정 변경 등).
+ */
+@Service
+public class RecipeRatingAggregator {
+
+    private static final int RECONCILE_BATCH_SIZE = 500;
+    private static final double SCORE_TOLERANCE = 1e-6;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private RecipeRatingRepository recipeRatingRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.recipe.rating.prior-weight:5}")
+    private double priorWeight;
+
+    @Value("${app.recipe.rating.prior-mean:3.5}")
+    private double priorMean;
+
+    private TransactionTemplate transactionTemplate;
+    private Counter repairedCounter;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        repairedCounter = meterRegistry.counter("recipe.rating.aggregates.repaired");
+    }
+
+    /**
+     * 레시피의 평점 하나가 oldRating에서 newRating으로 바뀌었음을 반영한다 (추가는 oldRating, 삭제는 newRating이 null)
+     * 평점 저장/삭제와 같은 트랜잭션에서 호출해야 한다.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void ratingChanged(Long recipeId, Integer oldRating, Integer newRating) {
+        if (Objects.equals(oldRating, newRating)) {
+            return;
+        }
+        int[] histogramDelta = new int[5];
+        if (oldRating != null && oldRating >= 1 && oldRating <= 5) {
+            histogramDelta[oldRating - 1]--;
+        }
+        if (newRating != null && newRating >= 1 && newRating <= 5) {
+            histogramDelta[newRating - 1]++;
+        }
+        int countDelta = (newRating != null ? 1 : 0) - (oldRating != null ? 1 : 0);
+        long sumDelta = (newRating != null ? newRating : 0) - (oldRating != null ? oldRating : 0);
+        recipeRepository.applyRatingDelta(recipeId, countDelta, sumDelta,
+                histogramDelta[0], histogramDelta[1], histogramDelta[2], histogramDelta[3], histogramDelta[4],
+                priorWeight, priorMean);
+    }
+
+    /**
+     * 모든 레시피의 집계를 recipe_ratings와 비교해 어긋난 것만 고치고, 고친 레시피 수를 돌려준다
+     */
+    @Scheduled(cron = "${app.recipe.rating.reconcile-cron:0 15 4 * * *}")
+    public int reconcile() {
+        long start = System.currentTimeMillis();
+        long lastId = 0L;
+        int repaired = 0;
+        try {
+            while (true) {
+                List<Object[]> rows = recipeRepository.findRatingAggregateRowsAfter(lastId, PageRequest.of(0, RECONCILE_BATCH_SIZE));
+                if (rows.isEmpty()) {
+                    break;
+                }
+                List<Long> ids = new ArrayList<>(rows.size());
+                for (Object[] row : rows) {
+                    ids.add((Long) row[0]);
+                }
+                Integer fixed = transactionTemplate.execute(status -> reconcileBatch(ids));
+                repaired += fixed != null ? fixed : 0;
+                lastId = ids.get(ids.size() - 1);
+            }
+            repairedCounter.increment(repaired);
+            System.out.println("레시피 평점 집계 정합성 검사 완료: " + repaired + "건 수정, " + (System.currentTimeMillis() - start) + "ms");
+        } catch (Exception e) {
+            System.err.println("레시피 평점 집계 정합성 검사 실패: " + e.getMessage());
+        }
+        return repaired;
+    }
+
+    // 레시피 행을 먼저 잠그고(FOR UPDATE) 평점을 센다: 동시에 들어온 평점의 변화량 UPDATE는 이 트랜잭션이 끝날 때까지 기다리므로
+    // 절대값으로 덮어써도 그 증가분을 잃지 않는다
+    private int reconcileBatch(List<Long> ids) {
+        List<Object[]> rows = recipeRepository.lockRatingAggregateRows(ids);
+        Map<Long, Aggregate> actual = new HashMap<>();
+        for (Object[] row : recipeRatingRepository.findRatingHistogramByRecipeIds(ids)) {
+            actual.computeIfAbsent((Long) row[0], id -> new Aggregate())
+                    .add((Integer) row[1], (Long) row[2]);
+        }
+
+        int repaired = 0;
+        for (Object[] row : rows) {
+            Long recipeId = (Long) row[0];
+            Aggregate expected = actual.getOrDefault(recipeId, new Aggregate());
+            Double score = expected.count > 0 ? bayesianScore(expected.count, expected.sum, priorWeight, priorMean) : null;
+            if (matches(row, expected, score)) {
+                continue;
+            }
+            recipeRepository.updateRatingAggregates(recipeId, (int) expected.count, expected.sum,
+                    (int) expected.histogram[0], (int) expected.histogram[1], (int) expected.histogram[2],
+                    (int) expected.histogram[3], (int) expected.histogram[4], score);
+            repaired++;
+        }
+        return repaired;
+    }
+
+    /**
+     * (priorWeight × priorMean + 합계) / (priorWeight + 평점 수)
+     */
+    static double bayesianScore(long count, long sum, double priorWeight, double priorMean) {
+        return (priorWeight * priorMean + sum) / (priorWeight + count);
+    }
+
+    // 저장된 행 (id, 수, 합계, 1~5점 개수, 점수)과 다시 계산한 값 비교
+    private static boolean matches(Object[] row, Aggregate expected, Double score) {
+        if (((Number) row[1]).longValue() != expected.count || ((Number) row[2]).longValue() != expected.sum) {
+            return false;
+        }
+        for (int i = 0; i < 5; i++) {
+            if (((Number) row[3 + i]).longValue() != expected.histogram[i]) {
+                return false;
+            }
+        }
+        Double stored = (Double) row[8];
+        if (stored == null || score == null) {
+            return stored == null && score == null;
+        }
+        return Math.abs(stored - score) < SCORE_TOLERANCE;
+    }
+
+    private static final class Aggregate {
+        private long count;
+        private long sum;
+        private final long[] histogram = new long[5];
+
+        private void add(Integer rating, long ratings) {
+            count += ratings;
+            sum += rating * ratings;
+            if (rating >= 1 && rating <= 5) {
+                histogram[rating - 1] += ratings;
+            }
+        }
+    }
+}
@@ -9,6 +9,7 @@ import org.receiptrecipe.backend.repository.RecipeRatingRepository;
 import org.receiptrecipe.backend.repository.RecipeRepository;
 import org.receiptrecipe.backend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -33,6 +34,12 @@ public class RecipeRatingService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private RecipeRatingAggregator ratingAggregator;
+    
     // 평점 및 리뷰 추가/수정
     public RecipeRatingResponse addOrUpdateRating(Long recipeId, Long userId, RecipeRatingRequest request) {
         Recipe recipe = recipeRepository.findById(recipeId)
@@ -44,9 +51,11 @@ public class RecipeRatingService {
         Optional<RecipeRating> existingRating = ratingRepository.findByRecipeIdAndUserId(recipeId, userId);
         
         RecipeRating rating;
+        Integer previousRating = null;
         if (existingRating.isPresent()) {
             // 기존 평점 수정
             rating = existingRating.get();
+            previousRating = rating.getRating();
             rating.setRating(request.getRating());
             rating.setComment(request.getComment());
             rating.setIsFavorite(request.getIsFavorite());
@@ -62,6 +71,8 @@ public class RecipeRatingService {
         }
         
         RecipeRating savedRating = ratingRepository.save(rating);
+        ratingAggregator.ratingChanged(recipeId, previousRating, savedRating.getRating());
+        eventPublisher.publishEvent(new RecipeInteractionEvent(userId, recipeId));
         return convertToResponse(savedRating);
     }
     
@@ -70,6 +81,8 @@ public class RecipeRatingService {
         RecipeRating rating = ratingRepository.findByRecipeIdAndUserId(recipeId, userId)
                 .orElseThrow(() -> new RuntimeException("Rating not found"));
         ratingRepository.delete(rating);
+        ratingAggregator.ratingChanged(recipeId, rating.getRating(), null);
+        eventPublisher.publishEvent(new RecipeInteractionEvent(userId, recipeId));
     }
     
     // 레시피의 평점 목록 조회
@@ -100,14 +113,19 @@ public class RecipeRatingService {
         return rating.map(this::convertToResponse);
     }
     
-    // 레시피의 평균 평점 계산
+    // 레시피의 평균 평점 (레시피 행의 집계 컬럼, 평점이 없으면 null)
     public Double getAverageRating(Long recipeId) {
-        return ratingRepository.findAverageRatingByRecipeId(recipeId);
+        return recipeRepository.findById(recipeId)
+                .filter(recipe -> recipe.getRatingCount() > 0)
+                .map(recipe -> (double) recipe.getRatingSum() / recipe.getRatingCount())
+                .orElse(null);
     }
     
-    // 레시피의 평점 개수
+    // 레시피의 평점 개수 (레시피 행의 집계 컬럼)
     public Long getRatingCount(Long recipeId) {
-        return ratingRepository.countByRecipeId(recipeId);
+        return recipeRepository.findById(recipeId)
+                .map(recipe -> (long) recipe.getRatingCount())
+                .orElse(0L);
     }
     
     // 높은 평점의 레시피들 조회
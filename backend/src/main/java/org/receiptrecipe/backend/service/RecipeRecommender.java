@@ -0,0 +1,775 @@
+package org.receiptrecipe.backend.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.receiptrecipe.backend.entity.RecipeRating;
+import org.receiptrecipe.backend.repository.RecipeFavoriteRepository;
+import org.receiptrecipe.backend.repository.RecipeRatingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 평점/즐겨찾기 기반 아이템-아이템 레시피 추천
+ * 사용자가 레시피에 남긴 관심(평점 3점 이상, 즐겨찾기)을 가중치로 레시피마다 사용자 벡터를 만들고,
+ * 레시피 쌍의 코사인 유사도(함께 평가한 사용자가 적으면 co/(co+SHRINKAGE)로 줄임) 상위 neighbors개만 이웃 목록으로 둔다.
+ * 전체 계산은 레시피 구간을 ForkJoin으로 나눠 원시 배열(CSR) 위에서 병렬로 하고, 추천은 메모리의 이웃 목록만 더해 만든다.
+ * 앱 시작 후와 매일 밤(rebuild-cron) 전체를 다시 만들고, 그 사이에는 RecipeInteractionEvent마다 해당 레시피의 이웃 목록만 다시 계산한다.
+ * (상대 레시피 목록에는 새 점수만 끼워 넣으므로 다른 쌍의 점수는 다음 전체 재구축 때까지 조금 어긋날 수 있음)
+ */
+@Service
+public class RecipeRecommender {
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+    private static final double SHRINKAGE = 5.0;
+    // ForkJoin 작업 하나가 맡는 레시피 수
+    private static final int LEAF_SIZE = 64;
+
+    @Autowired
+    private RecipeRatingRepository ratingRepository;
+
+    @Autowired
+    private RecipeFavoriteRepository favoriteRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.recipe.cf.neighbors:50}")
+    private int neighborCount;
+
+    // 0이면 공용 ForkJoinPool
+    @Value("${app.recipe.cf.parallelism:0}")
+    private int parallelism;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // 사용자 id -> (레시피 id -> 가중치)
+    private Map<Long, Map<Long, Float>> profiles = new HashMap<>();
+    // 레시피 id -> (사용자 id -> 가중치)
+    private Map<Long, Map<Long, Float>> raters = new HashMap<>();
+    // 레시피 id -> 가중치 제곱합 (코사인 분모)
+    private Map<Long, Double> squaredNorms = new HashMap<>();
+    private Map<Long, Neighbors> neighborsByRecipe = new HashMap<>();
+    // 전체 재구축 중 DB를 읽는 사이에 들어온 변경 (읽은 뒤 다시 적용)
+    private boolean reloading;
+    private final List<Interaction> changedDuringReload = new ArrayList<>();
+    // 전체 재구축 중 이웃을 계산하는 사이에 바뀐 레시피 (교체한 뒤 다시 계산)
+    private boolean computing;
+    private final Set<Long> changedDuringCompute = new HashSet<>();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private volatile boolean ready;
+    private Timer buildTimer;
+    private Timer recommendTimer;
+
+    @PostConstruct
+    public void init() {
+        buildTimer = meterRegistry.timer("recipe.recommend.build.duration");
+        recommendTimer = Timer.builder("recipe.recommend.duration")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("recipe.recommend.model.recipes", this, RecipeRecommender::recipeCount).register(meterRegistry);
+    }
+
+    // 시작 직후 요청을 막지 않도록 별도 스레드에서 생성
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        Thread builder = new Thread(this::rebuild, "recipe-recommender-build");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    /**
+     * DB의 전체 평점/즐겨찾기로 모델을 다시 만든다 (이미 재구축 중이면 건너뜀)
+     */
+    @Scheduled(cron = "${app.recipe.cf.rebuild-cron:0 30 3 * * *}")
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            lock.writeLock().lock();
+            try {
+                reloading = true;
+                changedDuringReload.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            Map<Long, Map<Long, Float>> loaded = loadProfiles();
+            rebuildFrom(loaded);
+            System.out.println("레시피 추천 모델 생성 완료: 레시피 " + recipeCount() + "개, 사용자 " + loaded.size() + "명, "
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms");
+        } catch (Exception e) {
+            System.err.println("레시피 추천 모델 생성 실패: " + e.getMessage());
+        } finally {
+            lock.writeLock().lock();
+            try {
+                reloading = false;
+                computing = false;
+                changedDuringReload.clear();
+                changedDuringCompute.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            rebuilding.set(false);
+            buildTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 사용자별 관심으로 모델 전체를 교체한다 (이웃 목록은 ForkJoin으로 병렬 계산)
+     */
+    void rebuildFrom(Map<Long, Map<Long, Float>> loadedProfiles) {
+        Snapshot snapshot;
+        lock.writeLock().lock();
+        try {
+            profiles = new HashMap<>();
+            raters = new HashMap<>();
+            squaredNorms = new HashMap<>();
+            for (Map.Entry<Long, Map<Long, Float>> profile : loadedProfiles.entrySet()) {
+                for (Map.Entry<Long, Float> entry : profile.getValue().entrySet()) {
+                    setLocked(profile.getKey(), entry.getKey(), entry.getValue());
+                }
+            }
+            // 읽는 동안 커밋된 변경은 DB 결과에 이미 있을 수도 있지만 같은 값을 다시 쓰는 것이므로 그대로 적용
+            for (Interaction change : changedDuringReload) {
+                setLocked(change.userId, change.recipeId, change.weight);
+            }
+            changedDuringReload.clear();
+            reloading = false;
+            computing = true;
+            changedDuringCompute.clear();
+            snapshot = snapshotLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Neighbors[] rows = new Neighbors[snapshot.recipeIds.length];
+        NeighborTask task = new NeighborTask(snapshot, rows, new ConcurrentLinkedQueue<>(), 0, rows.length);
+        if (parallelism > 0) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.invoke(task);
+            } finally {
+                pool.shutdown();
+            }
+        } else {
+            ForkJoinPool.commonPool().invoke(task);
+        }
+
+        lock.writeLock().lock();
+        try {
+            Map<Long, Neighbors> computed = new HashMap<>(rows.length * 2);
+            for (int i = 0; i < rows.length; i++) {
+                if (rows[i] != null) {
+                    computed.put(snapshot.recipeIds[i], rows[i]);
+                }
+            }
+            neighborsByRecipe = computed;
+            for (Long recipeId : changedDuringCompute) {
+                refreshLocked(recipeId);
+            }
+            changedDuringCompute.clear();
+            computing = false;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 평점/즐겨찾기 트랜잭션이 커밋된 뒤에 반영 (트랜잭션 밖에서 저장된 경우는 바로)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInteraction(RecipeInteractionEvent event) {
+        try {
+            Optional<RecipeRating> rating = ratingRepository.findByRecipeIdAndUserId(event.getRecipeId(), event.getUserId());
+            boolean favorite = favoriteRepository.existsByUserIdAndRecipeId(event.getUserId(), event.getRecipeId())
+                    || rating.map(r -> Boolean.TRUE.equals(r.getIsFavorite())).orElse(false);
+            apply(event.getUserId(), event.getRecipeId(), weight(rating.map(RecipeRating::getRating).orElse(null), favorite));
+        } catch (RuntimeException e) {
+            // 이미 커밋된 뒤이므로 저장 결과에는 영향 없음 (다음 재구축 때 복구)
+            System.err.println("레시피 추천 모델 반영 실패: " + e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipesChanged(RecipesChangedEvent event) {
+        if (event.getType() != RecipesChangedEvent.Type.DELETED) {
+            return;
+        }
+        for (Long recipeId : event.getRecipeIds()) {
+            removeRecipe(recipeId);
+        }
+    }
+
+    /**
+     * 사용자-레시피 관심 가중치를 바꾸고(0이면 삭제) 그 레시피의 이웃 목록을 다시 계산한다
+     */
+    public void apply(Long userId, Long recipeId, float weight) {
+        lock.writeLock().lock();
+        try {
+            setLocked(userId, recipeId, weight);
+            if (reloading) {
+                changedDuringReload.add(new Interaction(userId, recipeId, weight));
+            }
+            if (computing) {
+                changedDuringCompute.add(recipeId);
+            }
+            refreshLocked(recipeId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeRecipe(Long recipeId) {
+        lock.writeLock().lock();
+        try {
+            Map<Long, Float> users = raters.get(recipeId);
+            if (users != null) {
+                for (Long userId : new ArrayList<>(users.keySet())) {
+                    setLocked(userId, recipeId, 0f);
+                    if (reloading) {
+                        changedDuringReload.add(new Interaction(userId, recipeId, 0f));
+                    }
+                }
+            }
+            refreshLocked(recipeId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 사용자가 관심을 보인 레시피들의 이웃을 (관심 가중치 × 유사도)로 더해 아직 보지 않은 레시피 상위 limit개
+     */
+    public List<Scored> recommend(Long userId, int limit) {
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            Map<Long, Float> profile = profiles.get(userId);
+            if (profile == null || limit <= 0) {
+                return List.of();
+            }
+            Map<Long, Double> scores = new HashMap<>();
+            for (Map.Entry<Long, Float> entry : profile.entrySet()) {
+                Neighbors row = neighborsByRecipe.get(entry.getKey());
+                if (row == null) {
+                    continue;
+                }
+                for (int k = 0; k < row.ids.length; k++) {
+                    if (!profile.containsKey(row.ids[k])) {
+                        scores.merge(row.ids[k], (double) entry.getValue() * row.scores[k], Double::sum);
+                    }
+                }
+            }
+            return top(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+            recommendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 이 레시피를 좋아한 사용자들이 함께 좋아한 레시피 (유사도 순)
+     */
+    public List<Scored> neighbors(Long recipeId, int limit) {
+        lock.readLock().lock();
+        try {
+            Neighbors row = neighborsByRecipe.get(recipeId);
+            if (row == null) {
+                return List.of();
+            }
+            List<Scored> result = new ArrayList<>();
+            for (int k = 0; k < row.ids.length && k < limit; k++) {
+                result.add(new Scored(row.ids[k], row.scores[k]));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int recipeCount() {
+        lock.readLock().lock();
+        try {
+            return raters.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 평점 3~5점은 0.33~1, 즐겨찾기는 1 (둘 다 있으면 큰 쪽). 2점 이하는 관심으로 보지 않음.
+     */
+    static float weight(Integer rating, boolean favorite) {
+        float weight = rating != null && rating >= 3 ? (rating - 2) / 3f : 0f;
+        return favorite ? Math.max(weight, 1f) : weight;
+    }
+
+    private Map<Long, Map<Long, Float>> loadProfiles() {
+        Map<Long, Map<Long, Float>> loaded = new HashMap<>();
+        long lastId = 0L;
+        while (true) {
+            List<Object[]> rows = ratingRepository.findInteractionRowsAfter(lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            if (rows.isEmpty()) {
+                break;
+            }
+            for (Object[] row : rows) {
+                float weight = weight((Integer) row[3], Boolean.TRUE.equals(row[4]));
+                if (weight > 0) {
+                    loaded.computeIfAbsent((Long) row[1], id -> new HashMap<>()).merge((Long) row[2], weight, Math::max);
+                }
+            }
+            lastId = (Long) rows.get(rows.size() - 1)[0];
+        }
+        lastId = 0L;
+        while (true) {
+            List<Object[]> rows = favoriteRepository.findInteractionRowsAfter(lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            if (rows.isEmpty()) {
+                break;
+            }
+            for (Object[] row : rows) {
+                loaded.computeIfAbsent((Long) row[1], id -> new HashMap<>()).merge((Long) row[2], weight(null, true), Math::max);
+            }
+            lastId = (Long) rows.get(rows.size() - 1)[0];
+        }
+        return loaded;
+    }
+
+    // 쓰기 잠금을 잡은 상태에서 호출
+    private void setLocked(Long userId, Long recipeId, float weight) {
+        Map<Long, Float> profile = profiles.get(userId);
+        Float previous = profile == null ? null : profile.get(recipeId);
+        double delta = (double) weight * weight - (previous == null ? 0 : (double) previous * previous);
+        if (weight <= 0) {
+            if (previous == null) {
+                return;
+            }
+            profile.remove(recipeId);
+            if (profile.isEmpty()) {
+                profiles.remove(userId);
+            }
+            Map<Long, Float> users = raters.get(recipeId);
+            users.remove(userId);
+            if (users.isEmpty()) {
+                raters.remove(recipeId);
+                squaredNorms.remove(recipeId);
+                return;
+            }
+        } else {
+            profiles.computeIfAbsent(userId, id -> new HashMap<>()).put(recipeId, weight);
+            raters.computeIfAbsent(recipeId, id -> new HashMap<>()).put(userId, weight);
+        }
+        squaredNorms.merge(recipeId, delta, Double::sum);
+    }
+
+    // 쓰기 잠금을 잡은 상태에서 호출. 레시피 하나의 이웃 목록을 다시 계산하고, 상대 레시피 목록에도 반영한다.
+    private void refreshLocked(Long recipeId) {
+        Neighbors previous = neighborsByRecipe.remove(recipeId);
+        Neighbors row = null;
+        Map<Long, Float> users = raters.get(recipeId);
+        if (users != null) {
+            Map<Long, double[]> dots = new HashMap<>();
+            for (Map.Entry<Long, Float> user : users.entrySet()) {
+                for (Map.Entry<Long, Float> other : profiles.get(user.getKey()).entrySet()) {
+                    if (other.getKey().equals(recipeId)) {
+                        continue;
+                    }
+                    double[] dot = dots.computeIfAbsent(other.getKey(), id -> new double[2]);
+                    dot[0] += (double) user.getValue() * other.getValue();
+                    dot[1]++;
+                }
+            }
+            double norm = squaredNorms.get(recipeId);
+            TopN top = new TopN(neighborCount);
+            long[] ids = new long[dots.size()];
+            int n = 0;
+            for (Map.Entry<Long, double[]> entry : dots.entrySet()) {
+                double[] dot = entry.getValue();
+                ids[n] = entry.getKey();
+                top.offer(n++, (float) similarity(dot[0], (int) dot[1], norm, squaredNorms.get(entry.getKey())));
+            }
+            row = top.toNeighbors(ids);
+            neighborsByRecipe.put(recipeId, row);
+        }
+
+        // 유사도는 대칭이므로 상대 레시피의 목록도 갱신 (빠진 이웃은 상대 목록에서도 제거)
+        if (previous != null) {
+            for (long other : previous.ids) {
+                if (row == null || !row.contains(other)) {
+                    Neighbors otherRow = neighborsByRecipe.get(other);
+                    if (otherRow != null) {
+                        neighborsByRecipe.put(other, otherRow.without(recipeId));
+                    }
+                }
+            }
+        }
+        if (row != null) {
+            for (int k = 0; k < row.ids.length; k++) {
+                Neighbors otherRow = neighborsByRecipe.get(row.ids[k]);
+                neighborsByRecipe.put(row.ids[k], otherRow == null
+                        ? new Neighbors(new long[] { recipeId }, new float[] { row.scores[k] })
+                        : otherRow.with(recipeId, row.scores[k], neighborCount));
+            }
+        }
+    }
+
+    private static double similarity(double dot, int coCount, double squaredNorm, double otherSquaredNorm) {
+        return dot / Math.sqrt(squaredNorm * otherSquaredNorm) * (coCount / (coCount + SHRINKAGE));
+    }
+
+    // 쓰기 잠금을 잡은 상태에서 호출. 레시피/사용자에 번호를 붙여 원시 배열로 복사한다.
+    private Snapshot snapshotLocked() {
+        Snapshot snapshot = new Snapshot();
+        int recipeCount = raters.size();
+        snapshot.recipeIds = new long[recipeCount];
+        snapshot.squaredNorms = new double[recipeCount];
+        Map<Long, Integer> recipeIndex = new HashMap<>(recipeCount * 2);
+        int i = 0;
+        for (Long recipeId : raters.keySet()) {
+            snapshot.recipeIds[i] = recipeId;
+            snapshot.squaredNorms[i] = squaredNorms.get(recipeId);
+            recipeIndex.put(recipeId, i++);
+        }
+
+        Map<Long, Integer> userIndex = new HashMap<>(profiles.size() * 2);
+        snapshot.userRecipes = new int[profiles.size()][];
+        snapshot.userWeights = new float[profiles.size()][];
+        int u = 0;
+        for (Map.Entry<Long, Map<Long, Float>> profile : profiles.entrySet()) {
+            int[] recipes = new int[profile.getValue().size()];
+            float[] weights = new float[recipes.length];
+            int k = 0;
+            for (Map.Entry<Long, Float> entry : profile.getValue().entrySet()) {
+                recipes[k] = recipeIndex.get(entry.getKey());
+                weights[k++] = entry.getValue();
+            }
+            snapshot.userRecipes[u] = recipes;
+            snapshot.userWeights[u] = weights;
+            userIndex.put(profile.getKey(), u++);
+        }
+
+        snapshot.recipeUsers = new int[recipeCount][];
+        snapshot.recipeWeights = new float[recipeCount][];
+        for (Map.Entry<Long, Map<Long, Float>> recipe : raters.entrySet()) {
+            int r = recipeIndex.get(recipe.getKey());
+            int[] users = new int[recipe.getValue().size()];
+            float[] weights = new float[users.length];
+            int k = 0;
+            for (Map.Entry<Long, Float> entry : recipe.getValue().entrySet()) {
+                users[k] = userIndex.get(entry.getKey());
+                weights[k++] = entry.getValue();
+            }
+            snapshot.recipeUsers[r] = users;
+            snapshot.recipeWeights[r] = weights;
+        }
+        return snapshot;
+    }
+
+    private static List<Scored> top(Map<Long, Double> scores, int limit) {
+        // 상위 limit개만 유지 (점수가 가장 낮은 것이 머리에 오는 힙)
+        PriorityQueue<Scored> top = new PriorityQueue<>(Comparator.comparingDouble(Scored::getScore));
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            if (top.size() < limit) {
+                top.add(new Scored(entry.getKey(), entry.getValue()));
+            } else if (entry.getValue() > top.peek().getScore()) {
+                top.poll();
+                top.add(new Scored(entry.getKey(), entry.getValue()));
+            }
+        }
+        List<Scored> result = new ArrayList<>(top);
+        result.sort(Comparator.comparingDouble(Scored::getScore).reversed().thenComparing(Scored::getRecipeId));
+        return result;
+    }
+
+    /**
+     * 전체 계산용 읽기 전용 복사본 (레시피/사용자 번호 기준 희소 벡터)
+     */
+    private static class Snapshot {
+        private long[] recipeIds;
+        private double[] squaredNorms;
+        private int[][] recipeUsers;
+        private float[][] recipeWeights;
+        private int[][] userRecipes;
+        private float[][] userWeights;
+    }
+
+    /**
+     * 레시피 구간 [from, to)의 이웃 목록 계산. LEAF_SIZE보다 크면 반으로 나눈다.
+     */
+    private final class NeighborTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Snapshot snapshot;
+        private final Neighbors[] rows;
+        // 이번 계산에서 쓰는 작업 공간 (동시에 도는 잎 작업 수만큼만 만들어 돌려 씀, 계산이 끝나면 함께 버려짐)
+        private final Queue<Scratch> scratches;
+        private final int from;
+        private final int to;
+
+        private NeighborTask(Snapshot snapshot, Neighbors[] rows, Queue<Scratch> scratches, int from, int to) {
+            this.snapshot = snapshot;
+            this.rows = rows;
+            this.scratches = scratches;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_SIZE) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new NeighborTask(snapshot, rows, scratches, from, middle),
+                        new NeighborTask(snapshot, rows, scratches, middle, to));
+                return;
+            }
+            Scratch scratch = scratches.poll();
+            if (scratch == null) {
+                scratch = new Scratch(snapshot.recipeIds.length);
+            }
+            computeLeaf(scratch);
+            // 예외로 끝나면 칸이 남아 있을 수 있으므로 정상 종료 때만 돌려놓음
+            scratches.offer(scratch);
+        }
+
+        // 레시피마다 작업 공간을 다시 씀 (쓴 칸만 0으로 되돌림)
+        private void computeLeaf(Scratch scratch) {
+            double[] dots = scratch.dots;
+            int[] coCounts = scratch.coCounts;
+            int[] touched = scratch.touched;
+            for (int r = from; r < to; r++) {
+                int touchedCount = 0;
+                int[] users = snapshot.recipeUsers[r];
+                float[] userWeights = snapshot.recipeWeights[r];
+                for (int k = 0; k < users.length; k++) {
+                    int[] others = snapshot.userRecipes[users[k]];
+                    float[] otherWeights = snapshot.userWeights[users[k]];
+                    for (int m = 0; m < others.length; m++) {
+                        int other = others[m];
+                        if (other == r) {
+                            continue;
+                        }
+                        if (coCounts[other]++ == 0) {
+                            touched[touchedCount++] = other;
+                        }
+                        dots[other] += (double) userWeights[k] * otherWeights[m];
+                    }
+                }
+                TopN top = new TopN(neighborCount);
+                for (int t = 0; t < touchedCount; t++) {
+                    int other = touched[t];
+                    top.offer(other, (float) similarity(dots[other], coCounts[other],
+                            snapshot.squaredNorms[r], snapshot.squaredNorms[other]));
+                    dots[other] = 0;
+                    coCounts[other] = 0;
+                }
+                rows[r] = touchedCount == 0 ? null : top.toNeighbors(snapshot.recipeIds);
+            }
+        }
+    }
+
+    /**
+     * 잎 작업 하나가 쓰는 레시피 수 크기의 누적 배열 (다 쓰고 나면 모든 칸이 0)
+     */
+    private static final class Scratch {
+        private final double[] dots;
+        private final int[] coCounts;
+        private final int[] touched;
+
+        private Scratch(int recipeCount) {
+            dots = new double[recipeCount];
+            coCounts = new int[recipeCount];
+            touched = new int[recipeCount];
+        }
+    }
+
+    /**
+     * 점수 상위 N개를 고르는 원시 배열 최소 힙 (번호, 점수)
+     */
+    private static final class TopN {
+        private final int[] indexes;
+        private final float[] scores;
+        private int size;
+
+        private TopN(int capacity) {
+            indexes = new int[Math.max(1, capacity)];
+            scores = new float[indexes.length];
+        }
+
+        private void offer(int index, float score) {
+            if (size < indexes.length) {
+                indexes[size] = index;
+                scores[size] = score;
+                siftUp(size++);
+            } else if (score > scores[0]) {
+                indexes[0] = index;
+                scores[0] = score;
+                siftDown(0);
+            }
+        }
+
+        // 점수 내림차순 이웃 목록 (번호는 ids의 위치)
+        private Neighbors toNeighbors(long[] ids) {
+            int count = size;
+            long[] neighborIds = new long[count];
+            float[] neighborScores = new float[count];
+            for (int k = count - 1; k >= 0; k--) {
+                neighborIds[k] = ids[indexes[0]];
+                neighborScores[k] = scores[0];
+                size--;
+                indexes[0] = indexes[size];
+                scores[0] = scores[size];
+                siftDown(0);
+            }
+            return new Neighbors(neighborIds, neighborScores);
+        }
+
+        private void siftUp(int k) {
+            while (k > 0) {
+                int parent = (k - 1) >>> 1;
+                if (scores[parent] <= scores[k]) {
+                    break;
+                }
+                swap(parent, k);
+                k = parent;
+            }
+        }
+
+        private void siftDown(int k) {
+            while (true) {
+                int child = 2 * k + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && scores[child + 1] < scores[child]) {
+                    child++;
+                }
+                if (scores[k] <= scores[child]) {
+                    break;
+                }
+                swap(k, child);
+                k = child;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int index = indexes[a];
+            indexes[a] = indexes[b];
+            indexes[b] = index;
+            float score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+        }
+    }
+
+    /**
+     * 레시피 하나의 이웃 목록 (유사도 내림차순, 만든 뒤에는 바꾸지 않고 새로 만들어 교체)
+     */
+    private static final class Neighbors {
+        private final long[] ids;
+        private final float[] scores;
+
+        private Neighbors(long[] ids, float[] scores) {
+            this.ids = ids;
+            this.scores = scores;
+        }
+
+        private boolean contains(long id) {
+            for (long neighbor : ids) {
+                if (neighbor == id) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private Neighbors without(long id) {
+            if (!contains(id)) {
+                return this;
+            }
+            long[] newIds = new long[ids.length - 1];
+            float[] newScores = new float[ids.length - 1];
+            int n = 0;
+            for (int k = 0; k < ids.length; k++) {
+                if (ids[k] != id) {
+                    newIds[n] = ids[k];
+                    newScores[n++] = scores[k];
+                }
+            }
+            return new Neighbors(newIds, newScores);
+        }
+
+        // id를 score로 넣거나 바꾼 목록 (max개를 넘으면 가장 낮은 것 제외)
+        private Neighbors with(long id, float score, int max) {
+            Neighbors base = without(id);
+            int position = 0;
+            while (position < base.ids.length && base.scores[position] >= score) {
+                position++;
+            }
+            if (position >= max) {
+                return base;
+            }
+            int length = Math.min(base.ids.length + 1, max);
+            long[] newIds = new long[length];
+            float[] newScores = new float[length];
+            System.arraycopy(base.ids, 0, newIds, 0, position);
+            System.arraycopy(base.scores, 0, newScores, 0, position);
+            newIds[position] = id;
+            newScores[position] = score;
+            System.arraycopy(base.ids, position, newIds, position + 1, length - position - 1);
+            System.arraycopy(base.scores, position, newScores, position + 1, length - position - 1);
+            return new Neighbors(newIds, newScores);
+        }
+    }
+
+    private static final class Interaction {
+        private final Long userId;
+        private final Long recipeId;
+        private final float weight;
+
+        private Interaction(Long userId, Long recipeId, float weight) {
+            this.userId = userId;
+            this.recipeId = recipeId;
+            this.weight = weight;
+        }
+    }
+
+    public static class Scored {
+        private final Long recipeId;
+        private final double score;
+
+        public Scored(Long recipeId, double score) {
+            this.recipeId = recipeId;
+            this.score = score;
+        }
+
+        public Long getRecipeId() { return recipeId; }
+        public double getScore() { return score; }
+    }
+}
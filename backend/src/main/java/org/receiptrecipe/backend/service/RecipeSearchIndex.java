@@ -0,0 +1,343 @@
+package org.receiptrecipe.backend.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 레시피 검색용 메모리 역색인 (이름 + 설명 + 재료 + 태그)
+ * 영수증 검색과 같은 방식(한글 2-gram + 1글자, 영문/숫자 단어)으로 색인하고 BM25로 점수를 매긴다.
+ * 이름은 초성 2-gram도 색인해서 "ㄱㅊㅉㄱ"처럼 초성만으로도 찾는다 (초성 순서가 이름에 그대로 있는 레시피만).
+ * 검색어의 2-gram 중 일부만 맞아도 결과에 들어가므로 한 글자 오타("김치찌게")도 관련도가 낮아질 뿐 빠지지 않는다.
+ * 생성/교체/레시피 변경 반영은 RecipeIndex가 맡는다 (준비된 뒤에는 유일한 검색 경로이므로 매일 밤 다시 만들어 빠진 변경을 복구).
+ */
+@Service
+public class RecipeSearchIndex extends RecipeIndex<RecipeSearchIndex.State, RecipeSearchIndex.Document> {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    // 이름 > 재료/태그 > 설명 순으로 가중치
+    private static final int NAME_WEIGHT = 3;
+    private static final int INGREDIENT_WEIGHT = 2;
+    private static final int TAG_WEIGHT = 2;
+    private static final String CHOSEONG = "ㄱㄲㄴㄷㄸㄹㅁㅂㅃㅅㅆㅇㅈㅉㅊㅋㅌㅍㅎ";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer searchTimer;
+
+    @PostConstruct
+    public void init() {
+        initState();
+        searchTimer = Timer.builder("recipe.search.duration")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("recipe.search.index.documents", this, RecipeSearchIndex::documentCount).register(meterRegistry);
+    }
+
+    /**
+     * 레시피 하나를 색인에 반영한다 (기존 내용은 교체)
+     */
+    public void index(Long recipeId, String name, String description, Collection<String> ingredientNames, Collection<String> tagNames) {
+        put(document(recipeId, name, description, ingredientNames, tagNames));
+    }
+
+    /**
+     * query와 관련 있는 레시피 id (관련도 순, 같으면 최신 id 먼저)
+     * 초성으로만 된 단어("ㄱㅊㅉㄱ")는 이름의 초성에 그 순서대로 있는 레시피로 좁힌다.
+     */
+    public Page<Long> search(String query, Pageable pageable) {
+        long start = System.nanoTime();
+        List<String> queryTerms = new ArrayList<>();
+        List<String> choseongQueries = new ArrayList<>();
+        for (String word : query == null ? new String[0] : query.trim().split("\\s+")) {
+            if (word.length() >= 2 && isChoseongOnly(word)) {
+                choseongQueries.add(word);
+                queryTerms.addAll(choseongTerms(word));
+            } else {
+                queryTerms.addAll(ReceiptSearchIndex.tokenize(word));
+            }
+        }
+        if (queryTerms.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        lock.readLock().lock();
+        try {
+            State index = state;
+            if (index.docLengths.isEmpty()) {
+                return Page.empty(pageable);
+            }
+            Map<Long, Double> scores = new HashMap<>();
+            double docCount = index.docLengths.size();
+            double averageLength = (double) index.totalLength / docCount;
+            for (String term : new LinkedHashSet<>(queryTerms)) {
+                Map<Long, Integer> termPostings = index.postings.get(term);
+                if (termPostings == null) {
+                    continue;
+                }
+                double idf = Math.log(1.0 + (docCount - termPostings.size() + 0.5) / (termPostings.size() + 0.5));
+                for (Map.Entry<Long, Integer> posting : termPostings.entrySet()) {
+                    int tf = posting.getValue();
+                    int length = index.docLengths.get(posting.getKey());
+                    double norm = tf + K1 * (1 - B + B * length / averageLength);
+                    scores.merge(posting.getKey(), idf * tf * (K1 + 1) / norm, Double::sum);
+                }
+            }
+            if (!choseongQueries.isEmpty()) {
+                scores.keySet().removeIf(recipeId -> !containsAll(index.choseongNames.get(recipeId), choseongQueries));
+            }
+
+            // 요청한 페이지 끝까지만 유지 (점수가 가장 낮은 것이 머리에 오는 힙)
+            int keep = (int) Math.min(Integer.MAX_VALUE, pageable.getOffset() + pageable.getPageSize());
+            Comparator<Hit> order = Comparator.comparingDouble(Hit::getScore).thenComparing(Hit::getRecipeId);
+            PriorityQueue<Hit> top = new PriorityQueue<>(order);
+            for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                Hit hit = new Hit(entry.getKey(), entry.getValue());
+                if (top.size() < keep) {
+                    top.add(hit);
+                } else if (order.compare(hit, top.peek()) > 0) {
+                    top.poll();
+                    top.add(hit);
+                }
+            }
+            List<Hit> hits = new ArrayList<>(top);
+            hits.sort(order.reversed());
+            List<Long> ids = new ArrayList<>();
+            for (int i = (int) Math.min(pageable.getOffset(), hits.size()); i < hits.size(); i++) {
+                ids.add(hits.get(i).getRecipeId());
+            }
+            return new PageImpl<>(ids, pageable, scores.size());
+        } finally {
+            lock.readLock().unlock();
+            searchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public int documentCount() {
+        lock.readLock().lock();
+        try {
+            return state.docLengths.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 한글 음절은 초성으로, 초성 자모는 그대로 두고 나머지(공백, 영문, 숫자)는 뺀다
+     */
+    static String choseong(String text) {
+        StringBuilder builder = new StringBuilder();
+        if (text == null) {
+            return "";
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '가' && c <= '힣') {
+                builder.append(CHOSEONG.charAt((c - '가') / (21 * 28)));
+            } else if (CHOSEONG.indexOf(c) >= 0) {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    // 초성 문자열의 2-gram (한글 2-gram과 겹치지 않도록 자모 그대로)
+    static List<String> choseongTerms(String text) {
+        String initials = choseong(text);
+        List<String> terms = new ArrayList<>();
+        for (int i = 0; i + 1 < initials.length(); i++) {
+            terms.add(initials.substring(i, i + 2));
+        }
+        return terms;
+    }
+
+    private static boolean isChoseongOnly(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (CHOSEONG.indexOf(word.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsAll(String initials, List<String> choseongQueries) {
+        if (initials == null) {
+            return false;
+        }
+        for (String query : choseongQueries) {
+            if (!initials.contains(query)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected String indexName() {
+        return "레시피 검색 색인";
+    }
+
+    @Override
+    protected State newState() {
+        return new State();
+    }
+
+    @Override
+    protected List<Document> loadAfter(long lastId, int limit) {
+        return documents(recipeRepository.findSearchRowsAfter(lastId, PageRequest.of(0, limit)));
+    }
+
+    @Override
+    protected List<Document> load(List<Long> recipeIds) {
+        return documents(recipeRepository.findSearchRowsByIds(recipeIds));
+    }
+
+    @Override
+    protected Long documentId(Document document) {
+        return document.recipeId;
+    }
+
+    @Override
+    protected void addTo(State index, Document document) {
+        index.add(document);
+    }
+
+    @Override
+    protected void removeFrom(State index, Long recipeId) {
+        index.remove(recipeId);
+    }
+
+    // 검색 행 (id, 이름, 설명)에 재료/태그 이름을 붙인다
+    private List<Document> documents(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = ids(rows);
+        Map<Long, List<String>> ingredients = new HashMap<>();
+        for (Object[] row : recipeRepository.findIngredientNamesByRecipeIds(ids)) {
+            ingredients.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+        Map<Long, List<String>> tags = new HashMap<>();
+        for (Object[] row : recipeRepository.findTagNamesByRecipeIds(ids)) {
+            tags.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+        List<Document> documents = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Long recipeId = (Long) row[0];
+            documents.add(document(recipeId, (String) row[1], (String) row[2],
+                    ingredients.getOrDefault(recipeId, List.of()), tags.getOrDefault(recipeId, List.of())));
+        }
+        return documents;
+    }
+
+    // 필드별 가중치를 곱한 단어 빈도 (잠금 밖에서 계산)
+    private static Document document(Long recipeId, String name, String description,
+                                     Collection<String> ingredientNames, Collection<String> tagNames) {
+        Map<String, Integer> termFrequencies = new HashMap<>();
+        for (String term : ReceiptSearchIndex.indexTerms(name)) {
+            termFrequencies.merge(term, NAME_WEIGHT, Integer::sum);
+        }
+        for (String term : choseongTerms(name)) {
+            termFrequencies.merge(term, NAME_WEIGHT, Integer::sum);
+        }
+        for (String term : ReceiptSearchIndex.indexTerms(description)) {
+            termFrequencies.merge(term, 1, Integer::sum);
+        }
+        for (String ingredient : ingredientNames) {
+            for (String term : ReceiptSearchIndex.indexTerms(ingredient)) {
+                termFrequencies.merge(term, INGREDIENT_WEIGHT, Integer::sum);
+            }
+        }
+        for (String tag : tagNames) {
+            for (String term : ReceiptSearchIndex.indexTerms(tag)) {
+                termFrequencies.merge(term, TAG_WEIGHT, Integer::sum);
+            }
+        }
+        return new Document(recipeId, termFrequencies, choseong(name));
+    }
+
+    // 색인할 레시피 하나
+    static final class Document {
+        private final Long recipeId;
+        private final Map<String, Integer> termFrequencies;
+        private final String choseongName;
+
+        private Document(Long recipeId, Map<String, Integer> termFrequencies, String choseongName) {
+            this.recipeId = recipeId;
+            this.termFrequencies = termFrequencies;
+            this.choseongName = choseongName;
+        }
+    }
+
+    // 역색인 (재구축 때는 새로 만들어 통째로 교체)
+    static final class State {
+        // 단어 -> (레시피 id -> 단어 빈도)
+        private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+        private final Map<Long, Integer> docLengths = new HashMap<>();
+        // 삭제 시 postings를 정리하기 위한 레시피별 단어 목록
+        private final Map<Long, String[]> docTerms = new HashMap<>();
+        // 초성 검색 확인용 이름 초성 (공백 제거)
+        private final Map<Long, String> choseongNames = new HashMap<>();
+        private long totalLength;
+
+        private void add(Document document) {
+            int docLength = 0;
+            for (Map.Entry<String, Integer> entry : document.termFrequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), term -> new HashMap<>()).put(document.recipeId, entry.getValue());
+                docLength += entry.getValue();
+            }
+            docLengths.put(document.recipeId, docLength);
+            docTerms.put(document.recipeId, document.termFrequencies.keySet().toArray(new String[0]));
+            choseongNames.put(document.recipeId, document.choseongName);
+            totalLength += docLength;
+        }
+
+        private void remove(Long recipeId) {
+            String[] terms = docTerms.remove(recipeId);
+            if (terms == null) {
+                return;
+            }
+            for (String term : terms) {
+                Map<Long, Integer> termPostings = postings.get(term);
+                termPostings.remove(recipeId);
+                if (termPostings.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+            totalLength -= docLengths.remove(recipeId);
+            choseongNames.remove(recipeId);
+        }
+    }
+
+    private static final class Hit {
+        private final Long recipeId;
+        private final double score;
+
+        private Hit(Long recipeId, double score) {
+            this.recipeId = recipeId;
+            this.score = score;
+        }
+
+        private Long getRecipeId() { return recipeId; }
+        private double getScore() { return score; }
+    }
+}
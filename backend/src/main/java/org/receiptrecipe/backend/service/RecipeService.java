@@ -7,13 +7,16 @@ import org.receiptrecipe.backend.repository.RecipeRepository;
 import org.receiptrecipe.backend.repository.RecipeRatingRepository;
 import org.receiptrecipe.backend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -23,6 +26,9 @@ import java.util.Optional;
 @Transactional
 public class RecipeService {
     
+    // 페이지 없는 검색의 최대 결과 수
+    private static final int SEARCH_LIMIT = 100;
+    
     @Autowired
     private RecipeRepository recipeRepository;
     
@@ -32,12 +38,26 @@ public class RecipeService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private RecipeSearchIndex recipeSearchIndex;
+    
+    @Autowired
+    private RecipeRatingAggregator ratingAggregator;
+    
     public Page<Recipe> getAllRecipes(int page, int size, String category, String search, String difficultyLevel) {
         Pageable pageable = PageRequest.of(page, size);
         
         // 검색어가 있는 경우
         if (search != null && !search.trim().isEmpty()) {
-            return recipeRepository.findByNameContainingIgnoreCase(search, pageable);
+            // 색인 생성이 끝나기 전에는 이름 LIKE 검색
+            if (!recipeSearchIndex.isReady()) {
+                return recipeRepository.findByNameContainingIgnoreCase(search, pageable);
+            }
+            Page<Long> ids = recipeSearchIndex.search(search, pageable);
+            return new PageImpl<>(loadInOrder(ids.getContent()), pageable, ids.getTotalElements());
         }
         
         // 카테고리가 있는 경우
@@ -63,28 +83,36 @@ public class RecipeService {
             recipe.setCreatedAt(LocalDateTime.now());
         }
         recipe.setUpdatedAt(LocalDateTime.now());
-        return recipeRepository.save(recipe);
+        return saveAndPublish(recipe);
     }
     
     public Recipe createRecipe(Recipe recipe) {
         recipe.setCreatedAt(LocalDateTime.now());
         recipe.setUpdatedAt(LocalDateTime.now());
-        return recipeRepository.save(recipe);
+        return saveAndPublish(recipe);
     }
     
     public Recipe updateRecipe(Recipe recipe) {
         recipe.setUpdatedAt(LocalDateTime.now());
-        return recipeRepository.save(recipe);
+        return saveAndPublish(recipe);
     }
     
     public boolean deleteRecipe(Long id) {
         if (recipeRepository.existsById(id)) {
             recipeRepository.deleteById(id);
+            eventPublisher.publishEvent(RecipesChangedEvent.deleted(List.of(id)));
             return true;
         }
         return false;
     }
     
+    // 재료 매칭 색인 등 파생 데이터는 커밋된 뒤 RecipesChangedEvent로 반영
+    private Recipe saveAndPublish(Recipe recipe) {
+        Recipe saved = recipeRepository.save(recipe);
+        eventPublisher.publishEvent(RecipesChangedEvent.saved(List.of(saved.getId())));
+        return saved;
+    }
+    
     public List<Recipe> getRecipesByUserId(Long userId) {
         return recipeRepository.findByUserId(userId);
     }
@@ -94,7 +122,26 @@ public class RecipeService {
     }
     
     public List<Recipe> searchRecipes(String keyword) {
-        return recipeRepository.findByNameContainingIgnoreCase(keyword);
+        if (!recipeSearchIndex.isReady()) {
+            return recipeRepository.findByNameContainingIgnoreCase(keyword);
+        }
+        return loadInOrder(recipeSearchIndex.search(keyword, PageRequest.of(0, SEARCH_LIMIT)).getContent());
+    }
+    
+    // 검색 색인이 준 순서(관련도)대로 레시피 로드
+    private List<Recipe> loadInOrder(List<Long> ids) {
+        Map<Long, Recipe> byId = new HashMap<>();
+        for (Recipe recipe : recipeRepository.findAllById(ids)) {
+            byId.put(recipe.getId(), recipe);
+        }
+        List<Recipe> recipes = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Recipe recipe = byId.get(id);
+            if (recipe != null) {
+                recipes.add(recipe);
+            }
+        }
+        return recipes;
     }
     
     public Map<String, Object> rateRecipe(Long recipeId, Long userId, int rating, String comment) {
@@ -125,9 +172,11 @@ public class RecipeService {
                 .findByRecipeIdAndUserId(recipeId, userId);
             
             RecipeRating recipeRating;
+            Integer previousRating = null;
             if (existingRating.isPresent()) {
                 // 기존 평점 업데이트
                 recipeRating = existingRating.get();
+                previousRating = recipeRating.getRating();
                 recipeRating.setRating(rating);
                 recipeRating.setComment(comment);
                 recipeRating.setUpdatedAt(LocalDateTime.now());
@@ -143,6 +192,8 @@ public class RecipeService {
             }
             
             recipeRatingRepository.save(recipeRating);
+            ratingAggregator.ratingChanged(recipeId, previousRating, rating);
+            eventPublisher.publishEvent(new RecipeInteractionEvent(userId, recipeId));
             
             result.put("success", true);
             result.put("message", "평점이 등록되었습니다.");
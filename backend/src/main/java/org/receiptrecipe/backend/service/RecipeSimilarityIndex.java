@@ -0,0 +1,218 @@
+package org.receiptrecipe.backend.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 재료 구성이 비슷한 레시피 ("비슷한 레시피") 메모리 색인
+ * 레시피 재료를 대표 재료 이름 id 집합으로 바꿔 MinHash 서명 + LSH 밴드 색인(MinHashLsh)에 넣고,
+ * 조회 시에는 밴드가 겹치는 후보만 실제 Jaccard로 정렬한다 (recipe_ingredients 전체를 훑지 않음).
+ * 생성/교체/레시피 변경 반영은 RecipeIndex가 맡고, 재료 사전을 다시 읽으면 새 대표 이름으로 다시 만든다.
+ */
+@Service
+public class RecipeSimilarityIndex extends RecipeIndex<RecipeSimilarityIndex.State, RecipeSimilarityIndex.Entry> {
+
+    private static final long SEED = 0x5EED_2024L;
+
+    @Autowired
+    private IngredientClassifier ingredientClassifier;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.recipe.similar.bands:32}")
+    private int bands;
+
+    @Value("${app.recipe.similar.rows:3}")
+    private int rows;
+
+    @Value("${app.recipe.similar.max-candidates:2000}")
+    private int maxCandidates;
+
+    @Value("${app.recipe.similar.min-similarity:0.2}")
+    private double minSimilarity;
+
+    private Timer similarTimer;
+
+    @PostConstruct
+    public void init() {
+        initState();
+        similarTimer = Timer.builder("recipe.similar.duration")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("recipe.similar.index.recipes", this, RecipeSimilarityIndex::recipeCount).register(meterRegistry);
+    }
+
+    // 재료 키가 바뀌었으므로 새 사전으로 다시 색인
+    @EventListener
+    public void onDictionaryReloaded(IngredientDictionaryReloadedEvent event) {
+        rebuildInBackground();
+    }
+
+    /**
+     * 레시피 하나를 색인에 반영한다 (기존 내용은 교체)
+     */
+    public void index(Long recipeId, String name, Collection<String> ingredientNames) {
+        put(entry(recipeId, name, ingredientNames));
+    }
+
+    /**
+     * 재료 구성이 비슷한 레시피 (Jaccard 유사도 높은 순, 최대 limit개)
+     */
+    public List<Similar> similar(Long recipeId, int limit) {
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            State index = state;
+            List<Similar> result = new ArrayList<>();
+            for (MinHashLsh.Candidate candidate : index.lsh.similar(recipeId, limit, minSimilarity)) {
+                result.add(new Similar(candidate.getId(), index.recipeNames.get(candidate.getId()), candidate.getSimilarity()));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+            similarTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public int recipeCount() {
+        lock.readLock().lock();
+        try {
+            return state.lsh.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    protected String indexName() {
+        return "비슷한 레시피 색인";
+    }
+
+    @Override
+    protected State newState() {
+        return new State(new MinHashLsh(bands, rows, maxCandidates, SEED));
+    }
+
+    @Override
+    protected List<Entry> loadAfter(long lastId, int limit) {
+        return entries(recipeRepository.findMatchRowsAfter(lastId, PageRequest.of(0, limit)));
+    }
+
+    @Override
+    protected List<Entry> load(List<Long> recipeIds) {
+        return entries(recipeRepository.findMatchRowsByIds(recipeIds));
+    }
+
+    @Override
+    protected Long documentId(Entry entry) {
+        return entry.recipeId;
+    }
+
+    @Override
+    protected void addTo(State index, Entry entry) {
+        index.add(entry);
+    }
+
+    @Override
+    protected void removeFrom(State index, Long recipeId) {
+        index.lsh.remove(recipeId);
+        index.recipeNames.remove(recipeId);
+    }
+
+    // 매칭 행 (id, 이름)에 재료를 붙이고 대표 재료 이름으로 바꾼다 (잠금 밖에서)
+    private List<Entry> entries(List<Object[]> recipeRows) {
+        if (recipeRows.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<String>> ingredients = new HashMap<>();
+        for (Object[] row : recipeRepository.findIngredientNamesByRecipeIds(ids(recipeRows))) {
+            ingredients.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+        List<Entry> entries = new ArrayList<>(recipeRows.size());
+        for (Object[] row : recipeRows) {
+            Long recipeId = (Long) row[0];
+            entries.add(entry(recipeId, (String) row[1], ingredients.getOrDefault(recipeId, List.of())));
+        }
+        return entries;
+    }
+
+    private Entry entry(Long recipeId, String name, Collection<String> ingredientNames) {
+        List<String> keys = new ArrayList<>(ingredientNames.size());
+        for (String ingredientName : ingredientNames) {
+            String key = ingredientClassifier.ingredientKey(ingredientName);
+            if (!key.isEmpty()) {
+                keys.add(key);
+            }
+        }
+        return new Entry(recipeId, name, keys.toArray(new String[0]));
+    }
+
+    // 색인할 레시피 하나 (재료는 대표 재료 이름으로 바꾼 키)
+    static final class Entry {
+        private final Long recipeId;
+        private final String name;
+        private final String[] ingredientKeys;
+
+        private Entry(Long recipeId, String name, String[] ingredientKeys) {
+            this.recipeId = recipeId;
+            this.name = name;
+            this.ingredientKeys = ingredientKeys;
+        }
+    }
+
+    // LSH 색인과 재료 id (재구축 때는 새로 만들어 통째로 교체)
+    static final class State {
+        private final MinHashLsh lsh;
+        private final Map<String, Integer> ingredientIds = new HashMap<>();
+        private final Map<Long, String> recipeNames = new HashMap<>();
+
+        private State(MinHashLsh lsh) {
+            this.lsh = lsh;
+        }
+
+        // 재료가 없는 레시피는 비교할 수 없으므로 넣지 않는다
+        private void add(Entry entry) {
+            if (entry.ingredientKeys.length == 0) {
+                return;
+            }
+            int[] set = new int[entry.ingredientKeys.length];
+            for (int i = 0; i < set.length; i++) {
+                set[i] = ingredientIds.computeIfAbsent(entry.ingredientKeys[i], k -> ingredientIds.size());
+            }
+            lsh.put(entry.recipeId, set);
+            recipeNames.put(entry.recipeId, entry.name);
+        }
+    }
+
+    public static class Similar {
+        private final Long recipeId;
+        private final String recipeName;
+        private final double similarity;
+
+        public Similar(Long recipeId, String recipeName, double similarity) {
+            this.recipeId = recipeId;
+            this.recipeName = recipeName;
+            this.similarity = similarity;
+        }
+
+        public Long getRecipeId() { return recipeId; }
+        public String getRecipeName() { return recipeName; }
+        // 재료 구성 Jaccard 유사도 (0~1)
+        public double getSimilarity() { return similarity; }
+    }
+}
@@ -0,0 +1,38 @@
+package org.receiptrecipe.backend.service;
+
+import java.util.List;
+
+/**
+ * 레시피가 저장/수정/삭제되었음을 알리는 이벤트 (레시피 id만 담음)
+ * 재료 매칭 색인 같은 파생 데이터는 @TransactionalEventListener로 받아 커밋된 뒤 DB에서 다시 읽어 반영한다.
+ */
+public class RecipesChangedEvent {
+
+    public enum Type {
+        SAVED, DELETED
+    }
+
+    private final Type type;
+    private final List<Long> recipeIds;
+
+    private RecipesChangedEvent(Type type, List<Long> recipeIds) {
+        this.type = type;
+        this.recipeIds = List.copyOf(recipeIds);
+    }
+
+    public static RecipesChangedEvent saved(List<Long> recipeIds) {
+        return new RecipesChangedEvent(Type.SAVED, recipeIds);
+    }
+
+    public static RecipesChangedEvent deleted(List<Long> recipeIds) {
+        return new RecipesChangedEvent(Type.DELETED, recipeIds);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public List<Long> getRecipeIds() {
+        return recipeIds;
+    }
+}
@@ -0,0 +1,227 @@
+package org.receiptrecipe.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CreateBucketRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadBucketRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchBucketException;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+/**
+ * S3 호환 이미지 저장소 (AWS S3, MinIO 등)
+ * 여러 백엔드 인스턴스가 같은 버킷을 공유할 수 있다.
+ * (있으면 다시 쓰지 않는 store와 다른 인스턴스의 delete가 겹치는 경우는 ReceiptService가 DB 고정/잠금으로 막는다)
+ * 로컬 MinIO: app.storage.s3.endpoint=http://localhost:9000, app.storage.s3.path-style=true
+ */
+@Service
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "s3")
+public class S3ReceiptImageStore implements ReceiptImageStore {
+
+    @Value("${app.storage.s3.bucket}")
+    private String bucket;
+
+    @Value("${app.storage.s3.prefix:receipts/}")
+    private String prefix;
+
+    // 비어 있으면 AWS 기본 엔드포인트
+    @Value("${app.storage.s3.endpoint:}")
+    private String endpoint;
+
+    @Value("${app.storage.s3.region:ap-northeast-2}")
+    private String region;
+
+    // MinIO 등은 path-style 주소(http://host/bucket/key)가 필요
+    @Value("${app.storage.s3.path-style:false}")
+    private boolean pathStyle;
+
+    // 비어 있으면 AWS 기본 인증 체인(환경 변수, 인스턴스 프로필 등) 사용
+    @Value("${app.storage.s3.access-key:}")
+    private String accessKey;
+
+    @Value("${app.storage.s3.secret-key:}")
+    private String secretKey;
+
+    @Value("${app.storage.s3.create-bucket:false}")
+    private boolean createBucket;
+
+    private S3Client s3Client;
+
+    @PostConstruct
+    public void init() {
+        AwsCredentialsProvider credentials = accessKey.isBlank()
+                ? DefaultCredentialsProvider.create()
+                : StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey));
+
+        var builder = S3Client.builder()
+                .region(Region.of(region))
+                .credentialsProvider(credentials)
+                .forcePathStyle(pathStyle);
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        s3Client = builder.build();
+
+        if (createBucket) {
+            try {
+                s3Client.headBucket(HeadBucketRequest.builder().bucket(bucket).build());
+            } catch (NoSuchBucketException e) {
+                s3Client.createBucket(CreateBucketRequest.builder().bucket(bucket).build());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        s3Client.close();
+    }
+
+    @Override
+    public String store(InputStream content, String originalFilename) throws IOException {
+        // 키(해시)를 알아야 업로드할 수 있으므로 임시 파일에 먼저 받음
+        Path tempFile = Files.createTempFile("receipt-upload-", ".tmp");
+        try {
+            String key = ReceiptImageStore.spoolToTempFile(content, originalFilename, tempFile);
+            if (!exists(key)) {
+                PutObjectRequest request = PutObjectRequest.builder()
+                        .bucket(bucket)
+                        .key(objectKey(key))
+                        .contentType(contentTypeOf(key))
+                        .build();
+                s3Client.putObject(request, RequestBody.fromFile(tempFile));
+            }
+            return key;
+        } catch (SdkException e) {
+            throw new IOException("S3 업로드 실패: " + e.getMessage(), e);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    @Override
+    public void put(String key, byte[] content) throws IOException {
+        try {
+            PutObjectRequest request = PutObjectRequest.builder()
+                    .bucket(bucket)
+                    .key(objectKey(key))
+                    .contentType(contentTypeOf(key))
+                    .build();
+            s3Client.putObject(request, RequestBody.fromBytes(content));
+        } catch (SdkException e) {
+            throw new IOException("S3 업로드 실패: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        try {
+            return s3Client.getObject(GetObjectRequest.builder().bucket(bucket).key(objectKey(key)).build());
+        } catch (NoSuchKeyException e) {
+            throw new NoSuchFileException(key);
+        } catch (SdkException e) {
+            throw new IOException("S3 다운로드 실패: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean exists(String key) throws IOException {
+        try {
+            s3Client.headObject(HeadObjectRequest.builder().bucket(bucket).key(objectKey(key)).build());
+            return true;
+        } catch (NoSuchKeyException e) {
+            return false;
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return false;
+            }
+            throw new IOException("S3 조회 실패: " + e.getMessage(), e);
+        } catch (SdkException e) {
+            throw new IOException("S3 조회 실패: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        try {
+            s3Client.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(objectKey(key)).build());
+        } catch (SdkException e) {
+            throw new IOException("S3 삭제 실패: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Resource asResource(String key) throws IOException {
+        long contentLength;
+        try {
+            HeadObjectResponse head = s3Client.headObject(
+                    HeadObjectRequest.builder().bucket(bucket).key(objectKey(key)).build());
+            contentLength = head.contentLength();
+        } catch (NoSuchKeyException e) {
+            throw new NoSuchFileException(key);
+        } catch (SdkException e) {
+            throw new IOException("S3 조회 실패: " + e.getMessage(), e);
+        }
+
+        // 본문은 실제로 전송할 때 스트림으로 받음
+        return new AbstractResource() {
+            @Override
+            public String getDescription() {
+                return "S3 object [" + bucket + "/" + objectKey(key) + "]";
+            }
+
+            @Override
+            public String getFilename() {
+                return key;
+            }
+
+            @Override
+            public long contentLength() {
+                return contentLength;
+            }
+
+            @Override
+            public InputStream getInputStream() throws IOException {
+                return open(key);
+            }
+        };
+    }
+
+    private String objectKey(String key) {
+        return prefix + ReceiptImageStore.shardedPath(key);
+    }
+
+    private static String contentTypeOf(String key) {
+        String lower = key.toLowerCase();
+        if (lower.endsWith(".jpg") || lower.endsWith(".jpeg")) return "image/jpeg";
+        if (lower.endsWith(".png")) return "image/png";
+        if (lower.endsWith(".gif")) return "image/gif";
+        if (lower.endsWith(".webp")) return "image/webp";
+        if (lower.endsWith(".txt")) return "text/plain";
+        return "application/octet-stream";
+    }
+}
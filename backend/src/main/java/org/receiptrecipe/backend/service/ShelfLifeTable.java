@@ -0,0 +1,71 @@
+package org.receiptrecipe.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 재료별 보관 가능 일수 표 (ingredients/shelf-life.csv, 시작 시 메모리에 올림)
+ * 대표 재료 이름 → 분류 → 기본값 순서로 찾는다.
+ */
+@Service
+public class ShelfLifeTable {
+
+    static final String DEFAULT_TABLE = "ingredients/shelf-life.csv";
+
+    @Value("${app.pantry.default-shelf-life-days:7}")
+    private int defaultDays;
+
+    private Map<String, Integer> days = Map.of();
+
+    @PostConstruct
+    public void init() {
+        try (Reader reader = new InputStreamReader(new ClassPathResource(DEFAULT_TABLE).getInputStream(), StandardCharsets.UTF_8)) {
+            days = parse(reader);
+        } catch (IOException e) {
+            // 표가 없으면 모든 재료에 기본 일수 사용
+            System.err.println("보관 일수 표 로드 실패: " + e.getMessage());
+        }
+    }
+
+    public int daysFor(String canonicalName, String category) {
+        Integer value = canonicalName == null ? null : days.get(canonicalName);
+        if (value == null && category != null) {
+            value = days.get(category);
+        }
+        return value == null ? defaultDays : value;
+    }
+
+    /**
+     * 한 줄에 "이름,일수". #으로 시작하는 줄과 빈 줄은 건너뛴다.
+     */
+    static Map<String, Integer> parse(Reader source) throws IOException {
+        Map<String, Integer> parsed = new HashMap<>();
+        BufferedReader reader = new BufferedReader(source);
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            int comma = line.lastIndexOf(',');
+            try {
+                parsed.put(line.substring(0, comma).trim(), Integer.parseInt(line.substring(comma + 1).trim()));
+            } catch (RuntimeException e) {
+                throw new IOException("보관 일수 표 " + lineNumber + "번째 줄 형식 오류: " + line);
+            }
+        }
+        return Map.copyOf(parsed);
+    }
+}
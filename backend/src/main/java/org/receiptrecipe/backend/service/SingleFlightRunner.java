@@ -0,0 +1,32 @@
+package org.receiptrecipe.backend.service;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 전체 재구축처럼 겹쳐 돌면 안 되는 작업을 한 번에 하나만 실행한다.
+ * 실행 중에 들어온 요청은 기다리지 않고 돌아가며, 대신 지금 실행이 끝난 뒤 한 번 더 실행된다 (요청이 여러 번이어도 한 번).
+ * 시작 직후 생성과 @Scheduled 재구축이 겹쳐도 교체 직후 처리할 상태(재구축 중 바뀐 항목 등)를 서로 빼앗지 않도록 쓴다.
+ */
+final class SingleFlightRunner {
+
+    private final Runnable task;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicBoolean requested = new AtomicBoolean();
+
+    SingleFlightRunner(Runnable task) {
+        this.task = task;
+    }
+
+    void run() {
+        requested.set(true);
+        while (requested.get() && running.compareAndSet(false, true)) {
+            try {
+                while (requested.getAndSet(false)) {
+                    task.run();
+                }
+            } finally {
+                running.set(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,384 @@
+package org.receiptrecipe.backend.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.receiptrecipe.backend.entity.Receipt;
+import org.receiptrecipe.backend.entity.ReceiptItem;
+import org.receiptrecipe.backend.repository.IngredientExpiryRepository;
+import org.receiptrecipe.backend.repository.ReceiptRepository;
+import org.receiptrecipe.backend.repository.RecipeFavoriteRepository;
+import org.receiptrecipe.backend.repository.RecipeRatingRepository;
+import org.receiptrecipe.backend.repository.RecipeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 검색창 자동완성 (레시피 이름, 대표 재료 이름, 사용자별 매장명)
+ * 종류마다 PrefixTrie를 두고 인기도(레시피: 1 + 평점 수 + 즐겨찾기 수, 재료: 1 + 냉장고에 담긴 횟수, 매장: 영수증 수)로 상위 몇 개를 돌려준다.
+ * 레시피/재료는 앱 시작 후와 매일 밤(rebuild-cron) 전체를 새로 만들고, 그 사이에는 레시피/평점/영수증 이벤트로 바뀐 만큼만 반영한다.
+ * 매장명은 사용자별로 처음 요청할 때 읽어 최근 사용자 store-users명까지만 메모리에 둔다.
+ */
+@Service
+public class SuggestService {
+
+    public enum Type {
+        RECIPE, INGREDIENT, STORE
+    }
+
+    private static final int BUILD_BATCH_SIZE = 500;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private RecipeRatingRepository recipeRatingRepository;
+
+    @Autowired
+    private RecipeFavoriteRepository recipeFavoriteRepository;
+
+    @Autowired
+    private IngredientExpiryRepository ingredientExpiryRepository;
+
+    @Autowired
+    private ReceiptRepository receiptRepository;
+
+    @Autowired
+    private IngredientClassifier ingredientClassifier;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.suggest.top-k:10}")
+    private int topK;
+
+    @Value("${app.suggest.store-users:1000}")
+    private int maxStoreUsers;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private PrefixTrie recipeTrie;
+    private PrefixTrie ingredientTrie;
+    // 레시피 id -> 트라이에 넣은 (이름, 가중치) (이름 변경/삭제 시 이전 값을 빼기 위해)
+    private Map<Long, RecipeEntry> recipes = new HashMap<>();
+    // 전체 재구축 중에 바뀐 레시피 (새 트라이로 교체한 뒤 다시 읽어 반영)
+    private Set<Long> changedDuringRebuild;
+    private volatile boolean ready;
+    // 시작 직후 생성과 야간 재구축이 겹치지 않도록
+    private final SingleFlightRunner rebuilder = new SingleFlightRunner(this::rebuildOnce);
+
+    // 사용자 id -> 매장명 트라이 (접근 순서 LRU)
+    private Map<Long, PrefixTrie> storeTries;
+
+    private Timer suggestTimer;
+
+    @PostConstruct
+    public void init() {
+        recipeTrie = new PrefixTrie(topK);
+        ingredientTrie = new PrefixTrie(topK);
+        storeTries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, PrefixTrie> eldest) {
+                return size() > maxStoreUsers;
+            }
+        };
+        suggestTimer = Timer.builder("suggest.duration")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("suggest.recipes", this, s -> s.size(Type.RECIPE)).register(meterRegistry);
+        Gauge.builder("suggest.ingredients", this, s -> s.size(Type.INGREDIENT)).register(meterRegistry);
+    }
+
+    // 시작 직후 요청을 막지 않도록 별도 스레드에서 생성
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        Thread builder = new Thread(this::rebuild, "suggest-build");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    /**
+     * 레시피/재료 트라이를 새로 만들어 교체한다 (만드는 동안에는 기존 트라이로 응답)
+     * 이미 만드는 중이면 그 작업이 끝난 뒤 한 번 더 만든다.
+     */
+    @Scheduled(cron = "${app.suggest.rebuild-cron:0 45 3 * * *}")
+    public void rebuild() {
+        rebuilder.run();
+    }
+
+    private void rebuildOnce() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            Map<Long, Long> popularity = new HashMap<>();
+            for (Object[] row : recipeRatingRepository.findRatingCountsByRecipe()) {
+                popularity.merge((Long) row[0], (Long) row[1], Long::sum);
+            }
+            for (Object[] row : recipeFavoriteRepository.findFavoriteCountsByRecipe()) {
+                popularity.merge((Long) row[0], (Long) row[1], Long::sum);
+            }
+            PrefixTrie newRecipeTrie = new PrefixTrie(topK);
+            Map<Long, RecipeEntry> newRecipes = new HashMap<>();
+            long lastId = 0L;
+            while (true) {
+                List<Object[]> rows = recipeRepository.findMatchRowsAfter(lastId, PageRequest.of(0, BUILD_BATCH_SIZE));
+                if (rows.isEmpty()) {
+                    break;
+                }
+                for (Object[] row : rows) {
+                    Long recipeId = (Long) row[0];
+                    RecipeEntry entry = new RecipeEntry((String) row[1], 1 + popularity.getOrDefault(recipeId, 0L));
+                    newRecipes.put(recipeId, entry);
+                    newRecipeTrie.add(entry.name, entry.weight);
+                }
+                lastId = (Long) rows.get(rows.size() - 1)[0];
+            }
+
+            Map<String, Long> pantryCounts = new HashMap<>();
+            for (Object[] row : ingredientExpiryRepository.findIngredientNameCounts()) {
+                String canonicalName = ingredientClassifier.canonicalIngredientName((String) row[0]);
+                if (canonicalName != null) {
+                    pantryCounts.merge(canonicalName, (Long) row[1], Long::sum);
+                }
+            }
+            PrefixTrie newIngredientTrie = new PrefixTrie(topK);
+            for (String name : ingredientClassifier.canonicalIngredientNames()) {
+                newIngredientTrie.add(name, 1 + pantryCounts.getOrDefault(name, 0L));
+            }
+
+            Set<Long> changed;
+            lock.writeLock().lock();
+            try {
+                recipeTrie = newRecipeTrie;
+                recipes = newRecipes;
+                ingredientTrie = newIngredientTrie;
+                changed = changedDuringRebuild;
+                changedDuringRebuild = null;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            refreshRecipes(new ArrayList<>(changed));
+            System.err.println("자동완성 생성 완료: 레시피 " + newRecipes.size() + "건, 재료 " + newIngredientTrie.size() + "건, "
+                    + (System.currentTimeMillis() - start) + "ms");
+        } catch (Exception e) {
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            System.err.println("자동완성 생성 실패: " + e.getMessage());
+        }
+    }
+
+    // 레시피 트랜잭션이 커밋된 뒤에 반영 (트랜잭션 밖에서 저장된 경우는 바로)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipesChanged(RecipesChangedEvent event) {
+        try {
+            refreshRecipes(event.getRecipeIds());
+        } catch (RuntimeException e) {
+            // 이미 커밋된 뒤이므로 저장 결과에는 영향 없음 (다음 재구축 때 복구)
+            System.err.println("레시피 자동완성 반영 실패: " + e.getMessage());
+        }
+    }
+
+    // 평점/즐겨찾기가 바뀌면 그 레시피의 인기도만 다시 계산
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeInteraction(RecipeInteractionEvent event) {
+        try {
+            refreshRecipes(List.of(event.getRecipeId()));
+        } catch (RuntimeException e) {
+            System.err.println("레시피 자동완성 반영 실패: " + e.getMessage());
+        }
+    }
+
+    // 새 영수증의 재료는 재료 인기도에, 매장명은 (메모리에 있는) 사용자 매장 트라이에 반영
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReceiptsChanged(ReceiptsChangedEvent event) {
+        try {
+            for (Receipt receipt : event.getReceipts()) {
+                Long userId = receipt.getUser() != null ? receipt.getUser().getId() : null;
+                if (event.getType() == ReceiptsChangedEvent.Type.CREATED) {
+                    addStore(userId, receipt.getStoreName(), 1);
+                    addPantryIngredients(receipt);
+                } else if (event.getType() == ReceiptsChangedEvent.Type.DELETED) {
+                    addStore(userId, receipt.getStoreName(), -1);
+                } else if (userId != null) {
+                    // 수정 전 매장명을 알 수 없으므로 다음 요청 때 다시 읽는다
+                    synchronized (storeTries) {
+                        storeTries.remove(userId);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("영수증 자동완성 반영 실패: " + e.getMessage());
+        }
+    }
+
+    /**
+     * q로 시작하는 자동완성 (인기도 높은 순, 최대 limit개이며 limit은 top-k까지)
+     */
+    public List<PrefixTrie.Completion> suggest(Type type, Long userId, String q, int limit) {
+        long start = System.nanoTime();
+        try {
+            if (type == Type.STORE) {
+                if (userId == null) {
+                    return List.of();
+                }
+                PrefixTrie trie = storeTrie(userId);
+                synchronized (storeTries) {
+                    return trie.complete(q, limit);
+                }
+            }
+            lock.readLock().lock();
+            try {
+                return (type == Type.RECIPE ? recipeTrie : ingredientTrie).complete(q, limit);
+            } finally {
+                lock.readLock().unlock();
+            }
+        } finally {
+            suggestTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size(Type type) {
+        lock.readLock().lock();
+        try {
+            return type == Type.RECIPE ? recipeTrie.size() : type == Type.INGREDIENT ? ingredientTrie.size() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 레시피들의 현재 이름과 인기도를 DB에서 다시 읽어 반영한다 (없어진 레시피는 제거)
+     */
+    void refreshRecipes(List<Long> recipeIds) {
+        if (recipeIds.isEmpty()) {
+            return;
+        }
+        Map<Long, RecipeEntry> current = new HashMap<>();
+        for (Object[] row : recipeRepository.findMatchRowsByIds(recipeIds)) {
+            Long recipeId = (Long) row[0];
+            long popularity = recipeRatingRepository.countRatingsByRecipeId(recipeId)
+                    + recipeFavoriteRepository.countByRecipeId(recipeId);
+            current.put(recipeId, new RecipeEntry((String) row[1], 1 + popularity));
+        }
+        lock.writeLock().lock();
+        try {
+            for (Long recipeId : recipeIds) {
+                applyRecipe(recipeId, current.get(recipeId));
+                if (changedDuringRebuild != null) {
+                    changedDuringRebuild.add(recipeId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 레시피 하나의 자동완성 항목을 바꾼다 (entry가 null이면 제거)
+     */
+    void applyRecipe(Long recipeId, RecipeEntry entry) {
+        lock.writeLock().lock();
+        try {
+            RecipeEntry previous = entry == null ? recipes.remove(recipeId) : recipes.put(recipeId, entry);
+            if (previous != null) {
+                recipeTrie.add(previous.name, -previous.weight);
+            }
+            if (entry != null) {
+                recipeTrie.add(entry.name, entry.weight);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addPantryIngredients(Receipt receipt) {
+        if (receipt.getItems() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (ReceiptItem item : receipt.getItems()) {
+                if (!Boolean.TRUE.equals(item.getIsIngredient())) {
+                    continue;
+                }
+                String canonicalName = ingredientClassifier.canonicalIngredientName(item.getItemName());
+                // 사전에 있는 재료만 (없는 이름은 다음 재구축 때 사전 기준으로 다시 정해짐)
+                if (canonicalName != null && ingredientTrie.weight(canonicalName) > 0) {
+                    ingredientTrie.add(canonicalName, 1);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addStore(Long userId, String storeName, long delta) {
+        if (userId == null || storeName == null) {
+            return;
+        }
+        synchronized (storeTries) {
+            PrefixTrie trie = storeTries.get(userId);
+            if (trie != null) {
+                trie.add(storeName, delta);
+            }
+        }
+    }
+
+    private PrefixTrie storeTrie(Long userId) {
+        synchronized (storeTries) {
+            PrefixTrie trie = storeTries.get(userId);
+            if (trie != null) {
+                return trie;
+            }
+        }
+        // DB 조회는 잠금 밖에서 (같은 사용자를 동시에 읽으면 나중 것이 남음)
+        PrefixTrie trie = new PrefixTrie(topK);
+        for (Object[] row : receiptRepository.findStoreNameCountsByUserId(userId)) {
+            trie.add((String) row[0], (Long) row[1]);
+        }
+        synchronized (storeTries) {
+            storeTries.put(userId, trie);
+        }
+        return trie;
+    }
+
+    static final class RecipeEntry {
+        private final String name;
+        private final long weight;
+
+        RecipeEntry(String name, long weight) {
+            this.name = name;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package org.receiptrecipe.backend.service;
+
+import com.google.cloud.vision.v1.AnnotateImageRequest;
+import com.google.cloud.vision.v1.AnnotateImageResponse;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Vision API 배치 호출 추상화
+ * 운영에서는 GoogleVisionAnnotator, 오프라인 개발/테스트에서는 FakeVisionAnnotator를 사용한다.
+ * (app.ocr.annotator=google|fake)
+ */
+public interface VisionAnnotator {
+
+    /**
+     * 요청과 같은 순서로 응답 목록을 반환한다.
+     */
+    List<AnnotateImageResponse> batchAnnotate(List<AnnotateImageRequest> requests) throws IOException;
+}
@@ -0,0 +1,94 @@
+package org.receiptrecipe.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AimdConcurrencyLimiterTests {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(5_000);
+
+    @Test
+    void increasesLimitAdditivelyUpToMax() {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter("test", 2, 1, 3, 1_000, 0.5, 0);
+
+        // 2 -> 2.5 -> 2.9 -> 3.24(최대 3으로 제한)
+        completeCall(limiter, FAST, true);
+        assertEquals(2, limiter.getLimit());
+        completeCall(limiter, FAST, true);
+        assertEquals(2, limiter.getLimit());
+        completeCall(limiter, FAST, true);
+        assertEquals(3, limiter.getLimit());
+        for (int i = 0; i < 10; i++) {
+            completeCall(limiter, FAST, true);
+        }
+        assertEquals(3, limiter.getLimit());
+    }
+
+    @Test
+    void decreasesLimitMultiplicativelyOnFailureOrSlowCallDownToMin() {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter("test", 8, 1, 8, 1_000, 0.5, 0);
+
+        completeCall(limiter, FAST, false);
+        assertEquals(4, limiter.getLimit());
+        completeCall(limiter, SLOW, true);
+        assertEquals(2, limiter.getLimit());
+        completeCall(limiter, SLOW, true);
+        assertEquals(1, limiter.getLimit());
+        completeCall(limiter, FAST, false);
+        assertEquals(1, limiter.getLimit());
+    }
+
+    @Test
+    void queuesWaitersAtLimitAndRejectsWhenQueueIsFull() {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter("test", 2, 1, 4, 1_000, 0.5, 1);
+
+        assertTrue(limiter.acquire().isDone());
+        assertTrue(limiter.acquire().isDone());
+        CompletableFuture<Void> waiter = limiter.acquire();
+        assertFalse(waiter.isDone());
+        assertEquals(1, limiter.getWaiting());
+
+        CompletableFuture<Void> rejected = limiter.acquire();
+        Throwable cause = assertThrows(Exception.class, rejected::join).getCause();
+        assertInstanceOf(RejectedExecutionException.class, cause);
+
+        // 끝난 호출이 자리를 넘겨준다
+        limiter.release(FAST, true);
+        assertTrue(waiter.isDone());
+        assertEquals(0, limiter.getWaiting());
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    @Test
+    void shrinkingLimitKeepsWaitersQueuedUntilInFlightDrops() {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter("test", 4, 1, 4, 1_000, 0.5, 4);
+        for (int i = 0; i < 4; i++) {
+            limiter.acquire();
+        }
+        CompletableFuture<Void> waiter = limiter.acquire();
+
+        // 한도 4 -> 2, 진행 중 3건이라 아직 대기
+        limiter.release(FAST, false);
+        assertFalse(waiter.isDone());
+        limiter.release(FAST, true);
+        assertFalse(waiter.isDone());
+        limiter.release(FAST, true);
+        assertTrue(waiter.isDone());
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    private static void completeCall(AimdConcurrencyLimiter limiter, long latencyNanos, boolean success) {
+        assertTrue(limiter.acquire().isDone());
+        limiter.release(latencyNanos, success);
+    }
+}
@@ -0,0 +1,61 @@
+package org.receiptrecipe.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class GeminiResponseCacheTests {
+
+    @Test
+    void normalizeKeepsMinusSignsButDropsSeparatorLines() {
+        assertNotEquals(GeminiResponseCache.normalize("할인 -1,000"), GeminiResponseCache.normalize("할인 1,000"));
+        assertEquals(GeminiResponseCache.normalize("할인 -1,000"), GeminiResponseCache.normalize("할인 −1,000"));
+        assertEquals("이마트 합계 5,000",
+                GeminiResponseCache.normalize("이마트\n--------------\n합계   5,000\n=========="));
+        assertEquals(GeminiResponseCache.normalize("우유 ---- 2,800"), GeminiResponseCache.normalize("우유 ------ 2,800"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void returnsCopiesSoCallersCannotChangeCachedResult() {
+        GeminiResponseCache cache = new GeminiResponseCache();
+        ReflectionTestUtils.setField(cache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "maxEntries", 10);
+        ReflectionTestUtils.setField(cache, "ttlHours", 1L);
+        cache.init();
+
+        Map<String, Object> item = new HashMap<>();
+        item.put("name", "우유");
+        List<Object> items = new ArrayList<>();
+        items.add(item);
+        Map<String, Object> result = new HashMap<>();
+        result.put("storeName", "이마트");
+        result.put("items", items);
+        cache.put("이마트 우유 2,800", "v1", result);
+
+        // 저장 후 원본을 고쳐도 캐시는 그대로
+        item.put("name", "두유");
+        Map<String, Object> first = cache.get("이마트 우유 2,800", "v1").orElseThrow();
+        assertEquals("우유", name(first));
+
+        // 꺼낸 결과를 고쳐도 다음 조회에는 영향 없음
+        first.put("storeName", "홈플러스");
+        ((Map<String, Object>) ((List<?>) first.get("items")).get(0)).put("name", "두유");
+        Map<String, Object> second = cache.get("이마트 우유 2,800", "v1").orElseThrow();
+        assertEquals("이마트", second.get("storeName"));
+        assertEquals("우유", name(second));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object name(Map<String, Object> result) {
+        return ((Map<String, Object>) ((List<?>) result.get("items")).get(0)).get("name");
+    }
+}
@@ -0,0 +1,49 @@
+package org.receiptrecipe.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImagePreprocessorTests {
+
+    @Test
+    void downscalesToMaxEdgeAndConvertsToGrayscale() throws Exception {
+        BufferedImage photo = new BufferedImage(4000, 3000, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = photo.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, 4000, 3000);
+        graphics.setColor(Color.BLACK);
+        for (int y = 100; y < 3000; y += 120) {
+            graphics.drawString("양파 1 3,980원", 200, y);
+        }
+        graphics.dispose();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(photo, "png", out);
+        byte[] original = out.toByteArray();
+
+        byte[] reduced = ImagePreprocessor.shrink(original, 2048, 0.85f);
+
+        BufferedImage result = ImageIO.read(new ByteArrayInputStream(reduced));
+        assertEquals(2048, result.getWidth());
+        assertEquals(1536, result.getHeight());
+        assertEquals(BufferedImage.TYPE_BYTE_GRAY, result.getType());
+        assertTrue(reduced.length < original.length);
+    }
+
+    @Test
+    void returnsOriginalBytesWhenNotAnImage() throws Exception {
+        byte[] text = "이마트 성수점\n합계 6,980원".getBytes(StandardCharsets.UTF_8);
+        assertSame(text, ImagePreprocessor.shrink(text, 2048, 0.85f));
+    }
+}
@@ -0,0 +1,143 @@
+package org.receiptrecipe.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.receiptrecipe.backend.entity.ReceiptItem;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IngredientClassifierTests {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void automatonReportsEveryOverlappingMatch() {
+        AhoCorasick automaton = AhoCorasick.compile(List.of("he", "she", "his", "hers"));
+        List<AhoCorasick.Match> matches = automaton.findAll("ushers");
+
+        assertEquals(3, matches.size());
+        assertEquals(List.of(1, 0, 3), matches.stream().map(AhoCorasick.Match::getPattern).toList());
+        assertEquals(1, matches.get(0).getStart());
+        assertEquals(2, matches.get(1).getStart());
+        assertEquals(6, matches.get(2).getEnd());
+    }
+
+    @Test
+    void classifiesWithBundledDictionaryPreferringLastThenLongestMatch() {
+        IngredientClassifier classifier = classifier("");
+
+        IngredientClassifier.Classification onion = classifier.classify("햇양파 1.5kg");
+        assertEquals("양파", onion.getCanonicalName());
+        assertEquals("채소", onion.getCategory());
+        assertTrue(onion.isIngredient());
+
+        // 공백이 끼어 있어도 찾는다
+        assertEquals("우유", classifier.classify("서울 우유 1L").getCanonicalName());
+        // 더 긴 이름이 이긴다 (양파링은 과자)
+        assertFalse(classifier.classify("농심 양파링").isIngredient());
+        assertEquals("가공우유", classifier.classify("매일 딸기우유").getCanonicalName());
+        // 뒤에서 끝나는 것이 품목
+        assertEquals("양파", classifier.classify("감자 양파 세트").getCanonicalName());
+        assertEquals("케첩", classifier.classify("오뚜기 토마토케첩 500g").getCanonicalName());
+        assertEquals("생활용품", classifier.classify("종량제봉투 20L").getCategory());
+
+        // 사전 이름과 정확히 맞지 않으면 가장 가까운 이름 (OCR 오타)
+        IngredientClassifier.Classification typo = classifier.classify("국산 앙파 1.5kg");
+        assertEquals("양파", typo.getCanonicalName());
+        assertTrue(typo.isFuzzy());
+        assertFalse(onion.isFuzzy());
+        assertEquals("당근", classifier.canonicalIngredientName("흙당군"));
+        assertNull(classifier.canonicalIngredientName("종량제봉투"));
+
+        IngredientClassifier.Classification unknown = classifier.classify("포인트 적립");
+        assertFalse(unknown.isMatched());
+        assertNull(unknown.getCategory());
+        assertFalse(unknown.isIngredient());
+        assertTrue(classifier.canonicalIngredientNames().contains("양파"));
+        assertFalse(classifier.canonicalIngredientNames().contains("생활용품"));
+    }
+
+    @Test
+    void singleSyllableTermsOnlyMatchAsWholeWords() {
+        IngredientClassifier classifier = classifier("");
+
+        for (String itemName : List.of("배송비", "배달료", "꽈배기", "햄버거", "고무장갑", "무선마우스", "삼각김밥", "주차권")) {
+            IngredientClassifier.Classification result = classifier.classify(itemName);
+            assertFalse(result.isIngredient(), itemName + " → " + result.getCanonicalName());
+        }
+        assertFalse(classifier.classify("주차권").isMatched());
+
+        // 낱말 전체이거나 앞뒤가 한글이 아니면 한 글자 이름도 맞음
+        assertEquals("배", classifier.classify("배").getCanonicalName());
+        assertEquals("배", classifier.classify("나주 배 3입").getCanonicalName());
+        assertEquals("무", classifier.classify("무(국산)").getCanonicalName());
+        assertEquals("김", classifier.classify("광천 김 10봉").getCanonicalName());
+        assertEquals("햄", classifier.classify("햄500g").getCanonicalName());
+        // 한 글자 이름이 들어 있는 긴 별칭은 그대로
+        assertEquals("무", classifier.classify("총각무 1단").getCanonicalName());
+        assertEquals("차", classifier.classify("보리차 티백").getCanonicalName());
+    }
+
+    @Test
+    void reloadsExternalDictionaryWhenFileChanges() throws IOException {
+        Path dictionary = tempDir.resolve("dictionary.csv");
+        Files.writeString(dictionary, "채소,Y,양파,\n", StandardCharsets.UTF_8);
+        IngredientClassifier classifier = classifier(dictionary.toString());
+        List<Object> events = new ArrayList<>();
+        ReflectionTestUtils.setField(classifier, "eventPublisher", (ApplicationEventPublisher) events::add);
+        assertFalse(classifier.classify("대파").isMatched());
+
+        Files.writeString(dictionary, "채소,Y,양파,\n채소,Y,대파,실파\n", StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(dictionary, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+        assertTrue(classifier.reloadIfChanged());
+        assertEquals("대파", classifier.classify("실파 1단").getCanonicalName());
+        assertFalse(classifier.reloadIfChanged());
+        // 다시 읽었을 때만 색인들이 다시 만들도록 알림
+        assertEquals(1, events.size());
+        assertEquals(3, ((IngredientDictionaryReloadedEvent) events.get(0)).getTermCount());
+
+        // 잘못된 줄이 있으면 기존 사전 유지
+        Files.writeString(dictionary, "채소,Y\n", StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(dictionary, FileTime.fromMillis(System.currentTimeMillis() + 10000));
+        assertFalse(classifier.reloadIfChanged());
+        assertEquals("대파", classifier.classify("대파").getCanonicalName());
+    }
+
+    @Test
+    void countsOnlyReceiptItemClassification() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        IngredientClassifier classifier = TestIngredientClassifiers.create("", meterRegistry);
+
+        // 레시피 색인, 재분류 같은 내부 조회는 세지 않는다
+        classifier.classify("햇양파 1.5kg");
+        classifier.canonicalIngredientName("흙당군");
+        classifier.ingredientKey("포인트 적립");
+        assertEquals(0.0, meterRegistry.counter("ingredient.classify", "result", "matched").count());
+
+        classifier.apply(new ReceiptItem("햇양파 1.5kg", 1, null, null));
+        classifier.apply(new ReceiptItem("국산 앙파 1.5kg", 1, null, null));
+        classifier.apply(new ReceiptItem("포인트 적립", 1, null, null));
+        assertEquals(1.0, meterRegistry.counter("ingredient.classify", "result", "matched").count());
+        assertEquals(1.0, meterRegistry.counter("ingredient.classify", "result", "fuzzy").count());
+        assertEquals(1.0, meterRegistry.counter("ingredient.classify", "result", "unmatched").count());
+    }
+
+    private static IngredientClassifier classifier(String path) {
+        return TestIngredientClassifiers.create(path, new SimpleMeterRegistry());
+    }
+}
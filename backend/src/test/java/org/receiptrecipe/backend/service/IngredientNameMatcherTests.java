@@ -0,0 +1,61 @@
+package org.receiptrecipe.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class IngredientNameMatcherTests {
+
+    private final IngredientNameMatcher matcher = IngredientNameMatcher.build(
+            List.of("양파", "대파", "쪽파", "당근", "감자", "고구마", "우유", "두부", "돼지고기", "소고기", "닭가슴살", "무"));
+
+    @Test
+    void decomposesHangulIntoJamoWithDistinctFinalConsonants() {
+        int[] jamo = IngredientNameMatcher.jamo("양 파");
+        assertEquals(5, jamo.length);
+        assertEquals('ㅇ', jamo[0]);
+        assertEquals('ㅑ', jamo[1]);
+        // 받침 ㅇ은 초성 ㅇ과 다른 기호
+        assertEquals('ㅇ', jamo[2] & 0xFFFF);
+        assertEquals(jamo[0] == jamo[2], false);
+        assertArrayEquals(new int[] {'k', 'g'}, IngredientNameMatcher.jamo("KG"));
+    }
+
+    @Test
+    void similarJamoCostLessThanOtherEdits() {
+        assertEquals(0, distance("양파", "양파"));
+        // ㅏ/ㅑ
+        assertEquals(IngredientNameMatcher.SIMILAR_COST, distance("앙파", "양파"));
+        // ㅜ → ㅡ 는 일반 치환
+        assertEquals(IngredientNameMatcher.EDIT_COST, distance("당근", "당군"));
+        assertEquals(distance("대파", "양파"), distance("양파", "대파"));
+    }
+
+    @Test
+    void findsClosestNameDespiteTyposSpacingAndUnits() {
+        assertEquals("양파", matcher.closest("앙파").getTerm());
+        assertEquals("양파", matcher.closest("국산 앙파 1.5kg").getTerm());
+        assertEquals("당근", matcher.closest("흙당군 1봉").getTerm());
+        assertEquals("돼지고기", matcher.closest("돼지 고기 600g").getTerm());
+        assertEquals("닭가슴살", matcher.closest("닭가숨살").getTerm());
+        assertEquals("우유", matcher.closest("우유 2개").getTerm());
+    }
+
+    @Test
+    void rejectsNamesOutsideTheAllowedDistance() {
+        // 한 글자 이름은 정확히 맞아야 함 (부 ≠ 무)
+        assertNull(matcher.closest("부"));
+        assertNull(matcher.closest("포인트 적립"));
+        assertNull(matcher.closest("봉투"));
+        assertNull(matcher.closest("1.5kg"));
+        assertNull(IngredientNameMatcher.build(List.of()).closest("양파"));
+    }
+
+    private static int distance(String a, String b) {
+        return IngredientNameMatcher.distance(IngredientNameMatcher.jamo(a), IngredientNameMatcher.jamo(b));
+    }
+}
@@ -0,0 +1,62 @@
+package org.receiptrecipe.backend.service;
+
+import com.google.cloud.vision.v1.AnnotateImageRequest;
+import com.google.cloud.vision.v1.AnnotateImageResponse;
+import com.google.cloud.vision.v1.Image;
+import com.google.protobuf.ByteString;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MicroBatcherTests {
+
+    @Test
+    void coalescesConcurrentRequestsIntoOneBatchAndFansOutResults() throws Exception {
+        FakeVisionAnnotator annotator = new FakeVisionAnnotator();
+        try (MicroBatcher<AnnotateImageRequest, AnnotateImageResponse> batcher = new MicroBatcher<>(
+                "test", 16, 200, 1, annotator::batchAnnotate, null)) {
+
+            List<CompletableFuture<AnnotateImageResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                futures.add(batcher.submit(textImage("receipt-" + i)));
+            }
+
+            for (int i = 0; i < 5; i++) {
+                AnnotateImageResponse response = futures.get(i).get(5, TimeUnit.SECONDS);
+                assertEquals("receipt-" + i, response.getTextAnnotations(0).getDescription());
+            }
+            assertEquals(1, annotator.getBatchCount());
+            assertEquals(5, annotator.getImageCount());
+        }
+    }
+
+    @Test
+    void splitsBatchesAtMaxSize() throws Exception {
+        FakeVisionAnnotator annotator = new FakeVisionAnnotator();
+        try (MicroBatcher<AnnotateImageRequest, AnnotateImageResponse> batcher = new MicroBatcher<>(
+                "test", 2, 200, 1, annotator::batchAnnotate, null)) {
+
+            List<CompletableFuture<AnnotateImageResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                futures.add(batcher.submit(textImage("receipt-" + i)));
+            }
+            for (CompletableFuture<AnnotateImageResponse> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+            assertTrue(annotator.getBatchCount() >= 3);
+        }
+    }
+
+    private static AnnotateImageRequest textImage(String text) {
+        return AnnotateImageRequest.newBuilder()
+                .setImage(Image.newBuilder().setContent(ByteString.copyFrom(text, StandardCharsets.UTF_8)))
+                .build();
+    }
+}
@@ -0,0 +1,110 @@
+package org.receiptrecipe.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.receiptrecipe.backend.entity.IngredientExpiry;
+import org.receiptrecipe.backend.entity.Receipt;
+import org.receiptrecipe.backend.entity.ReceiptItem;
+import org.receiptrecipe.backend.entity.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PantryServiceTests {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 15);
+
+    private PantryService pantryService;
+    private ShelfLifeTable shelfLifeTable;
+    private IngredientClassifier classifier;
+    private SimpleMeterRegistry meterRegistry;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        classifier = TestIngredientClassifiers.create("", meterRegistry);
+
+        shelfLifeTable = new ShelfLifeTable();
+        ReflectionTestUtils.setField(shelfLifeTable, "defaultDays", 7);
+        shelfLifeTable.init();
+
+        pantryService = new PantryService();
+        ReflectionTestUtils.setField(pantryService, "shelfLifeTable", shelfLifeTable);
+
+        user = new User("tester", "tester@example.com", "password");
+        user.setId(1L);
+    }
+
+    @Test
+    void shelfLifePrefersIngredientNameThenCategoryThenDefault() throws IOException {
+        assertEquals(30, shelfLifeTable.daysFor("양파", "채소"));
+        assertEquals(7, shelfLifeTable.daysFor("오이", "채소"));
+        assertEquals(2, shelfLifeTable.daysFor("고등어", "수산물"));
+        assertEquals(7, shelfLifeTable.daysFor("모르는재료", null));
+        assertThrows(IOException.class, () -> ShelfLifeTable.parse(new StringReader("채소,일주일\n")));
+    }
+
+    @Test
+    void buildsOneEntryPerCanonicalIngredientWithEstimatedExpiry() {
+        Receipt receipt = receipt(TODAY.minusDays(1),
+                item("햇양파 1.5kg", 1), item("적양파", 2), item("서울우유 1L", 1), item("종량제봉투 20L", 1));
+
+        List<IngredientExpiry> entries = pantryService.entriesFor(receipt, TODAY);
+
+        assertEquals(2, entries.size());
+        IngredientExpiry onion = entries.get(0);
+        assertEquals("양파", onion.getIngredientName());
+        assertEquals(3.0, onion.getQuantity());
+        assertEquals(TODAY.minusDays(1), onion.getPurchaseDate());
+        assertEquals(TODAY.minusDays(1).plusDays(30), onion.getExpiryDate());
+        assertEquals(user, onion.getUser());
+        assertEquals(receipt.getId(), onion.getReceiptId());
+        assertEquals("우유", entries.get(1).getIngredientName());
+        assertEquals(TODAY.minusDays(1).plusDays(10), entries.get(1).getExpiryDate());
+        // 영수증 저장 때 한 번만 분류
+        assertEquals(4.0, meterRegistry.get("ingredient.classify").counters().stream().mapToDouble(Counter::count).sum());
+    }
+
+    @Test
+    void skipsIngredientsAlreadyPastTheirShelfLife() {
+        // 한 달 전 영수증: 고등어(2일)는 이미 지났고 양파(30일)는 오늘까지
+        Receipt receipt = receipt(TODAY.minusDays(30), item("고등어", 1), item("양파", 1));
+
+        List<IngredientExpiry> entries = pantryService.entriesFor(receipt, TODAY);
+
+        assertEquals(1, entries.size());
+        assertEquals("양파", entries.get(0).getIngredientName());
+        assertTrue(pantryService.entriesFor(new Receipt(), TODAY).isEmpty());
+    }
+
+    private Receipt receipt(LocalDate purchaseDate, ReceiptItem... items) {
+        Receipt receipt = new Receipt();
+        receipt.setId(7L);
+        receipt.setUser(user);
+        receipt.setPurchaseDate(purchaseDate.atStartOfDay());
+        List<ReceiptItem> list = new ArrayList<>();
+        for (ReceiptItem item : items) {
+            classifier.apply(item);
+            item.setReceipt(receipt);
+            list.add(item);
+        }
+        receipt.setItems(list);
+        return receipt;
+    }
+
+    private static ReceiptItem item(String name, int quantity) {
+        return new ReceiptItem(name, quantity, BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+}
@@ -0,0 +1,96 @@
+package org.receiptrecipe.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrefixTrieTests {
+
+    @Test
+    void completesByWeightAndFollowsWeightChanges() {
+        PrefixTrie trie = new PrefixTrie(3);
+        trie.add("김치찌개", 10);
+        trie.add("김치볶음밥", 5);
+        trie.add("김치전", 7);
+        trie.add("김밥", 3);
+        trie.add("된장찌개", 8);
+
+        assertEquals(List.of("김치찌개", "김치전", "김치볶음밥"), texts(trie.complete("김치", 10)));
+        // topK(3)개까지만 보관
+        assertEquals(List.of("김치찌개", "김치전", "김치볶음밥"), texts(trie.complete("김", 10)));
+        assertEquals(List.of("김치찌개"), texts(trie.complete("김", 1)));
+
+        // 가중치가 내려가면 목록 밖에 있던 "김밥"이 들어온다
+        trie.add("김치찌개", -10);
+        assertEquals(List.of("김치전", "김치볶음밥", "김밥"), texts(trie.complete("김", 10)));
+        assertEquals(4, trie.size());
+
+        trie.add("김밥", 20);
+        assertEquals("김밥", trie.complete("김", 10).get(0).getText());
+        assertEquals(23, trie.complete("김", 10).get(0).getWeight());
+        assertTrue(trie.complete("라면", 10).isEmpty());
+    }
+
+    @Test
+    void normalizesCaseAndWhitespaceButKeepsOriginalText() {
+        PrefixTrie trie = new PrefixTrie(5);
+        trie.add("  Emart  24 ", 2);
+        trie.add("emart 24", 1);
+
+        assertEquals(1, trie.size());
+        assertEquals(3, trie.weight("EMART 24"));
+        assertEquals(List.of("Emart  24"), texts(trie.complete("EM", 5)));
+        assertEquals(List.of("Emart  24"), texts(trie.complete("emart   2", 5)));
+    }
+
+    @Test
+    void matchesBruteForceAfterRandomUpdates() {
+        Random random = new Random(11);
+        String syllables = "김치찌개된장볶음밥전국수라면";
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            StringBuilder word = new StringBuilder();
+            for (int k = 0; k < 1 + random.nextInt(5); k++) {
+                word.append(syllables.charAt(random.nextInt(syllables.length())));
+            }
+            words.add(word.toString());
+        }
+
+        PrefixTrie trie = new PrefixTrie(5);
+        Map<String, Long> expected = new HashMap<>();
+        for (int step = 0; step < 5000; step++) {
+            String word = words.get(random.nextInt(words.size()));
+            long delta = random.nextInt(4) == 0 ? -random.nextInt(5) : 1 + random.nextInt(5);
+            trie.add(word, delta);
+            if (expected.containsKey(word) || delta > 0) {
+                expected.put(word, Math.max(0, expected.getOrDefault(word, 0L) + delta));
+            }
+        }
+
+        for (int i = 0; i < syllables.length(); i++) {
+            for (int j = 0; j < syllables.length(); j++) {
+                String prefix = "" + syllables.charAt(i) + syllables.charAt(j);
+                List<String> brute = expected.entrySet().stream()
+                        .filter(e -> e.getValue() > 0 && e.getKey().startsWith(prefix))
+                        .sorted(Comparator.<Map.Entry<String, Long>>comparingLong(Map.Entry::getValue).reversed()
+                                .thenComparing(Map.Entry::getKey))
+                        .limit(5)
+                        .map(Map.Entry::getKey)
+                        .toList();
+                assertEquals(brute, texts(trie.complete(prefix, 5)), prefix);
+            }
+        }
+    }
+
+    private static List<String> texts(List<PrefixTrie.Completion> completions) {
+        return completions.stream().map(PrefixTrie.Completion::getText).toList();
+    }
+}
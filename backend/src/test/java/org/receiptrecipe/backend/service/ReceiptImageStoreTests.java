@@ -0,0 +1,46 @@
+package org.receiptrecipe.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReceiptImageStoreTests {
+
+    private static final String HASH = "ab".repeat(32);
+
+    @Test
+    void keepsOnlyAsciiAlphanumericExtensions() {
+        assertEquals(".jpg", ReceiptImageStore.fileExtensionOf("receipt.JPG"));
+        assertEquals(".png", ReceiptImageStore.fileExtensionOf("영수증.사진.png"));
+        assertEquals("", ReceiptImageStore.fileExtensionOf("영수증.사진"));
+        assertEquals("", ReceiptImageStore.fileExtensionOf("photo.ｊｐｇ"));
+        assertEquals("", ReceiptImageStore.fileExtensionOf("photo.jpg/../x"));
+        assertEquals("", ReceiptImageStore.fileExtensionOf("photo."));
+        assertEquals("", ReceiptImageStore.fileExtensionOf("photo"));
+        assertEquals("", ReceiptImageStore.fileExtensionOf(null));
+        // 어떤 파일명이든 만들어진 키는 저장 경로로 쓸 수 있어야 한다
+        ReceiptImageStore.shardedPath(HASH + ReceiptImageStore.fileExtensionOf("영수증.사진"));
+    }
+
+    @Test
+    void shardsContentKeysAndRejectsPathTraversal() {
+        assertEquals("ab/ab/" + HASH + ".jpg", ReceiptImageStore.shardedPath(HASH + ".jpg"));
+        assertEquals("ab/ab/" + HASH + "-thumb.jpg", ReceiptImageStore.shardedPath(HASH + "-thumb.jpg"));
+        assertEquals("1700000000000_abc.jpg", ReceiptImageStore.shardedPath("1700000000000_abc.jpg"));
+        assertThrows(IllegalArgumentException.class, () -> ReceiptImageStore.shardedPath("../" + HASH + ".jpg"));
+        assertThrows(IllegalArgumentException.class, () -> ReceiptImageStore.shardedPath(".."));
+        assertThrows(IllegalArgumentException.class, () -> ReceiptImageStore.shardedPath("a\\..\\b.jpg"));
+        assertThrows(IllegalArgumentException.class, () -> ReceiptImageStore.shardedPath(""));
+    }
+
+    @Test
+    void keepsLegacyKeysOnTheFlatPath() {
+        // 예전 업로드는 원본 확장자를 그대로 붙였으므로 길거나 영숫자가 아닌 확장자도 그대로 둔다
+        assertEquals("1700000000000_abc.jpeg_backup", ReceiptImageStore.shardedPath("1700000000000_abc.jpeg_backup"));
+        assertEquals("1700000000000_abc.사진", ReceiptImageStore.shardedPath("1700000000000_abc.사진"));
+        assertEquals("1700000000000_abc.tar.gz", ReceiptImageStore.shardedPath("1700000000000_abc.tar.gz"));
+        assertEquals("1700000000000_abc. 1.jpg", ReceiptImageStore.shardedPath("1700000000000_abc. 1.jpg"));
+        assertEquals(HASH + ".사진", ReceiptImageStore.shardedPath(HASH + ".사진"));
+    }
+}
@@ -0,0 +1,82 @@
+package org.receiptrecipe.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.receiptrecipe.backend.entity.Receipt;
+import org.receiptrecipe.backend.entity.ReceiptItem;
+import org.receiptrecipe.backend.entity.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReceiptSearchIndexTests {
+
+    private ReceiptSearchIndex index;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        index = new ReceiptSearchIndex();
+        ReflectionTestUtils.setField(index, "meterRegistry", new SimpleMeterRegistry());
+        index.init();
+        user = new User("tester", "tester@example.com", "password");
+        user.setId(1L);
+    }
+
+    @Test
+    void tokenizesHangulIntoBigramsAndWordsOtherwise() {
+        assertEquals(List.of("김치", "치찌", "찌개", "500g"), ReceiptSearchIndex.tokenize("김치찌개 500g"));
+        assertEquals(List.of("밥", "cj"), ReceiptSearchIndex.tokenize("밥 CJ x"));
+        assertTrue(ReceiptSearchIndex.tokenize("  - 1 ").isEmpty());
+        // 색인 쪽은 한글 1글자도 함께
+        assertEquals(List.of("김밥", "김", "밥"), ReceiptSearchIndex.indexTerms("김밥"));
+    }
+
+    @Test
+    void findsSingleSyllableQueryInsideLongerWords() {
+        index.index(receipt(1L, "김밥천국", "김밥 1 3,500"));
+        index.index(receipt(2L, "중화반점", "볶음밥 1 8,000"));
+        index.index(receipt(3L, "이마트", "우유 1 2,800"));
+
+        assertEquals(List.of(1L, 2L), ids(index.search(1L, "밥", 10)).stream().sorted().toList());
+    }
+
+    @Test
+    void ranksByBm25WithStoreNameWeightAndRespectsRemoval() {
+        index.index(receipt(1L, "이마트", "양파 1 2,000\n우유 1 2,800"));
+        index.index(receipt(2L, "동네마트", "양파 1 1,500"));
+        index.index(receipt(3L, "양파가게", "대파 1 3,000"));
+
+        // 매장명 일치는 본문보다 가중치가 높고, 같은 빈도면 짧은 영수증이 앞선다
+        List<Long> hits = ids(index.search(1L, "양파", 10));
+        assertEquals(3, hits.size());
+        assertEquals(3L, hits.get(0));
+        assertEquals(2L, hits.get(1));
+
+        // 다른 사용자의 영수증은 검색되지 않는다
+        assertTrue(index.search(2L, "양파", 10).isEmpty());
+
+        index.remove(3L);
+        assertEquals(List.of(2L, 1L), ids(index.search(1L, "양파", 10)));
+        assertEquals(2, index.documentCount());
+    }
+
+    private Receipt receipt(Long id, String storeName, String ocrText) {
+        Receipt receipt = new Receipt();
+        receipt.setId(id);
+        receipt.setUser(user);
+        receipt.setStoreName(storeName);
+        receipt.setRawOcrText(ocrText);
+        receipt.setItems(new ArrayList<ReceiptItem>());
+        return receipt;
+    }
+
+    private static List<Long> ids(List<ReceiptSearchIndex.Hit> hits) {
+        return hits.stream().map(ReceiptSearchIndex.Hit::getReceiptId).toList();
+    }
+}
@@ -0,0 +1,137 @@
+package org.receiptrecipe.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.receiptrecipe.backend.dto.OcrResult;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReceiptTemplateRegistryTests {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReceiptTemplateRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        registry = new ReceiptTemplateRegistry();
+        ReflectionTestUtils.setField(registry, "templates", List.of(new EmartReceiptTemplate(),
+                new HomeplusReceiptTemplate(), new Gs25ReceiptTemplate(), new CuReceiptTemplate()));
+        ReflectionTestUtils.setField(registry, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(registry, "enabled", true);
+        ReflectionTestUtils.setField(registry, "minConfidence", 0.98);
+        registry.init();
+    }
+
+    @Test
+    void parsesEachStoreWithItsTemplate() throws IOException {
+        OcrResult.ProcessedData emart = registry.parse(fixture("emart.txt")).orElseThrow();
+        assertEquals("이마트 성수점", emart.getStoreName());
+        assertEquals("2024-03-15", emart.getPurchaseDate());
+        assertEquals(new BigDecimal("9830"), emart.getTotalAmount());
+        assertEquals(List.of("양파(망)", "국산콩두부", "서울우유 1L"), names(emart));
+        assertEquals(2, emart.getItems().get(1).getQuantity());
+        assertEquals(new BigDecimal("1500"), emart.getItems().get(1).getUnitPrice());
+
+        OcrResult.ProcessedData homeplus = registry.parse(fixture("homeplus.txt")).orElseThrow();
+        assertEquals("2024-03-18", homeplus.getPurchaseDate());
+        assertEquals(List.of("국산콩두부", "대파"), names(homeplus));
+
+        OcrResult.ProcessedData gs25 = registry.parse(fixture("gs25.txt")).orElseThrow();
+        assertEquals(List.of("신라면", "제주삼다수 2L"), names(gs25));
+        // 단가가 없는 양식은 금액 / 수량
+        assertEquals(new BigDecimal("1100"), gs25.getItems().get(0).getUnitPrice());
+
+        OcrResult.ProcessedData cu = registry.parse(fixture("cu.txt")).orElseThrow();
+        assertEquals("CU 신촌점", cu.getStoreName());
+        assertEquals(new BigDecimal("4100"), cu.getTotalAmount());
+
+        for (String template : List.of("emart", "homeplus", "gs25", "cu")) {
+            assertEquals(1.0, count(template, "accepted"), template);
+            assertEquals(1.0, acceptedRatio(template), template);
+        }
+    }
+
+    @Test
+    void rejectsWhenItemsDoNotAddUpToTotal() throws IOException {
+        // OCR이 금액을 잘못 읽어 상품 한 줄이 빠지면 합계가 맞지 않아 Gemini로 넘긴다
+        assertTrue(registry.parse(fixture("emart-missing-line.txt")).isEmpty());
+        assertEquals(1.0, count("emart", "rejected"));
+
+        registry.parse(fixture("emart.txt"));
+        assertEquals(0.5, acceptedRatio("emart"));
+    }
+
+    @Test
+    void leavesUnknownStoresToGemini() throws IOException {
+        assertTrue(registry.parse(fixture("local-market.txt")).isEmpty());
+        assertEquals(1.0, count("none", "unmatched"));
+        assertTrue(registry.parse("").isEmpty());
+    }
+
+    @Test
+    void acceptsOnlyFromMinConfidence() {
+        // 상품 합계 9,830원 기준
+        assertEquals(1.0, ReceiptTemplateRegistry.confidenceOf(data("9830")));
+        assertTrue(ReceiptTemplateRegistry.confidenceOf(data("9900")) >= 0.98);
+        assertTrue(ReceiptTemplateRegistry.confidenceOf(data("10100")) < 0.98);
+        assertEquals(0.0, ReceiptTemplateRegistry.confidenceOf(data("0")));
+
+        // 합계가 2% 안쪽으로 어긋나면 채택, 그 밖이면 거절
+        assertTrue(registry.parse(fixture(9900)).isPresent());
+        assertEquals(Optional.empty(), registry.parse(fixture(10100)));
+    }
+
+    private static OcrResult.ProcessedData data(String total) {
+        OcrResult.ProcessedData data = new OcrResult.ProcessedData();
+        data.setTotalAmount(new BigDecimal(total));
+        data.setItems(List.of(item("3980"), item("3000"), item("2850")));
+        return data;
+    }
+
+    private static OcrResult.Item item(String totalPrice) {
+        OcrResult.Item item = new OcrResult.Item();
+        item.setTotalPrice(new BigDecimal(totalPrice));
+        return item;
+    }
+
+    // emart.txt에서 합계 금액만 바꾼 영수증
+    private static String fixture(int total) {
+        try {
+            return fixture("emart.txt").replace("합계 9,830", String.format("합계 %,d", total));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String fixture(String name) throws IOException {
+        try (InputStream in = ReceiptTemplateRegistryTests.class.getResourceAsStream("/receipts/" + name)) {
+            if (in == null) {
+                throw new IOException("테스트 영수증 없음: " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private double count(String template, String result) {
+        return meterRegistry.get("receipt.template.parses").tag("template", template).tag("result", result).counter().count();
+    }
+
+    private double acceptedRatio(String template) {
+        return meterRegistry.get("receipt.parse.accepted.ratio").tag("template", template).gauge().value();
+    }
+
+    private static List<String> names(OcrResult.ProcessedData data) {
+        return data.getItems().stream().map(OcrResult.Item::getItemName).toList();
+    }
+}
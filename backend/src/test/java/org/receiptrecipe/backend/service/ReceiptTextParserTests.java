@@ -0,0 +1,156 @@
+package org.receiptrecipe.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 단일 패스 ReceiptTextParser가 교체 전 정규식 파서와 같은 결과를 내는지 OCR 예제로 비교한다.
+ * 의도한 차이는 구매일 하나뿐이다 (예전에는 항상 오늘, 지금은 본문의 yyyy-MM-dd가 있으면 그 날짜).
+ */
+class ReceiptTextParserTests {
+
+    private static final Pattern ISO_DATE = Pattern.compile("\\d{4}-\\d{2}-\\d{2}");
+
+    private final ReceiptTextParser parser = new ReceiptTextParser();
+
+    @ParameterizedTest
+    @ValueSource(strings = {"neighborhood-mart.txt", "cafe.txt", "noisy-ocr.txt", "date-first.txt", "local-market.txt",
+            "emart.txt", "emart-missing-line.txt", "homeplus.txt", "gs25.txt", "cu.txt"})
+    void matchesLegacyParser(String fixture) throws IOException {
+        String text = fixture(fixture);
+
+        Map<String, Object> expected = LegacyParser.parse(text);
+        Matcher date = ISO_DATE.matcher(text);
+        expected.put("purchaseDate", date.find() ? date.group() : LocalDate.now().toString());
+
+        assertEquals(expected, ReceiptTextParser.toMap(parser.parse(text)));
+    }
+
+    @Test
+    void parsesNeighborhoodMartReceipt() throws IOException {
+        Map<String, Object> result = ReceiptTextParser.toMap(parser.parse(fixture("neighborhood-mart.txt")));
+
+        assertEquals("우리동네 마트", result.get("storeName"));
+        assertEquals("2024-04-02", result.get("purchaseDate"));
+        // 아래쪽 결제 금액 줄이 마지막으로 읽힌 합계
+        assertEquals(16200.0, result.get("totalAmount"));
+        List<String> names = new ArrayList<>();
+        for (Object item : (List<?>) result.get("items")) {
+            names.add((String) ((Map<?, ?>) item).get("name"));
+        }
+        assertEquals(List.of("양파 1망", "대파", "국산 두부", "계란 30구"), names);
+    }
+
+    static String fixture(String name) throws IOException {
+        try (InputStream in = ReceiptTextParserTests.class.getResourceAsStream("/receipts/" + name)) {
+            if (in == null) {
+                throw new IOException("테스트 영수증 없음: " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * 교체 전 GeminiService.parseReceiptTextBasic 구현 (비교용 사본)
+     */
+    static class LegacyParser {
+
+        static Map<String, Object> parse(String ocrText) {
+            Map<String, Object> result = new HashMap<>();
+            List<Map<String, Object>> items = new ArrayList<>();
+
+            result.put("storeName", "Unknown Store");
+            result.put("purchaseDate", java.time.LocalDate.now().toString());
+            result.put("totalAmount", 0.0);
+
+            String[] lines = ocrText.split("\n");
+            boolean foundStoreName = false;
+
+            for (String line : lines) {
+                line = line.trim();
+                if (line.isEmpty()) continue;
+
+                if (!foundStoreName && line.length() > 3 && line.length() < 50 &&
+                    !line.matches(".*\\d{4}-\\d{2}-\\d{2}.*") &&
+                    !line.matches(".*\\d+[,.]?\\d*원.*") &&
+                    !line.contains("영수증") && !line.contains("매장")) {
+                    result.put("storeName", line);
+                    foundStoreName = true;
+                    continue;
+                }
+
+                if (line.contains("총") || line.contains("합계") || line.contains("total") ||
+                    line.contains("총액") || line.contains("결제")) {
+                    String amountStr = line.replaceAll("[^\\d,.]", "");
+                    if (!amountStr.isEmpty()) {
+                        try {
+                            double amount = Double.parseDouble(amountStr.replace(",", ""));
+                            result.put("totalAmount", amount);
+                        } catch (NumberFormatException e) {
+                            // 무시
+                        }
+                    }
+                    continue;
+                }
+
+                if (line.matches(".*\\d+[,.]?\\d*원.*") && line.length() > 3) {
+                    String[] parts = line.split("\\s+");
+                    StringBuilder itemName = new StringBuilder();
+                    double price = 0.0;
+
+                    for (String part : parts) {
+                        if (part.matches(".*\\d+[,.]?\\d*원.*")) {
+                            String priceStr = part.replaceAll("[^\\d,.]", "");
+                            if (!priceStr.isEmpty()) {
+                                try {
+                                    price = Double.parseDouble(priceStr.replace(",", ""));
+                                } catch (NumberFormatException e) {
+                                    // 무시
+                                }
+                            }
+                        } else if (!part.isEmpty()) {
+                            if (itemName.length() > 0) itemName.append(" ");
+                            itemName.append(part);
+                        }
+                    }
+
+                    if (itemName.length() > 0 && price > 0) {
+                        Map<String, Object> item = new HashMap<>();
+                        item.put("name", itemName.toString());
+                        item.put("quantity", 1);
+                        item.put("unitPrice", price);
+                        item.put("totalPrice", price);
+                        items.add(item);
+                    }
+                } else if (line.length() > 2 && line.length() < 50 &&
+                          !line.matches(".*\\d{4}-\\d{2}-\\d{2}.*") &&
+                          !line.contains("영수증") && !line.contains("매장") &&
+                          !line.contains("주소") && !line.contains("전화")) {
+                    Map<String, Object> item = new HashMap<>();
+                    item.put("name", line);
+                    item.put("quantity", 1);
+                    item.put("unitPrice", 0.0);
+                    item.put("totalPrice", 0.0);
+                    items.add(item);
+                }
+            }
+
+            result.put("items", items);
+            return result;
+        }
+    }
+}
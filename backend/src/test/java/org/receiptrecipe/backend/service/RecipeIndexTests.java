@@ -0,0 +1,144 @@
+package org.receiptrecipe.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecipeIndexTests {
+
+    @Test
+    void rebuildReplacesStaleEntriesWithCurrentKeys() {
+        InMemoryIndex index = new InMemoryIndex();
+        index.rows.put(1L, "햇양파");
+        index.rows.put(2L, "대파");
+        index.put(Map.entry(1L, "예전 값"));
+        index.put(Map.entry(3L, "이미 삭제된 레시피"));
+
+        // 키 계산 방식(재료 사전)이 바뀌어도 다시 만들면 모든 레시피가 새 키로
+        index.key = name -> name.replace("햇", "");
+        index.rebuild();
+
+        assertTrue(index.isReady());
+        assertEquals(Map.of(1L, "양파", 2L, "대파"), index.snapshot());
+    }
+
+    @Test
+    void changesDuringRebuildAreReappliedAfterSwap() {
+        InMemoryIndex index = new InMemoryIndex();
+        index.rows.put(1L, "김치찌개");
+        index.rows.put(2L, "된장찌개");
+        // 첫 배치를 읽은 직후 저장/삭제가 커밋됨 (기존 색인에 반영되고 새 색인에는 없는 상태)
+        index.duringBuild = () -> {
+            index.rows.put(1L, "김치볶음밥");
+            index.rows.remove(2L);
+            index.rows.put(4L, "계란말이");
+            index.onRecipesChanged(RecipesChangedEvent.saved(List.of(1L, 4L)));
+            index.onRecipesChanged(RecipesChangedEvent.deleted(List.of(2L)));
+        };
+
+        index.rebuild();
+
+        assertEquals(Map.of(1L, "김치볶음밥", 4L, "계란말이"), index.snapshot());
+    }
+
+    @Test
+    void failedBuildLeavesIndexUsableAndNextRebuildRecovers() {
+        InMemoryIndex index = new InMemoryIndex();
+        index.rows.put(1L, "김치찌개");
+        index.duringBuild = () -> {
+            throw new IllegalStateException("DB 연결 실패");
+        };
+        index.rebuild();
+        assertFalse(index.isReady());
+
+        // 실패한 동안 들어온 변경은 그대로 반영되고, 다음 재구축에서 DB와 맞춰진다
+        index.put(Map.entry(2L, "된장찌개"));
+        assertEquals(Map.of(2L, "된장찌개"), index.snapshot());
+        index.rebuild();
+        assertTrue(index.isReady());
+        assertEquals(Map.of(1L, "김치찌개"), index.snapshot());
+    }
+
+    // DB 대신 TreeMap에서 읽는 색인 (상태는 레시피 id -> 키)
+    private static final class InMemoryIndex extends RecipeIndex<Map<Long, String>, Map.Entry<Long, String>> {
+
+        private final TreeMap<Long, String> rows = new TreeMap<>();
+        private UnaryOperator<String> key = UnaryOperator.identity();
+        private Runnable duringBuild;
+
+        private InMemoryIndex() {
+            initState();
+        }
+
+        private Map<Long, String> snapshot() {
+            lock.readLock().lock();
+            try {
+                return new HashMap<>(state);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        protected String indexName() {
+            return "테스트 색인";
+        }
+
+        @Override
+        protected Map<Long, String> newState() {
+            return new HashMap<>();
+        }
+
+        @Override
+        protected List<Map.Entry<Long, String>> loadAfter(long lastId, int limit) {
+            List<Map.Entry<Long, String>> documents = new ArrayList<>();
+            for (Map.Entry<Long, String> row : rows.tailMap(lastId, false).entrySet()) {
+                if (documents.size() == limit) {
+                    break;
+                }
+                documents.add(Map.entry(row.getKey(), key.apply(row.getValue())));
+            }
+            if (duringBuild != null) {
+                Runnable change = duringBuild;
+                duringBuild = null;
+                change.run();
+            }
+            return documents;
+        }
+
+        @Override
+        protected List<Map.Entry<Long, String>> load(List<Long> recipeIds) {
+            List<Map.Entry<Long, String>> documents = new ArrayList<>();
+            for (Long recipeId : recipeIds) {
+                if (rows.containsKey(recipeId)) {
+                    documents.add(Map.entry(recipeId, key.apply(rows.get(recipeId))));
+                }
+            }
+            return documents;
+        }
+
+        @Override
+        protected Long documentId(Map.Entry<Long, String> document) {
+            return document.getKey();
+        }
+
+        @Override
+        protected void addTo(Map<Long, String> state, Map.Entry<Long, String> document) {
+            state.put(document.getKey(), document.getValue());
+        }
+
+        @Override
+        protected void removeFrom(Map<Long, String> state, Long recipeId) {
+            state.remove(recipeId);
+        }
+    }
+}
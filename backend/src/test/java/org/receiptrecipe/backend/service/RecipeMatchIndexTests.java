@@ -0,0 +1,75 @@
+package org.receiptrecipe.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecipeMatchIndexTests {
+
+    private RecipeMatchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        IngredientClassifier classifier = TestIngredientClassifiers.bundled();
+
+        index = new RecipeMatchIndex();
+        ReflectionTestUtils.setField(index, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(index, "ingredientClassifier", classifier);
+        ReflectionTestUtils.setField(index, "missingPenalty", 0.05);
+        ReflectionTestUtils.setField(index, "urgencyWeight", 0.3);
+        index.init();
+    }
+
+    @Test
+    void ranksByCoverageAndListsMissingIngredients() {
+        index.index(1L, "김치찌개", List.of("김치", "돼지고기", "두부", "대파"));
+        index.index(2L, "양파볶음", List.of("양파", "대파"));
+        index.index(3L, "계란말이", List.of("계란", "대파", "당근"));
+        index.index(4L, "재료 없는 레시피", List.of());
+
+        List<RecipeMatchIndex.Match> matches = index.match(Map.of("양파", 30L, "대파", 30L, "계란", 30L), 10);
+
+        assertEquals(List.of(2L, 3L, 1L), matches.stream().map(RecipeMatchIndex.Match::getRecipeId).toList());
+        assertEquals(1.0, matches.get(0).getCoverage());
+        assertEquals(List.of("당근"), matches.get(1).getMissingIngredients());
+        assertEquals(3, matches.get(2).getMissingIngredients().size());
+        assertEquals(3, index.recipeCount());
+    }
+
+    @Test
+    void prefersRecipesUsingIngredientsThatExpireSoon() {
+        index.index(1L, "두부조림", List.of("두부", "대파"));
+        index.index(2L, "양파볶음", List.of("양파", "대파"));
+
+        // 가진 재료 수가 같으면 유통기한이 임박한 재료를 쓰는 레시피가 먼저
+        List<RecipeMatchIndex.Match> matches = index.match(Map.of("두부", 0L, "양파", 10L), 10);
+        assertEquals(List.of(1L, 2L), matches.stream().map(RecipeMatchIndex.Match::getRecipeId).toList());
+
+        assertEquals(1, index.match(Map.of("두부", 0L, "양파", 10L), 1).size());
+    }
+
+    @Test
+    void canonicalizesNamesAndAppliesUpdatesAndRemovals() {
+        // 레시피 재료 이름도 사전의 대표 이름으로 맞춘다 (햇양파 → 양파)
+        index.index(1L, "양파볶음", List.of("햇양파", "대파"));
+        assertEquals(1, index.match(Map.of("양파", 3L), 10).size());
+
+        index.index(1L, "감자볶음", List.of("감자"));
+        assertTrue(index.match(Map.of("양파", 3L), 10).isEmpty());
+        assertEquals("감자볶음", index.match(Map.of("감자", 3L), 10).get(0).getRecipeName());
+
+        index.remove(1L);
+        assertTrue(index.match(Map.of("감자", 3L), 10).isEmpty());
+        // 비운 칸은 다음 레시피가 재사용
+        index.index(2L, "감자조림", List.of("감자"));
+        assertEquals(2L, index.match(Map.of("감자", 3L), 10).get(0).getRecipeId());
+        assertEquals(1, index.recipeCount());
+    }
+}
@@ -0,0 +1,176 @@
+package org.receiptrecipe.backend.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.receiptrecipe.backend.entity.Recipe;
+import org.receiptrecipe.backend.entity.RecipeRating;
+import org.receiptrecipe.backend.entity.User;
+import org.receiptrecipe.backend.repository.RecipeRatingRepository;
+import org.receiptrecipe.backend.repository.RecipeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 평점 집계 컬럼의 JPQL UPDATE와 정합성 검사를 H2(MySQL 모드)에서 확인한다 (테스트마다 롤백)
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.datasource.url=jdbc:h2:mem:ratings;MODE=MySQL",
+        "spring.datasource.driver-class-name=org.h2.Driver"
+})
+@Import({RecipeRatingAggregator.class, RecipeRatingAggregatorTests.Config.class})
+class RecipeRatingAggregatorTests {
+
+    private static final double PRIOR_WEIGHT = 5;
+    private static final double PRIOR_MEAN = 3.5;
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private RecipeRatingRepository ratingRepository;
+
+    @Autowired
+    private RecipeRatingAggregator aggregator;
+
+    private Recipe recipe;
+    private User alice;
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        alice = new User("alice", "alice@example.com", "password");
+        bob = new User("bob", "bob@example.com", "password");
+        entityManager.persist(alice);
+        entityManager.persist(bob);
+        recipe = recipeRepository.save(new Recipe("김치찌개", "설명", "조리법"));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void appliesAddUpdateAndDeleteDeltas() {
+        rate(alice, 5);
+        RecipeRating bobRating = rate(bob, 2);
+
+        Recipe loaded = reload();
+        assertEquals(2, loaded.getRatingCount());
+        assertEquals(7, loaded.getRatingSum());
+        assertArrayEquals(new int[] {0, 1, 0, 0, 1}, loaded.getRatingHistogram());
+        assertEquals(3.5, loaded.getAverageRating());
+        assertEquals(score(2, 7), loaded.getRatingScore(), 1e-9);
+
+        // 2점 -> 3점
+        bobRating = entityManager.find(RecipeRating.class, bobRating.getId());
+        bobRating.setRating(3);
+        aggregator.ratingChanged(recipe.getId(), 2, 3);
+        loaded = reload();
+        assertEquals(2, loaded.getRatingCount());
+        assertEquals(8, loaded.getRatingSum());
+        assertArrayEquals(new int[] {0, 0, 1, 0, 1}, loaded.getRatingHistogram());
+        assertEquals(score(2, 8), loaded.getRatingScore(), 1e-9);
+
+        ratingRepository.deleteById(bobRating.getId());
+        aggregator.ratingChanged(recipe.getId(), 3, null);
+        loaded = reload();
+        assertEquals(1, loaded.getRatingCount());
+        assertEquals(5, loaded.getRatingSum());
+        assertArrayEquals(new int[] {0, 0, 0, 0, 1}, loaded.getRatingHistogram());
+        assertEquals(0, aggregator.reconcile());
+    }
+
+    @Test
+    void returnsToNullAfterLastRatingIsRemoved() {
+        RecipeRating rating = rate(alice, 4);
+        ratingRepository.deleteById(rating.getId());
+        aggregator.ratingChanged(recipe.getId(), 4, null);
+
+        Recipe loaded = reload();
+        assertEquals(0, loaded.getRatingCount());
+        assertEquals(0, loaded.getRatingSum());
+        assertArrayEquals(new int[5], loaded.getRatingHistogram());
+        assertNull(loaded.getAverageRating());
+        assertNull(loaded.getRatingScore());
+    }
+
+    @Test
+    void entitySaveLeavesAggregateColumnsUntouched() {
+        rate(alice, 5);
+
+        Recipe loaded = reload();
+        loaded.setName("돼지고기 김치찌개");
+        recipeRepository.save(loaded);
+        loaded = reload();
+
+        assertEquals("돼지고기 김치찌개", loaded.getName());
+        assertEquals(1, loaded.getRatingCount());
+        assertEquals(5, loaded.getRatingSum());
+        assertEquals(score(1, 5), loaded.getRatingScore(), 1e-9);
+    }
+
+    @Test
+    void reconcileRepairsDriftedRows() {
+        rate(alice, 5);
+        rate(bob, 3);
+        Recipe unrated = recipeRepository.save(new Recipe("된장찌개", "설명", "조리법"));
+        entityManager.flush();
+        assertEquals(0, aggregator.reconcile());
+
+        // 직접 SQL로 고친 것처럼 집계를 어긋나게 만든다
+        recipeRepository.updateRatingAggregates(recipe.getId(), 9, 9, 9, 0, 0, 0, 0, 1.0);
+        recipeRepository.updateRatingAggregates(unrated.getId(), 1, 4, 0, 0, 0, 1, 0, 4.0);
+        entityManager.clear();
+
+        assertEquals(2, aggregator.reconcile());
+        Recipe loaded = reload();
+        assertEquals(2, loaded.getRatingCount());
+        assertEquals(8, loaded.getRatingSum());
+        assertArrayEquals(new int[] {0, 0, 1, 0, 1}, loaded.getRatingHistogram());
+        assertEquals(score(2, 8), loaded.getRatingScore(), 1e-9);
+
+        Recipe repairedUnrated = recipeRepository.findById(unrated.getId()).orElseThrow();
+        assertEquals(0, repairedUnrated.getRatingCount());
+        assertNull(repairedUnrated.getRatingScore());
+        assertEquals(0, aggregator.reconcile());
+    }
+
+    private RecipeRating rate(User user, int rating) {
+        RecipeRating saved = ratingRepository.save(new RecipeRating(
+                entityManager.find(Recipe.class, recipe.getId()), entityManager.find(User.class, user.getId()), rating));
+        aggregator.ratingChanged(recipe.getId(), null, rating);
+        return saved;
+    }
+
+    // 벌크 UPDATE는 영속성 컨텍스트를 거치지 않으므로 비우고 다시 읽는다
+    private Recipe reload() {
+        entityManager.flush();
+        entityManager.clear();
+        return recipeRepository.findById(recipe.getId()).orElseThrow();
+    }
+
+    private static double score(long count, long sum) {
+        return RecipeRatingAggregator.bayesianScore(count, sum, PRIOR_WEIGHT, PRIOR_MEAN);
+    }
+}
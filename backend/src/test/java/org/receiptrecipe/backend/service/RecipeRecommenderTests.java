@@ -0,0 +1,115 @@
+package org.receiptrecipe.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecipeRecommenderTests {
+
+    private RecipeRecommender recommender;
+
+    @BeforeEach
+    void setUp() {
+        recommender = recommender(3);
+    }
+
+    @Test
+    void weightsRatingsAndFavorites() {
+        assertEquals(0f, RecipeRecommender.weight(2, false));
+        assertEquals(1f / 3, RecipeRecommender.weight(3, false), 1e-6);
+        assertEquals(1f, RecipeRecommender.weight(5, false));
+        assertEquals(1f, RecipeRecommender.weight(null, true));
+        assertEquals(1f, RecipeRecommender.weight(1, true));
+    }
+
+    @Test
+    void recommendsRecipesLikedTogetherExcludingSeenOnes() {
+        Map<Long, Map<Long, Float>> profiles = new HashMap<>();
+        // 사용자 1~3은 1,2번을 함께 좋아하고, 사용자 4는 1,3번
+        for (long user = 1; user <= 3; user++) {
+            profiles.put(user, new HashMap<>(Map.of(1L, 1f, 2L, 1f)));
+        }
+        profiles.put(4L, new HashMap<>(Map.of(1L, 1f, 3L, 1f)));
+        profiles.put(5L, new HashMap<>(Map.of(1L, 1f)));
+        recommender.rebuildFrom(profiles);
+
+        assertEquals(List.of(2L, 3L), ids(recommender.neighbors(1L, 10)));
+        assertEquals(List.of(2L, 3L), ids(recommender.recommend(5L, 10)));
+        // 이미 본 레시피는 추천하지 않음
+        assertEquals(List.of(3L), ids(recommender.recommend(1L, 10)));
+        assertTrue(recommender.recommend(99L, 10).isEmpty());
+    }
+
+    @Test
+    void incrementalUpdatesKeepNeighborListsSymmetric() {
+        Map<Long, Map<Long, Float>> profiles = new HashMap<>();
+        profiles.put(1L, new HashMap<>(Map.of(1L, 1f, 2L, 1f)));
+        recommender.rebuildFrom(profiles);
+        assertEquals(List.of(2L), ids(recommender.neighbors(1L, 10)));
+
+        // 새 평점: 사용자 2가 1,3번을 좋아함 -> 3번의 이웃과 1번의 목록에 함께 반영
+        recommender.apply(2L, 1L, 1f);
+        recommender.apply(2L, 3L, 1f);
+        assertEquals(List.of(1L), ids(recommender.neighbors(3L, 10)));
+        assertTrue(ids(recommender.neighbors(1L, 10)).contains(3L));
+
+        // 평점 삭제(가중치 0) -> 상대 목록에서도 빠짐
+        recommender.apply(2L, 3L, 0f);
+        assertTrue(recommender.neighbors(3L, 10).isEmpty());
+        assertFalse(ids(recommender.neighbors(1L, 10)).contains(3L));
+
+        recommender.removeRecipe(2L);
+        assertTrue(recommender.neighbors(1L, 10).isEmpty());
+    }
+
+    @Test
+    void parallelBuildMatchesIncrementalComputation() {
+        Random random = new Random(42);
+        Map<Long, Map<Long, Float>> profiles = new HashMap<>();
+        for (long user = 1; user <= 200; user++) {
+            Map<Long, Float> profile = new HashMap<>();
+            for (int k = 0; k < 8; k++) {
+                profile.put(1L + random.nextInt(300), RecipeRecommender.weight(3 + random.nextInt(3), false));
+            }
+            profiles.put(user, profile);
+        }
+        recommender.rebuildFrom(profiles);
+
+        // 같은 데이터를 한 건씩 넣은 모델과 이웃 목록 1순위가 같아야 함
+        // (한 건씩 넣는 동안 상대 목록에 넣은 점수는 근사값이므로, 모두 넣은 뒤 한 번 더 적용해 모든 레시피를 다시 계산)
+        RecipeRecommender incremental = recommender(3);
+        incremental.rebuildFrom(Map.of());
+        profiles.forEach((user, profile) -> profile.forEach((recipe, weight) -> incremental.apply(user, recipe, weight)));
+        profiles.forEach((user, profile) -> profile.forEach((recipe, weight) -> incremental.apply(user, recipe, weight)));
+        for (long recipe = 1; recipe <= 300; recipe++) {
+            List<RecipeRecommender.Scored> full = recommender.neighbors(recipe, 1);
+            if (full.isEmpty()) {
+                continue;
+            }
+            assertEquals(full.get(0).getScore(), incremental.neighbors(recipe, 1).get(0).getScore(), 1e-5);
+        }
+    }
+
+    private static RecipeRecommender recommender(int neighbors) {
+        RecipeRecommender recommender = new RecipeRecommender();
+        ReflectionTestUtils.setField(recommender, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(recommender, "neighborCount", neighbors);
+        ReflectionTestUtils.setField(recommender, "parallelism", 2);
+        recommender.init();
+        return recommender;
+    }
+
+    private static List<Long> ids(List<RecipeRecommender.Scored> scored) {
+        return scored.stream().map(RecipeRecommender.Scored::getRecipeId).toList();
+    }
+}
@@ -0,0 +1,96 @@
+package org.receiptrecipe.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecipeSearchIndexTests {
+
+    @Test
+    void ranksNameAboveIngredientsAndDescription() {
+        RecipeSearchIndex index = index();
+        index.index(1L, "김치찌개", "돼지고기를 넣은 찌개", List.of("김치", "돼지고기", "두부"), List.of("한식"));
+        index.index(2L, "된장찌개", "김치와 함께 먹으면 좋아요", List.of("된장", "두부"), List.of("한식"));
+        index.index(3L, "참치 볶음밥", "간단한 한 그릇", List.of("밥", "참치", "김치"), List.of("자취"));
+        index.index(4L, "과일 샐러드", "상큼한 디저트", List.of("사과", "바나나"), List.of("다이어트"));
+
+        List<Long> ids = search(index, "김치");
+        assertEquals(1L, ids.get(0));
+        assertTrue(ids.containsAll(List.of(2L, 3L)));
+        assertFalse(ids.contains(4L));
+
+        // 태그와 설명으로도 찾는다
+        assertEquals(List.of(4L), search(index, "다이어트"));
+        assertEquals(List.of(4L), search(index, "디저트"));
+    }
+
+    @Test
+    void choseongQueryMatchesNameInitials() {
+        RecipeSearchIndex index = index();
+        index.index(1L, "김치찌개", null, List.of("김치"), List.of());
+        index.index(2L, "김치전", null, List.of("김치", "부침가루"), List.of());
+        index.index(3L, "계란찜", null, List.of("계란"), List.of());
+
+        assertEquals("ㄱㅊㅉㄱ", RecipeSearchIndex.choseong("김치 찌개"));
+        assertEquals(List.of(1L), search(index, "ㄱㅊㅉㄱ"));
+        assertEquals(List.of(1L, 2L), sorted(search(index, "ㄱㅊ")));
+        assertEquals(List.of(1L), search(index, "ㅉㄱ"));
+        // 초성 순서가 이름에 그대로 있어야 한다
+        assertTrue(search(index, "ㅊㄱ").isEmpty());
+    }
+
+    @Test
+    void toleratesOneSyllableTypoAndFollowsUpdates() {
+        RecipeSearchIndex index = index();
+        index.index(1L, "김치찌개", "", List.of("김치"), List.of());
+        index.index(2L, "부대찌개", "", List.of("햄", "소시지"), List.of());
+
+        // "게" 오타여도 "김치", "치찌" 2-gram이 맞는다
+        assertEquals(1L, search(index, "김치찌게").get(0));
+
+        index.index(1L, "김치볶음밥", "", List.of("김치", "밥"), List.of());
+        assertFalse(search(index, "찌개").contains(1L));
+        assertEquals(List.of(1L), search(index, "볶음밥"));
+
+        index.remove(1L);
+        assertTrue(search(index, "김치").isEmpty());
+        assertEquals(1, index.documentCount());
+    }
+
+    @Test
+    void pagesThroughResultsInScoreOrder() {
+        RecipeSearchIndex index = index();
+        for (long id = 1; id <= 25; id++) {
+            index.index(id, "두부 요리 " + id, "", List.of("두부"), List.of());
+        }
+        Page<Long> first = index.search("두부", PageRequest.of(0, 10));
+        Page<Long> third = index.search("두부", PageRequest.of(2, 10));
+        assertEquals(25, first.getTotalElements());
+        assertEquals(10, first.getContent().size());
+        assertEquals(5, third.getContent().size());
+        assertTrue(first.getContent().stream().noneMatch(third.getContent()::contains));
+    }
+
+    private static List<Long> search(RecipeSearchIndex index, String query) {
+        return index.search(query, PageRequest.of(0, 20)).getContent();
+    }
+
+    private static List<Long> sorted(List<Long> ids) {
+        return ids.stream().sorted().toList();
+    }
+
+    private static RecipeSearchIndex index() {
+        RecipeSearchIndex index = new RecipeSearchIndex();
+        ReflectionTestUtils.setField(index, "meterRegistry", new SimpleMeterRegistry());
+        index.init();
+        return index;
+    }
+}
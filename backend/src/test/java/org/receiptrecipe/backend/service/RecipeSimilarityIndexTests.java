@@ -0,0 +1,85 @@
+package org.receiptrecipe.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecipeSimilarityIndexTests {
+
+    @Test
+    void findsRecipesWithOverlappingIngredientsAndFollowsUpdates() {
+        RecipeSimilarityIndex index = index();
+        index.index(1L, "김치찌개", List.of("김치", "돼지고기", "두부", "대파", "양파"));
+        index.index(2L, "김치찌개 (참치)", List.of("김치", "참치", "두부", "대파", "양파"));
+        index.index(3L, "된장찌개", List.of("된장", "두부", "애호박", "대파", "양파"));
+        index.index(4L, "과일 샐러드", List.of("사과", "바나나", "요거트"));
+
+        List<RecipeSimilarityIndex.Similar> similar = index.similar(1L, 10);
+        assertEquals(2L, similar.get(0).getRecipeId());
+        assertEquals("김치찌개 (참치)", similar.get(0).getRecipeName());
+        // 5개 중 4개 공통 -> 4 / 6
+        assertEquals(4.0 / 6, similar.get(0).getSimilarity(), 1e-9);
+        assertTrue(similar.stream().noneMatch(s -> s.getRecipeId() == 4L || s.getRecipeId() == 1L));
+
+        index.index(2L, "과일 요거트", List.of("사과", "바나나", "요거트", "꿀"));
+        assertEquals(4L, index.similar(2L, 10).get(0).getRecipeId());
+        index.remove(4L);
+        assertTrue(index.similar(2L, 10).isEmpty());
+        assertEquals(3, index.recipeCount());
+    }
+
+    @Test
+    void lshRecallAgainstExactJaccard() {
+        // 기본 레시피 300개와 재료 1~2개를 바꾼 변형 4개씩 (재료 500종)
+        Random random = new Random(7);
+        MinHashLsh lsh = new MinHashLsh(32, 3, 2000, 42L);
+        long id = 0;
+        for (int base = 0; base < 300; base++) {
+            int[] ingredients = new int[6 + random.nextInt(8)];
+            for (int k = 0; k < ingredients.length; k++) {
+                ingredients[k] = random.nextInt(500);
+            }
+            lsh.put(++id, ingredients);
+            for (int variant = 0; variant < 4; variant++) {
+                int[] changed = ingredients.clone();
+                for (int k = 0; k <= random.nextInt(2); k++) {
+                    changed[random.nextInt(changed.length)] = random.nextInt(500);
+                }
+                lsh.put(++id, changed);
+            }
+        }
+
+        int expected = 0;
+        int found = 0;
+        for (long query = 1; query <= id; query += 7) {
+            List<Long> approximate = lsh.similar(query, 10, 0.5).stream().map(MinHashLsh.Candidate::getId).toList();
+            for (MinHashLsh.Candidate exact : lsh.exactSimilar(query, 10, 0.5)) {
+                expected++;
+                if (approximate.contains(exact.getId())) {
+                    found++;
+                }
+            }
+        }
+        assertTrue(expected > 100);
+        assertTrue((double) found / expected >= 0.95, "recall " + found + "/" + expected);
+    }
+
+    private static RecipeSimilarityIndex index() {
+        IngredientClassifier classifier = TestIngredientClassifiers.bundled();
+        RecipeSimilarityIndex index = new RecipeSimilarityIndex();
+        ReflectionTestUtils.setField(index, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(index, "ingredientClassifier", classifier);
+        ReflectionTestUtils.setField(index, "bands", 32);
+        ReflectionTestUtils.setField(index, "rows", 3);
+        ReflectionTestUtils.setField(index, "maxCandidates", 2000);
+        ReflectionTestUtils.setField(index, "minSimilarity", 0.2);
+        index.init();
+        return index;
+    }
+}
@@ -0,0 +1,87 @@
+package org.receiptrecipe.backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.Resource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.MinIOContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Testcontainers(disabledWithoutDocker = true)
+class S3ReceiptImageStoreTests {
+
+    @Container
+    private static final MinIOContainer MINIO = new MinIOContainer("minio/minio:RELEASE.2023-09-04T19-57-37Z");
+
+    private S3ReceiptImageStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new S3ReceiptImageStore();
+        ReflectionTestUtils.setField(store, "bucket", "receipts-test");
+        ReflectionTestUtils.setField(store, "prefix", "receipts/");
+        ReflectionTestUtils.setField(store, "endpoint", MINIO.getS3URL());
+        ReflectionTestUtils.setField(store, "region", "us-east-1");
+        ReflectionTestUtils.setField(store, "pathStyle", true);
+        ReflectionTestUtils.setField(store, "accessKey", MINIO.getUserName());
+        ReflectionTestUtils.setField(store, "secretKey", MINIO.getPassword());
+        ReflectionTestUtils.setField(store, "createBucket", true);
+        store.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.shutdown();
+    }
+
+    @Test
+    void storesByContentHashAndReadsBack() throws Exception {
+        byte[] content = "이마트\n우유 1 2,800".getBytes(StandardCharsets.UTF_8);
+
+        String key = store.store(new ByteArrayInputStream(content), "receipt.TXT");
+        assertTrue(ReceiptImageStore.CONTENT_KEY.matcher(key).matches());
+        assertTrue(key.endsWith(".txt"));
+        assertTrue(store.exists(key));
+        assertArrayEquals(content, store.read(key));
+
+        // 같은 내용은 같은 키
+        assertEquals(key, store.store(new ByteArrayInputStream(content), "other.txt"));
+
+        Resource resource = store.asResource(key);
+        assertEquals(content.length, resource.contentLength());
+        try (InputStream in = resource.getInputStream()) {
+            assertArrayEquals(content, in.readAllBytes());
+        }
+
+        store.delete(key);
+        assertFalse(store.exists(key));
+        assertThrows(NoSuchFileException.class, () -> store.open(key));
+        assertThrows(NoSuchFileException.class, () -> store.asResource(key));
+    }
+
+    @Test
+    void storesNonAsciiExtensionWithoutExtensionAndPutsVariants() throws Exception {
+        byte[] content = {1, 2, 3, 4};
+        String key = store.store(new ByteArrayInputStream(content), "영수증.사진");
+        assertEquals(64, key.length());
+
+        String variantKey = ReceiptThumbnailService.variantKey(key, ReceiptThumbnailService.Size.THUMB);
+        store.put(variantKey, new byte[]{9, 9});
+        assertArrayEquals(new byte[]{9, 9}, store.read(variantKey));
+        store.delete(variantKey);
+        assertFalse(store.exists(variantKey));
+    }
+}
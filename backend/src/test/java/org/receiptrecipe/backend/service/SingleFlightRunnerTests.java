@@ -0,0 +1,28 @@
+package org.receiptrecipe.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SingleFlightRunnerTests {
+
+    @Test
+    void requestsDuringRunAreCoalescedIntoOneMoreRun() {
+        AtomicInteger runs = new AtomicInteger();
+        SingleFlightRunner[] runner = new SingleFlightRunner[1];
+        runner[0] = new SingleFlightRunner(() -> {
+            if (runs.incrementAndGet() == 1) {
+                // 실행 중에 들어온 요청 (예: 시작 직후 생성 중에 야간 재구축) - 겹쳐 돌지 않고 바로 돌아감
+                runner[0].run();
+                runner[0].run();
+                assertEquals(1, runs.get());
+            }
+        });
+
+        runner[0].run();
+
+        assertEquals(2, runs.get());
+    }
+}
@@ -0,0 +1,29 @@
+package org.receiptrecipe.backend.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * 테스트용 IngredientClassifier (스프링 없이 필드를 채우고 init)
+ */
+final class TestIngredientClassifiers {
+
+    private TestIngredientClassifiers() {
+    }
+
+    // 클래스패스 기본 사전
+    static IngredientClassifier bundled() {
+        return create("", new SimpleMeterRegistry());
+    }
+
+    // path가 비어 있으면 기본 사전, 아니면 그 파일 (다시 읽기는 reloadIfChanged를 직접 불러서)
+    static IngredientClassifier create(String path, MeterRegistry meterRegistry) {
+        IngredientClassifier classifier = new IngredientClassifier();
+        ReflectionTestUtils.setField(classifier, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(classifier, "dictionaryPath", path);
+        ReflectionTestUtils.setField(classifier, "reloadCheckSeconds", 3600L);
+        classifier.init();
+        return classifier;
+    }
+}
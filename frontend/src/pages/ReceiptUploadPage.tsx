@@ -63,6 +63,12 @@ const ReceiptUploadPage: React.FC = () => {
       console.log('영수증 업로드 시작:', file);
       const response = await receiptApi.uploadReceipt(file);
       console.log('영수증 업로드 응답:', response);
+
+      // 비동기 처리 작업 완료 대기
+      const job = await receiptApi.waitForUploadJob(response.jobId);
+      if (job.status !== 'COMPLETED' || job.receiptId == null) {
+        throw new Error(job.error || '영수증 처리에 실패했습니다.');
+      }
       
       clearInterval(progressInterval);
       setUploadState(prev => ({ ...prev, progress: 100 }));
@@ -72,7 +78,7 @@ const ReceiptUploadPage: React.FC = () => {
       // OCR 처리
       setProcessing(true);
       try {
-        const ocrResponse = await ocrApi.processWithGemini(response.receiptId.toString());
+        const ocrResponse = await ocrApi.processWithGemini(job.receiptId.toString());
         setOcrResult(ocrResponse);
         message.success('영수증 분석이 완료되었습니다!');
       } catch (ocrError) {
@@ -1,8 +1,11 @@
 import axios, { AxiosResponse } from 'axios';
 import {
   Receipt,
+  ReceiptSummary,
+  CursorResponse,
   Recipe,
   UploadResponse,
+  ReceiptJob,
   OcrResult,
   ReceiptSearchParams,
   RecipeSearchParams,
@@ -77,8 +80,40 @@ export const receiptApi = {
     return res.data;
   },
 
-  getReceipts: async (params: ReceiptSearchParams = {}): Promise<PaginatedResponse<Receipt>> => {
-    const res: AxiosResponse<PaginatedResponse<Receipt>> = await api.get('/receipts', { params });
+  // <img src>에 바로 쓸 수 있는 영수증 이미지 주소 (브라우저가 ETag로 캐시)
+  // size 생략 시 원본, 목록에는 'thumb', 상세에는 'medium'
+  getReceiptImageUrl: (receiptId: number, size?: 'thumb' | 'medium'): string =>
+    `${API_BASE_URL}/receipts/${receiptId}/image${size ? `?size=${size}` : ''}`,
+
+  getUploadJob: async (jobId: string): Promise<ReceiptJob> => {
+    const res: AxiosResponse<ReceiptJob> = await api.get(`/receipts/jobs/${jobId}`);
+    return res.data;
+  },
+
+  // 업로드 작업이 끝날 때까지 상태를 폴링
+  waitForUploadJob: async (jobId: string, intervalMs: number = 1000, timeoutMs: number = 120_000): Promise<ReceiptJob> => {
+    const deadline = Date.now() + timeoutMs;
+    for (;;) {
+      const job = await receiptApi.getUploadJob(jobId);
+      if (job.status === 'COMPLETED' || job.status === 'FAILED') {
+        return job;
+      }
+      if (Date.now() > deadline) {
+        throw new Error('영수증 처리 시간이 초과되었습니다.');
+      }
+      await new Promise((resolve) => setTimeout(resolve, intervalMs));
+    }
+  },
+
+  getReceipts: async (params: ReceiptSearchParams = {}): Promise<PaginatedResponse<ReceiptSummary>> => {
+    const res: AxiosResponse<PaginatedResponse<ReceiptSummary>> = await api.get('/receipts', { params });
+    return res.data;
+  },
+
+  getReceiptsByCursor: async (cursor?: string | null, size = 20): Promise<CursorResponse<ReceiptSummary>> => {
+    const res: AxiosResponse<CursorResponse<ReceiptSummary>> = await api.get('/receipts/cursor', {
+      params: { cursor: cursor || undefined, size },
+    });
     return res.data;
   },
 
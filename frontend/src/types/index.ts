@@ -12,6 +12,18 @@ export interface Receipt {
   updatedAt: string;
 }
 
+// 목록 조회용 요약 (OCR 원문/상품 목록은 상세 조회에서만 제공)
+export interface ReceiptSummary {
+  id: number;
+  storeName: string;
+  purchaseDate: string;
+  totalAmount: number;
+  imageUrl?: string;
+  createdAt: string;
+  itemCount: number;
+  ingredientCount: number;
+}
+
 export interface ReceiptItem {
   id: number;
   itemName: string;
@@ -64,13 +76,36 @@ export interface PaginatedResponse<T> {
   number: number;
 }
 
+// 커서 페이지네이션 응답 (nextCursor를 다음 요청의 cursor로 전달)
+export interface CursorResponse<T> {
+  content: T[];
+  nextCursor: string | null;
+  hasNext: boolean;
+  size: number;
+}
+
 // Upload related types
 export interface UploadResponse {
-  receiptId: number;
+  jobId: string;
+  status: ReceiptJobStatus;
+  statusUrl: string;
   message: string;
   success: boolean;
 }
 
+export type ReceiptJobStatus = 'QUEUED' | 'OCR' | 'PARSING' | 'PERSISTING' | 'COMPLETED' | 'FAILED';
+
+export interface ReceiptJob {
+  id: string;
+  userId: number;
+  fileName: string;
+  status: ReceiptJobStatus;
+  receiptId?: number;
+  error?: string;
+  createdAt: string;
+  updatedAt: string;
+}
+
 export interface OcrResult {
   rawText: string;
   processedData: {